@@ -0,0 +1,59 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import io.github.astrapi69.entity.identifiable.SequenceBaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * The entity class {@link BenchmarkAttributeEntity} is the key value entity of the
+ * {@link KeyValueOwnersBenchmark} with the composite index on the owner and the key column
+ */
+@Entity
+@Table(name = BenchmarkAttributeEntity.TABLE_NAME, indexes = @Index(
+	name = BenchmarkAttributeEntity.INDEX_NAME,
+	columnList = KeyValueOwnerEntity.OWNER_KEY_INDEX_COLUMNS, unique = true))
+@SequenceGenerator(name = SequenceBaseEntity.SEQUENCE_GENERIC_GENERATOR_NAME,
+	sequenceName = BenchmarkAttributeEntity.SEQUENCE_NAME, allocationSize = 1000)
+public class BenchmarkAttributeEntity extends KeyValueOwnerEntity<Long, Long, String, String>
+{
+
+	/** The name of the table */
+	public static final String TABLE_NAME = "benchmark_attributes";
+
+	/** The name of the composite index on the owner and the key column */
+	public static final String INDEX_NAME = KeyValueOwnerEntity.OWNER_KEY_INDEX_PREFIX + TABLE_NAME
+		+ KeyValueOwnerEntity.OWNER_KEY_INDEX_SUFFIX;
+
+	/** The name of the sequence of the ids */
+	public static final String SEQUENCE_NAME = "benchmark_attributes_seq";
+
+	/** The serial Version UID */
+	private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,213 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+/**
+ * The benchmark class {@link KeyValueOwnersBenchmark} compares the loading of the keys and the
+ * values of a page of owners with one projection query for the whole page by
+ * {@link KeyValueOwners#findByOwners(EntityManager, Class, java.util.Collection)}, with one
+ * projection query for each owner by
+ * {@link KeyValueOwners#findByOwner(EntityManager, Class, Object)} and with one entity query for
+ * each owner, the former way of loading. Each invocation loads the next page of owners, so the
+ * pages rotate through all owners of the table.
+ *
+ * The database is an in-memory H2 database, another database can be given with the system
+ * properties benchmark.jdbc.url, benchmark.jdbc.user and benchmark.jdbc.password. The difference
+ * of the strategies grows with the round trip time of the database, so the results of a remote
+ * database show the effect of the bulk loading best
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class KeyValueOwnersBenchmark
+{
+
+	/** The count of owners in the table */
+	private static final int OWNERS = 10_000;
+
+	/** The count of persisted entities after which the persistence context is flushed and cleared */
+	private static final int FLUSH_SIZE = 1000;
+
+	/** The name of the persistence unit in the persistence.xml of the benchmarks */
+	private static final String PERSISTENCE_UNIT = "benchmark";
+
+	/** The count of owners of one page */
+	@Param({ "50", "500" })
+	public int pageSize;
+
+	/** The count of keys of each owner */
+	@Param({ "20" })
+	public int keysPerOwner;
+
+	private EntityManagerFactory entityManagerFactory;
+
+	private EntityManager entityManager;
+
+	private List<List<Long>> pages;
+
+	private int nextPage;
+
+	/**
+	 * Creates the table and persists the key values of all owners
+	 */
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		Map<String, String> properties = new HashMap<>();
+		properties.put("jakarta.persistence.jdbc.url", System.getProperty("benchmark.jdbc.url",
+			"jdbc:h2:mem:key_value_owners;NON_KEYWORDS=KEY,VALUE"));
+		properties.put("jakarta.persistence.jdbc.user",
+			System.getProperty("benchmark.jdbc.user", "sa"));
+		properties.put("jakarta.persistence.jdbc.password",
+			System.getProperty("benchmark.jdbc.password", ""));
+		entityManagerFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT,
+			properties);
+		entityManager = entityManagerFactory.createEntityManager();
+		entityManager.getTransaction().begin();
+		int count = 0;
+		for (long owner = 0; owner < OWNERS; owner++)
+		{
+			for (int key = 0; key < keysPerOwner; key++)
+			{
+				BenchmarkAttributeEntity entity = new BenchmarkAttributeEntity();
+				entity.setOwner(owner);
+				entity.setKey("key" + key);
+				entity.setValue("value" + owner + "_" + key);
+				entityManager.persist(entity);
+				if (++count % FLUSH_SIZE == 0)
+				{
+					entityManager.flush();
+					entityManager.clear();
+				}
+			}
+		}
+		entityManager.getTransaction().commit();
+		entityManager.clear();
+		pages = new ArrayList<>();
+		for (long from = 0; from < OWNERS; from += pageSize)
+		{
+			List<Long> page = new ArrayList<>();
+			for (long owner = from; owner < Math.min(from + pageSize, OWNERS); owner++)
+			{
+				page.add(owner);
+			}
+			pages.add(page);
+		}
+	}
+
+	/**
+	 * Closes the entity manager and the entity manager factory, which drops the in-memory database
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		entityManager.close();
+		entityManagerFactory.close();
+	}
+
+	private List<Long> nextPage()
+	{
+		List<Long> page = pages.get(nextPage);
+		nextPage = (nextPage + 1) % pages.size();
+		return page;
+	}
+
+	/**
+	 * Loads the key values of the next page of owners with one projection query
+	 *
+	 * @return the key values by the owner
+	 */
+	@Benchmark
+	public Map<Long, Map<String, String>> bulk()
+	{
+		return KeyValueOwners.findByOwners(entityManager, BenchmarkAttributeEntity.class,
+			nextPage());
+	}
+
+	/**
+	 * Loads the key values of the next page of owners with one projection query for each owner
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the key values of each owner
+	 */
+	@Benchmark
+	public void perOwner(Blackhole blackhole)
+	{
+		for (Long owner : nextPage())
+		{
+			blackhole.consume(
+				KeyValueOwners.findByOwner(entityManager, BenchmarkAttributeEntity.class, owner));
+		}
+	}
+
+	/**
+	 * Loads the entities of the next page of owners with one entity query for each owner, the
+	 * loaded entities are detached afterwards so the persistence context does not grow
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the entities of each owner
+	 */
+	@Benchmark
+	public void perOwnerEntities(Blackhole blackhole)
+	{
+		for (Long owner : nextPage())
+		{
+			blackhole.consume(entityManager
+				.createQuery("SELECT e FROM BenchmarkAttributeEntity e WHERE e.owner = :owner",
+					BenchmarkAttributeEntity.class)
+				.setParameter("owner", owner).getResultList());
+		}
+		entityManager.clear();
+	}
+
+}
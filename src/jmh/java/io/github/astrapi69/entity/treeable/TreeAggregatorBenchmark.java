@@ -0,0 +1,151 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark class {@link TreeAggregatorBenchmark} measures the aggregation of a tree with the
+ * {@link TreeAggregator} in fork join pools with 1, 4 and 16 threads. The tree entities have eight
+ * children each, the aggregation sums the values and computes the maximum depth of all tree
+ * entities. The speedup is limited by the count of cores of the machine, so the count of
+ * available processors should be noted with the results
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TreeAggregatorBenchmark
+{
+
+	/** The count of children of each tree entity */
+	private static final int FAN_OUT = 8;
+
+	/** The count of threads of the fork join pool */
+	@Param({ "1", "4", "16" })
+	public int threads;
+
+	/** The count of tree entities */
+	@Param({ "100000", "1000000" })
+	public int size;
+
+	private ForkJoinPool pool;
+
+	private Node root;
+
+	private TreeAggregator<Node, Long> summing;
+
+	private TreeAggregator<Node, Integer> maxDepth;
+
+	/**
+	 * Builds the tree and the fork join pool
+	 */
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		List<Node> nodes = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			Node node = new Node();
+			node.setValue((long)i);
+			if (i != 0)
+			{
+				Node parent = nodes.get((i - 1) / FAN_OUT);
+				node.setParent(parent);
+				node.setDepth(parent.getDepth() + 1);
+				parent.setNode(true);
+				parent.addChild(node);
+			}
+			nodes.add(node);
+		}
+		root = nodes.get(0);
+		pool = new ForkJoinPool(threads);
+		summing = new TreeAggregator<>(Node::getValue, Long::sum, 0L, pool,
+			TreeAggregator.DEFAULT_MAX_FORK_DEPTH);
+		maxDepth = new TreeAggregator<>(Node::getDepth, Math::max, Integer.MIN_VALUE, pool,
+			TreeAggregator.DEFAULT_MAX_FORK_DEPTH);
+	}
+
+	/**
+	 * Shuts the fork join pool down
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		pool.shutdown();
+	}
+
+	/**
+	 * Sums the values of all tree entities
+	 *
+	 * @return the sum
+	 */
+	@Benchmark
+	public long sum()
+	{
+		return summing.aggregate(root);
+	}
+
+	/**
+	 * Computes the maximum depth of all tree entities
+	 *
+	 * @return the maximum depth
+	 */
+	@Benchmark
+	public int maxDepth()
+	{
+		return maxDepth.aggregate(root);
+	}
+
+	/**
+	 * The tree entity of the benchmark
+	 */
+	public static class Node extends TreeWithChildrenUUIDEntity<Long, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
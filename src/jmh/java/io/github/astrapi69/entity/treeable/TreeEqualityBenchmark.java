@@ -0,0 +1,294 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.astrapi69.entity.uniqueable.UUIDv7Generator;
+
+/**
+ * The benchmark class {@link TreeEqualityBenchmark} compares the id based equality and the cached
+ * id hash code of the tree entities with the former equality and hash code over the id, the depth,
+ * the node flag, the value and the parent, that visited all ancestors of a tree entity. The trees
+ * are deep, a chain of tree entities, or wide, one root with all other tree entities as children.
+ * Each benchmark computes the hash code of all tree entities, compares all tree entities with a
+ * loaded copy, a tree entity with the same id and values, or inserts all tree entities into a
+ * {@link HashSet} and looks up all loaded copies in it, which shows the spread of the hash codes
+ * over the buckets as well.
+ *
+ * The former equality and hash code are computed iteratively with the same count of visited tree
+ * entities, the generated recursive methods overflowed the stack for deep trees. The former
+ * equality and hash code of the tree entities with children visited the children as well and did
+ * not terminate for a tree entity with a parent, so they are not part of the comparison
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TreeEqualityBenchmark
+{
+
+	/** The shape of the trees, deep for a chain and wide for one root with all children */
+	@Param({ "deep", "wide" })
+	public String shape;
+
+	/** The count of tree entities */
+	@Param({ "1000", "10000" })
+	public int size;
+
+	private List<Node> nodes;
+
+	private List<Node> copies;
+
+	private static List<Node> tree(String shape, int size, List<Node> ids)
+	{
+		List<Node> nodes = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			Node parent = i == 0 ? null : nodes.get("deep".equals(shape) ? i - 1 : 0);
+			Node node = new Node();
+			node.setId(ids == null ? UUIDv7Generator.next() : ids.get(i).getId());
+			node.setValue("value" + i);
+			node.setParent(parent);
+			if (parent != null)
+			{
+				node.setDepth(parent.getDepth() + 1);
+				parent.setNode(true);
+			}
+			nodes.add(node);
+		}
+		return nodes;
+	}
+
+	private static int formerHashCode(Node node)
+	{
+		int result = 1;
+		for (Node current = node; current != null; current = current.getParent())
+		{
+			result = result * 59 + Objects.hashCode(current.getId());
+			result = result * 59 + current.getDepth();
+			result = result * 59 + (current.isNode() ? 79 : 97);
+			result = result * 59 + Objects.hashCode(current.getValue());
+		}
+		return result;
+	}
+
+	private static boolean formerEquals(Node node, Node other)
+	{
+		Node current = node;
+		Node currentOther = other;
+		while (current != null && currentOther != null)
+		{
+			if (current != currentOther && !(Objects.equals(current.getId(), currentOther.getId())
+				&& current.getDepth() == currentOther.getDepth()
+				&& current.isNode() == currentOther.isNode()
+				&& Objects.equals(current.getValue(), currentOther.getValue())))
+			{
+				return false;
+			}
+			current = current.getParent();
+			currentOther = currentOther.getParent();
+		}
+		return current == currentOther;
+	}
+
+	/**
+	 * Builds the tree and the loaded copy of it
+	 */
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		nodes = tree(shape, size, null);
+		copies = tree(shape, size, nodes);
+	}
+
+	/**
+	 * Computes the hash codes of all tree entities
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the hash codes
+	 */
+	@Benchmark
+	public void entityHashCode(Blackhole blackhole)
+	{
+		for (Node node : nodes)
+		{
+			blackhole.consume(node.hashCode());
+		}
+	}
+
+	/**
+	 * Computes the former hash codes of all tree entities
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the hash codes
+	 */
+	@Benchmark
+	public void formerHashCode(Blackhole blackhole)
+	{
+		for (Node node : nodes)
+		{
+			blackhole.consume(formerHashCode(node));
+		}
+	}
+
+	/**
+	 * Compares all tree entities with their loaded copies
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the results
+	 */
+	@Benchmark
+	public void entityEquals(Blackhole blackhole)
+	{
+		for (int i = 0; i < size; i++)
+		{
+			blackhole.consume(nodes.get(i).equals(copies.get(i)));
+		}
+	}
+
+	/**
+	 * Compares all tree entities with their loaded copies with the former equality
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the results
+	 */
+	@Benchmark
+	public void formerEquals(Blackhole blackhole)
+	{
+		for (int i = 0; i < size; i++)
+		{
+			blackhole.consume(formerEquals(nodes.get(i), copies.get(i)));
+		}
+	}
+
+	/**
+	 * Inserts all tree entities into a hash set and looks up all loaded copies in it
+	 *
+	 * @return the count of found copies
+	 */
+	@Benchmark
+	public int entityHashSet()
+	{
+		Set<Node> set = new HashSet<>();
+		for (Node node : nodes)
+		{
+			set.add(node);
+		}
+		int found = 0;
+		for (Node copy : copies)
+		{
+			if (set.contains(copy))
+			{
+				found++;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Inserts all tree entities into a hash set and looks up all loaded copies in it with the
+	 * former equality and hash code
+	 *
+	 * @return the count of found copies
+	 */
+	@Benchmark
+	public int formerHashSet()
+	{
+		Set<FormerKey> set = new HashSet<>();
+		for (Node node : nodes)
+		{
+			set.add(new FormerKey(node));
+		}
+		int found = 0;
+		for (Node copy : copies)
+		{
+			if (set.contains(new FormerKey(copy)))
+			{
+				found++;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * The key of a tree entity in a hash set with the former equality and hash code
+	 */
+	private static final class FormerKey
+	{
+
+		private final Node node;
+
+		private FormerKey(Node node)
+		{
+			this.node = node;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			return o instanceof FormerKey other && formerEquals(node, other.node);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return formerHashCode(node);
+		}
+
+	}
+
+	/**
+	 * The tree entity of the benchmark
+	 */
+	public static class Node extends TreeUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
@@ -0,0 +1,228 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The benchmark class {@link UUIDCodecBenchmark} compares the conversions of the {@link UUIDCodec}
+ * with the conversions of the jdk, {@link UUID#toString()} and {@link UUID#fromString(String)} for
+ * the text form and a {@link ByteBuffer} for the binary form. The allocation-free
+ * variants append to a reused {@link StringBuilder} and write into a reused byte array. Each
+ * invocation converts a batch of different uuids, so the results are not distorted by a constant
+ * input. The allocation rates are shown with the gc profiler, that is attached with
+ * -PjmhProfilers=gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UUIDCodecBenchmark
+{
+
+	/** The count of uuids of one invocation */
+	private static final int BATCH_SIZE = 1024;
+
+	private final UUID[] uuids = new UUID[BATCH_SIZE];
+
+	private final String[] texts = new String[BATCH_SIZE];
+
+	private final byte[][] binaries = new byte[BATCH_SIZE][];
+
+	private final StringBuilder sb = new StringBuilder(UUIDCodec.TEXT_LENGTH);
+
+	private final byte[] bytes = new byte[UUIDCodec.BYTES];
+
+	/**
+	 * Creates the random uuids and their text and binary forms
+	 */
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < BATCH_SIZE; i++)
+		{
+			uuids[i] = new UUID(random.nextLong(), random.nextLong());
+			texts[i] = uuids[i].toString();
+			binaries[i] = UUIDCodec.toBytes(uuids[i]);
+		}
+	}
+
+	/**
+	 * Converts the uuids to text with {@link UUID#toString()}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the texts
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void jdkToString(Blackhole blackhole)
+	{
+		for (UUID uuid : uuids)
+		{
+			blackhole.consume(uuid.toString());
+		}
+	}
+
+	/**
+	 * Appends the uuids to a reused string builder with
+	 * {@link UUIDCodec#appendTo(UUID, StringBuilder)}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the lengths
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void codecAppendTo(Blackhole blackhole)
+	{
+		for (UUID uuid : uuids)
+		{
+			sb.setLength(0);
+			blackhole.consume(UUIDCodec.appendTo(uuid, sb).length());
+		}
+	}
+
+	/**
+	 * Parses the texts with {@link UUID#fromString(String)}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the uuids
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void jdkFromString(Blackhole blackhole)
+	{
+		for (String text : texts)
+		{
+			blackhole.consume(UUID.fromString(text));
+		}
+	}
+
+	/**
+	 * Parses the texts with {@link UUIDCodec#parse(CharSequence)}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the uuids
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void codecParse(Blackhole blackhole)
+	{
+		for (String text : texts)
+		{
+			blackhole.consume(UUIDCodec.parse(text));
+		}
+	}
+
+	/**
+	 * Writes the uuids into a reused byte array with a {@link ByteBuffer}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the byte arrays
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void byteBufferToBytes(Blackhole blackhole)
+	{
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		for (UUID uuid : uuids)
+		{
+			buffer.clear();
+			buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+			blackhole.consume(bytes);
+		}
+	}
+
+	/**
+	 * Writes the uuids into a reused byte array with
+	 * {@link UUIDCodec#writeBytes(UUID, byte[], int)}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the byte arrays
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void codecWriteBytes(Blackhole blackhole)
+	{
+		for (UUID uuid : uuids)
+		{
+			UUIDCodec.writeBytes(uuid, bytes, 0);
+			blackhole.consume(bytes);
+		}
+	}
+
+	/**
+	 * Reads the uuids from their binary forms with a {@link ByteBuffer}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the uuids
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void byteBufferFromBytes(Blackhole blackhole)
+	{
+		for (byte[] binary : binaries)
+		{
+			ByteBuffer buffer = ByteBuffer.wrap(binary);
+			blackhole.consume(new UUID(buffer.getLong(), buffer.getLong()));
+		}
+	}
+
+	/**
+	 * Reads the uuids from their binary forms with {@link UUIDCodec#fromBytes(byte[], int)}
+	 *
+	 * @param blackhole
+	 *            the blackhole that consumes the uuids
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void codecFromBytes(Blackhole blackhole)
+	{
+		for (byte[] binary : binaries)
+		{
+			blackhole.consume(UUIDCodec.fromBytes(binary, 0));
+		}
+	}
+
+}
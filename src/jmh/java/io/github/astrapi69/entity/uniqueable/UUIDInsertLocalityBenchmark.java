@@ -0,0 +1,173 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark class {@link UUIDInsertLocalityBenchmark} compares the inserts into a table with
+ * an uuid primary key for random uuids of version 4, the strategy of {@link UUIDEntity}, and for
+ * time-ordered uuids of version 7 from the {@link UUIDv7Generator}, the strategy of
+ * {@link TimeOrderedUUIDEntity}. The table is filled with the given count of rows before the
+ * measurement, so the random uuids are inserted into pages all over the primary key index while
+ * the time-ordered uuids are appended at its end.
+ *
+ * The random uuids are drawn from {@link ThreadLocalRandom} like the random bits of the
+ * time-ordered uuids and not from the secure random generator of {@link UUID#randomUUID()}, so
+ * the result shows the cost of the inserts and not the cost of the generation. The database is an
+ * in-memory H2 database, another database can be given with the system properties
+ * benchmark.jdbc.url, benchmark.jdbc.user and benchmark.jdbc.password
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UUIDInsertLocalityBenchmark
+{
+
+	/** The count of rows of one batch insert */
+	private static final int BATCH_SIZE = 1000;
+
+	/** The payload of a row, so a page of the table holds a realistic count of rows */
+	private static final String PAYLOAD = "x".repeat(64);
+
+	/** The version of the uuids, v4 for random and v7 for time-ordered uuids */
+	@Param({ "v4", "v7" })
+	public String version;
+
+	/** The count of rows in the table before the measurement */
+	@Param({ "100000", "1000000" })
+	public int prefilledRows;
+
+	private Connection connection;
+
+	private PreparedStatement insert;
+
+	private Supplier<UUID> generator;
+
+	private static UUID randomUUID()
+	{
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+		long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		return new UUID(mostSigBits, leastSigBits);
+	}
+
+	/**
+	 * Creates and fills the table
+	 *
+	 * @throws SQLException
+	 *             if a database access error occurs
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException
+	{
+		generator = "v7".equals(version)
+			? UUIDv7Generator::next
+			: UUIDInsertLocalityBenchmark::randomUUID;
+		connection = DriverManager.getConnection(
+			System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:uuid_insert_locality"),
+			System.getProperty("benchmark.jdbc.user", "sa"),
+			System.getProperty("benchmark.jdbc.password", ""));
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement())
+		{
+			statement.execute("DROP TABLE IF EXISTS uuid_insert_locality");
+			statement.execute(
+				"CREATE TABLE uuid_insert_locality (id UUID PRIMARY KEY, payload VARCHAR(64))");
+		}
+		connection.commit();
+		insert = connection
+			.prepareStatement("INSERT INTO uuid_insert_locality (id, payload) VALUES (?, ?)");
+		for (int count = 0; count < prefilledRows; count += BATCH_SIZE)
+		{
+			insertBatch();
+		}
+	}
+
+	/**
+	 * Drops the table and closes the connection
+	 *
+	 * @throws SQLException
+	 *             if a database access error occurs
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException
+	{
+		insert.close();
+		try (Statement statement = connection.createStatement())
+		{
+			statement.execute("DROP TABLE uuid_insert_locality");
+		}
+		connection.commit();
+		connection.close();
+	}
+
+	/**
+	 * Inserts one batch of rows with new uuids and commits it
+	 *
+	 * @throws SQLException
+	 *             if a database access error occurs
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void insertBatch() throws SQLException
+	{
+		for (int i = 0; i < BATCH_SIZE; i++)
+		{
+			insert.setObject(1, generator.get());
+			insert.setString(2, PAYLOAD);
+			insert.addBatch();
+		}
+		insert.executeBatch();
+		connection.commit();
+	}
+
+}
@@ -0,0 +1,92 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.codec;
+
+/**
+ * The interface {@link ValueCodec} encodes values of a type to a compact binary form and decodes
+ * them back. Codecs of composite values are built from the codecs of their parts, see
+ * {@link ValueCodecs}
+ *
+ * @param <T>
+ *            the generic type of the value
+ */
+public interface ValueCodec<T>
+{
+
+	/**
+	 * Writes the given value to the given writer
+	 *
+	 * @param value
+	 *            the value
+	 * @param writer
+	 *            the writer
+	 */
+	void write(T value, ValueWriter writer);
+
+	/**
+	 * Reads a value from the given reader
+	 *
+	 * @param reader
+	 *            the reader
+	 * @return the value
+	 */
+	T read(ValueReader reader);
+
+	/**
+	 * Encodes the given value to a new byte array
+	 *
+	 * @param value
+	 *            the value
+	 * @return the encoded bytes
+	 */
+	default byte[] encode(T value)
+	{
+		ValueWriter writer = new ValueWriter();
+		write(value, writer);
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Decodes a value from the given bytes. All given bytes have to be consumed by the value
+	 *
+	 * @param bytes
+	 *            the encoded bytes
+	 * @return the value
+	 * @throws IllegalArgumentException
+	 *             if the given bytes are malformed
+	 */
+	default T decode(byte[] bytes)
+	{
+		ValueReader reader = new ValueReader(bytes);
+		T value = read(reader);
+		if (reader.remaining() != 0)
+		{
+			throw new IllegalArgumentException(
+				reader.remaining() + " trailing bytes after the decoded value");
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.codec;
+
+import java.util.Objects;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * The abstract converter class {@link ValueCodecConverter} stores an attribute in the binary form
+ * of a {@link ValueCodec} in a byte column instead of a text column, so numeric and structured
+ * values are neither formatted nor parsed. Concrete converters provide the codec with the
+ * constructor, see for instance {@link LongValueConverter}.
+ *
+ * The value attribute of an entity class that extends a tree entity can be stored in binary form
+ * with the following annotations on the entity class:
+ *
+ * <pre>
+ * &#64;AttributeOverride(name = "value", column = &#64;Column(name = "value",
+ * 	length = ValueCodecConverter.COLUMN_LENGTH))
+ * &#64;Convert(attributeName = "value", converter = LongValueConverter.class)
+ * </pre>
+ *
+ * The persistence provider maps the byte array with the length to the binary type of the database,
+ * for instance varbinary with H2 and MySQL and bytea with PostgreSQL. Values with a longer encoded
+ * form need a larger length or a {@link jakarta.persistence.Lob} column
+ *
+ * @param <T>
+ *            the generic type of the attribute
+ */
+public abstract class ValueCodecConverter<T> implements AttributeConverter<T, byte[]>
+{
+
+	/** The length in bytes of a binary value column, enough for numbers and small structures */
+	public static final int COLUMN_LENGTH = 4096;
+
+	/** The codec of the attribute */
+	private final ValueCodec<T> codec;
+
+	/**
+	 * Instantiates a new {@link ValueCodecConverter}
+	 *
+	 * @param codec
+	 *            the codec of the attribute
+	 */
+	protected ValueCodecConverter(ValueCodec<T> codec)
+	{
+		this.codec = Objects.requireNonNull(codec);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] convertToDatabaseColumn(T attribute)
+	{
+		return attribute == null ? null : codec.encode(attribute);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public T convertToEntityAttribute(byte[] dbData)
+	{
+		return dbData == null ? null : codec.decode(dbData);
+	}
+
+}
@@ -0,0 +1,266 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.codec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The class {@link ValueCodecs} provides the codecs of the primitive wrapper types, strings, byte
+ * arrays and uuids, and factory methods for the codecs of composite values. Integral values are
+ * encoded zigzag in the variable length form, floating point values in the fixed width form.
+ * Elements of composite values are encoded with the count or the length as prefix
+ */
+public final class ValueCodecs
+{
+
+	/** The codec of booleans with one byte */
+	public static final ValueCodec<Boolean> BOOLEAN = of((value, writer) -> writer
+		.writeByte(value ? 1 : 0), reader -> reader.readByte() != 0);
+
+	/** The codec of ints in the zigzag variable length form */
+	public static final ValueCodec<Integer> INTEGER = of(
+		(value, writer) -> writer.writeSignedVarInt(value), ValueReader::readSignedVarInt);
+
+	/** The codec of longs in the zigzag variable length form */
+	public static final ValueCodec<Long> LONG = of(
+		(value, writer) -> writer.writeSignedVarLong(value), ValueReader::readSignedVarLong);
+
+	/** The codec of ints in the fixed width form of four bytes */
+	public static final ValueCodec<Integer> FIXED_INTEGER = of(
+		(value, writer) -> writer.writeFixedInt(value), ValueReader::readFixedInt);
+
+	/** The codec of longs in the fixed width form of eight bytes */
+	public static final ValueCodec<Long> FIXED_LONG = of(
+		(value, writer) -> writer.writeFixedLong(value), ValueReader::readFixedLong);
+
+	/** The codec of floats in the fixed width form of four bytes */
+	public static final ValueCodec<Float> FLOAT = of((value, writer) -> writer.writeFloat(value),
+		ValueReader::readFloat);
+
+	/** The codec of doubles in the fixed width form of eight bytes */
+	public static final ValueCodec<Double> DOUBLE = of((value, writer) -> writer.writeDouble(value),
+		ValueReader::readDouble);
+
+	/** The codec of utf-8 strings with the length as prefix */
+	public static final ValueCodec<String> STRING = of((value, writer) -> writer.writeString(value),
+		ValueReader::readString);
+
+	/** The codec of byte arrays with the length as prefix */
+	public static final ValueCodec<byte[]> BYTES = of((value, writer) -> writer.writeBytes(value),
+		ValueReader::readBytes);
+
+	/** The codec of uuids in the fixed width form of 16 bytes */
+	public static final ValueCodec<UUID> UUID_CODEC = of(
+		(value, writer) -> writer.writeFixedLong(value.getMostSignificantBits())
+			.writeFixedLong(value.getLeastSignificantBits()),
+		reader -> new UUID(reader.readFixedLong(), reader.readFixedLong()));
+
+	private ValueCodecs()
+	{
+	}
+
+	/**
+	 * Factory method for a {@link ValueCodec} from the given functions
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 * @param encoder
+	 *            the function that writes a value
+	 * @param decoder
+	 *            the function that reads a value
+	 * @return the new {@link ValueCodec}
+	 */
+	public static <T> ValueCodec<T> of(Encoder<T> encoder, Decoder<T> decoder)
+	{
+		Objects.requireNonNull(encoder);
+		Objects.requireNonNull(decoder);
+		return new ValueCodec<>()
+		{
+			@Override
+			public void write(T value, ValueWriter writer)
+			{
+				encoder.write(value, writer);
+			}
+
+			@Override
+			public T read(ValueReader reader)
+			{
+				return decoder.read(reader);
+			}
+		};
+	}
+
+	/**
+	 * Factory method for a {@link ValueCodec} that allows null values with a leading presence byte
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 * @param codec
+	 *            the codec of the non null values
+	 * @return the new {@link ValueCodec}
+	 */
+	public static <T> ValueCodec<T> nullable(ValueCodec<T> codec)
+	{
+		return of((value, writer) -> {
+			writer.writeByte(value == null ? 0 : 1);
+			if (value != null)
+			{
+				codec.write(value, writer);
+			}
+		}, reader -> reader.readByte() == 0 ? null : codec.read(reader));
+	}
+
+	/**
+	 * Factory method for a {@link ValueCodec} of lists with the count of elements as prefix
+	 *
+	 * @param <E>
+	 *            the generic type of the elements
+	 * @param elementCodec
+	 *            the codec of the elements
+	 * @return the new {@link ValueCodec}
+	 */
+	public static <E> ValueCodec<List<E>> listOf(ValueCodec<E> elementCodec)
+	{
+		return of((value, writer) -> {
+			writer.writeVarInt(value.size());
+			for (E element : value)
+			{
+				elementCodec.write(element, writer);
+			}
+		}, reader -> {
+			int count = reader.readLength();
+			List<E> value = new ArrayList<>(count);
+			for (int i = 0; i < count; i++)
+			{
+				value.add(elementCodec.read(reader));
+			}
+			return value;
+		});
+	}
+
+	/**
+	 * Factory method for a {@link ValueCodec} of maps with the count of entries as prefix. The
+	 * decoded maps keep the order of the entries
+	 *
+	 * @param <K>
+	 *            the generic type of the keys
+	 * @param <V>
+	 *            the generic type of the values
+	 * @param keyCodec
+	 *            the codec of the keys
+	 * @param valueCodec
+	 *            the codec of the values
+	 * @return the new {@link ValueCodec}
+	 */
+	public static <K, V> ValueCodec<Map<K, V>> mapOf(ValueCodec<K> keyCodec,
+		ValueCodec<V> valueCodec)
+	{
+		return of((value, writer) -> {
+			writer.writeVarInt(value.size());
+			for (Map.Entry<K, V> entry : value.entrySet())
+			{
+				keyCodec.write(entry.getKey(), writer);
+				valueCodec.write(entry.getValue(), writer);
+			}
+		}, reader -> {
+			int count = reader.readLength();
+			Map<K, V> value = new LinkedHashMap<>(Math.max(16, count * 2));
+			for (int i = 0; i < count; i++)
+			{
+				value.put(keyCodec.read(reader), valueCodec.read(reader));
+			}
+			return value;
+		});
+	}
+
+	/**
+	 * Factory method for a {@link ValueCodec} that writes the encoded value of the given codec with
+	 * its length as prefix. So a reader can skip the value and a composite can be extended with new
+	 * trailing fields without breaking the old readers
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 * @param codec
+	 *            the codec of the value
+	 * @return the new {@link ValueCodec}
+	 */
+	public static <T> ValueCodec<T> lengthPrefixed(ValueCodec<T> codec)
+	{
+		return of((value, writer) -> writer.writeBytes(codec.encode(value)), reader -> {
+			byte[] bytes = reader.readBytes();
+			ValueReader part = new ValueReader(bytes);
+			return codec.read(part);
+		});
+	}
+
+	/**
+	 * The functional interface {@link Encoder} writes a value
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 */
+	@FunctionalInterface
+	public interface Encoder<T>
+	{
+
+		/**
+		 * Writes the given value to the given writer
+		 *
+		 * @param value
+		 *            the value
+		 * @param writer
+		 *            the writer
+		 */
+		void write(T value, ValueWriter writer);
+
+	}
+
+	/**
+	 * The functional interface {@link Decoder} reads a value
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 */
+	@FunctionalInterface
+	public interface Decoder<T>
+	{
+
+		/**
+		 * Reads a value from the given reader
+		 *
+		 * @param reader
+		 *            the reader
+		 * @return the value
+		 */
+		T read(ValueReader reader);
+
+	}
+
+}
@@ -0,0 +1,290 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The class {@link ValueReader} reads the binary encoded values that are written by a
+ * {@link ValueWriter} from a byte array. Malformed input results in an
+ * {@link IllegalArgumentException}
+ */
+public class ValueReader
+{
+
+	/** The bytes to read */
+	private final byte[] bytes;
+
+	/** The index after the last readable byte */
+	private final int limit;
+
+	/** The index of the next byte to read */
+	private int position;
+
+	/**
+	 * Instantiates a new {@link ValueReader} over all given bytes
+	 *
+	 * @param bytes
+	 *            the bytes to read
+	 */
+	public ValueReader(byte[] bytes)
+	{
+		this(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Instantiates a new {@link ValueReader} over a range of the given bytes
+	 *
+	 * @param bytes
+	 *            the bytes to read
+	 * @param offset
+	 *            the index of the first byte
+	 * @param length
+	 *            the count of bytes
+	 */
+	public ValueReader(byte[] bytes, int offset, int length)
+	{
+		if (offset < 0 || length < 0 || offset + length > bytes.length)
+		{
+			throw new IndexOutOfBoundsException(
+				"Range [" + offset + ", " + (offset + length) + ") out of bounds");
+		}
+		this.bytes = bytes;
+		this.position = offset;
+		this.limit = offset + length;
+	}
+
+	/**
+	 * Gets the count of bytes that are not read yet
+	 *
+	 * @return the count of remaining bytes
+	 */
+	public int remaining()
+	{
+		return limit - position;
+	}
+
+	/**
+	 * Reads a byte
+	 *
+	 * @return the byte
+	 */
+	public byte readByte()
+	{
+		require(1);
+		return bytes[position++];
+	}
+
+	/**
+	 * Reads the given count of bytes without a length prefix
+	 *
+	 * @param length
+	 *            the count of bytes
+	 * @return the bytes
+	 */
+	public byte[] readRawBytes(int length)
+	{
+		require(length);
+		byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+		position += length;
+		return value;
+	}
+
+	/**
+	 * Reads bytes with the length as prefix
+	 *
+	 * @return the bytes
+	 */
+	public byte[] readBytes()
+	{
+		return readRawBytes(readLength());
+	}
+
+	/**
+	 * Reads an utf-8 string with the length of the encoded bytes as prefix
+	 *
+	 * @return the string
+	 */
+	public String readString()
+	{
+		int length = readLength();
+		require(length);
+		String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	/**
+	 * Reads a length prefix, that is an unsigned int in the variable length form, and checks it
+	 * against the remaining bytes
+	 *
+	 * @return the length
+	 */
+	public int readLength()
+	{
+		int length = readVarInt();
+		if (length < 0 || length > remaining())
+		{
+			throw new IllegalArgumentException("Invalid length " + Integer.toUnsignedString(length)
+				+ " with " + remaining() + " remaining bytes");
+		}
+		return length;
+	}
+
+	/**
+	 * Reads an unsigned int in the variable length form. A form with more than five bytes or with
+	 * bits beyond the 32 bits of an int in the fifth byte is rejected
+	 *
+	 * @return the int
+	 */
+	public int readVarInt()
+	{
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7)
+		{
+			byte b = readByte();
+			if (shift == 28 && (b & 0x70) != 0)
+			{
+				throw new IllegalArgumentException("Variable length int exceeds 32 bits");
+			}
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+			{
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable length int");
+	}
+
+	/**
+	 * Reads an unsigned long in the variable length form. A form with more than ten bytes or with
+	 * bits beyond the 64 bits of a long in the tenth byte is rejected
+	 *
+	 * @return the long
+	 */
+	public long readVarLong()
+	{
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7)
+		{
+			byte b = readByte();
+			if (shift == 63 && (b & 0x7E) != 0)
+			{
+				throw new IllegalArgumentException("Variable length long exceeds 64 bits");
+			}
+			value |= (long)(b & 0x7F) << shift;
+			if (b >= 0)
+			{
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable length long");
+	}
+
+	/**
+	 * Reads a zigzag encoded signed int in the variable length form
+	 *
+	 * @return the signed int
+	 */
+	public int readSignedVarInt()
+	{
+		int value = readVarInt();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads a zigzag encoded signed long in the variable length form
+	 *
+	 * @return the signed long
+	 */
+	public long readSignedVarLong()
+	{
+		long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads an int in the fixed width big endian form of four bytes
+	 *
+	 * @return the int
+	 */
+	public int readFixedInt()
+	{
+		require(Integer.BYTES);
+		int value = 0;
+		for (int i = 0; i < Integer.BYTES; i++)
+		{
+			value = (value << 8) | (bytes[position++] & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * Reads a long in the fixed width big endian form of eight bytes
+	 *
+	 * @return the long
+	 */
+	public long readFixedLong()
+	{
+		require(Long.BYTES);
+		long value = 0;
+		for (int i = 0; i < Long.BYTES; i++)
+		{
+			value = (value << 8) | (bytes[position++] & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * Reads a float in the fixed width form of four bytes
+	 *
+	 * @return the float
+	 */
+	public float readFloat()
+	{
+		return Float.intBitsToFloat(readFixedInt());
+	}
+
+	/**
+	 * Reads a double in the fixed width form of eight bytes
+	 *
+	 * @return the double
+	 */
+	public double readDouble()
+	{
+		return Double.longBitsToDouble(readFixedLong());
+	}
+
+	private void require(int count)
+	{
+		if (count > limit - position)
+		{
+			throw new IllegalArgumentException(
+				"Unexpected end of the value, " + count + " bytes required");
+		}
+	}
+
+}
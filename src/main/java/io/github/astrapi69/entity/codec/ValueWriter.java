@@ -0,0 +1,294 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The class {@link ValueWriter} writes binary encoded values to a growing byte array. Integral
+ * values can be written in the variable length form, that needs one byte for each seven bits, with
+ * zigzag encoding for signed values, or in the fixed width big endian form. A writer can be reused
+ * after {@link #reset()}
+ */
+public class ValueWriter
+{
+
+	/** The default initial capacity in bytes */
+	public static final int DEFAULT_CAPACITY = 32;
+
+	/** The written bytes */
+	private byte[] bytes;
+
+	/** The count of written bytes */
+	private int size;
+
+	/**
+	 * Instantiates a new {@link ValueWriter} with the default initial capacity
+	 */
+	public ValueWriter()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new {@link ValueWriter}
+	 *
+	 * @param capacity
+	 *            the initial capacity in bytes
+	 */
+	public ValueWriter(int capacity)
+	{
+		bytes = new byte[Math.max(1, capacity)];
+	}
+
+	/**
+	 * Gets the count of written bytes
+	 *
+	 * @return the count of written bytes
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Discards the written bytes, the capacity is kept
+	 *
+	 * @return this writer
+	 */
+	public ValueWriter reset()
+	{
+		size = 0;
+		return this;
+	}
+
+	/**
+	 * Copies the written bytes to a new byte array
+	 *
+	 * @return the written bytes
+	 */
+	public byte[] toByteArray()
+	{
+		return Arrays.copyOf(bytes, size);
+	}
+
+	/**
+	 * Wraps the written bytes in a buffer without copying them, for instance for the update of a
+	 * message digest. The buffer shares the bytes of this writer, it must not be changed and is
+	 * valid until the next write or reset of this writer
+	 *
+	 * @return the buffer of the written bytes
+	 */
+	public ByteBuffer asByteBuffer()
+	{
+		return ByteBuffer.wrap(bytes, 0, size);
+	}
+
+	/**
+	 * Writes the given byte
+	 *
+	 * @param value
+	 *            the byte
+	 * @return this writer
+	 */
+	public ValueWriter writeByte(int value)
+	{
+		ensureCapacity(1);
+		bytes[size++] = (byte)value;
+		return this;
+	}
+
+	/**
+	 * Writes the given bytes without a length prefix
+	 *
+	 * @param value
+	 *            the bytes
+	 * @return this writer
+	 */
+	public ValueWriter writeRawBytes(byte[] value)
+	{
+		ensureCapacity(value.length);
+		System.arraycopy(value, 0, bytes, size, value.length);
+		size += value.length;
+		return this;
+	}
+
+	/**
+	 * Writes the given bytes with the length as prefix
+	 *
+	 * @param value
+	 *            the bytes
+	 * @return this writer
+	 */
+	public ValueWriter writeBytes(byte[] value)
+	{
+		return writeVarInt(value.length).writeRawBytes(value);
+	}
+
+	/**
+	 * Writes the given string in utf-8 with the length of the encoded bytes as prefix
+	 *
+	 * @param value
+	 *            the string
+	 * @return this writer
+	 */
+	public ValueWriter writeString(String value)
+	{
+		return writeBytes(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes the given int as unsigned value in the variable length form
+	 *
+	 * @param value
+	 *            the int that is treated as unsigned
+	 * @return this writer
+	 */
+	public ValueWriter writeVarInt(int value)
+	{
+		ensureCapacity(5);
+		while ((value & ~0x7F) != 0)
+		{
+			bytes[size++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		bytes[size++] = (byte)value;
+		return this;
+	}
+
+	/**
+	 * Writes the given long as unsigned value in the variable length form
+	 *
+	 * @param value
+	 *            the long that is treated as unsigned
+	 * @return this writer
+	 */
+	public ValueWriter writeVarLong(long value)
+	{
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0)
+		{
+			bytes[size++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		bytes[size++] = (byte)value;
+		return this;
+	}
+
+	/**
+	 * Writes the given signed int zigzag encoded in the variable length form, so small negative
+	 * values need few bytes too
+	 *
+	 * @param value
+	 *            the signed int
+	 * @return this writer
+	 */
+	public ValueWriter writeSignedVarInt(int value)
+	{
+		return writeVarInt((value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Writes the given signed long zigzag encoded in the variable length form, so small negative
+	 * values need few bytes too
+	 *
+	 * @param value
+	 *            the signed long
+	 * @return this writer
+	 */
+	public ValueWriter writeSignedVarLong(long value)
+	{
+		return writeVarLong((value << 1) ^ (value >> 63));
+	}
+
+	/**
+	 * Writes the given int in the fixed width big endian form of four bytes
+	 *
+	 * @param value
+	 *            the int
+	 * @return this writer
+	 */
+	public ValueWriter writeFixedInt(int value)
+	{
+		ensureCapacity(Integer.BYTES);
+		for (int shift = 24; shift >= 0; shift -= 8)
+		{
+			bytes[size++] = (byte)(value >>> shift);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the given long in the fixed width big endian form of eight bytes
+	 *
+	 * @param value
+	 *            the long
+	 * @return this writer
+	 */
+	public ValueWriter writeFixedLong(long value)
+	{
+		ensureCapacity(Long.BYTES);
+		for (int shift = 56; shift >= 0; shift -= 8)
+		{
+			bytes[size++] = (byte)(value >>> shift);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the given float in the fixed width form of four bytes
+	 *
+	 * @param value
+	 *            the float
+	 * @return this writer
+	 */
+	public ValueWriter writeFloat(float value)
+	{
+		return writeFixedInt(Float.floatToIntBits(value));
+	}
+
+	/**
+	 * Writes the given double in the fixed width form of eight bytes
+	 *
+	 * @param value
+	 *            the double
+	 * @return this writer
+	 */
+	public ValueWriter writeDouble(double value)
+	{
+		return writeFixedLong(Double.doubleToLongBits(value));
+	}
+
+	private void ensureCapacity(int count)
+	{
+		if (bytes.length - size < count)
+		{
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + count));
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import java.io.Serializable;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+
+/**
+ * The class {@link CachedHashCode} holds the hash code of an {@link Identifiable} object that is
+ * computed at its first use. The hash code is the hash code of the id if the id is assigned at the
+ * first use, otherwise the identity hash code of the object. So the hash codes of different
+ * objects are spread over the buckets of hash based collections, and the hash code of an object
+ * does not change when it gets its generated id, so it is found in a collection it was added to
+ * before it was persisted.
+ *
+ * Note that an object that was hashed before it got its id and a loaded copy of it are equal by
+ * {@link Identifiables#equalsById(Identifiable, Object)} but have different hash codes, so both
+ * must not be put into the same hash based collection. Objects that are hashed only after their
+ * id is assigned, for instance loaded objects or objects with an id that is assigned on creation,
+ * have the same hash code as their copies
+ */
+public final class CachedHashCode implements Serializable
+{
+
+	/** The serial Version UID */
+	private static final long serialVersionUID = 1L;
+
+	/** The flag in the upper half of the state that marks the hash code as computed */
+	private static final long COMPUTED = 1L << 32;
+
+	/** The computed hash code in the lower half and the computed flag, 0 if not computed yet */
+	private volatile long state;
+
+	/**
+	 * Gets the hash code of the given identifiable, the hash code is computed at the first call
+	 *
+	 * @param identifiable
+	 *            the identifiable that owns this cache
+	 * @return the hash code
+	 */
+	public int get(Identifiable<?> identifiable)
+	{
+		long current = state;
+		if (current == 0)
+		{
+			Object id = identifiable.getId();
+			int hashCode = id != null ? id.hashCode() : System.identityHashCode(identifiable);
+			current = COMPUTED | (hashCode & 0xFFFFFFFFL);
+			state = current;
+		}
+		return (int)current;
+	}
+
+}
@@ -0,0 +1,54 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link EntityNames} resolves the entity names that are used in the queries of the tree
+ * and the key value entity classes
+ */
+public final class EntityNames
+{
+
+	private EntityNames()
+	{
+	}
+
+	/**
+	 * Gets the entity name of the given entity class from the metamodel
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @return the entity name
+	 */
+	public static String of(EntityManager entityManager, Class<?> entityClass)
+	{
+		return entityManager.getMetamodel().entity(entityClass).getName();
+	}
+
+}
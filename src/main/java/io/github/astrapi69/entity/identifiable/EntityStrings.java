@@ -0,0 +1,280 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.entity.uniqueable.UUIDCodec;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceUtil;
+
+/**
+ * The class {@link EntityStrings} builds the string representation of entities. References to
+ * other entities are written as their ids, so the result does not depend on the size of the
+ * referenced object graph and cyclic references do not lead to an endless recursion. Other values
+ * are cut after {@link #MAX_VALUE_LENGTH} characters. Strings, numbers, collections and maps are
+ * appended only up to the cut, the values of other types are converted with their
+ * {@link Object#toString()} before they are cut.
+ *
+ * Each thread reuses one {@link StringBuilder} in {@link #build(Object, BiConsumer)}, that is
+ * released for reuse even if the given content fails. A nested build, for instance from the
+ * {@link Object#toString()} of a value, gets a new {@link StringBuilder}
+ */
+public final class EntityStrings
+{
+
+	/** The maximum count of characters of a value */
+	public static final int MAX_VALUE_LENGTH = 64;
+
+	/** The maximum capacity of a {@link StringBuilder} that is kept for reuse */
+	private static final int MAX_REUSED_CAPACITY = 1024;
+
+	/** The persistence util that checks if a collection is loaded */
+	private static final PersistenceUtil PERSISTENCE_UTIL = Persistence.getPersistenceUtil();
+
+	/** The reused string builder of the current thread, null while it is acquired */
+	private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal
+		.withInitial(() -> new StringBuilder(128));
+
+	private EntityStrings()
+	{
+	}
+
+	/**
+	 * Builds a string with the given content of the given entity in the reused
+	 * {@link StringBuilder} of the current thread. The entity is passed to the content, so the
+	 * content can be a lambda that does not capture the entity and is not allocated on each call
+	 *
+	 * @param <E>
+	 *            the generic type of the entity
+	 * @param entity
+	 *            the entity
+	 * @param content
+	 *            the consumer that appends the content of the entity to the string builder
+	 * @return the built string
+	 */
+	public static <E> String build(E entity, BiConsumer<StringBuilder, E> content)
+	{
+		StringBuilder sb = acquire();
+		try
+		{
+			content.accept(sb, entity);
+			return sb.toString();
+		}
+		finally
+		{
+			release(sb);
+		}
+	}
+
+	private static StringBuilder acquire()
+	{
+		StringBuilder sb = BUILDER.get();
+		if (sb == null)
+		{
+			return new StringBuilder(128);
+		}
+		BUILDER.set(null);
+		sb.setLength(0);
+		return sb;
+	}
+
+	private static void release(StringBuilder sb)
+	{
+		if (sb.capacity() <= MAX_REUSED_CAPACITY)
+		{
+			BUILDER.set(sb);
+		}
+		else
+		{
+			BUILDER.remove();
+		}
+	}
+
+	/**
+	 * Appends the simple class name and the id of the given entity
+	 *
+	 * @param sb
+	 *            the string builder
+	 * @param entity
+	 *            the entity
+	 * @return the given string builder
+	 */
+	public static StringBuilder appendHeader(StringBuilder sb, Identifiable<?> entity)
+	{
+		sb.append(entity.getClass().getSimpleName()).append(": id=");
+		return appendId(sb, entity.getId());
+	}
+
+	/**
+	 * Appends the given name and the id of the given reference if it is an {@link Identifiable},
+	 * otherwise the cut value of the given reference
+	 *
+	 * @param sb
+	 *            the string builder
+	 * @param name
+	 *            the name of the reference
+	 * @param reference
+	 *            the reference
+	 * @return the given string builder
+	 */
+	public static StringBuilder appendReference(StringBuilder sb, String name, Object reference)
+	{
+		if (reference instanceof Identifiable<?> identifiable)
+		{
+			sb.append(", ").append(name).append("=");
+			return appendId(sb, identifiable.getId());
+		}
+		return appendValue(sb, name, reference);
+	}
+
+	/**
+	 * Appends the given name and the given value that is cut after {@link #MAX_VALUE_LENGTH}
+	 * characters
+	 *
+	 * @param sb
+	 *            the string builder
+	 * @param name
+	 *            the name of the value
+	 * @param value
+	 *            the value
+	 * @return the given string builder
+	 */
+	public static StringBuilder appendValue(StringBuilder sb, String name, Object value)
+	{
+		sb.append(", ").append(name).append("=");
+		int start = sb.length();
+		appendBounded(sb, value, start + MAX_VALUE_LENGTH + 1);
+		if (sb.length() - start > MAX_VALUE_LENGTH)
+		{
+			sb.setLength(start + MAX_VALUE_LENGTH);
+			sb.append("...");
+		}
+		return sb;
+	}
+
+	/**
+	 * Appends the given name and the size of the given collection if it is loaded. The size of a
+	 * lazy collection that is not loaded is not appended, so the collection is not initialized
+	 *
+	 * @param sb
+	 *            the string builder
+	 * @param name
+	 *            the name of the collection
+	 * @param collection
+	 *            the collection
+	 * @return the given string builder
+	 */
+	public static StringBuilder appendSize(StringBuilder sb, String name, Collection<?> collection)
+	{
+		if (collection == null)
+		{
+			return sb.append(", ").append(name).append("=0");
+		}
+		if (!PERSISTENCE_UTIL.isLoaded(collection))
+		{
+			return sb;
+		}
+		return sb.append(", ").append(name).append("=").append(collection.size());
+	}
+
+	/**
+	 * Appends the given value until the string builder reaches the given limit, the appended
+	 * characters after the limit are cut by the caller
+	 */
+	private static void appendBounded(StringBuilder sb, Object value, int limit)
+	{
+		if (limit <= sb.length())
+		{
+			return;
+		}
+		if (value instanceof CharSequence charSequence)
+		{
+			sb.append(charSequence, 0, Math.min(charSequence.length(), limit - sb.length()));
+		}
+		else if (value instanceof Long || value instanceof Integer || value instanceof Short
+			|| value instanceof Byte)
+		{
+			sb.append(((Number)value).longValue());
+		}
+		else if (value instanceof UUID uuid)
+		{
+			UUIDCodec.appendTo(uuid, sb);
+		}
+		else if (value instanceof Collection<?> collection)
+		{
+			appendElements(sb, collection.iterator(), '[', ']', limit);
+		}
+		else if (value instanceof Map<?, ?> map)
+		{
+			appendElements(sb, map.entrySet().iterator(), '{', '}', limit);
+		}
+		else if (value instanceof Map.Entry<?, ?> entry)
+		{
+			appendBounded(sb, entry.getKey(), limit);
+			sb.append('=');
+			appendBounded(sb, entry.getValue(), limit);
+		}
+		else
+		{
+			String text = String.valueOf(value);
+			sb.append(text, 0, Math.min(text.length(), limit - sb.length()));
+		}
+	}
+
+	private static void appendElements(StringBuilder sb, Iterator<?> elements, char open,
+		char close, int limit)
+	{
+		sb.append(open);
+		while (elements.hasNext() && sb.length() < limit)
+		{
+			appendBounded(sb, elements.next(), limit);
+			if (elements.hasNext())
+			{
+				sb.append(", ");
+			}
+		}
+		sb.append(close);
+	}
+
+	private static StringBuilder appendId(StringBuilder sb, Object id)
+	{
+		if (id instanceof UUID uuid)
+		{
+			return UUIDCodec.appendTo(uuid, sb);
+		}
+		if (id instanceof Long longId)
+		{
+			return sb.append(longId.longValue());
+		}
+		return sb.append(id);
+	}
+
+}
@@ -0,0 +1,71 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+
+/**
+ * The class {@link Identifiables} provides the equality for {@link Identifiable} objects that does
+ * not depend on the referenced objects, so the cost is constant and does not depend on the shape
+ * of an object graph. The matching hash code is held in a {@link CachedHashCode}
+ */
+public final class Identifiables
+{
+
+	private Identifiables()
+	{
+	}
+
+	/**
+	 * Checks if the given identifiable is equal to the given object. They are equal if they are
+	 * the same instance or if the type of one is assignable from the other and both have the same
+	 * id that is not null
+	 *
+	 * @param identifiable
+	 *            the identifiable
+	 * @param other
+	 *            the other object
+	 * @return true if the given objects are equal otherwise false
+	 */
+	public static boolean equalsById(Identifiable<?> identifiable, Object other)
+	{
+		if (identifiable == other)
+		{
+			return true;
+		}
+		if (!(other instanceof Identifiable<?> otherIdentifiable))
+		{
+			return false;
+		}
+		if (!identifiable.getClass().isInstance(other)
+			&& !other.getClass().isInstance(identifiable))
+		{
+			return false;
+		}
+		Object id = identifiable.getId();
+		return id != null && id.equals(otherIdentifiable.getId());
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * The class {@link PooledBaseEntity} holds a 64-bit primary key that is drawn before the entity is
+ * persisted from the block of the sequence of the root entity class of the entity type in the
+ * default {@link PooledIdAllocators}, so bulk inserts need no round-trip to the database for each
+ * id.
+ *
+ * The primary key is not generated by the persistence provider, so the id that is assigned in the
+ * pre persist callback is stored as it is. The default {@link PooledIdAllocators} has to be set
+ * with {@link PooledIdAllocators#setDefault(PooledIdAllocators)} before the first entity is
+ * persisted and the sequences have to be defined with the block size as increment
+ */
+@MappedSuperclass
+@Access(AccessType.FIELD)
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@SuperBuilder
+public abstract class PooledBaseEntity implements Identifiable<Long>
+{
+
+	/** The technical primary key. */
+	@Id
+	@EqualsAndHashCode.Include
+	@Column(name = "id", updatable = false, nullable = false)
+	Long id;
+
+	/**
+	 * Assigns a new id from the default {@link PooledIdAllocators} if this entity has no id yet
+	 */
+	@PrePersist
+	protected void assignId()
+	{
+		if (id == null)
+		{
+			id = PooledIdAllocators.getDefault().nextId(getClass());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + ": id=" + id;
+	}
+
+}
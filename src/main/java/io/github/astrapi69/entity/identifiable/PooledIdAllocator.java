@@ -0,0 +1,265 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * The class {@link PooledIdAllocator} hands out ids from blocks of consecutive ids that are
+ * reserved with one round-trip to a database sequence. The block source has to return the first id
+ * of a new block, so the sequence has to be defined with an increment that is equal to the block
+ * size.
+ *
+ * Ids are drawn from the current block with a single atomic increment, so many threads can draw ids
+ * without locking. When the remaining ids of the current block fall under the prefetch threshold,
+ * the next block is fetched in the background from the given {@link Executor}, so threads usually
+ * do not wait for a sequence round-trip when the current block runs out. The block source usually
+ * blocks on a database round-trip, so it should not run in the common
+ * {@link java.util.concurrent.ForkJoinPool}. If no executor is given, the blocks are fetched in
+ * dedicated daemon threads that are shared by all allocators without an own executor.
+ *
+ * If the fetch of a block fails, the threads that wait for the block get the failure and the next
+ * thread that needs the block starts a new fetch.
+ */
+public class PooledIdAllocator
+{
+
+	/** The default size of a block */
+	public static final int DEFAULT_BLOCK_SIZE = 50;
+
+	/**
+	 * The executor with dedicated daemon threads that fetches the blocks of the allocators without
+	 * an own executor, idle threads are released after one minute
+	 */
+	private static final ExecutorService PREFETCH_EXECUTOR = Executors
+		.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "pooled-id-prefetch");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	/** The source that returns the first id of the next block */
+	private final LongSupplier blockSource;
+
+	/** The count of ids in one block */
+	private final int blockSize;
+
+	/** The count of remaining ids that triggers the prefetch of the next block */
+	private final int prefetchThreshold;
+
+	/** The executor that fetches the next block in the background */
+	private final Executor executor;
+
+	/** The block the ids are currently drawn from */
+	private final AtomicReference<Block> current;
+
+	/**
+	 * Instantiates a new {@link PooledIdAllocator} with the default block size that prefetches in
+	 * the shared dedicated daemon threads
+	 *
+	 * @param blockSource
+	 *            the source that returns the first id of the next block
+	 */
+	public PooledIdAllocator(LongSupplier blockSource)
+	{
+		this(blockSource, DEFAULT_BLOCK_SIZE, PREFETCH_EXECUTOR);
+	}
+
+	/**
+	 * Instantiates a new {@link PooledIdAllocator} that prefetches the next block when a quarter of
+	 * the current block is left
+	 *
+	 * @param blockSource
+	 *            the source that returns the first id of the next block
+	 * @param blockSize
+	 *            the count of ids in one block
+	 * @param executor
+	 *            the executor that fetches the next block in the background
+	 */
+	public PooledIdAllocator(LongSupplier blockSource, int blockSize, Executor executor)
+	{
+		this(blockSource, blockSize, Math.max(1, blockSize / 4), executor);
+	}
+
+	/**
+	 * Instantiates a new {@link PooledIdAllocator}
+	 *
+	 * @param blockSource
+	 *            the source that returns the first id of the next block
+	 * @param blockSize
+	 *            the count of ids in one block
+	 * @param prefetchThreshold
+	 *            the count of remaining ids that triggers the prefetch of the next block
+	 * @param executor
+	 *            the executor that fetches the next block in the background
+	 */
+	public PooledIdAllocator(LongSupplier blockSource, int blockSize, int prefetchThreshold,
+		Executor executor)
+	{
+		if (blockSize < 1)
+		{
+			throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+		}
+		if (prefetchThreshold < 1 || blockSize < prefetchThreshold)
+		{
+			throw new IllegalArgumentException(
+				"Prefetch threshold must be between 1 and the block size: " + prefetchThreshold);
+		}
+		this.blockSource = Objects.requireNonNull(blockSource);
+		this.blockSize = blockSize;
+		this.prefetchThreshold = prefetchThreshold;
+		this.executor = Objects.requireNonNull(executor);
+		this.current = new AtomicReference<>(Block.exhausted(blockSize));
+	}
+
+	/**
+	 * Gets the next id
+	 *
+	 * @return the next id
+	 */
+	public long nextId()
+	{
+		for (;;)
+		{
+			Block block = current.get();
+			long offset = block.cursor.getAndIncrement();
+			if (offset < blockSize)
+			{
+				if (offset == blockSize - prefetchThreshold)
+				{
+					nextBlock(block);
+				}
+				return block.start + offset;
+			}
+			current.compareAndSet(block, awaitNextBlock(block));
+		}
+	}
+
+	/**
+	 * Gets the block size
+	 *
+	 * @return the block size
+	 */
+	public int getBlockSize()
+	{
+		return blockSize;
+	}
+
+	/**
+	 * Waits for the block that follows the given block
+	 *
+	 * @param block
+	 *            the exhausted block
+	 * @return the next block
+	 */
+	private Block awaitNextBlock(Block block)
+	{
+		CompletableFuture<Block> future = nextBlock(block);
+		try
+		{
+			return future.join();
+		}
+		catch (CompletionException e)
+		{
+			// let the next caller retry the fetch
+			block.next.compareAndSet(future, null);
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the future of the block that follows the given block and starts the fetch if it is not
+	 * already started
+	 *
+	 * @param block
+	 *            the block
+	 * @return the future of the next block
+	 */
+	private CompletableFuture<Block> nextBlock(Block block)
+	{
+		CompletableFuture<Block> future = block.next.get();
+		if (future != null)
+		{
+			return future;
+		}
+		CompletableFuture<Block> created = new CompletableFuture<>();
+		if (!block.next.compareAndSet(null, created))
+		{
+			return block.next.get();
+		}
+		executor.execute(() -> {
+			try
+			{
+				created.complete(new Block(blockSource.getAsLong()));
+			}
+			catch (Throwable throwable)
+			{
+				created.completeExceptionally(throwable);
+			}
+		});
+		return created;
+	}
+
+	/**
+	 * A block of consecutive ids
+	 */
+	private static final class Block
+	{
+
+		/** The first id of this block */
+		final long start;
+
+		/** The offset of the next id to hand out */
+		final AtomicLong cursor;
+
+		/** The future of the block that follows this block */
+		final AtomicReference<CompletableFuture<Block>> next = new AtomicReference<>();
+
+		Block(long start)
+		{
+			this(start, 0);
+		}
+
+		private Block(long start, long cursor)
+		{
+			this.start = start;
+			this.cursor = new AtomicLong(cursor);
+		}
+
+		static Block exhausted(int blockSize)
+		{
+			return new Block(0, blockSize);
+		}
+	}
+
+}
@@ -0,0 +1,222 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import jakarta.persistence.Entity;
+
+/**
+ * The class {@link PooledIdAllocators} holds one {@link PooledIdAllocator} for each sequence, so
+ * the entity types do not contend on one sequence. The sequence of an entity type is named after
+ * the root entity class of its inheritance hierarchy in snake case with the suffix '_seq', for
+ * instance 'order_item_seq' for the entity class 'OrderItem' or 'url_mapping_seq' for the entity
+ * class 'URLMapping'. All entity classes of one hierarchy share the ids of one table or of one key
+ * space, so they draw from the same sequence and the same allocator. The default
+ * instance that is set with {@link #setDefault(PooledIdAllocators)} assigns the ids of the
+ * {@link PooledBaseEntity} classes
+ */
+public class PooledIdAllocators
+{
+
+	/** The suffix of the sequence names */
+	public static final String SEQUENCE_NAME_SUFFIX = "_seq";
+
+	/** The sequence names of the entity types, resolved once for each type */
+	private static final ClassValue<String> SEQUENCE_NAMES = new ClassValue<>()
+	{
+		@Override
+		protected String computeValue(Class<?> type)
+		{
+			return getSequenceName(getRootEntityClass(type));
+		}
+	};
+
+	/** The default instance for the {@link PooledBaseEntity} classes */
+	private static volatile PooledIdAllocators defaultAllocators;
+
+	/** The factory that creates the block source for a sequence name */
+	private final Function<String, LongSupplier> blockSourceFactory;
+
+	/** The count of ids in one block */
+	private final int blockSize;
+
+	/** The executor that fetches the next blocks in the background */
+	private final Executor executor;
+
+	/** The allocators mapped to the sequence names */
+	private final Map<String, PooledIdAllocator> allocators = new ConcurrentHashMap<>();
+
+	/**
+	 * Instantiates a new {@link PooledIdAllocators}
+	 *
+	 * @param blockSourceFactory
+	 *            the factory that creates the block source for a sequence name
+	 * @param blockSize
+	 *            the count of ids in one block, the sequences have to be defined with this
+	 *            increment
+	 * @param executor
+	 *            the executor that fetches the next blocks in the background
+	 */
+	public PooledIdAllocators(Function<String, LongSupplier> blockSourceFactory, int blockSize,
+		Executor executor)
+	{
+		this.blockSourceFactory = Objects.requireNonNull(blockSourceFactory);
+		this.blockSize = blockSize;
+		this.executor = Objects.requireNonNull(executor);
+	}
+
+	/**
+	 * Gets the default instance
+	 *
+	 * @return the default instance
+	 * @throws IllegalStateException
+	 *             if no default instance is set
+	 */
+	public static PooledIdAllocators getDefault()
+	{
+		PooledIdAllocators allocators = defaultAllocators;
+		if (allocators == null)
+		{
+			throw new IllegalStateException(
+				"No default PooledIdAllocators is set, see PooledIdAllocators#setDefault");
+		}
+		return allocators;
+	}
+
+	/**
+	 * Sets the default instance, for instance with a block source factory that selects the next
+	 * value of the named sequence
+	 *
+	 * @param allocators
+	 *            the new default instance
+	 */
+	public static void setDefault(PooledIdAllocators allocators)
+	{
+		defaultAllocators = allocators;
+	}
+
+	/**
+	 * Gets the allocator for the given entity type, that is the allocator of the sequence of its
+	 * root entity class
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return the allocator of the given entity type
+	 */
+	public PooledIdAllocator getAllocator(Class<?> entityClass)
+	{
+		return getSequenceAllocator(SEQUENCE_NAMES.get(entityClass));
+	}
+
+	/**
+	 * Gets the allocator for the given sequence
+	 *
+	 * @param sequenceName
+	 *            the sequence name
+	 * @return the allocator of the given sequence
+	 */
+	public PooledIdAllocator getSequenceAllocator(String sequenceName)
+	{
+		return allocators.computeIfAbsent(sequenceName,
+			name -> new PooledIdAllocator(blockSourceFactory.apply(name), blockSize, executor));
+	}
+
+	/**
+	 * Gets the next id for the given entity type
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return the next id
+	 */
+	public long nextId(Class<?> entityClass)
+	{
+		return getAllocator(entityClass).nextId();
+	}
+
+	/**
+	 * Gets the root entity class of the inheritance hierarchy of the given entity type, that is the
+	 * topmost class that is annotated with {@link Entity}. Mapped superclasses are not part of the
+	 * hierarchy. The given class is returned if its superclass is no entity class
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return the root entity class
+	 */
+	public static Class<?> getRootEntityClass(Class<?> entityClass)
+	{
+		Class<?> root = entityClass;
+		for (Class<?> type = entityClass.getSuperclass(); type != null; type = type
+			.getSuperclass())
+		{
+			if (type.isAnnotationPresent(Entity.class))
+			{
+				root = type;
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Gets the sequence name of the given entity class without the resolution of its root entity
+	 * class
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return the sequence name
+	 */
+	public static String getSequenceName(Class<?> entityClass)
+	{
+		String simpleName = entityClass.getSimpleName();
+		int length = simpleName.length();
+		StringBuilder sb = new StringBuilder(length + 8);
+		for (int i = 0; i < length; i++)
+		{
+			char c = simpleName.charAt(i);
+			if (Character.isUpperCase(c))
+			{
+				// a word starts after a lower case letter or a digit and at the last upper case
+				// letter of an acronym that is followed by a lower case letter
+				if (i > 0 && (!Character.isUpperCase(simpleName.charAt(i - 1))
+					|| i + 1 < length && Character.isLowerCase(simpleName.charAt(i + 1))))
+				{
+					sb.append('_');
+				}
+				sb.append(Character.toLowerCase(c));
+			}
+			else
+			{
+				sb.append(c);
+			}
+		}
+		return sb.append(SEQUENCE_NAME_SUFFIX).toString();
+	}
+
+}
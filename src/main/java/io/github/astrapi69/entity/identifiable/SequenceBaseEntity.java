@@ -47,6 +47,9 @@ import lombok.experimental.SuperBuilder;
  *
  * So the generation strategy type of the primary key is <code>GenerationType.SEQUENCE</code>
  *
+ * For bulk inserts with ids that are drawn on the client side from blocks of a per entity type
+ * sequence, entity classes extend the {@link PooledBaseEntity} instead
+ *
  * @param <PK>
  *            the generic type of the technical primary key
  */
@@ -0,0 +1,246 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The class {@link SnowflakeIdGenerator} generates unique 64-bit ids in memory without a round-trip
+ * to the database. An id is composed of 41 bits of milliseconds since the epoch of the generator,
+ * 10 bits of the node id and a 12 bit counter. Generators with distinct node ids generate distinct
+ * ids, so each writer node has to be configured with its own node id.
+ *
+ * The timestamp and the counter are held together in one {@link AtomicLong} that is updated with
+ * compare and set, so the generator is lock-free. If the system clock goes backwards, or more than
+ * 4096 ids are requested within one millisecond, the generator keeps counting from the last state,
+ * so the ids are still strictly increasing and never repeated.
+ *
+ * The default generator has no default node id, it has to be configured with the system property
+ * {@link #NODE_ID_PROPERTY} or with {@link #setDefault(SnowflakeIdGenerator)}. The default
+ * generator can only be replaced as long as it has not generated any id, a replaced generator
+ * does not generate ids anymore. So the ids of a former and a new default generator with the same
+ * node id can never collide.
+ */
+public class SnowflakeIdGenerator
+{
+
+	/** The default epoch, 2015-01-01T00:00:00Z in milliseconds */
+	public static final long DEFAULT_EPOCH = 1420070400000L;
+
+	/** The name of the system property that defines the node id of the default generator */
+	public static final String NODE_ID_PROPERTY = "io.github.astrapi69.entity.snowflake.node";
+
+	/** The maximum node id */
+	public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+	/** The bit count of the counter */
+	private static final int COUNTER_BITS = 12;
+
+	/** The bit count of the node id */
+	private static final int NODE_BITS = 10;
+
+	/** The mask for the counter */
+	private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+	/** The state of a generator that was replaced as default generator before its first id */
+	private static final long RETIRED = -1L;
+
+	/** The default generator */
+	private static volatile SnowflakeIdGenerator defaultGenerator;
+
+	/** The node id shifted to its position in the id */
+	private final long nodeBits;
+
+	/** The epoch in milliseconds */
+	private final long epoch;
+
+	/** The clock that returns the current time in milliseconds */
+	private final LongSupplier clock;
+
+	/**
+	 * The last state, the milliseconds since the epoch shifted left by the counter bits, 0 before
+	 * the first id and {@link #RETIRED} after the replacement as default generator
+	 */
+	private final AtomicLong state = new AtomicLong();
+
+	/**
+	 * Instantiates a new {@link SnowflakeIdGenerator} with the default epoch
+	 *
+	 * @param nodeId
+	 *            the node id
+	 */
+	public SnowflakeIdGenerator(int nodeId)
+	{
+		this(nodeId, DEFAULT_EPOCH);
+	}
+
+	/**
+	 * Instantiates a new {@link SnowflakeIdGenerator}
+	 *
+	 * @param nodeId
+	 *            the node id between 0 and {@link #MAX_NODE_ID}
+	 * @param epoch
+	 *            the epoch in milliseconds
+	 */
+	public SnowflakeIdGenerator(int nodeId, long epoch)
+	{
+		this(nodeId, epoch, System::currentTimeMillis);
+	}
+
+	/**
+	 * Instantiates a new {@link SnowflakeIdGenerator} with the given clock
+	 *
+	 * @param nodeId
+	 *            the node id between 0 and {@link #MAX_NODE_ID}
+	 * @param epoch
+	 *            the epoch in milliseconds
+	 * @param clock
+	 *            the clock that returns the current time in milliseconds
+	 */
+	public SnowflakeIdGenerator(int nodeId, long epoch, LongSupplier clock)
+	{
+		if (nodeId < 0 || MAX_NODE_ID < nodeId)
+		{
+			throw new IllegalArgumentException(
+				"Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+		}
+		this.nodeBits = (long)nodeId << COUNTER_BITS;
+		this.epoch = epoch;
+		this.clock = Objects.requireNonNull(clock);
+	}
+
+	/**
+	 * Gets the default generator. If no default generator is set, the node id of the default
+	 * generator is taken from the system property {@link #NODE_ID_PROPERTY}
+	 *
+	 * @return the default generator
+	 * @throws IllegalStateException
+	 *             if no default generator is set and the system property is not set to a number
+	 */
+	public static SnowflakeIdGenerator getDefault()
+	{
+		SnowflakeIdGenerator generator = defaultGenerator;
+		if (generator == null)
+		{
+			synchronized (SnowflakeIdGenerator.class)
+			{
+				generator = defaultGenerator;
+				if (generator == null)
+				{
+					Integer nodeId = Integer.getInteger(NODE_ID_PROPERTY);
+					if (nodeId == null)
+					{
+						throw new IllegalStateException("The node id of the default generator "
+							+ "is not configured, set the system property " + NODE_ID_PROPERTY
+							+ " to the node id of this node or set the default generator");
+					}
+					generator = new SnowflakeIdGenerator(nodeId);
+					defaultGenerator = generator;
+				}
+			}
+		}
+		return generator;
+	}
+
+	/**
+	 * Sets the default generator. The current default generator is replaced only if it has not
+	 * generated any id yet, it does not generate ids anymore after the replacement
+	 *
+	 * @param generator
+	 *            the new default generator
+	 * @throws IllegalStateException
+	 *             if the current default generator has already generated ids
+	 */
+	public static void setDefault(SnowflakeIdGenerator generator)
+	{
+		Objects.requireNonNull(generator);
+		synchronized (SnowflakeIdGenerator.class)
+		{
+			SnowflakeIdGenerator current = defaultGenerator;
+			if (current != null && current != generator
+				&& !current.state.compareAndSet(0L, RETIRED))
+			{
+				throw new IllegalStateException(
+					"The default generator has already generated ids and can not be replaced");
+			}
+			defaultGenerator = generator;
+		}
+	}
+
+	/**
+	 * Generates the next id
+	 *
+	 * @return the next id
+	 * @throws IllegalStateException
+	 *             if this generator was replaced as default generator
+	 */
+	public long nextId()
+	{
+		long next;
+		for (;;)
+		{
+			long current = state.get();
+			if (current == RETIRED)
+			{
+				throw new IllegalStateException("The generator was replaced as default generator");
+			}
+			long now = (clock.getAsLong() - epoch) << COUNTER_BITS;
+			next = now > current ? now : current + 1;
+			if (state.compareAndSet(current, next))
+			{
+				break;
+			}
+		}
+		return ((next >>> COUNTER_BITS) << (NODE_BITS + COUNTER_BITS)) | nodeBits
+			| (next & COUNTER_MASK);
+	}
+
+	/**
+	 * Gets the node id of the given id
+	 *
+	 * @param id
+	 *            the id
+	 * @return the node id
+	 */
+	public static int getNodeId(long id)
+	{
+		return (int)((id >>> COUNTER_BITS) & MAX_NODE_ID);
+	}
+
+	/**
+	 * Gets the timestamp in milliseconds of the given id
+	 *
+	 * @param id
+	 *            the id
+	 * @return the timestamp in milliseconds
+	 */
+	public long getTimestamp(long id)
+	{
+		return (id >>> (NODE_BITS + COUNTER_BITS)) + epoch;
+	}
+
+}
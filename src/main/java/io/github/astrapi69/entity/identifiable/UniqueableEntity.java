@@ -30,9 +30,9 @@ import io.github.astrapi69.data.identifiable.Identifiable;
 import jakarta.persistence.Access;
 import jakarta.persistence.AccessType;
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -44,7 +44,10 @@ import lombok.experimental.SuperBuilder;
 /**
  * The class {@link UniqueableEntity} holds an UUID as primary key
  *
- * The generation strategy type of the primary key is 'UUID'
+ * The primary key is assigned in memory from {@link #newId()} before the entity is persisted, so
+ * the id is known before the flush and an id that is set before persist is stored as it is.
+ * Subclasses choose the kind of the generated ids by overriding {@link #newId()}, for instance
+ * time-ordered uuids of version 7
  *
  * @param <PK>
  *            the generic type of the UUID technical primary key
@@ -63,10 +66,29 @@ public abstract class UniqueableEntity<PK extends Serializable> implements Ident
 	/** The technical primary key. */
 	@Id
 	@EqualsAndHashCode.Include
-	@GeneratedValue(generator = "UUID")
 	@Column(name = "id", updatable = false, nullable = false)
 	PK id;
 
+	/**
+	 * Creates a new id for this entity, the hook that is called before the entity is persisted if
+	 * it has no id yet
+	 *
+	 * @return the new id
+	 */
+	protected abstract PK newId();
+
+	/**
+	 * Assigns a new id from {@link #newId()} if this entity has no id yet
+	 */
+	@PrePersist
+	protected void assignId()
+	{
+		if (id == null)
+		{
+			id = newId();
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
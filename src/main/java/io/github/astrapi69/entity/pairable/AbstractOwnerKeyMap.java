@@ -0,0 +1,285 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.util.Arrays;
+
+/**
+ * The abstract class {@link AbstractOwnerKeyMap} is the base of the open addressing hash maps with
+ * a primitive long owner and a primitive int key. The owners, the keys and the values are held in
+ * parallel primitive arrays without boxing, the values as the raw bits of a long. Collisions are
+ * resolved with linear probing and removals shift the following entries back, so lookups never
+ * pass deleted slots. The maps are not thread safe
+ */
+public abstract class AbstractOwnerKeyMap
+{
+
+	/** The default expected count of entries */
+	public static final int DEFAULT_EXPECTED_SIZE = 16;
+
+	/** The maximum ratio of the size to the capacity */
+	private static final float LOAD_FACTOR = 0.5f;
+
+	/** The owners */
+	private long[] owners;
+
+	/** The keys */
+	private int[] keys;
+
+	/** The raw bits of the values */
+	protected long[] values;
+
+	/** The flags of the used slots */
+	private boolean[] used;
+
+	/** The mask for the slot index */
+	private int mask;
+
+	/** The count of entries */
+	private int size;
+
+	/**
+	 * Instantiates a new {@link AbstractOwnerKeyMap}
+	 *
+	 * @param expectedSize
+	 *            the expected count of entries
+	 */
+	protected AbstractOwnerKeyMap(int expectedSize)
+	{
+		long minimum = (long)(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+		int capacity = Integer.highestOneBit((int)Math.min(1 << 30, minimum) - 1) << 1;
+		allocate(Math.max(DEFAULT_EXPECTED_SIZE, capacity));
+	}
+
+	/**
+	 * Gets the count of entries
+	 *
+	 * @return the count of entries
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Checks if this map has no entries
+	 *
+	 * @return true if this map has no entries otherwise false
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Checks if this map has an entry for the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @return true if this map has an entry for the given owner and key otherwise false
+	 */
+	public boolean containsKey(long owner, int key)
+	{
+		return indexOf(owner, key) >= 0;
+	}
+
+	/**
+	 * Removes the entry of the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @return true if an entry was removed otherwise false
+	 */
+	public boolean remove(long owner, int key)
+	{
+		int gap = indexOf(owner, key);
+		if (gap < 0)
+		{
+			return false;
+		}
+		for (int next = (gap + 1) & mask; used[next]; next = (next + 1) & mask)
+		{
+			int ideal = slot(owners[next], keys[next]);
+			if (((next - ideal) & mask) >= ((next - gap) & mask))
+			{
+				owners[gap] = owners[next];
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		used[gap] = false;
+		values[gap] = 0;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Removes all entries, the capacity is kept
+	 */
+	public void clear()
+	{
+		Arrays.fill(used, false);
+		Arrays.fill(values, 0);
+		size = 0;
+	}
+
+	/**
+	 * Performs the given action for each entry with the raw bits of the value
+	 *
+	 * @param action
+	 *            the action
+	 */
+	protected void forEachRaw(RawEntryConsumer action)
+	{
+		for (int slot = 0; slot < used.length; slot++)
+		{
+			if (used[slot])
+			{
+				action.accept(owners[slot], keys[slot], values[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Gets the slot of the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @return the slot or -1 if this map has no entry for the given owner and key
+	 */
+	protected int indexOf(long owner, int key)
+	{
+		for (int slot = slot(owner, key); used[slot]; slot = (slot + 1) & mask)
+		{
+			if (owners[slot] == owner && keys[slot] == key)
+			{
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the slot of the given owner and key and inserts a new entry with the raw bits zero if
+	 * this map has no entry for them
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @return the slot
+	 */
+	protected int insertionIndexOf(long owner, int key)
+	{
+		if (size >= (int)(used.length * LOAD_FACTOR))
+		{
+			rehash();
+		}
+		for (int slot = slot(owner, key);; slot = (slot + 1) & mask)
+		{
+			if (!used[slot])
+			{
+				used[slot] = true;
+				owners[slot] = owner;
+				keys[slot] = key;
+				size++;
+				return slot;
+			}
+			if (owners[slot] == owner && keys[slot] == key)
+			{
+				return slot;
+			}
+		}
+	}
+
+	private void rehash()
+	{
+		long[] oldOwners = owners;
+		int[] oldKeys = keys;
+		long[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(oldUsed.length * 2);
+		for (int i = 0; i < oldUsed.length; i++)
+		{
+			if (oldUsed[i])
+			{
+				int slot = slot(oldOwners[i], oldKeys[i]);
+				while (used[slot])
+				{
+					slot = (slot + 1) & mask;
+				}
+				used[slot] = true;
+				owners[slot] = oldOwners[i];
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		owners = new long[capacity];
+		keys = new int[capacity];
+		values = new long[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	private int slot(long owner, int key)
+	{
+		long hash = (owner * 0x9E3779B97F4A7C15L) ^ (key * 0xC2B2AE3D27D4EB4FL);
+		return (int)(hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * The functional interface {@link RawEntryConsumer} accepts an entry with the raw bits of the
+	 * value
+	 */
+	@FunctionalInterface
+	protected interface RawEntryConsumer
+	{
+
+		/**
+		 * Accepts the given entry
+		 *
+		 * @param owner
+		 *            the owner
+		 * @param key
+		 *            the key
+		 * @param bits
+		 *            the raw bits of the value
+		 */
+		void accept(long owner, int key, long bits);
+
+	}
+
+}
@@ -0,0 +1,858 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * The class {@link KeyValueOwnerCache} is a bounded concurrent cache of the values of key value
+ * pairs, keyed by the owner and the key. The eviction policy is W-TinyLFU: new entries enter a
+ * small window in least recently used order, entries that leave the window are admitted to the
+ * main segmented area only if a count-min sketch estimates that they are used more frequently than
+ * the entry that would be evicted for them. So a burst of one-time lookups does not displace the
+ * hot keys. Entries expire after the configured time since their write, absent keys are cached as
+ * null values.
+ *
+ * Reads are lock-free, they record the access in a stripe of a read buffer that is selected by
+ * the thread, so concurrent reads do not write to one shared location. The buffer is drained into
+ * the policy under the lock when a stripe is full or before a write. A read drops its access if
+ * its stripe is full or contended, so the recording of reads is lossy under contention.
+ * Invalidations increase a version of the key, a value that was loaded concurrently with an
+ * invalidation is returned but not cached, so a stale value does not overwrite the invalidation.
+ * Concurrent misses of the same key may load the value more than once
+ *
+ * @param <O>
+ *            the generic type of the owner
+ * @param <K>
+ *            the generic type of the key
+ * @param <V>
+ *            the generic type of the value
+ */
+public class KeyValueOwnerCache<O, K, V>
+{
+
+	/** The version of an entry that is written without an explicit version */
+	public static final long NO_VERSION = Long.MIN_VALUE;
+
+	/** The count of the versions of the keys, the keys are distributed over them by hash */
+	private static final int VERSION_STRIPES = 1024;
+
+	/** The map of the keys to the entries */
+	private final ConcurrentHashMap<OwnerKey, Node> data = new ConcurrentHashMap<>();
+
+	/** The function that loads the value of a missing key */
+	private final BiFunction<O, K, V> loader;
+
+	/** The maximum count of entries */
+	private final long maximumSize;
+
+	/** The maximum count of entries in the window */
+	private final long windowMaximum;
+
+	/** The maximum count of entries in the protected segment */
+	private final long protectedMaximum;
+
+	/** The time to live of an entry after its write in nanoseconds */
+	private final long expireAfterWriteNanos;
+
+	/** The versions of the keys that are increased on invalidations */
+	private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+	/** The generation that is increased by {@link #invalidateAll()} */
+	private final AtomicLong generation = new AtomicLong();
+
+	/** The lock that guards the policy */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/** The buffer of the accesses of reads that are not yet applied to the policy */
+	private final ReadBuffer<Node> readBuffer = new ReadBuffer<>(
+		Runtime.getRuntime().availableProcessors());
+
+	/** The frequency sketch of the policy */
+	private final FrequencySketch sketch;
+
+	/** The window in least recently used order */
+	private final AccessQueue window = new AccessQueue();
+
+	/** The probation segment of the main area in least recently used order */
+	private final AccessQueue probation = new AccessQueue();
+
+	/** The protected segment of the main area in least recently used order */
+	private final AccessQueue protectedSegment = new AccessQueue();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * Instantiates a new {@link KeyValueOwnerCache}
+	 *
+	 * @param maximumSize
+	 *            the maximum count of entries
+	 * @param expireAfterWrite
+	 *            the time to live of an entry after its write
+	 * @param loader
+	 *            the function that loads the value of a missing key, for instance with a query on
+	 *            the key value entities, returns null if the key does not exist
+	 */
+	public KeyValueOwnerCache(long maximumSize, Duration expireAfterWrite,
+		BiFunction<O, K, V> loader)
+	{
+		if (maximumSize < 1)
+		{
+			throw new IllegalArgumentException("The maximum size must be positive");
+		}
+		if (expireAfterWrite.isNegative() || expireAfterWrite.isZero())
+		{
+			throw new IllegalArgumentException("The time to live must be positive");
+		}
+		this.loader = Objects.requireNonNull(loader);
+		this.maximumSize = maximumSize;
+		this.windowMaximum = Math.max(1, maximumSize / 100);
+		this.protectedMaximum = (maximumSize - windowMaximum) * 80 / 100;
+		this.expireAfterWriteNanos = saturatedNanos(expireAfterWrite);
+		this.sketch = new FrequencySketch(maximumSize);
+	}
+
+	/**
+	 * Gets the value of the given owner and key, a missing or expired value is loaded and cached
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @return the value or null if the key does not exist
+	 */
+	public V get(O owner, K key)
+	{
+		OwnerKey ownerKey = new OwnerKey(owner, key);
+		Node node = getNode(ownerKey);
+		if (node != null)
+		{
+			return node.value;
+		}
+		int stripe = ownerKey.stripe();
+		long version = versions.get(stripe);
+		long currentGeneration = generation.get();
+		V value = loader.apply(owner, key);
+		lock.lock();
+		try
+		{
+			if (versions.get(stripe) == version && generation.get() == currentGeneration)
+			{
+				write(ownerKey, value, NO_VERSION);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the cached value of the given owner and key without loading it
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @return the value or null if the value is not cached or the key does not exist
+	 */
+	public V getIfPresent(O owner, K key)
+	{
+		Node node = getNode(new OwnerKey(owner, key));
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * Caches the given value of the given owner and key, for instance after the key value entity
+	 * was written. Loads of the same key that run concurrently do not overwrite the given value
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	public void put(O owner, K key, V value)
+	{
+		put(owner, key, value, NO_VERSION);
+	}
+
+	/**
+	 * Caches the given value of the given owner and key with the given version, for instance the
+	 * version of the key value entity. The value is not cached if the cached entry has a greater
+	 * version, so a delayed write of an older version does not replace a newer value
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @param version
+	 *            the version of the value
+	 */
+	public void put(O owner, K key, V value, long version)
+	{
+		OwnerKey ownerKey = new OwnerKey(owner, key);
+		lock.lock();
+		try
+		{
+			versions.incrementAndGet(ownerKey.stripe());
+			Node existing = data.get(ownerKey);
+			if (existing == null || existing.version <= version || version == NO_VERSION)
+			{
+				write(ownerKey, value, version);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the cached value of the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 */
+	public void invalidate(O owner, K key)
+	{
+		OwnerKey ownerKey = new OwnerKey(owner, key);
+		lock.lock();
+		try
+		{
+			versions.incrementAndGet(ownerKey.stripe());
+			Node node = data.remove(ownerKey);
+			if (node != null)
+			{
+				node.queue.remove(node);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all cached values
+	 */
+	public void invalidateAll()
+	{
+		lock.lock();
+		try
+		{
+			generation.incrementAndGet();
+			data.clear();
+			window.clear();
+			probation.clear();
+			protectedSegment.clear();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the count of cached entries
+	 *
+	 * @return the count of cached entries
+	 */
+	public long size()
+	{
+		return data.mappingCount();
+	}
+
+	/**
+	 * Gets the count of lookups that found a cached value
+	 *
+	 * @return the count of hits
+	 */
+	public long getHitCount()
+	{
+		return hitCount.sum();
+	}
+
+	/**
+	 * Gets the count of lookups that did not find a cached value
+	 *
+	 * @return the count of misses
+	 */
+	public long getMissCount()
+	{
+		return missCount.sum();
+	}
+
+	/**
+	 * Gets the count of entries that were evicted because of the size or the time to live
+	 *
+	 * @return the count of evictions
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount.sum();
+	}
+
+	/**
+	 * Gets the ratio of the hits to all lookups
+	 *
+	 * @return the hit rate or 1 if no lookup happened
+	 */
+	public double getHitRate()
+	{
+		long hits = hitCount.sum();
+		long lookups = hits + missCount.sum();
+		return lookups == 0 ? 1.0 : (double)hits / lookups;
+	}
+
+	private Node getNode(OwnerKey ownerKey)
+	{
+		Node node = data.get(ownerKey);
+		if (node == null)
+		{
+			missCount.increment();
+			return null;
+		}
+		if (System.nanoTime() - node.writeTime > expireAfterWriteNanos)
+		{
+			missCount.increment();
+			expire(node);
+			return null;
+		}
+		hitCount.increment();
+		if (readBuffer.offer(node) && lock.tryLock())
+		{
+			try
+			{
+				readBuffer.drain(this::onAccess);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		return node;
+	}
+
+	private void expire(Node node)
+	{
+		lock.lock();
+		try
+		{
+			if (data.remove(node.key, node))
+			{
+				node.queue.remove(node);
+				evictionCount.increment();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the given value, called under the lock
+	 */
+	private void write(OwnerKey ownerKey, V value, long version)
+	{
+		readBuffer.drain(this::onAccess);
+		sketch.increment(ownerKey.hash);
+		Node existing = data.get(ownerKey);
+		if (existing != null)
+		{
+			existing.value = value;
+			existing.version = version;
+			existing.writeTime = System.nanoTime();
+			onAccess(existing);
+			return;
+		}
+		Node node = new Node(ownerKey, value, version);
+		data.put(ownerKey, node);
+		window.addLast(node);
+		evict();
+	}
+
+	/**
+	 * Updates the policy after an access of the given node, called under the lock
+	 */
+	private void onAccess(Node node)
+	{
+		if (node.queue == null)
+		{
+			// the node was removed concurrently
+			return;
+		}
+		sketch.increment(node.key.hash);
+		if (node.queue == probation)
+		{
+			probation.remove(node);
+			protectedSegment.addLast(node);
+			while (protectedSegment.size > protectedMaximum)
+			{
+				probation.addLast(protectedSegment.removeFirst());
+			}
+		}
+		else
+		{
+			node.queue.moveToLast(node);
+		}
+	}
+
+	/**
+	 * Moves the overflow of the window to the probation segment and evicts entries until the
+	 * maximum size is reached. An entry from the window competes with the least recently used entry
+	 * of the probation segment by the estimated frequency, called under the lock
+	 */
+	private void evict()
+	{
+		while (window.size > windowMaximum)
+		{
+			probation.addLast(window.removeFirst());
+		}
+		while (window.size + probation.size + protectedSegment.size > maximumSize)
+		{
+			Node victim;
+			if (probation.size == 0)
+			{
+				victim = protectedSegment.size != 0
+					? protectedSegment.removeFirst()
+					: window.removeFirst();
+			}
+			else
+			{
+				Node candidate = probation.last();
+				Node oldest = probation.first();
+				if (candidate != oldest
+					&& sketch.frequency(candidate.key.hash) > sketch.frequency(oldest.key.hash))
+				{
+					victim = oldest;
+				}
+				else
+				{
+					victim = candidate;
+				}
+				probation.remove(victim);
+			}
+			data.remove(victim.key, victim);
+			evictionCount.increment();
+		}
+	}
+
+	private static long saturatedNanos(Duration duration)
+	{
+		try
+		{
+			return duration.toNanos();
+		}
+		catch (ArithmeticException e)
+		{
+			return Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * The key of an entry, the owner with the key
+	 */
+	private static final class OwnerKey
+	{
+
+		final Object owner;
+
+		final Object key;
+
+		final int hash;
+
+		OwnerKey(Object owner, Object key)
+		{
+			this.owner = owner;
+			this.key = key;
+			int h = 31 * Objects.hashCode(owner) + Objects.hashCode(key);
+			this.hash = h ^ (h >>> 16);
+		}
+
+		int stripe()
+		{
+			return hash & (VERSION_STRIPES - 1);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			return o instanceof OwnerKey other && hash == other.hash
+				&& Objects.equals(owner, other.owner) && Objects.equals(key, other.key);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+	}
+
+	/**
+	 * An entry of the cache and the element of an access queue
+	 */
+	private final class Node
+	{
+
+		final OwnerKey key;
+
+		volatile V value;
+
+		volatile long writeTime;
+
+		long version;
+
+		AccessQueue queue;
+
+		Node previous;
+
+		Node next;
+
+		Node(OwnerKey key, V value, long version)
+		{
+			this.key = key;
+			this.value = value;
+			this.version = version;
+			this.writeTime = System.nanoTime();
+		}
+
+	}
+
+	/**
+	 * A doubly linked queue of nodes in least recently used order, guarded by the lock
+	 */
+	private final class AccessQueue
+	{
+
+		Node head;
+
+		Node tail;
+
+		long size;
+
+		Node first()
+		{
+			return head;
+		}
+
+		Node last()
+		{
+			return tail;
+		}
+
+		void addLast(Node node)
+		{
+			node.queue = this;
+			node.previous = tail;
+			node.next = null;
+			if (tail == null)
+			{
+				head = node;
+			}
+			else
+			{
+				tail.next = node;
+			}
+			tail = node;
+			size++;
+		}
+
+		Node removeFirst()
+		{
+			Node node = head;
+			remove(node);
+			return node;
+		}
+
+		void moveToLast(Node node)
+		{
+			if (node != tail)
+			{
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		void remove(Node node)
+		{
+			if (node.previous == null)
+			{
+				head = node.next;
+			}
+			else
+			{
+				node.previous.next = node.next;
+			}
+			if (node.next == null)
+			{
+				tail = node.previous;
+			}
+			else
+			{
+				node.next.previous = node.previous;
+			}
+			node.previous = null;
+			node.next = null;
+			node.queue = null;
+			size--;
+		}
+
+		void clear()
+		{
+			for (Node node = head; node != null;)
+			{
+				Node next = node.next;
+				node.previous = null;
+				node.next = null;
+				node.queue = null;
+				node = next;
+			}
+			head = null;
+			tail = null;
+			size = 0;
+		}
+
+	}
+
+	/**
+	 * The lossy buffer of the accesses of reads, striped by the thread. Each stripe is a ring of
+	 * slots with a write count that is increased with a compare and set by the reads and a read
+	 * count that is increased by the drain, an offer fails without retry if the stripe is full or
+	 * another thread wins the compare and set. The counts of the stripes are spread over separate
+	 * cache lines. Drained under the lock of the cache
+	 *
+	 * @param <E>
+	 *            the generic type of the elements
+	 */
+	static final class ReadBuffer<E>
+	{
+
+		/** The count of slots of a stripe, a power of two */
+		static final int STRIPE_SIZE = 16;
+
+		/** The maximum count of stripes */
+		private static final int MAX_STRIPES = 64;
+
+		/** The distance of the counts of two stripes, so each count has its own cache line */
+		private static final int COUNT_STRIDE = 8;
+
+		private final int stripeMask;
+
+		private final AtomicReferenceArray<E> slots;
+
+		private final AtomicLongArray writeCounts;
+
+		private final AtomicLongArray readCounts;
+
+		ReadBuffer(int parallelism)
+		{
+			int stripes = 1;
+			while (stripes < parallelism && stripes < MAX_STRIPES)
+			{
+				stripes <<= 1;
+			}
+			stripeMask = stripes - 1;
+			slots = new AtomicReferenceArray<>(stripes * STRIPE_SIZE);
+			writeCounts = new AtomicLongArray(stripes * COUNT_STRIDE);
+			readCounts = new AtomicLongArray(stripes * COUNT_STRIDE);
+		}
+
+		/**
+		 * Adds the given element to the stripe of the current thread, the element is dropped if
+		 * the stripe is full or contended
+		 *
+		 * @return true if the stripe is full and should be drained
+		 */
+		boolean offer(E element)
+		{
+			int stripe = stripe();
+			int countIndex = stripe * COUNT_STRIDE;
+			long writeCount = writeCounts.get(countIndex);
+			long size = writeCount - readCounts.get(countIndex);
+			if (size >= STRIPE_SIZE)
+			{
+				return true;
+			}
+			if (!writeCounts.compareAndSet(countIndex, writeCount, writeCount + 1))
+			{
+				return false;
+			}
+			slots.lazySet(stripe * STRIPE_SIZE + (int)(writeCount & (STRIPE_SIZE - 1)), element);
+			return size + 1 == STRIPE_SIZE;
+		}
+
+		/**
+		 * Passes the buffered elements of all stripes to the given consumer in the order of each
+		 * stripe and removes them, called under the lock. A stripe is drained up to the first slot
+		 * whose element is not yet set by its offer
+		 */
+		void drain(Consumer<? super E> consumer)
+		{
+			for (int stripe = 0; stripe <= stripeMask; stripe++)
+			{
+				int countIndex = stripe * COUNT_STRIDE;
+				long readCount = readCounts.get(countIndex);
+				long writeCount = writeCounts.get(countIndex);
+				for (; readCount < writeCount; readCount++)
+				{
+					int slot = stripe * STRIPE_SIZE + (int)(readCount & (STRIPE_SIZE - 1));
+					E element = slots.get(slot);
+					if (element == null)
+					{
+						break;
+					}
+					slots.lazySet(slot, null);
+					consumer.accept(element);
+				}
+				readCounts.lazySet(countIndex, readCount);
+			}
+		}
+
+		private int stripe()
+		{
+			long hash = Thread.currentThread().getId() * 0x9e3779b97f4a7c15L;
+			return (int)(hash >>> 32) & stripeMask;
+		}
+
+	}
+
+	/**
+	 * The count-min sketch with four bit counters that estimates the access frequency of the keys
+	 * in the recent past. The counters are halved when the count of increments reaches ten times
+	 * the maximum size, so the estimates age. Guarded by the lock
+	 */
+	static final class FrequencySketch
+	{
+
+		private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+				0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private static final long ONE_MASK = 0x1111111111111111L;
+
+		private final long[] table;
+
+		private final int tableMask;
+
+		private final long sampleSize;
+
+		private long additions;
+
+		FrequencySketch(long maximumSize)
+		{
+			int capacity = (int)Math.min(maximumSize, 1 << 30);
+			int length = Math.max(8, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+			table = new long[length];
+			tableMask = length - 1;
+			sampleSize = 10L * Math.max(1, capacity);
+		}
+
+		int frequency(int hash)
+		{
+			int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i++)
+			{
+				int index = indexOf(hash, i);
+				int count = (int)((table[index] >>> ((start + i) << 2)) & 0xFL);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		void increment(int hash)
+		{
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i++)
+			{
+				added |= incrementAt(indexOf(hash, i), start + i);
+			}
+			if (added && ++additions >= sampleSize)
+			{
+				reset();
+			}
+		}
+
+		private boolean incrementAt(int index, int counter)
+		{
+			int offset = counter << 2;
+			long mask = 0xFL << offset;
+			if ((table[index] & mask) != mask)
+			{
+				table[index] += 1L << offset;
+				return true;
+			}
+			return false;
+		}
+
+		private int indexOf(int hash, int i)
+		{
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return (int)h & tableMask;
+		}
+
+		private void reset()
+		{
+			long odd = 0;
+			for (int i = 0; i < table.length; i++)
+			{
+				odd += Long.bitCount(table[i] & ONE_MASK);
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			additions = (additions >>> 1) - (odd >>> 2);
+		}
+
+	}
+
+}
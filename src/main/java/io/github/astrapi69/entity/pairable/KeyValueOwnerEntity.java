@@ -27,6 +27,7 @@ package io.github.astrapi69.entity.pairable;
 import java.io.Serializable;
 
 import io.github.astrapi69.data.pairable.IdentifiableKeyValueOwner;
+import io.github.astrapi69.entity.identifiable.EntityStrings;
 import io.github.astrapi69.entity.identifiable.SequenceBaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.MappedSuperclass;
@@ -35,13 +36,25 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.SuperBuilder;
 
 /**
  * The abstract entity class {@link KeyValueOwnerEntity} holds a generic key value pair with his
- * owner which can be also the parent if it is from the same type.
+ * owner which can be also the parent if it is from the same type. The string representation shows
+ * only the id of an owner entity.
+ *
+ * The lookups of the values of owners with {@link KeyValueOwners} need the composite index on the
+ * owner and the key column, that has to be defined in the table annotation of the concrete entity
+ * class. Index names are unique in a schema for instance in PostgreSQL, so each entity class
+ * derives the name of its index from its table name, for a table "properties":
+ *
+ * <pre>
+ * &#64;Table(name = "properties", indexes = &#64;Index(
+ * 	name = KeyValueOwnerEntity.OWNER_KEY_INDEX_PREFIX + "properties"
+ * 		+ KeyValueOwnerEntity.OWNER_KEY_INDEX_SUFFIX,
+ * 	columnList = KeyValueOwnerEntity.OWNER_KEY_INDEX_COLUMNS, unique = true))
+ * </pre>
  *
  * @param <PK>
  *            the generic type of the technical primary key
@@ -54,7 +67,6 @@ import lombok.experimental.SuperBuilder;
  */
 @MappedSuperclass
 @EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -67,16 +79,61 @@ public abstract class KeyValueOwnerEntity<PK extends Serializable, O, K, V>
 		IdentifiableKeyValueOwner<PK, O, K, V>
 {
 
+	/** The name of the column of the key */
+	public static final String KEY_COLUMN = "key";
+
+	/** The name of the column of the owner */
+	public static final String OWNER_COLUMN = "owner";
+
+	/** The name of the column of the value */
+	public static final String VALUE_COLUMN = "value";
+
+	/** The prefix of the name of the composite index before the table name */
+	public static final String OWNER_KEY_INDEX_PREFIX = "idx_";
+
+	/** The suffix of the name of the composite index after the table name */
+	public static final String OWNER_KEY_INDEX_SUFFIX = "_owner_key";
+
+	/** The column list of the composite index, the owner column leads for the owner lookups */
+	public static final String OWNER_KEY_INDEX_COLUMNS = OWNER_COLUMN + ", " + KEY_COLUMN;
+
 	/** The key of this key-value pair. */
-	@Column(name = "key", nullable = false)
+	@Column(name = KEY_COLUMN, nullable = false)
 	K key;
 
 	/** The owner of this key-value pair. */
-	@Column(name = "owner", nullable = false)
+	@Column(name = OWNER_COLUMN, nullable = false)
 	O owner;
 
 	/** The value of this key-value pair. */
-	@Column(name = "value")
+	@Column(name = VALUE_COLUMN)
 	V value;
 
+	/**
+	 * Gets the name of the composite index on the owner and the key column of the given table, for
+	 * instance for schema scripts
+	 *
+	 * @param tableName
+	 *            the name of the table
+	 * @return the name of the index
+	 */
+	public static String getOwnerKeyIndexName(String tableName)
+	{
+		return OWNER_KEY_INDEX_PREFIX + tableName + OWNER_KEY_INDEX_SUFFIX;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return EntityStrings.build(this, (sb, entity) -> {
+			EntityStrings.appendHeader(sb, entity);
+			EntityStrings.appendReference(sb, "owner", entity.owner);
+			EntityStrings.appendValue(sb, "key", entity.key);
+			EntityStrings.appendValue(sb, "value", entity.value);
+		});
+	}
+
 }
@@ -0,0 +1,293 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.github.astrapi69.data.pairable.IdentifiableKeyValueOwner;
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link KeyValueOwnerExpirer} tracks the expiry of single key value entities in a
+ * {@link TimingWheel} and removes the expired entities with batched bulk deletes by id. Setting
+ * and cancelling the expiry of an entity takes constant time and the cost of a removal depends
+ * only on the count of expired entities, so no scan of the whole table is needed.
+ *
+ * The schedule is held in memory only, so after a restart the expiry of the entities has to be
+ * set again, for instance from an expiry column of the entity. The bulk deletes bypass the
+ * persistence context, so managed instances of removed entities are stale afterwards. An expirer
+ * is thread safe.
+ *
+ * The expired ids are removed from the schedule when they are polled. If the deletes fail,
+ * {@link #removeExpired(EntityManager, long)} schedules the polled ids again. A rollback of the
+ * transaction after a successful delete is not visible to the expirer, so a caller that has to
+ * survive rollbacks polls the ids with {@link #pollExpired(long)}, deletes them with
+ * {@link #delete(EntityManager, List)} and passes them to {@link #restore(Collection, long)} if
+ * the transaction is rolled back
+ *
+ * @param <PK>
+ *            the generic type of the id of the key value entity
+ */
+public class KeyValueOwnerExpirer<PK>
+{
+
+	/** The default count of ids in one delete statement, that is below the limit of in lists */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/** The default duration of a tick in milliseconds */
+	public static final long DEFAULT_TICK_MILLIS = 1000;
+
+	/** The timing wheel */
+	private final TimingWheel<PK> wheel;
+
+	/** The scheduled timeouts by the id for replacing and cancelling an expiry */
+	private final Map<PK, TimingWheel<PK>.Timeout> timeouts = new HashMap<>();
+
+	/** The count of ids in one delete statement */
+	private final int batchSize;
+
+	/** The delete statement */
+	private final String deleteStatement;
+
+	/**
+	 * Instantiates a new {@link KeyValueOwnerExpirer} with the default tick duration and the
+	 * default batch size
+	 *
+	 * @param entityManager
+	 *            the entity manager for resolving the entity name
+	 * @param entityClass
+	 *            the entity class
+	 */
+	public KeyValueOwnerExpirer(EntityManager entityManager,
+		Class<? extends IdentifiableKeyValueOwner<PK, ?, ?, ?>> entityClass)
+	{
+		this(entityManager, entityClass, DEFAULT_TICK_MILLIS, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link KeyValueOwnerExpirer}
+	 *
+	 * @param entityManager
+	 *            the entity manager for resolving the entity name
+	 * @param entityClass
+	 *            the entity class
+	 * @param tickMillis
+	 *            the duration of a tick in milliseconds, the precision of the expiry
+	 * @param batchSize
+	 *            the count of ids in one delete statement
+	 */
+	public KeyValueOwnerExpirer(EntityManager entityManager,
+		Class<? extends IdentifiableKeyValueOwner<PK, ?, ?, ?>> entityClass, long tickMillis,
+		int batchSize)
+	{
+		if (batchSize < 1)
+		{
+			throw new IllegalArgumentException("The batch size must be positive");
+		}
+		Objects.requireNonNull(entityClass);
+		this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+		this.batchSize = batchSize;
+		this.deleteStatement = "DELETE FROM "
+			+ EntityNames.of(entityManager, entityClass)
+			+ " e WHERE e.id IN :ids";
+	}
+
+	/**
+	 * Sets the expiry of the entity with the given id to the given deadline, a former expiry of the
+	 * entity is replaced
+	 *
+	 * @param id
+	 *            the id of the entity
+	 * @param deadlineMillis
+	 *            the deadline in milliseconds since the epoch
+	 */
+	public synchronized void expireAt(PK id, long deadlineMillis)
+	{
+		Objects.requireNonNull(id);
+		TimingWheel<PK>.Timeout former = timeouts.put(id, wheel.schedule(id, deadlineMillis));
+		if (former != null)
+		{
+			former.cancel();
+		}
+	}
+
+	/**
+	 * Sets the expiry of the entity with the given id to the given deadline, a former expiry of the
+	 * entity is replaced
+	 *
+	 * @param id
+	 *            the id of the entity
+	 * @param deadline
+	 *            the deadline
+	 */
+	public void expireAt(PK id, Instant deadline)
+	{
+		expireAt(id, deadline.toEpochMilli());
+	}
+
+	/**
+	 * Sets the expiry of the entity with the given id to the given time to live from now on, a
+	 * former expiry of the entity is replaced
+	 *
+	 * @param id
+	 *            the id of the entity
+	 * @param timeToLive
+	 *            the time to live
+	 */
+	public void expireAfter(PK id, Duration timeToLive)
+	{
+		expireAt(id, System.currentTimeMillis() + timeToLive.toMillis());
+	}
+
+	/**
+	 * Cancels the expiry of the entity with the given id, for instance if the entity was removed
+	 *
+	 * @param id
+	 *            the id of the entity
+	 * @return true if an expiry of the entity was set otherwise false
+	 */
+	public synchronized boolean cancel(PK id)
+	{
+		TimingWheel<PK>.Timeout timeout = timeouts.remove(id);
+		return timeout != null && timeout.cancel();
+	}
+
+	/**
+	 * Gets the count of entities with an expiry
+	 *
+	 * @return the count of entities with an expiry
+	 */
+	public synchronized int size()
+	{
+		return timeouts.size();
+	}
+
+	/**
+	 * Removes the ids of the entities that are expired at the given time from the schedule
+	 *
+	 * @param nowMillis
+	 *            the current time in milliseconds since the epoch
+	 * @return the ids of the expired entities
+	 */
+	public synchronized List<PK> pollExpired(long nowMillis)
+	{
+		List<PK> expired = new ArrayList<>();
+		wheel.advance(nowMillis, id -> {
+			timeouts.remove(id);
+			expired.add(id);
+		});
+		return expired;
+	}
+
+	/**
+	 * Schedules the expiry of the given polled ids again, for instance after a rollback of the
+	 * transaction of their delete. An id whose expiry was set again in the meantime keeps that
+	 * expiry
+	 *
+	 * @param ids
+	 *            the polled ids
+	 * @param deadlineMillis
+	 *            the new deadline in milliseconds since the epoch
+	 */
+	public synchronized void restore(Collection<PK> ids, long deadlineMillis)
+	{
+		for (PK id : ids)
+		{
+			if (!timeouts.containsKey(id))
+			{
+				timeouts.put(id, wheel.schedule(id, deadlineMillis));
+			}
+		}
+	}
+
+	/**
+	 * Deletes the entities that are expired now with one bulk delete for each batch of ids. This
+	 * method has to be called within a transaction
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @return the count of deleted entities
+	 */
+	public int removeExpired(EntityManager entityManager)
+	{
+		return removeExpired(entityManager, System.currentTimeMillis());
+	}
+
+	/**
+	 * Deletes the entities that are expired at the given time with one bulk delete for each batch
+	 * of ids. If a delete fails the polled ids are scheduled again to expire with the next tick.
+	 * This method has to be called within a transaction
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param nowMillis
+	 *            the current time in milliseconds since the epoch
+	 * @return the count of deleted entities
+	 */
+	public int removeExpired(EntityManager entityManager, long nowMillis)
+	{
+		List<PK> expired = pollExpired(nowMillis);
+		try
+		{
+			return delete(entityManager, expired);
+		}
+		catch (RuntimeException e)
+		{
+			restore(expired, nowMillis);
+			throw e;
+		}
+	}
+
+	/**
+	 * Deletes the entities with the given polled ids with one bulk delete for each batch of ids.
+	 * This method has to be called within a transaction
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param ids
+	 *            the polled ids
+	 * @return the count of deleted entities
+	 */
+	public int delete(EntityManager entityManager, List<PK> ids)
+	{
+		int count = 0;
+		for (int from = 0; from < ids.size(); from += batchSize)
+		{
+			List<PK> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+			count += entityManager.createQuery(deleteStatement).setParameter("ids", chunk)
+				.executeUpdate();
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,337 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import io.github.astrapi69.data.pairable.IdentifiableKeyValueOwner;
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * The class {@link KeyValueOwnerUpserter} inserts or updates key value pairs in batches. The pairs
+ * are buffered grouped by the owner, for each batch the existing rows are resolved with one query
+ * of a fixed shape that matches the owners and the keys of the batch, so the statement is parsed
+ * and planned only once. The query loads the rows of all owners of the batch with any key of the
+ * batch, the rows of pairs that are not buffered are filtered out in memory, so the batches should
+ * group pairs with similar keys. Pairs with a null owner are resolved with a second query on the
+ * null owner. Changed values are updated, missing pairs are persisted and unchanged pairs are
+ * skipped. After each batch the persistence context is flushed and the entities of the batch are
+ * detached, so the memory does not grow with the count of pairs. Other entities of the caller stay
+ * managed, but a key value entity of the batch that the caller has loaded before is detached too.
+ *
+ * The count of the parameters of the in lists changes with each batch, so the persistence provider
+ * should pad the in lists to keep the sql shape, for instance with the hibernate property
+ * <code>hibernate.query.in_clause_parameter_padding</code>.
+ *
+ * The inserts and the updates of a flush are sent as jdbc batches if the persistence provider is
+ * configured for it, for instance with the hibernate properties
+ * <code>hibernate.jdbc.batch_size</code> set to the batch size of this upserter,
+ * <code>hibernate.order_inserts</code> and <code>hibernate.order_updates</code>. The ids of the
+ * inserted entities should be drawn from a pooled sequence or from the
+ * {@link io.github.astrapi69.entity.identifiable.PooledIdAllocators}, an identity column disables
+ * the batching of inserts. An upserter uses the entity manager of the caller and has to be used
+ * within a transaction, it is not thread safe
+ *
+ * @param <O>
+ *            the generic type of the owner
+ * @param <K>
+ *            the generic type of the key
+ * @param <V>
+ *            the generic type of the value
+ * @param <E>
+ *            the generic type of the key value entity
+ */
+public class KeyValueOwnerUpserter<O, K, V, E extends IdentifiableKeyValueOwner<?, O, K, V>>
+{
+
+	/** The default count of pairs in one batch */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
+	/** The entity manager */
+	private final EntityManager entityManager;
+
+	/** The entity class */
+	private final Class<E> entityClass;
+
+	/** The factory of new entities */
+	private final Supplier<E> factory;
+
+	/** The count of pairs in one batch */
+	private final int batchSize;
+
+	/** The query that loads the existing rows of the owners and the keys of a batch */
+	private final String selectStatement;
+
+	/** The query that loads the existing rows of the null owner and the keys of a batch */
+	private final String selectNullOwnerStatement;
+
+	/** The buffered pairs grouped by the owner */
+	private final Map<O, Map<K, V>> pending = new LinkedHashMap<>();
+
+	/** The count of buffered pairs */
+	private int pendingCount;
+
+	private long insertCount;
+
+	private long updateCount;
+
+	private long unchangedCount;
+
+	private long batchCount;
+
+	private long elapsedNanos;
+
+	/**
+	 * Instantiates a new {@link KeyValueOwnerUpserter} with the default batch size
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param factory
+	 *            the factory of new entities
+	 */
+	public KeyValueOwnerUpserter(EntityManager entityManager, Class<E> entityClass,
+		Supplier<E> factory)
+	{
+		this(entityManager, entityClass, factory, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link KeyValueOwnerUpserter}
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param factory
+	 *            the factory of new entities
+	 * @param batchSize
+	 *            the count of pairs in one batch
+	 */
+	public KeyValueOwnerUpserter(EntityManager entityManager, Class<E> entityClass,
+		Supplier<E> factory, int batchSize)
+	{
+		if (batchSize < 1)
+		{
+			throw new IllegalArgumentException("The batch size must be positive");
+		}
+		this.entityManager = Objects.requireNonNull(entityManager);
+		this.entityClass = Objects.requireNonNull(entityClass);
+		this.factory = Objects.requireNonNull(factory);
+		this.batchSize = batchSize;
+		String selectPrefix = "SELECT e FROM " + EntityNames.of(entityManager, entityClass)
+			+ " e WHERE ";
+		this.selectStatement = selectPrefix + "e.owner IN :owners AND e.key IN :keys";
+		this.selectNullOwnerStatement = selectPrefix + "e.owner IS NULL AND e.key IN :keys";
+	}
+
+	/**
+	 * Buffers the given pair and writes the buffered pairs if the batch is full. A later pair with
+	 * the same owner and key replaces an earlier one of the same batch
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	public void upsert(O owner, K key, V value)
+	{
+		Map<K, V> values = pending.computeIfAbsent(owner, o -> new LinkedHashMap<>());
+		boolean added = !values.containsKey(key);
+		values.put(key, value);
+		if (added && ++pendingCount >= batchSize)
+		{
+			flush();
+		}
+	}
+
+	/**
+	 * Buffers all given pairs and writes the buffered pairs whenever a batch is full
+	 *
+	 * @param pairs
+	 *            the map of the owners to the maps of their keys to the values
+	 */
+	public void upsertAll(Map<O, ? extends Map<K, V>> pairs)
+	{
+		pairs.forEach((owner, values) -> values.forEach((key, value) -> upsert(owner, key, value)));
+	}
+
+	/**
+	 * Writes the buffered pairs, flushes the persistence context and detaches the entities of the
+	 * written pairs. Has to be called after the last pair
+	 */
+	public void flush()
+	{
+		if (pending.isEmpty())
+		{
+			return;
+		}
+		long start = System.nanoTime();
+		List<E> touched = selectExisting();
+		for (E entity : touched)
+		{
+			Map<K, V> values = pending.get(entity.getOwner());
+			if (values == null || !values.containsKey(entity.getKey()))
+			{
+				continue;
+			}
+			V value = values.remove(entity.getKey());
+			if (Objects.equals(entity.getValue(), value))
+			{
+				unchangedCount++;
+			}
+			else
+			{
+				entity.setValue(value);
+				updateCount++;
+			}
+		}
+		pending.forEach((owner, values) -> values.forEach((key, value) -> {
+			E entity = factory.get();
+			entity.setOwner(owner);
+			entity.setKey(key);
+			entity.setValue(value);
+			entityManager.persist(entity);
+			touched.add(entity);
+			insertCount++;
+		}));
+		entityManager.flush();
+		for (E entity : touched)
+		{
+			entityManager.detach(entity);
+		}
+		pending.clear();
+		pendingCount = 0;
+		batchCount++;
+		elapsedNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * Loads the existing rows of the owners and the keys of the buffered pairs into a new list, the
+	 * null owner is resolved with its own query
+	 */
+	private List<E> selectExisting()
+	{
+		List<E> existing = new ArrayList<>();
+		List<O> owners = new ArrayList<>(pending.size());
+		Set<K> keys = new HashSet<>();
+		for (Map.Entry<O, Map<K, V>> entry : pending.entrySet())
+		{
+			if (entry.getKey() == null)
+			{
+				TypedQuery<E> query = entityManager.createQuery(selectNullOwnerStatement,
+					entityClass);
+				existing.addAll(query.setParameter("keys", entry.getValue().keySet())
+					.getResultList());
+			}
+			else
+			{
+				owners.add(entry.getKey());
+				keys.addAll(entry.getValue().keySet());
+			}
+		}
+		if (!owners.isEmpty())
+		{
+			TypedQuery<E> query = entityManager.createQuery(selectStatement, entityClass);
+			existing.addAll(query.setParameter("owners", owners).setParameter("keys", keys)
+				.getResultList());
+		}
+		return existing;
+	}
+
+	/**
+	 * Gets the count of inserted pairs
+	 *
+	 * @return the count of inserted pairs
+	 */
+	public long getInsertCount()
+	{
+		return insertCount;
+	}
+
+	/**
+	 * Gets the count of updated pairs
+	 *
+	 * @return the count of updated pairs
+	 */
+	public long getUpdateCount()
+	{
+		return updateCount;
+	}
+
+	/**
+	 * Gets the count of pairs whose value was already stored
+	 *
+	 * @return the count of unchanged pairs
+	 */
+	public long getUnchangedCount()
+	{
+		return unchangedCount;
+	}
+
+	/**
+	 * Gets the count of written batches
+	 *
+	 * @return the count of batches
+	 */
+	public long getBatchCount()
+	{
+		return batchCount;
+	}
+
+	/**
+	 * Gets the time spent in writing the batches in nanoseconds
+	 *
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+
+	/**
+	 * Gets the throughput of the written batches
+	 *
+	 * @return the count of written pairs per second or 0 if no batch was written
+	 */
+	public double getPairsPerSecond()
+	{
+		long pairs = insertCount + updateCount + unchangedCount;
+		return elapsedNanos == 0 ? 0.0 : pairs * 1_000_000_000.0 / elapsedNanos;
+	}
+
+}
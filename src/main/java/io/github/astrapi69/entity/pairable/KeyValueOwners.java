@@ -0,0 +1,159 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link KeyValueOwners} loads the key value pairs of many owners in a batch. The
+ * queries select only the owner, the key and the value column with an in predicate on the owner
+ * column, so they are answered from the composite index on the owner and the key column, see
+ * {@link KeyValueOwnerEntity#OWNER_KEY_INDEX_COLUMNS}, and the loaded rows are not managed by the
+ * persistence context
+ */
+public final class KeyValueOwners
+{
+
+	/** The default count of owners in one query, that is below the limit of in lists */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private KeyValueOwners()
+	{
+	}
+
+	/**
+	 * Loads the keys and the values of the given owner
+	 *
+	 * @param <O>
+	 *            the generic type of the owner
+	 * @param <K>
+	 *            the generic type of the key
+	 * @param <V>
+	 *            the generic type of the value
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param owner
+	 *            the owner
+	 * @return the map of the keys to the values
+	 */
+	public static <O, K, V> Map<K, V> findByOwner(EntityManager entityManager,
+		Class<? extends KeyValueOwnerEntity<?, O, K, V>> entityClass, O owner)
+	{
+		return findByOwners(entityManager, entityClass, List.of(owner)).get(owner);
+	}
+
+	/**
+	 * Loads the keys and the values of the given owners with one query for each chunk of
+	 * {@link #DEFAULT_CHUNK_SIZE} owners
+	 *
+	 * @param <O>
+	 *            the generic type of the owner
+	 * @param <K>
+	 *            the generic type of the key
+	 * @param <V>
+	 *            the generic type of the value
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param owners
+	 *            the owners
+	 * @return the map of each given owner to the map of its keys to the values, the map of an owner
+	 *         without key value pairs is empty
+	 */
+	public static <O, K, V> Map<O, Map<K, V>> findByOwners(EntityManager entityManager,
+		Class<? extends KeyValueOwnerEntity<?, O, K, V>> entityClass, Collection<O> owners)
+	{
+		return findByOwners(entityManager, entityClass, owners, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Loads the keys and the values of the given owners with one query for each chunk of the given
+	 * size
+	 *
+	 * @param <O>
+	 *            the generic type of the owner
+	 * @param <K>
+	 *            the generic type of the key
+	 * @param <V>
+	 *            the generic type of the value
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param owners
+	 *            the owners
+	 * @param chunkSize
+	 *            the maximum count of owners in one query
+	 * @return the map of each given owner to the map of its keys to the values, the map of an owner
+	 *         without key value pairs is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public static <O, K, V> Map<O, Map<K, V>> findByOwners(EntityManager entityManager,
+		Class<? extends KeyValueOwnerEntity<?, O, K, V>> entityClass, Collection<O> owners,
+		int chunkSize)
+	{
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("The chunk size must be positive");
+		}
+		Map<O, Map<K, V>> result = new LinkedHashMap<>(Math.max(16, owners.size() * 2));
+		for (O owner : owners)
+		{
+			result.put(owner, new LinkedHashMap<>());
+		}
+		if (result.isEmpty())
+		{
+			return result;
+		}
+		String statement = "SELECT e.owner, e.key, e.value FROM "
+			+ EntityNames.of(entityManager, entityClass)
+			+ " e WHERE e.owner IN :owners ORDER BY e.owner, e.key";
+		List<O> distinctOwners = new ArrayList<>(new LinkedHashSet<>(result.keySet()));
+		for (int from = 0; from < distinctOwners.size(); from += chunkSize)
+		{
+			List<O> chunk = distinctOwners.subList(from,
+				Math.min(from + chunkSize, distinctOwners.size()));
+			List<Object[]> rows = entityManager.createQuery(statement, Object[].class)
+				.setParameter("owners", chunk).getResultList();
+			for (Object[] row : rows)
+			{
+				result.get((O)row[0]).put((K)row[1], (V)row[2]);
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,205 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import io.github.astrapi69.data.pairable.IdentifiableKeyValueOwner;
+import io.github.astrapi69.entity.identifiable.EntityStrings;
+import io.github.astrapi69.entity.identifiable.SequenceBaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * The abstract entity class {@link LongIntDoubleKeyValueOwnerEntity} is the primitive
+ * specialization of {@link KeyValueOwnerEntity} for a long owner, an int key and a double value,
+ * for instance for metric counters. The attributes are held as primitives and are read and written
+ * with the primitive accessors without boxing, the methods of {@link IdentifiableKeyValueOwner} box
+ * and unbox for the callers that need the generic contract. The columns are the same as the columns
+ * of {@link KeyValueOwnerEntity}, null values are not supported
+ *
+ * @param <PK>
+ *            the generic type of the technical primary key
+ */
+@MappedSuperclass
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@SuperBuilder
+public abstract class LongIntDoubleKeyValueOwnerEntity<PK extends Serializable>
+	extends
+		SequenceBaseEntity<PK>
+	implements
+		IdentifiableKeyValueOwner<PK, Long, Integer, Double>
+{
+
+	/** The key of this key-value pair. */
+	@Column(name = KeyValueOwnerEntity.KEY_COLUMN, nullable = false)
+	int key;
+
+	/** The owner of this key-value pair. */
+	@Column(name = KeyValueOwnerEntity.OWNER_COLUMN, nullable = false)
+	long owner;
+
+	/** The value of this key-value pair. */
+	@Column(name = KeyValueOwnerEntity.VALUE_COLUMN, nullable = false)
+	double value;
+
+	/**
+	 * Gets the owner without boxing
+	 *
+	 * @return the owner
+	 */
+	public long getOwnerAsLong()
+	{
+		return owner;
+	}
+
+	/**
+	 * Sets the owner without boxing
+	 *
+	 * @param owner
+	 *            the owner
+	 */
+	public void setOwner(long owner)
+	{
+		this.owner = owner;
+	}
+
+	/**
+	 * Gets the key without boxing
+	 *
+	 * @return the key
+	 */
+	public int getKeyAsInt()
+	{
+		return key;
+	}
+
+	/**
+	 * Sets the key without boxing
+	 *
+	 * @param key
+	 *            the key
+	 */
+	public void setKey(int key)
+	{
+		this.key = key;
+	}
+
+	/**
+	 * Gets the value without boxing
+	 *
+	 * @return the value
+	 */
+	public double getValueAsDouble()
+	{
+		return value;
+	}
+
+	/**
+	 * Sets the value without boxing
+	 *
+	 * @param value
+	 *            the value
+	 */
+	public void setValue(double value)
+	{
+		this.value = value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Long getOwner()
+	{
+		return owner;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setOwner(Long owner)
+	{
+		this.owner = Objects.requireNonNull(owner, "The owner must not be null");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer getKey()
+	{
+		return key;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setKey(Integer key)
+	{
+		this.key = Objects.requireNonNull(key, "The key must not be null");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Double getValue()
+	{
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(Double value)
+	{
+		this.value = Objects.requireNonNull(value, "The value must not be null");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return EntityStrings.build(this, (sb, entity) -> {
+			EntityStrings.appendHeader(sb, entity).append(", owner=").append(entity.owner)
+				.append(", key=").append(entity.key).append(", value=").append(entity.value);
+		});
+	}
+
+}
@@ -0,0 +1,151 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+/**
+ * The class {@link OwnerKeyDoubleMap} is an open addressing hash map from a primitive long owner
+ * and a primitive int key to a primitive double value, for instance for the in-memory aggregation
+ * of {@link LongIntDoubleKeyValueOwnerEntity} values without boxing. The map is not thread safe
+ */
+public class OwnerKeyDoubleMap extends AbstractOwnerKeyMap
+{
+
+	/**
+	 * Instantiates a new {@link OwnerKeyDoubleMap} with the default expected size
+	 */
+	public OwnerKeyDoubleMap()
+	{
+		this(DEFAULT_EXPECTED_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link OwnerKeyDoubleMap}
+	 *
+	 * @param expectedSize
+	 *            the expected count of entries
+	 */
+	public OwnerKeyDoubleMap(int expectedSize)
+	{
+		super(expectedSize);
+	}
+
+	/**
+	 * Gets the value of the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value that is returned if this map has no entry for the given owner and key
+	 * @return the value or the given default value
+	 */
+	public double get(long owner, int key, double defaultValue)
+	{
+		int slot = indexOf(owner, key);
+		return slot < 0 ? defaultValue : Double.longBitsToDouble(values[slot]);
+	}
+
+	/**
+	 * Sets the value of the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	public void put(long owner, int key, double value)
+	{
+		int slot = insertionIndexOf(owner, key);
+		values[slot] = Double.doubleToRawLongBits(value);
+	}
+
+	/**
+	 * Sets the value of the given entity
+	 *
+	 * @param entity
+	 *            the entity
+	 */
+	public void put(LongIntDoubleKeyValueOwnerEntity<?> entity)
+	{
+		put(entity.getOwnerAsLong(), entity.getKeyAsInt(), entity.getValueAsDouble());
+	}
+
+	/**
+	 * Adds the given delta to the value of the given owner and key, a missing value is treated as
+	 * zero
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param delta
+	 *            the delta to add
+	 * @return the new value
+	 */
+	public double addTo(long owner, int key, double delta)
+	{
+		int slot = insertionIndexOf(owner, key);
+		double value = Double.longBitsToDouble(values[slot]) + delta;
+		values[slot] = Double.doubleToRawLongBits(value);
+		return value;
+	}
+
+	/**
+	 * Performs the given action for each entry
+	 *
+	 * @param action
+	 *            the action
+	 */
+	public void forEach(EntryConsumer action)
+	{
+		forEachRaw((owner, key, bits) -> action.accept(owner, key, Double.longBitsToDouble(bits)));
+	}
+
+	/**
+	 * The functional interface {@link EntryConsumer} accepts an entry of a
+	 * {@link OwnerKeyDoubleMap}
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer
+	{
+
+		/**
+		 * Accepts the given entry
+		 *
+		 * @param owner
+		 *            the owner
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 */
+		void accept(long owner, int key, double value);
+
+	}
+
+}
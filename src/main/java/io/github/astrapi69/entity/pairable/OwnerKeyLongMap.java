@@ -0,0 +1,150 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+/**
+ * The class {@link OwnerKeyLongMap} is an open addressing hash map from a primitive long owner and
+ * a primitive int key to a primitive long value, for instance for the in-memory aggregation of
+ * {@link LongIntLongKeyValueOwnerEntity} values without boxing. The map is not thread safe
+ */
+public class OwnerKeyLongMap extends AbstractOwnerKeyMap
+{
+
+	/**
+	 * Instantiates a new {@link OwnerKeyLongMap} with the default expected size
+	 */
+	public OwnerKeyLongMap()
+	{
+		this(DEFAULT_EXPECTED_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link OwnerKeyLongMap}
+	 *
+	 * @param expectedSize
+	 *            the expected count of entries
+	 */
+	public OwnerKeyLongMap(int expectedSize)
+	{
+		super(expectedSize);
+	}
+
+	/**
+	 * Gets the value of the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value that is returned if this map has no entry for the given owner and key
+	 * @return the value or the given default value
+	 */
+	public long get(long owner, int key, long defaultValue)
+	{
+		int slot = indexOf(owner, key);
+		return slot < 0 ? defaultValue : values[slot];
+	}
+
+	/**
+	 * Sets the value of the given owner and key
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	public void put(long owner, int key, long value)
+	{
+		int slot = insertionIndexOf(owner, key);
+		values[slot] = value;
+	}
+
+	/**
+	 * Sets the value of the given entity
+	 *
+	 * @param entity
+	 *            the entity
+	 */
+	public void put(LongIntLongKeyValueOwnerEntity<?> entity)
+	{
+		put(entity.getOwnerAsLong(), entity.getKeyAsInt(), entity.getValueAsLong());
+	}
+
+	/**
+	 * Adds the given delta to the value of the given owner and key, a missing value is treated as
+	 * zero
+	 *
+	 * @param owner
+	 *            the owner
+	 * @param key
+	 *            the key
+	 * @param delta
+	 *            the delta to add
+	 * @return the new value
+	 */
+	public long addTo(long owner, int key, long delta)
+	{
+		int slot = insertionIndexOf(owner, key);
+		long value = values[slot] + delta;
+		values[slot] = value;
+		return value;
+	}
+
+	/**
+	 * Performs the given action for each entry
+	 *
+	 * @param action
+	 *            the action
+	 */
+	public void forEach(EntryConsumer action)
+	{
+		forEachRaw((owner, key, bits) -> action.accept(owner, key, bits));
+	}
+
+	/**
+	 * The functional interface {@link EntryConsumer} accepts an entry of a {@link OwnerKeyLongMap}
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer
+	{
+
+		/**
+		 * Accepts the given entry
+		 *
+		 * @param owner
+		 *            the owner
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 */
+		void accept(long owner, int key, long value);
+
+	}
+
+}
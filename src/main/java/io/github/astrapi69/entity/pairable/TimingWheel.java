@@ -0,0 +1,280 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import java.util.function.Consumer;
+
+/**
+ * The class {@link TimingWheel} is a hierarchical timing wheel that schedules the expiry of
+ * elements with a deadline in milliseconds. Each of the levels has 64 buckets, a bucket of the
+ * first level covers one tick and a bucket of the next level covers 64 buckets of the level
+ * below. Scheduling and cancelling are constant time operations on doubly linked bucket lists, an
+ * advance visits the elapsed ticks, moves the entries of the reached buckets of the upper levels
+ * down and expires the entries of the reached bucket of the first level. So the cost of an advance
+ * depends on the elapsed time and the count of expired entries, not on the count of scheduled
+ * entries. The methods are synchronized
+ *
+ * @param <E>
+ *            the generic type of the elements
+ */
+public class TimingWheel<E>
+{
+
+	/** The count of bits of a bucket index */
+	private static final int WHEEL_BITS = 6;
+
+	/** The count of buckets of a level */
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+	/** The mask for a bucket index */
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+	/** The count of levels, so the wheel covers 2^60 ticks */
+	private static final int LEVELS = 10;
+
+	/** The duration of a tick in milliseconds */
+	private final long tickMillis;
+
+	/** The buckets, the sentinels of circular doubly linked lists */
+	private final Timeout[][] buckets;
+
+	/** The last processed tick */
+	private long currentTick;
+
+	/** The count of scheduled entries */
+	private int size;
+
+	/**
+	 * Instantiates a new {@link TimingWheel}
+	 *
+	 * @param tickMillis
+	 *            the duration of a tick in milliseconds, the precision of the expiry
+	 * @param startMillis
+	 *            the start time in milliseconds
+	 */
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long tickMillis, long startMillis)
+	{
+		if (tickMillis < 1)
+		{
+			throw new IllegalArgumentException("The tick duration must be positive");
+		}
+		this.tickMillis = tickMillis;
+		this.currentTick = startMillis / tickMillis;
+		this.buckets = new TimingWheel.Timeout[LEVELS][WHEEL_SIZE];
+		for (int level = 0; level < LEVELS; level++)
+		{
+			for (int index = 0; index < WHEEL_SIZE; index++)
+			{
+				Timeout sentinel = new Timeout(null, 0);
+				sentinel.previous = sentinel;
+				sentinel.next = sentinel;
+				buckets[level][index] = sentinel;
+			}
+		}
+	}
+
+	/**
+	 * Gets the count of scheduled entries
+	 *
+	 * @return the count of scheduled entries
+	 */
+	public synchronized int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Schedules the expiry of the given element at the given deadline. The element expires with
+	 * the first advance to a time that is at least the deadline rounded up to the next tick, an
+	 * element with a deadline that is already reached expires with the next tick
+	 *
+	 * @param element
+	 *            the element
+	 * @param deadlineMillis
+	 *            the deadline in milliseconds
+	 * @return the timeout that can be cancelled
+	 */
+	public synchronized Timeout schedule(E element, long deadlineMillis)
+	{
+		long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis)
+			+ (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+		Timeout timeout = new Timeout(element, deadlineTick);
+		place(timeout, currentTick + 1);
+		size++;
+		return timeout;
+	}
+
+	/**
+	 * Cancels the given timeout
+	 *
+	 * @param timeout
+	 *            the timeout
+	 * @return true if the timeout was scheduled otherwise false
+	 */
+	public synchronized boolean cancel(Timeout timeout)
+	{
+		if (timeout.next == null)
+		{
+			return false;
+		}
+		unlink(timeout);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Advances the wheel to the given time and passes the elements of the expired entries to the
+	 * given consumer
+	 *
+	 * @param nowMillis
+	 *            the current time in milliseconds
+	 * @param expired
+	 *            the consumer of the expired elements
+	 * @return the count of expired entries
+	 */
+	public synchronized int advance(long nowMillis, Consumer<? super E> expired)
+	{
+		long nowTick = Math.floorDiv(nowMillis, tickMillis);
+		int count = 0;
+		while (currentTick < nowTick)
+		{
+			if (size == 0)
+			{
+				currentTick = nowTick;
+				break;
+			}
+			currentTick++;
+			for (int level = 1; level < LEVELS; level++)
+			{
+				if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0)
+				{
+					break;
+				}
+				cascade(buckets[level][index(currentTick, level)]);
+			}
+			Timeout sentinel = buckets[0][index(currentTick, 0)];
+			while (sentinel.next != sentinel)
+			{
+				Timeout timeout = sentinel.next;
+				unlink(timeout);
+				size--;
+				count++;
+				expired.accept(timeout.element);
+			}
+		}
+		return count;
+	}
+
+	private void cascade(Timeout sentinel)
+	{
+		while (sentinel.next != sentinel)
+		{
+			Timeout timeout = sentinel.next;
+			unlink(timeout);
+			// the bucket of the current tick on the first level is expired right after the cascade
+			place(timeout, currentTick);
+		}
+	}
+
+	private void place(Timeout timeout, long minTick)
+	{
+		long tick = Math.max(timeout.deadlineTick, minTick);
+		long delta = tick - currentTick;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1)))
+		{
+			level++;
+		}
+		if (delta >= 1L << (WHEEL_BITS * LEVELS))
+		{
+			// beyond the range of the wheel, placed again when the top level bucket is reached
+			tick = currentTick + (1L << (WHEEL_BITS * LEVELS)) - 1;
+		}
+		Timeout sentinel = buckets[level][index(tick, level)];
+		timeout.previous = sentinel.previous;
+		timeout.next = sentinel;
+		sentinel.previous.next = timeout;
+		sentinel.previous = timeout;
+	}
+
+	private void unlink(Timeout timeout)
+	{
+		timeout.previous.next = timeout.next;
+		timeout.next.previous = timeout.previous;
+		timeout.previous = null;
+		timeout.next = null;
+	}
+
+	private static int index(long tick, int level)
+	{
+		return (int)(tick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+	}
+
+	/**
+	 * The scheduled expiry of an element
+	 */
+	public final class Timeout
+	{
+
+		/** The element */
+		private final E element;
+
+		/** The tick of the deadline */
+		private final long deadlineTick;
+
+		private Timeout previous;
+
+		private Timeout next;
+
+		private Timeout(E element, long deadlineTick)
+		{
+			this.element = element;
+			this.deadlineTick = deadlineTick;
+		}
+
+		/**
+		 * Gets the element
+		 *
+		 * @return the element
+		 */
+		public E getElement()
+		{
+			return element;
+		}
+
+		/**
+		 * Cancels this timeout
+		 *
+		 * @return true if this timeout was scheduled otherwise false
+		 */
+		public boolean cancel()
+		{
+			return TimingWheel.this.cancel(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * The Entity class {@link MaterializedPathTreeUUIDEntity} is a {@link TreeUUIDEntity} that holds
+ * the materialized path of its ancestors. The path is updated automatically when the parent is set
+ * and before the entity is persisted or updated, so a whole subtree can be fetched with one indexed
+ * prefix scan with {@link MaterializedPaths#findDescendants} and the check if a tree entity
+ * is an ancestor of another one is a string prefix check without a database access
+ *
+ * @param <T>
+ *            the generic type of the value
+ * @param <TR>
+ *            the generic type of the tree entity
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@SuperBuilder
+public abstract class MaterializedPathTreeUUIDEntity<T,
+	TR extends MaterializedPathTreeUUIDEntity<T, TR>>
+	extends
+		TreeUUIDEntity<T, TR>
+	implements
+		MaterializedPathTreeable<UUID>
+{
+
+	/** The materialized path of the ancestors of this tree entity */
+	@Column(name = MaterializedPaths.PATH_COLUMN, length = MaterializedPaths.PATH_LENGTH)
+	@Setter(AccessLevel.NONE)
+	String path;
+
+	/**
+	 * Sets the parent and updates the materialized path of this tree entity
+	 *
+	 * @param parent
+	 *            the new parent
+	 */
+	@Override
+	public void setParent(TR parent)
+	{
+		super.setParent(parent);
+		updatePath();
+	}
+
+	/**
+	 * Updates the materialized path of this tree entity from the path and the id of the parent
+	 */
+	@PrePersist
+	@PreUpdate
+	protected void updatePath()
+	{
+		TR parent = getParent();
+		path = parent == null
+			? MaterializedPaths.ROOT_PATH
+			: MaterializedPaths.childPath(parent.getPath(), parent.getId());
+	}
+
+}
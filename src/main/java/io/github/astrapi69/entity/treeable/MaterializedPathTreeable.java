@@ -0,0 +1,71 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+
+/**
+ * The interface {@link MaterializedPathTreeable} is for tree entities that hold the materialized
+ * path of their ancestors. The path is built from the ids of all ancestors from the root to the
+ * parent, each followed by the separator {@link MaterializedPaths#SEPARATOR}, and the path of a
+ * root is {@link MaterializedPaths#ROOT_PATH}. So all descendants of a tree entity have a path that
+ * starts with the subtree prefix of this tree entity
+ *
+ * @param <PK>
+ *            the generic type of the technical primary key
+ */
+public interface MaterializedPathTreeable<PK> extends Identifiable<PK>
+{
+
+	/**
+	 * Gets the materialized path of the ancestors of this tree entity
+	 *
+	 * @return the materialized path or null if it is not computed yet
+	 */
+	String getPath();
+
+	/**
+	 * Gets the prefix of the paths of all descendants of this tree entity
+	 *
+	 * @return the subtree prefix or null if the path or the id is not set yet
+	 */
+	default String getSubtreePrefix()
+	{
+		return MaterializedPaths.childPath(getPath(), getId());
+	}
+
+	/**
+	 * Checks if this tree entity is an ancestor of the given tree entity without a database access
+	 *
+	 * @param other
+	 *            the other tree entity
+	 * @return true if this tree entity is an ancestor of the given tree entity otherwise false
+	 */
+	default boolean isAncestorOf(MaterializedPathTreeable<?> other)
+	{
+		return MaterializedPaths.isAncestor(this, other);
+	}
+
+}
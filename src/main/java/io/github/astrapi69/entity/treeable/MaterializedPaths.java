@@ -0,0 +1,244 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.List;
+
+import io.github.astrapi69.data.treeable.Treeable;
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link MaterializedPaths} provides the path computation and the queries for tree
+ * entities that implement {@link MaterializedPathTreeable}. The queries select a subtree with a
+ * like predicate on the path column with the escaped prefix of the subtree and a trailing
+ * wildcard. The result does not depend on the collation of the column, and an index on the path
+ * column is used for a prefix scan. The index has to be defined in the table annotation of the
+ * concrete entity class, for instance
+ * <code>@Table(indexes = @Index(columnList = MaterializedPaths.PATH_COLUMN))</code>. Note that
+ * PostgreSQL uses an index for like predicates only with the C collation or the operator class
+ * <code>varchar_pattern_ops</code>, so there the index has to be created with one of them
+ */
+public final class MaterializedPaths
+{
+
+	/** The name of the path column */
+	public static final String PATH_COLUMN = "path";
+
+	/**
+	 * The length of the path column. A path holds one id and the separator for each ancestor, so
+	 * with uuid ids of 36 characters the depth is limited to 55 and with long ids of up to 19
+	 * digits to 102
+	 */
+	public static final int PATH_LENGTH = 2048;
+
+	/** The escape character of the like patterns */
+	public static final char ESCAPE = '!';
+
+	/** The separator that follows each id in a path */
+	public static final char SEPARATOR = '/';
+
+	/** The path of a root */
+	public static final String ROOT_PATH = String.valueOf(SEPARATOR);
+
+	private MaterializedPaths()
+	{
+	}
+
+	/**
+	 * Computes the path of a child from the path and the id of the parent
+	 *
+	 * @param parentPath
+	 *            the path of the parent
+	 * @param parentId
+	 *            the id of the parent
+	 * @return the path of a child or null if the path or the id of the parent is null
+	 */
+	public static String childPath(String parentPath, Object parentId)
+	{
+		if (parentPath == null || parentId == null)
+		{
+			return null;
+		}
+		return parentPath + parentId + SEPARATOR;
+	}
+
+	/**
+	 * Checks if the given ancestor is an ancestor of the given descendant
+	 *
+	 * @param ancestor
+	 *            the possible ancestor
+	 * @param descendant
+	 *            the possible descendant
+	 * @return true if the given ancestor is an ancestor of the given descendant otherwise false
+	 */
+	public static boolean isAncestor(MaterializedPathTreeable<?> ancestor,
+		MaterializedPathTreeable<?> descendant)
+	{
+		String prefix = ancestor.getSubtreePrefix();
+		String path = descendant.getPath();
+		return prefix != null && path != null && path.startsWith(prefix);
+	}
+
+	/**
+	 * Computes the like pattern that matches all paths that start with the given prefix. The
+	 * wildcards and the escape character in the prefix are escaped with the {@link #ESCAPE}
+	 * character
+	 *
+	 * @param prefix
+	 *            the prefix that ends with the separator
+	 * @return the like pattern
+	 */
+	public static String prefixPattern(String prefix)
+	{
+		StringBuilder sb = new StringBuilder(prefix.length() + 8);
+		for (int i = 0; i < prefix.length(); i++)
+		{
+			char c = prefix.charAt(i);
+			if (c == '%' || c == '_' || c == ESCAPE)
+			{
+				sb.append(ESCAPE);
+			}
+			sb.append(c);
+		}
+		return sb.append('%').toString();
+	}
+
+	/**
+	 * Finds all descendants of the given tree entity with one query
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param ancestor
+	 *            the tree entity whose descendants are searched
+	 * @return the descendants of the given tree entity
+	 */
+	public static <E extends MaterializedPathTreeable<?>> List<E> findDescendants(
+		EntityManager entityManager, Class<E> entityClass, E ancestor)
+	{
+		String prefix = requirePrefix(ancestor);
+		return entityManager.createQuery("SELECT e FROM " + EntityNames.of(entityManager, entityClass)
+			+ " e WHERE e.path LIKE :pattern ESCAPE '" + ESCAPE + "'", entityClass)
+			.setParameter("pattern", prefixPattern(prefix)).getResultList();
+	}
+
+	/**
+	 * Moves the given tree entity to the given new parent. The path and the depth of the given tree
+	 * entity are updated with its setters and the node flags of the old and the new parent are
+	 * updated, the paths and the depths of all descendants are updated with one bulk update
+	 * statement. Note that a bulk update does not update descendants that are already loaded in the
+	 * persistence context
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent
+	 * @return the count of updated descendants
+	 */
+	public static <T, E extends Treeable<T, E> & MaterializedPathTreeable<?>> int moveSubtree(
+		EntityManager entityManager, Class<E> entityClass, E node, E newParent)
+	{
+		String oldPrefix = requirePrefix(node);
+		int depthDelta = TreeMoves.moveNode(entityManager, entityClass, node, newParent);
+		String newPrefix = requirePrefix(node);
+		return updateSubtreePaths(entityManager, entityClass, oldPrefix, newPrefix, depthDelta);
+	}
+
+	/**
+	 * Replaces the given old prefix with the given new prefix in the paths of all tree entities
+	 * with one bulk update statement
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param oldPrefix
+	 *            the old subtree prefix
+	 * @param newPrefix
+	 *            the new subtree prefix
+	 * @return the count of updated tree entities
+	 */
+	public static int updateSubtreePaths(EntityManager entityManager, Class<?> entityClass,
+		String oldPrefix, String newPrefix)
+	{
+		return updateSubtreePaths(entityManager, entityClass, oldPrefix, newPrefix, 0);
+	}
+
+	/**
+	 * Replaces the given old prefix with the given new prefix in the paths of all tree entities and
+	 * changes their depths by the given delta with one bulk update statement
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param oldPrefix
+	 *            the old subtree prefix
+	 * @param newPrefix
+	 *            the new subtree prefix
+	 * @param depthDelta
+	 *            the difference of the new and the old depth
+	 * @return the count of updated tree entities
+	 */
+	public static int updateSubtreePaths(EntityManager entityManager, Class<?> entityClass,
+		String oldPrefix, String newPrefix, int depthDelta)
+	{
+		if (oldPrefix.equals(newPrefix))
+		{
+			return 0;
+		}
+		return entityManager
+			.createQuery("UPDATE " + EntityNames.of(entityManager, entityClass)
+				+ " e SET e.path = CONCAT(:newPrefix, SUBSTRING(e.path, :start)),"
+				+ " e.depth = e.depth + :depthDelta"
+				+ " WHERE e.path LIKE :pattern ESCAPE '" + ESCAPE + "'")
+			.setParameter("newPrefix", newPrefix).setParameter("start", oldPrefix.length() + 1)
+			.setParameter("depthDelta", depthDelta)
+			.setParameter("pattern", prefixPattern(oldPrefix)).executeUpdate();
+	}
+
+	private static String requirePrefix(MaterializedPathTreeable<?> node)
+	{
+		String prefix = node.getSubtreePrefix();
+		if (prefix == null)
+		{
+			throw new IllegalStateException("Path or id of the tree entity is not set: " + node);
+		}
+		return prefix;
+	}
+
+}
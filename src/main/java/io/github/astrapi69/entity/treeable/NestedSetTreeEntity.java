@@ -0,0 +1,95 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * The Entity class {@link NestedSetTreeEntity} is a {@link TreeEntity} that holds additionally the
+ * left and right values of the nested set model. All descendants of a tree entity have left and
+ * right values between the left and right value of this tree entity, so a subtree can be fetched
+ * with one range predicate and the count of descendants is computed without a database access.
+ * The parent reference is kept, so this class can be used wherever a {@link TreeEntity} is
+ * expected. The left and right values are maintained with the class {@link NestedSets}
+ *
+ * @param <PK>
+ *            the generic type of the technical primary key
+ * @param <T>
+ *            the generic type of the value
+ * @param <TR>
+ *            the generic type of the tree entity
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@SuperBuilder
+public abstract class NestedSetTreeEntity<PK extends Serializable, T,
+	TR extends NestedSetTreeEntity<PK, T, TR>>
+	extends
+		TreeEntity<PK, T, TR>
+{
+
+	/** The left value of the nested set */
+	@Column(name = NestedSets.LEFT_COLUMN)
+	int lft;
+
+	/** The right value of the nested set */
+	@Column(name = NestedSets.RIGHT_COLUMN)
+	int rgt;
+
+	/**
+	 * Gets the count of all descendants of this tree entity
+	 *
+	 * @return the count of descendants
+	 */
+	public int getDescendantCount()
+	{
+		return (rgt - lft - 1) / 2;
+	}
+
+	/**
+	 * Checks if this tree entity is an ancestor of the given tree entity
+	 *
+	 * @param other
+	 *            the other tree entity
+	 * @return true if this tree entity is an ancestor of the given tree entity otherwise false
+	 */
+	public boolean isAncestorOf(NestedSetTreeEntity<?, ?, ?> other)
+	{
+		return lft < other.lft && other.rgt < rgt;
+	}
+
+}
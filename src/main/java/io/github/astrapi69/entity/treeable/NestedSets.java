@@ -0,0 +1,268 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link NestedSets} maintains the left and right values of {@link NestedSetTreeEntity}
+ * objects. Inserts and moves shift the values of all affected tree entities with a constant count
+ * of bulk update statements, independent of the count of affected tree entities. Note that bulk
+ * updates do not update tree entities that are already loaded in the persistence context, so they
+ * have to be refreshed after an insert or a move
+ */
+public final class NestedSets
+{
+
+	/** The name of the column of the left value */
+	public static final String LEFT_COLUMN = "lft";
+
+	/** The name of the column of the right value */
+	public static final String RIGHT_COLUMN = "rgt";
+
+	private NestedSets()
+	{
+	}
+
+	/**
+	 * Finds all descendants of the given tree entity in pre-order with one range query
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param ancestor
+	 *            the tree entity whose descendants are searched
+	 * @return the descendants of the given tree entity in pre-order
+	 */
+	public static <E extends NestedSetTreeEntity<?, ?, E>> List<E> findDescendants(
+		EntityManager entityManager, Class<E> entityClass, E ancestor)
+	{
+		return entityManager
+			.createQuery("SELECT e FROM " + EntityNames.of(entityManager, entityClass)
+				+ " e WHERE e.lft > :lft AND e.rgt < :rgt ORDER BY e.lft", entityClass)
+			.setParameter("lft", ancestor.getLft()).setParameter("rgt", ancestor.getRgt())
+			.getResultList();
+	}
+
+	/**
+	 * Renumbers the left and right values and the depth of the given tree entities in memory with
+	 * an iterative depth-first traversal. The given collection has to contain all tree entities of
+	 * the trees and the parent references have to point to the given instances, the children are
+	 * numbered in the order of the given collection. The changes are written with the next flush
+	 * of the persistence context, which can be batched by the persistence provider
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param nodes
+	 *            all tree entities of the trees to renumber
+	 */
+	public static <E extends NestedSetTreeEntity<?, ?, E>> void renumber(Collection<E> nodes)
+	{
+		Map<E, List<E>> children = new IdentityHashMap<>();
+		List<E> roots = new ArrayList<>();
+		for (E node : nodes)
+		{
+			E parent = node.getParent();
+			if (parent == null)
+			{
+				roots.add(node);
+			}
+			else
+			{
+				children.computeIfAbsent(parent, key -> new ArrayList<>()).add(node);
+			}
+		}
+		int counter = 1;
+		Deque<E> stack = new ArrayDeque<>();
+		Deque<Integer> nextChild = new ArrayDeque<>();
+		for (E root : roots)
+		{
+			root.setDepth(0);
+			root.setLft(counter++);
+			stack.push(root);
+			nextChild.push(0);
+			while (!stack.isEmpty())
+			{
+				E node = stack.peek();
+				int index = nextChild.pop();
+				List<E> nodeChildren = children.getOrDefault(node, List.of());
+				if (index < nodeChildren.size())
+				{
+					nextChild.push(index + 1);
+					E child = nodeChildren.get(index);
+					child.setDepth(node.getDepth() + 1);
+					child.setLft(counter++);
+					stack.push(child);
+					nextChild.push(0);
+				}
+				else
+				{
+					node.setNode(!nodeChildren.isEmpty());
+					node.setRgt(counter++);
+					stack.pop();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Inserts the given new children as the last children of the given parent. The gap for all
+	 * children is opened with two bulk update statements, the given children are numbered in
+	 * memory and have to be persisted afterwards
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param parent
+	 *            the parent
+	 * @param newChildren
+	 *            the new children without descendants
+	 */
+	public static <E extends NestedSetTreeEntity<?, ?, E>> void insertChildren(
+		EntityManager entityManager, Class<E> entityClass, E parent, List<E> newChildren)
+	{
+		if (newChildren.isEmpty())
+		{
+			return;
+		}
+		int position = parent.getRgt();
+		int width = 2 * newChildren.size();
+		shift(entityManager, EntityNames.of(entityManager, entityClass), position, width);
+		for (E child : newChildren)
+		{
+			child.setParent(parent);
+			child.setDepth(parent.getDepth() + 1);
+			child.setNode(false);
+			child.setLft(position++);
+			child.setRgt(position++);
+		}
+		parent.setRgt(parent.getRgt() + width);
+		parent.setNode(true);
+	}
+
+	/**
+	 * Moves the given tree entity with its subtree as the last child of the given new parent with
+	 * a constant count of bulk update statements. The depth of the subtree is updated with the
+	 * same statement that moves the subtree. The pending changes are flushed before the bulk
+	 * updates. The left and right values, the depth and the parent of the given tree entity and
+	 * the left and right values and the node flags of the old and the new parent are set in memory
+	 * to the values of the bulk updates, so a later flush writes the same values. Other loaded tree
+	 * entities keep their former left and right values and have to be refreshed before they are
+	 * changed
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent
+	 * @throws IllegalArgumentException
+	 *             if the new parent is the given tree entity or one of its descendants
+	 */
+	public static <E extends NestedSetTreeEntity<?, ?, E>> void moveSubtree(
+		EntityManager entityManager, Class<E> entityClass, E node, E newParent)
+	{
+		if (node.equals(newParent) || node.isAncestorOf(newParent))
+		{
+			throw new IllegalArgumentException(
+				"The new parent must not be the moved tree entity or one of its descendants");
+		}
+		entityManager.flush();
+		String entityName = EntityNames.of(entityManager, entityClass);
+		E oldParent = node.getParent();
+		int lft = node.getLft();
+		int rgt = node.getRgt();
+		int width = rgt - lft + 1;
+		int depthDelta = newParent.getDepth() + 1 - node.getDepth();
+		// detach the subtree by negating its values
+		entityManager
+			.createQuery("UPDATE " + entityName
+				+ " e SET e.lft = -e.lft, e.rgt = -e.rgt WHERE e.lft >= :lft AND e.rgt <= :rgt")
+			.setParameter("lft", lft).setParameter("rgt", rgt).executeUpdate();
+		// close the gap of the subtree
+		shift(entityManager, entityName, rgt + 1, -width);
+		int position = shifted(newParent.getRgt(), rgt + 1, -width);
+		// open the gap at the new position
+		shift(entityManager, entityName, position, width);
+		int offset = position - lft;
+		entityManager
+			.createQuery("UPDATE " + entityName + " e SET e.lft = :offset - e.lft,"
+				+ " e.rgt = :offset - e.rgt, e.depth = e.depth + :depthDelta WHERE e.lft < 0")
+			.setParameter("offset", offset).setParameter("depthDelta", depthDelta)
+			.executeUpdate();
+		if (oldParent != null && oldParent != newParent)
+		{
+			int oldParentLft = shifted(oldParent.getLft(), rgt + 1, -width);
+			int oldParentRgt = shifted(oldParent.getRgt(), rgt + 1, -width);
+			oldParent.setNode(oldParentRgt - oldParentLft > 1);
+			oldParent.setLft(shifted(oldParentLft, position, width));
+			oldParent.setRgt(shifted(oldParentRgt, position, width));
+		}
+		newParent.setLft(shifted(shifted(newParent.getLft(), rgt + 1, -width), position, width));
+		newParent.setRgt(position + width);
+		newParent.setNode(true);
+		node.setParent(newParent);
+		node.setLft(lft + offset);
+		node.setRgt(rgt + offset);
+		node.setDepth(node.getDepth() + depthDelta);
+	}
+
+	private static int shifted(int value, int from, int delta)
+	{
+		return value >= from ? value + delta : value;
+	}
+
+	private static void shift(EntityManager entityManager, String entityName, int from, int delta)
+	{
+		entityManager
+			.createQuery(
+				"UPDATE " + entityName + " e SET e.rgt = e.rgt + :delta WHERE e.rgt >= :from")
+			.setParameter("delta", delta).setParameter("from", from).executeUpdate();
+		entityManager
+			.createQuery(
+				"UPDATE " + entityName + " e SET e.lft = e.lft + :delta WHERE e.lft >= :from")
+			.setParameter("delta", delta).setParameter("from", from).executeUpdate();
+	}
+
+}
@@ -0,0 +1,271 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import io.github.astrapi69.data.treeable.TreeWithChildren;
+
+/**
+ * The class {@link TreeAggregator} aggregates the values of all tree entities of a subtree in
+ * parallel with a {@link ForkJoinPool}. Each task traverses its part of the subtree iteratively
+ * with a local stack, so deep trees do not overflow the call stack, and forks the subtrees of
+ * children only while the pool has not enough queued work.
+ *
+ * The partial results are combined in pre-order of the subtree, a tree entity before its children
+ * and the children in the iteration order of their collection, also if subtrees are aggregated by
+ * forked tasks. So the combiner has to be associative but not commutative, for instance the
+ * concatenation of the values. The children collections are read concurrently, so they have to be
+ * initialized before the aggregation and must not be modified during the aggregation
+ *
+ * @param <TR>
+ *            the generic type of the tree entity
+ * @param <R>
+ *            the generic type of the result
+ */
+public class TreeAggregator<TR extends TreeWithChildren<?, TR>, R>
+{
+
+	/** The default maximum nesting of forked tasks */
+	public static final int DEFAULT_MAX_FORK_DEPTH = 64;
+
+	/** The count of queued tasks up to which a task forks the subtrees of children */
+	private static final int SURPLUS_THRESHOLD = 3;
+
+	/** The function that maps a tree entity to its partial result */
+	private final Function<TR, R> mapper;
+
+	/** The associative combiner of partial results */
+	private final BinaryOperator<R> combiner;
+
+	/** The identity of the combiner, the result of an empty aggregation */
+	private final R identity;
+
+	/** The fork join pool that runs the tasks */
+	private final ForkJoinPool pool;
+
+	/** The maximum nesting of forked tasks */
+	private final int maxForkDepth;
+
+	/**
+	 * Instantiates a new {@link TreeAggregator} that runs in the common pool
+	 *
+	 * @param mapper
+	 *            the function that maps a tree entity to its partial result
+	 * @param combiner
+	 *            the associative combiner of partial results
+	 * @param identity
+	 *            the identity of the combiner
+	 */
+	public TreeAggregator(Function<TR, R> mapper, BinaryOperator<R> combiner, R identity)
+	{
+		this(mapper, combiner, identity, ForkJoinPool.commonPool(), DEFAULT_MAX_FORK_DEPTH);
+	}
+
+	/**
+	 * Instantiates a new {@link TreeAggregator}
+	 *
+	 * @param mapper
+	 *            the function that maps a tree entity to its partial result
+	 * @param combiner
+	 *            the associative combiner of partial results
+	 * @param identity
+	 *            the identity of the combiner
+	 * @param pool
+	 *            the fork join pool that runs the tasks, its parallelism defines the count of
+	 *            threads
+	 * @param maxForkDepth
+	 *            the maximum nesting of forked tasks, deeper subtrees are traversed by the task
+	 *            that reaches them
+	 */
+	public TreeAggregator(Function<TR, R> mapper, BinaryOperator<R> combiner, R identity,
+		ForkJoinPool pool, int maxForkDepth)
+	{
+		this.mapper = Objects.requireNonNull(mapper);
+		this.combiner = Objects.requireNonNull(combiner);
+		this.identity = identity;
+		this.pool = Objects.requireNonNull(pool);
+		if (maxForkDepth < 0)
+		{
+			throw new IllegalArgumentException("The maximum fork depth must not be negative");
+		}
+		this.maxForkDepth = maxForkDepth;
+	}
+
+	/**
+	 * Factory method for a {@link TreeAggregator} that counts the tree entities
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @return the new {@link TreeAggregator}
+	 */
+	public static <TR extends TreeWithChildren<?, TR>> TreeAggregator<TR, Long> counting()
+	{
+		return new TreeAggregator<>(node -> 1L, Long::sum, 0L);
+	}
+
+	/**
+	 * Factory method for a {@link TreeAggregator} that sums the given projection of the tree
+	 * entities
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param projection
+	 *            the projection of a tree entity to a long value
+	 * @return the new {@link TreeAggregator}
+	 */
+	public static <TR extends TreeWithChildren<?, TR>> TreeAggregator<TR, Long> summing(
+		ToLongFunction<TR> projection)
+	{
+		Objects.requireNonNull(projection);
+		return new TreeAggregator<>(node -> projection.applyAsLong(node), Long::sum, 0L);
+	}
+
+	/**
+	 * Factory method for a {@link TreeAggregator} that computes the maximum depth of the tree
+	 * entities
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @return the new {@link TreeAggregator}
+	 */
+	public static <TR extends TreeWithChildren<?, TR>> TreeAggregator<TR, Integer> maxDepth()
+	{
+		return new TreeAggregator<>(TR::getDepth, Math::max, Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Aggregates the partial results of the given tree entity and all its descendants
+	 *
+	 * @param root
+	 *            the root of the subtree
+	 * @return the aggregated result or the identity if the given root is null
+	 */
+	public R aggregate(TR root)
+	{
+		if (root == null)
+		{
+			return identity;
+		}
+		return pool.invoke(new AggregateTask(root, 0));
+	}
+
+	/**
+	 * The task that aggregates one subtree
+	 */
+	private final class AggregateTask extends RecursiveTask<R>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final TR root;
+
+		private final int forkDepth;
+
+		AggregateTask(TR root, int forkDepth)
+		{
+			this.root = root;
+			this.forkDepth = forkDepth;
+		}
+
+		@Override
+		protected R compute()
+		{
+			R result = combiner.apply(identity, mapper.apply(root));
+			List<R> segments = null;
+			List<AggregateTask> forked = null;
+			boolean mayFork = forkDepth < maxForkDepth;
+			ArrayDeque<Iterator<TR>> stack = new ArrayDeque<>();
+			push(stack, root);
+			while (!stack.isEmpty())
+			{
+				Iterator<TR> iterator = stack.peek();
+				if (!iterator.hasNext())
+				{
+					stack.pop();
+					continue;
+				}
+				TR child = iterator.next();
+				if (mayFork && hasChildren(child)
+					&& getSurplusQueuedTaskCount() <= SURPLUS_THRESHOLD)
+				{
+					AggregateTask task = new AggregateTask(child, forkDepth + 1);
+					task.fork();
+					if (forked == null)
+					{
+						segments = new ArrayList<>();
+						forked = new ArrayList<>();
+					}
+					// the result of the tree entities before the forked subtree in pre-order
+					segments.add(result);
+					forked.add(task);
+					result = identity;
+				}
+				else
+				{
+					result = combiner.apply(result, mapper.apply(child));
+					push(stack, child);
+				}
+			}
+			if (forked != null)
+			{
+				// joins in reverse order of the forks and combines from the right in pre-order
+				for (int i = forked.size() - 1; i >= 0; i--)
+				{
+					result = combiner.apply(segments.get(i),
+						combiner.apply(forked.get(i).join(), result));
+				}
+			}
+			return result;
+		}
+
+		private void push(ArrayDeque<Iterator<TR>> stack, TR node)
+		{
+			Collection<TR> children = node.getChildren();
+			if (children != null && !children.isEmpty())
+			{
+				stack.push(children.iterator());
+			}
+		}
+
+		private boolean hasChildren(TR node)
+		{
+			Collection<TR> children = node.getChildren();
+			return children != null && !children.isEmpty();
+		}
+
+	}
+
+}
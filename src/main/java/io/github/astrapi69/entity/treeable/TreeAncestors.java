@@ -0,0 +1,153 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.treeable.Treeable;
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link TreeAncestors} loads the ancestors of many tree entities with lazy fetched
+ * parents in a batch. The loaded ancestors are managed by the persistence context, so the lazy
+ * parent references of the given tree entities are resolved without further queries
+ */
+public final class TreeAncestors
+{
+
+	/** The name of the column of the parent id */
+	public static final String PARENT_COLUMN = "parent_id";
+
+	/** The name of the column of the id */
+	public static final String ID_COLUMN = "id";
+
+	private TreeAncestors()
+	{
+	}
+
+	/**
+	 * Loads all ancestors of the given tree entities with one recursive query that follows the
+	 * parent id column
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param tableName
+	 *            the name of the table of the tree entities
+	 * @param nodes
+	 *            the tree entities whose ancestors are loaded
+	 * @return the loaded ancestors
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends Treeable<?, E> & Identifiable<?>> List<E> prefetch(
+		EntityManager entityManager, Class<E> entityClass, String tableName,
+		Collection<E> nodes)
+	{
+		Set<Object> parentIds = getParentIds(nodes);
+		if (parentIds.isEmpty())
+		{
+			return new ArrayList<>();
+		}
+		String statement = "WITH RECURSIVE ancestors (" + ID_COLUMN + ", " + PARENT_COLUMN
+			+ ") AS (SELECT " + ID_COLUMN + ", " + PARENT_COLUMN + " FROM " + tableName + " WHERE "
+			+ ID_COLUMN + " IN (?1) UNION SELECT t." + ID_COLUMN + ", t." + PARENT_COLUMN
+			+ " FROM " + tableName + " t JOIN ancestors a ON t." + ID_COLUMN + " = a."
+			+ PARENT_COLUMN + ") SELECT t.* FROM " + tableName + " t WHERE t." + ID_COLUMN
+			+ " IN (SELECT " + ID_COLUMN + " FROM ancestors)";
+		return entityManager.createNativeQuery(statement, entityClass).setParameter(1, parentIds)
+			.getResultList();
+	}
+
+	/**
+	 * Loads all ancestors of the given tree entities with one query for each level of the
+	 * ancestors. This is the portable alternative to
+	 * {@link #prefetch(EntityManager, Class, String, Collection)} for databases without recursive
+	 * queries
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param nodes
+	 *            the tree entities whose ancestors are loaded
+	 * @return the loaded ancestors
+	 */
+	public static <E extends Treeable<?, E> & Identifiable<?>> List<E> prefetchByLevel(
+		EntityManager entityManager, Class<E> entityClass, Collection<E> nodes)
+	{
+		String statement = "SELECT e FROM " + EntityNames.of(entityManager, entityClass)
+			+ " e WHERE e.id IN :ids";
+		List<E> ancestors = new ArrayList<>();
+		Set<Object> visited = new HashSet<>();
+		Set<Object> parentIds = getParentIds(nodes);
+		while (!parentIds.isEmpty())
+		{
+			visited.addAll(parentIds);
+			List<E> level = entityManager.createQuery(statement, entityClass)
+				.setParameter("ids", parentIds).getResultList();
+			ancestors.addAll(level);
+			parentIds = getParentIds(level);
+			parentIds.removeAll(visited);
+		}
+		return ancestors;
+	}
+
+	/**
+	 * Gets the ids of the parents of the given tree entities. The id of a lazy parent reference is
+	 * read without the initialization of the reference
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param nodes
+	 *            the tree entities
+	 * @return the ids of the parents
+	 */
+	private static <E extends Treeable<?, E> & Identifiable<?>> Set<Object> getParentIds(
+		Collection<E> nodes)
+	{
+		Set<Object> parentIds = new HashSet<>();
+		for (E node : nodes)
+		{
+			E parent = node.getParent();
+			if (parent != null)
+			{
+				parentIds.add(parent.getId());
+			}
+		}
+		return parentIds;
+	}
+
+}
@@ -0,0 +1,410 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.astrapi69.data.treeable.Treeable;
+
+/**
+ * The class {@link TreeAncestry} answers the lowest common ancestor, the k-th ancestor and the
+ * ancestor queries of tree entities in logarithmic time with a precomputed jump table, the binary
+ * lifting. The jump table holds for each tree entity the ancestors at the distances of the powers
+ * of two in primitive arrays. So the queries do not walk the chain of the parents.
+ *
+ * New tree entities can be added and re-parented tree entities can be updated, which recomputes
+ * only the rows of the subtree of the changed tree entity. The tree entities are matched by the
+ * instance, so the parent references have to point to the given instances, as they do within one
+ * persistence context with an eager fetched parent. This class is not thread safe, changes have
+ * to be synchronized with the queries
+ *
+ * @param <TR>
+ *            the generic type of the tree entity
+ */
+public class TreeAncestry<TR extends Treeable<?, TR>>
+{
+
+	/** The index value that signals no tree entity */
+	private static final int NONE = -1;
+
+	/** The tree entities indexed by the dense index */
+	private final List<TR> nodes;
+
+	/** The map from the tree entity instances to the dense indexes */
+	private final Map<TR, Integer> indexes;
+
+	/** The depths */
+	private int[] depths;
+
+	/** The dense indexes of the first children */
+	private int[] firstChildren;
+
+	/** The dense indexes of the next siblings */
+	private int[] nextSiblings;
+
+	/** The jump table, the entry [k][i] is the ancestor of i at the distance 2^k */
+	private int[][] jumps;
+
+	/** The work queue for the breadth-first computation of the rows of a subtree */
+	private int[] queue;
+
+	/**
+	 * Instantiates a new {@link TreeAncestry} from the given tree entities. The given collection
+	 * has to contain the parents of all given tree entities
+	 *
+	 * @param treeNodes
+	 *            the tree entities
+	 * @throws IllegalArgumentException
+	 *             if a parent is not contained in the given tree entities
+	 * @throws IllegalStateException
+	 *             if the parent references contain a cycle
+	 */
+	public TreeAncestry(Collection<TR> treeNodes)
+	{
+		int size = treeNodes.size();
+		nodes = new ArrayList<>(size);
+		indexes = new IdentityHashMap<>(Math.max(16, size * 2));
+		allocate(Math.max(16, size));
+		for (TR node : treeNodes)
+		{
+			indexes.put(node, nodes.size());
+			nodes.add(node);
+		}
+		for (int i = size - 1; i >= 0; i--)
+		{
+			link(i, parentIndex(nodes.get(i)));
+		}
+		int computed = 0;
+		for (int i = 0; i < size; i++)
+		{
+			if (jumps[0][i] == NONE)
+			{
+				computed += computeSubtree(i);
+			}
+		}
+		if (computed != size)
+		{
+			throw new IllegalStateException("The parent references contain a cycle");
+		}
+	}
+
+	/**
+	 * Gets the count of tree entities
+	 *
+	 * @return the count of tree entities
+	 */
+	public int size()
+	{
+		return nodes.size();
+	}
+
+	/**
+	 * Adds the given new tree entity. The parent of the given tree entity has to be contained
+	 *
+	 * @param node
+	 *            the new tree entity
+	 * @throws IllegalArgumentException
+	 *             if the tree entity is already contained or the parent is not contained
+	 */
+	public void add(TR node)
+	{
+		if (indexes.containsKey(node))
+		{
+			throw new IllegalArgumentException("The tree entity is already contained: " + node);
+		}
+		int parent = parentIndex(node);
+		int index = nodes.size();
+		if (index == depths.length)
+		{
+			allocate(index * 2);
+		}
+		indexes.put(node, index);
+		nodes.add(node);
+		link(index, parent);
+		computeSubtree(index);
+	}
+
+	/**
+	 * Updates the given tree entity after its parent has changed. Only the rows of the subtree of
+	 * the given tree entity are recomputed
+	 *
+	 * @param node
+	 *            the re-parented tree entity
+	 * @throws IllegalArgumentException
+	 *             if the tree entity or its new parent is not contained or the new parent is a
+	 *             descendant of the tree entity
+	 */
+	public void update(TR node)
+	{
+		int index = requireIndex(node);
+		int parent = parentIndex(node);
+		if (parent == index || (parent != NONE && isAncestor(index, parent)))
+		{
+			throw new IllegalArgumentException(
+				"The new parent must not be the tree entity or one of its descendants");
+		}
+		unlink(index, jumps[0][index]);
+		link(index, parent);
+		computeSubtree(index);
+	}
+
+	/**
+	 * Gets the depth of the given tree entity
+	 *
+	 * @param node
+	 *            the tree entity
+	 * @return the depth
+	 */
+	public int getDepth(TR node)
+	{
+		return depths[requireIndex(node)];
+	}
+
+	/**
+	 * Gets the ancestor of the given tree entity at the given distance
+	 *
+	 * @param node
+	 *            the tree entity
+	 * @param distance
+	 *            the distance, 1 for the parent
+	 * @return the ancestor or null if the given distance is greater than the depth
+	 */
+	public TR getAncestor(TR node, int distance)
+	{
+		int ancestor = ancestorIndex(requireIndex(node), distance);
+		return ancestor == NONE ? null : nodes.get(ancestor);
+	}
+
+	/**
+	 * Gets the lowest common ancestor of the given tree entities. A tree entity is an ancestor of
+	 * itself in the sense of this method
+	 *
+	 * @param first
+	 *            the first tree entity
+	 * @param second
+	 *            the second tree entity
+	 * @return the lowest common ancestor or null if the tree entities are in different trees
+	 */
+	public TR getLowestCommonAncestor(TR first, TR second)
+	{
+		int a = requireIndex(first);
+		int b = requireIndex(second);
+		if (depths[a] < depths[b])
+		{
+			int swap = a;
+			a = b;
+			b = swap;
+		}
+		a = ancestorIndex(a, depths[a] - depths[b]);
+		if (a == b)
+		{
+			return nodes.get(a);
+		}
+		for (int level = jumps.length - 1; level >= 0; level--)
+		{
+			if (jumps[level][a] != jumps[level][b])
+			{
+				a = jumps[level][a];
+				b = jumps[level][b];
+			}
+		}
+		int ancestor = jumps[0][a];
+		return ancestor == NONE ? null : nodes.get(ancestor);
+	}
+
+	/**
+	 * Checks if the first tree entity is an ancestor of the second tree entity
+	 *
+	 * @param ancestor
+	 *            the possible ancestor
+	 * @param descendant
+	 *            the possible descendant
+	 * @return true if the first tree entity is an ancestor of the second otherwise false
+	 */
+	public boolean isAncestor(TR ancestor, TR descendant)
+	{
+		return isAncestor(requireIndex(ancestor), requireIndex(descendant));
+	}
+
+	private boolean isAncestor(int ancestor, int descendant)
+	{
+		int distance = depths[descendant] - depths[ancestor];
+		return distance > 0 && ancestorIndex(descendant, distance) == ancestor;
+	}
+
+	private int ancestorIndex(int index, int distance)
+	{
+		if (distance < 0 || depths[index] < distance)
+		{
+			return NONE;
+		}
+		for (int level = 0; distance != 0; level++, distance >>>= 1)
+		{
+			if ((distance & 1) != 0)
+			{
+				index = jumps[level][index];
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Computes the depths and the jump table rows of the subtree of the given tree entity in
+	 * breadth-first order, so the rows of a parent are computed before the rows of its children
+	 *
+	 * @param root
+	 *            the dense index of the root of the subtree
+	 * @return the count of tree entities in the subtree
+	 */
+	private int computeSubtree(int root)
+	{
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = root;
+		while (head < tail)
+		{
+			int node = queue[head++];
+			int parent = jumps[0][node];
+			depths[node] = parent == NONE ? 0 : depths[parent] + 1;
+			for (int level = 1; level < jumps.length; level++)
+			{
+				int half = jumps[level - 1][node];
+				jumps[level][node] = half == NONE ? NONE : jumps[level - 1][half];
+			}
+			for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child])
+			{
+				if (tail == queue.length)
+				{
+					// only reachable with a cycle in the parent references
+					return Integer.MIN_VALUE;
+				}
+				queue[tail++] = child;
+			}
+		}
+		return tail;
+	}
+
+	private void link(int child, int parent)
+	{
+		jumps[0][child] = parent;
+		if (parent != NONE)
+		{
+			nextSiblings[child] = firstChildren[parent];
+			firstChildren[parent] = child;
+		}
+	}
+
+	private void unlink(int child, int parent)
+	{
+		if (parent == NONE)
+		{
+			return;
+		}
+		if (firstChildren[parent] == child)
+		{
+			firstChildren[parent] = nextSiblings[child];
+		}
+		else
+		{
+			int sibling = firstChildren[parent];
+			while (nextSiblings[sibling] != child)
+			{
+				sibling = nextSiblings[sibling];
+			}
+			nextSiblings[sibling] = nextSiblings[child];
+		}
+		nextSiblings[child] = NONE;
+	}
+
+	private int parentIndex(TR node)
+	{
+		TR parent = node.getParent();
+		if (parent == null)
+		{
+			return NONE;
+		}
+		Integer index = indexes.get(parent);
+		if (index == null)
+		{
+			throw new IllegalArgumentException("The parent is not contained: " + parent);
+		}
+		return index;
+	}
+
+	private int requireIndex(TR node)
+	{
+		Integer index = indexes.get(node);
+		if (index == null)
+		{
+			throw new IllegalArgumentException("The tree entity is not contained: " + node);
+		}
+		return index;
+	}
+
+	/**
+	 * Allocates the arrays for the given capacity and keeps the existing rows. The count of levels
+	 * of the jump table is sufficient for the maximum depth of the given capacity
+	 *
+	 * @param capacity
+	 *            the new capacity
+	 */
+	private void allocate(int capacity)
+	{
+		int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(capacity));
+		int oldLength = depths == null ? 0 : depths.length;
+		depths = depths == null ? new int[capacity] : Arrays.copyOf(depths, capacity);
+		firstChildren = grow(firstChildren, capacity, oldLength);
+		nextSiblings = grow(nextSiblings, capacity, oldLength);
+		queue = new int[capacity];
+		int oldLevels = jumps == null ? 0 : jumps.length;
+		int[][] newJumps = new int[levels][];
+		for (int level = 0; level < levels; level++)
+		{
+			newJumps[level] = grow(level < oldLevels ? jumps[level] : null, capacity, oldLength);
+		}
+		for (int level = Math.max(1, oldLevels); level < levels; level++)
+		{
+			for (int node = 0; node < oldLength; node++)
+			{
+				int half = newJumps[level - 1][node];
+				newJumps[level][node] = half == NONE ? NONE : newJumps[level - 1][half];
+			}
+		}
+		jumps = newJumps;
+	}
+
+	private static int[] grow(int[] array, int capacity, int oldLength)
+	{
+		int[] grown = array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+		Arrays.fill(grown, array == null ? 0 : oldLength, capacity, NONE);
+		return grown;
+	}
+
+}
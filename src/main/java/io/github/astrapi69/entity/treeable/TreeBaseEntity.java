@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.io.Serializable;
+
+import io.github.astrapi69.data.treeable.Treeable;
+import io.github.astrapi69.entity.identifiable.AutoBaseEntity;
+import io.github.astrapi69.entity.identifiable.CachedHashCode;
+import io.github.astrapi69.entity.identifiable.EntityStrings;
+import io.github.astrapi69.entity.identifiable.Identifiables;
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * The abstract Entity class {@link TreeBaseEntity} holds the attributes of a tree entity without
+ * the parent. The subclasses {@link TreeEntity} and {@link LazyTreeEntity} map the parent with the
+ * fetch type they need. The generation strategy type of the primary key is auto
+ *
+ * Equality only depends on the id, the hash code is the hash code of the id that is cached at its
+ * first use by a {@link CachedHashCode}, see there for instances that are hashed before they get
+ * their id. The string representation shows only the ids of the referenced tree entities, so they
+ * do not traverse the tree
+ *
+ * @param <PK>
+ *            the generic type of the technical primary key
+ * @param <T>
+ *            the generic type of the value
+ * @param <TR>
+ *            the generic type of the tree entity
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@SuperBuilder
+public abstract class TreeBaseEntity<PK extends Serializable, T, TR extends Treeable<T, TR>>
+	extends
+		AutoBaseEntity<PK>
+	implements
+		Treeable<T, TR>
+{
+
+	/** The depth of this node. For the root depth would be 0. */
+	@Column(name = "depth")
+	int depth;
+
+	/** A flag that indicates if this tree entity is a node or a leaf */
+	@Column(name = "node")
+	boolean node;
+
+	/**
+	 * The value of this tree entity, typed values can be stored in a byte column with a
+	 * {@link io.github.astrapi69.entity.codec.ValueCodecConverter}
+	 */
+	@Column(name = "value", columnDefinition = "TEXT")
+	T value;
+
+	/** The hash code of this tree entity that is computed at its first use */
+	@Transient
+	@Getter(AccessLevel.NONE)
+	final CachedHashCode cachedHashCode = new CachedHashCode();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object o)
+	{
+		return Identifiables.equalsById(this, o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return cachedHashCode.get(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return EntityStrings.build(this, (sb, entity) -> {
+			EntityStrings.appendHeader(sb, entity).append(", depth=").append(entity.depth)
+				.append(", node=").append(entity.node);
+			EntityStrings.appendReference(sb, "parent", entity.getParent());
+			EntityStrings.appendValue(sb, "value", entity.value);
+		});
+	}
+
+}
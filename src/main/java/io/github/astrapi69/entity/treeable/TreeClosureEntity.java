@@ -0,0 +1,95 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
+import jakarta.persistence.Column;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MappedSuperclass;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * The Entity class {@link TreeClosureEntity} is a row of the closure table of a tree of
+ * {@link TreeWithChildrenUUIDEntity} or {@link LazyTreeWithChildrenUUIDEntity} objects. The
+ * closure table holds one row for each pair of ancestor and descendant with the distance between
+ * them, including a row with distance 0 for each tree entity itself. So all ancestors or
+ * descendants of a tree entity up to a given distance can be found with one indexed query. The
+ * rows are maintained with the class {@link TreeClosures}
+ *
+ * @param <N>
+ *            the generic type of the tree entity
+ */
+@MappedSuperclass
+@Access(AccessType.FIELD)
+@IdClass(TreeClosureId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@SuperBuilder
+public abstract class TreeClosureEntity<N extends TreeWithChildrenUUIDBaseEntity<?, N>>
+	implements
+		Serializable
+{
+
+	/** The serial Version UID */
+	private static final long serialVersionUID = 1L;
+
+	/** The ancestor tree entity */
+	@Id
+	@EqualsAndHashCode.Include
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = TreeClosures.ANCESTOR_COLUMN, nullable = false,
+		foreignKey = @ForeignKey(name = "fk_tree_closure_ancestor_id"))
+	N ancestor;
+
+	/** The descendant tree entity */
+	@Id
+	@EqualsAndHashCode.Include
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = TreeClosures.DESCENDANT_COLUMN, nullable = false,
+		foreignKey = @ForeignKey(name = "fk_tree_closure_descendant_id"))
+	N descendant;
+
+	/** The distance between the ancestor and the descendant, 0 for the row of the same entity */
+	@Column(name = TreeClosures.DISTANCE_COLUMN, nullable = false)
+	int distance;
+
+}
@@ -0,0 +1,326 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.List;
+
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link TreeClosures} maintains the closure table of a tree of tree entities with a
+ * children collection, that are {@link TreeWithChildrenUUIDEntity} or
+ * {@link LazyTreeWithChildrenUUIDEntity} objects, together with the children and parent
+ * references and the depths. Each change of the tree is written with a constant count of set
+ * based statements, a move of a subtree does not need one statement for each moved tree entity.
+ * The depths of the descendants of a moved tree entity are shifted with one bulk update through
+ * the closure rows, so descendants that are already loaded in the persistence context keep their
+ * former depth. The maintenance statements are native statements because jpql has no insert from
+ * a select. Note that the detach statement selects from the closure table in the subqueries,
+ * which is not supported from all databases
+ *
+ * @param <N>
+ *            the generic type of the tree entity
+ */
+public class TreeClosures<N extends TreeWithChildrenUUIDBaseEntity<?, N>>
+{
+
+	/** The name of the column of the ancestor id */
+	public static final String ANCESTOR_COLUMN = "ancestor_id";
+
+	/** The name of the column of the descendant id */
+	public static final String DESCENDANT_COLUMN = "descendant_id";
+
+	/** The name of the column of the distance */
+	public static final String DISTANCE_COLUMN = "distance";
+
+	/** The class of the tree entities */
+	private final Class<N> nodeClass;
+
+	/** The class of the closure table entities */
+	private final Class<? extends TreeClosureEntity<N>> closureClass;
+
+	/** The statement that inserts the row of a tree entity itself */
+	private final String insertSelfStatement;
+
+	/** The statement that inserts the rows of a new leaf from the rows of its parent */
+	private final String insertLeafStatement;
+
+	/** The statement that deletes the rows between a subtree and the ancestors of its root */
+	private final String detachStatement;
+
+	/** The statement that inserts the rows between a subtree and its new ancestors */
+	private final String attachStatement;
+
+	/** The statement that deletes the rows of all tree entities of a subtree */
+	private final String deleteSubtreeStatement;
+
+	/**
+	 * Instantiates a new {@link TreeClosures}
+	 *
+	 * @param nodeClass
+	 *            the class of the tree entities
+	 * @param closureClass
+	 *            the class of the closure table entities
+	 * @param tableName
+	 *            the name of the closure table
+	 */
+	public TreeClosures(Class<N> nodeClass, Class<? extends TreeClosureEntity<N>> closureClass,
+		String tableName)
+	{
+		this.nodeClass = nodeClass;
+		this.closureClass = closureClass;
+		String insertInto = "INSERT INTO " + tableName + " (" + ANCESTOR_COLUMN + ", "
+			+ DESCENDANT_COLUMN + ", " + DISTANCE_COLUMN + ") ";
+		this.insertSelfStatement = insertInto + "VALUES (?1, ?1, 0)";
+		this.insertLeafStatement = insertInto + "SELECT " + ANCESTOR_COLUMN + ", ?1, "
+			+ DISTANCE_COLUMN + " + 1 FROM " + tableName + " WHERE " + DESCENDANT_COLUMN + " = ?2";
+		this.detachStatement = "DELETE FROM " + tableName + " WHERE " + DESCENDANT_COLUMN
+			+ " IN (SELECT " + DESCENDANT_COLUMN + " FROM " + tableName + " WHERE "
+			+ ANCESTOR_COLUMN + " = ?1) AND " + ANCESTOR_COLUMN + " IN (SELECT " + ANCESTOR_COLUMN
+			+ " FROM " + tableName + " WHERE " + DESCENDANT_COLUMN + " = ?1 AND "
+			+ ANCESTOR_COLUMN + " <> ?1)";
+		this.attachStatement = insertInto + "SELECT a." + ANCESTOR_COLUMN + ", d."
+			+ DESCENDANT_COLUMN + ", a." + DISTANCE_COLUMN + " + d." + DISTANCE_COLUMN + " + 1 FROM "
+			+ tableName + " a CROSS JOIN " + tableName + " d WHERE a." + DESCENDANT_COLUMN
+			+ " = ?1 AND d." + ANCESTOR_COLUMN + " = ?2";
+		this.deleteSubtreeStatement = "DELETE FROM " + tableName + " WHERE " + DESCENDANT_COLUMN
+			+ " IN (SELECT " + DESCENDANT_COLUMN + " FROM " + tableName + " WHERE "
+			+ ANCESTOR_COLUMN + " = ?1)";
+	}
+
+	/**
+	 * Changes the depths of all descendants of the given tree entity by the given delta with one
+	 * bulk update through the closure rows
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param node
+	 *            the root of the subtree
+	 * @param depthDelta
+	 *            the difference of the new and the old depth
+	 * @return the count of updated descendants
+	 */
+	public int shiftDescendantDepths(EntityManager entityManager, N node, int depthDelta)
+	{
+		if (depthDelta == 0)
+		{
+			return 0;
+		}
+		return entityManager
+			.createQuery("UPDATE " + EntityNames.of(entityManager, nodeClass)
+				+ " n SET n.depth = n.depth + :depthDelta WHERE n.id IN (SELECT c.descendant.id FROM "
+				+ EntityNames.of(entityManager, closureClass)
+				+ " c WHERE c.ancestor = :node AND c.distance > 0)")
+			.setParameter("depthDelta", depthDelta).setParameter("node", node).executeUpdate();
+	}
+
+	/**
+	 * Inserts the closure row of the given persisted root
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param root
+	 *            the root
+	 */
+	public void insertRoot(EntityManager entityManager, N root)
+	{
+		entityManager.createNativeQuery(insertSelfStatement).setParameter(1, root.getId())
+			.executeUpdate();
+	}
+
+	/**
+	 * Adds the given persisted new child without descendants to the given parent and inserts the
+	 * closure rows of the child with two statements
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param parent
+	 *            the parent
+	 * @param child
+	 *            the new child
+	 */
+	public void addChild(EntityManager entityManager, N parent, N child)
+	{
+		link(parent, child);
+		entityManager.createNativeQuery(insertSelfStatement).setParameter(1, child.getId())
+			.executeUpdate();
+		entityManager.createNativeQuery(insertLeafStatement).setParameter(1, child.getId())
+			.setParameter(2, parent.getId()).executeUpdate();
+	}
+
+	/**
+	 * Removes the given child from the given parent. The child becomes the root of its subtree,
+	 * the depths of the subtree are shifted with one statement and the closure rows between the
+	 * subtree and the former ancestors are deleted with one statement
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param parent
+	 *            the parent
+	 * @param child
+	 *            the child to remove
+	 */
+	public void removeChild(EntityManager entityManager, N parent, N child)
+	{
+		int depthDelta = -child.getDepth();
+		unlink(parent, child);
+		child.setDepth(0);
+		shiftDescendantDepths(entityManager, child, depthDelta);
+		entityManager.createNativeQuery(detachStatement).setParameter(1, child.getId())
+			.executeUpdate();
+	}
+
+	/**
+	 * Moves the given tree entity with its subtree to the given new parent. The closure rows of the
+	 * whole subtree are updated with one delete and one insert statement and the depths of the
+	 * subtree with one update statement
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent
+	 * @throws IllegalArgumentException
+	 *             if the new parent is the given tree entity or one of its descendants
+	 */
+	public void moveSubtree(EntityManager entityManager, N node, N newParent)
+	{
+		if (node.equals(newParent) || isAncestor(entityManager, node, newParent))
+		{
+			throw new IllegalArgumentException(
+				"The new parent must not be the moved tree entity or one of its descendants");
+		}
+		int depthDelta = newParent.getDepth() + 1 - node.getDepth();
+		N oldParent = node.getParent();
+		if (oldParent != null)
+		{
+			unlink(oldParent, node);
+			entityManager.createNativeQuery(detachStatement).setParameter(1, node.getId())
+				.executeUpdate();
+		}
+		link(newParent, node);
+		shiftDescendantDepths(entityManager, node, depthDelta);
+		entityManager.createNativeQuery(attachStatement).setParameter(1, newParent.getId())
+			.setParameter(2, node.getId()).executeUpdate();
+	}
+
+	/**
+	 * Deletes the closure rows of all tree entities of the subtree of the given tree entity with
+	 * one statement
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param node
+	 *            the root of the subtree
+	 */
+	public void deleteSubtree(EntityManager entityManager, N node)
+	{
+		entityManager.createNativeQuery(deleteSubtreeStatement).setParameter(1, node.getId())
+			.executeUpdate();
+	}
+
+	/**
+	 * Finds the descendants of the given tree entity up to the given distance ordered by the
+	 * distance
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param node
+	 *            the tree entity
+	 * @param maxDistance
+	 *            the maximum distance
+	 * @return the descendants up to the given distance
+	 */
+	public List<N> findDescendants(EntityManager entityManager, N node, int maxDistance)
+	{
+		return entityManager
+			.createQuery("SELECT c.descendant FROM " + EntityNames.of(entityManager, closureClass)
+				+ " c WHERE c.ancestor = :node AND c.distance BETWEEN 1 AND :maxDistance"
+				+ " ORDER BY c.distance", nodeClass)
+			.setParameter("node", node).setParameter("maxDistance", maxDistance)
+			.getResultList();
+	}
+
+	/**
+	 * Finds the ancestors of the given tree entity up to the given distance ordered by the
+	 * distance, so the parent is the first element
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param node
+	 *            the tree entity
+	 * @param maxDistance
+	 *            the maximum distance
+	 * @return the ancestors up to the given distance
+	 */
+	public List<N> findAncestors(EntityManager entityManager, N node, int maxDistance)
+	{
+		return entityManager
+			.createQuery("SELECT c.ancestor FROM " + EntityNames.of(entityManager, closureClass)
+				+ " c WHERE c.descendant = :node AND c.distance BETWEEN 1 AND :maxDistance"
+				+ " ORDER BY c.distance", nodeClass)
+			.setParameter("node", node).setParameter("maxDistance", maxDistance)
+			.getResultList();
+	}
+
+	/**
+	 * Checks if the given ancestor is an ancestor of the given descendant
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param ancestor
+	 *            the possible ancestor
+	 * @param descendant
+	 *            the possible descendant
+	 * @return true if the given ancestor is an ancestor of the given descendant otherwise false
+	 */
+	public boolean isAncestor(EntityManager entityManager, N ancestor, N descendant)
+	{
+		return !entityManager
+			.createQuery("SELECT c.distance FROM " + EntityNames.of(entityManager, closureClass)
+				+ " c WHERE c.ancestor = :ancestor AND c.descendant = :descendant"
+				+ " AND c.distance > 0", Integer.class)
+			.setParameter("ancestor", ancestor).setParameter("descendant", descendant)
+			.getResultList().isEmpty();
+	}
+
+	private void link(N parent, N child)
+	{
+		parent.addChild(child);
+		parent.setNode(true);
+		child.setParent(parent);
+		child.setDepth(parent.getDepth() + 1);
+	}
+
+	private void unlink(N parent, N child)
+	{
+		parent.removeChild(child);
+		parent.setNode(!parent.getChildren().isEmpty());
+		child.setParent(null);
+	}
+
+}
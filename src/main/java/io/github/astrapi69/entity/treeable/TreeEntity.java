@@ -27,19 +27,15 @@ package io.github.astrapi69.entity.treeable;
 import java.io.Serializable;
 
 import io.github.astrapi69.data.treeable.Treeable;
-import io.github.astrapi69.entity.identifiable.AutoBaseEntity;
-import jakarta.persistence.Column;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MappedSuperclass;
 import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.SuperBuilder;
 
@@ -47,10 +43,11 @@ import lombok.experimental.SuperBuilder;
  * The Entity class {@link TreeEntity} can keep information for a tree structure. The root
  * {@link TreeEntity} has no parent, all other {@link TreeEntity} objects have a parent. The
  * generation strategy type of the primary key is auto
+ *
+ * The other attributes, the equality and the string representation are inherited from
+ * {@link TreeBaseEntity}
  */
 @MappedSuperclass
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -58,26 +55,12 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 public abstract class TreeEntity<PK extends Serializable, T, TR extends Treeable<T, TR>>
 	extends
-		AutoBaseEntity<PK>
-	implements
-		Treeable<T, TR>
+		TreeBaseEntity<PK, T, TR>
 {
 
-	/** The depth of this node. For the root depth would be 0. */
-	@Column(name = "depth")
-	int depth;
-
-	/** A flag that indicates if this tree entity is a node or a leaf */
-	@Column(name = "node")
-	boolean node;
-
 	/** The parent tree entity that references to the parent. */
 	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "parent_id", foreignKey = @ForeignKey(name = "fk_treeable_parent_id"))
 	TR parent;
 
-	/** The value of this tree entity */
-	@Column(name = "value", columnDefinition = "TEXT")
-	T value;
-
 }
@@ -0,0 +1,262 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.treeable.TreeWithChildren;
+
+/**
+ * The class {@link TreeExporter} writes tree entities in pre-order through a bounded buffer to a
+ * {@link WritableByteChannel}. Each record holds the depth relative to the exported root, the node
+ * flag, the id and the encoded value, so the {@link TreeImporter} can rebuild the parent links
+ * without the children collections. Tree entities that are streamed from a query in pre-order can
+ * be written with {@link #write(Identifiable, int)} without materializing the tree, in-memory trees
+ * are written with {@link #writeTree(TreeWithChildren)} that traverses the children iteratively.
+ *
+ * The stream starts with the {@link #MAGIC} number and the {@link #VERSION}. A record is the depth
+ * as int, the node flag as byte, the id as two longs, the length of the value as int, that is -1
+ * for a null value, and the bytes of the value. The format supports only tree entities with an
+ * uuid as id
+ *
+ * @param <T>
+ *            the generic type of the value
+ * @param <TR>
+ *            the generic type of the tree entity
+ */
+public class TreeExporter<T, TR extends TreeWithChildren<T, TR> & Identifiable<UUID>>
+	implements
+		Flushable,
+		Closeable
+{
+
+	/** The magic number at the start of a tree stream */
+	public static final int MAGIC = 0x54524545;
+
+	/** The version of the format of the tree stream */
+	public static final byte VERSION = 1;
+
+	/** The default size of the buffer in bytes */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/** The size of the fixed part of a record in bytes */
+	static final int RECORD_HEADER_SIZE = Integer.BYTES + 1 + 2 * Long.BYTES + Integer.BYTES;
+
+	/** The size of the stream header in bytes */
+	static final int STREAM_HEADER_SIZE = Integer.BYTES + 1;
+
+	/** The channel to write to */
+	private final WritableByteChannel channel;
+
+	/** The encoder of the values */
+	private final Function<T, byte[]> encoder;
+
+	/** The bounded buffer */
+	private final ByteBuffer buffer;
+
+	/** The depth of the last written record or -1 if no record is written */
+	private int lastDepth = -1;
+
+	/** The count of written records */
+	private long count;
+
+	/**
+	 * Instantiates a new {@link TreeExporter} with the default buffer size
+	 *
+	 * @param channel
+	 *            the channel to write to
+	 * @param encoder
+	 *            the encoder of the values
+	 */
+	public TreeExporter(WritableByteChannel channel, Function<T, byte[]> encoder)
+	{
+		this(channel, encoder, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link TreeExporter}
+	 *
+	 * @param channel
+	 *            the channel to write to
+	 * @param encoder
+	 *            the encoder of the values
+	 * @param bufferSize
+	 *            the size of the buffer in bytes
+	 */
+	public TreeExporter(WritableByteChannel channel, Function<T, byte[]> encoder, int bufferSize)
+	{
+		this.channel = Objects.requireNonNull(channel);
+		this.encoder = Objects.requireNonNull(encoder);
+		if (bufferSize < RECORD_HEADER_SIZE)
+		{
+			throw new IllegalArgumentException(
+				"The buffer size must be at least " + RECORD_HEADER_SIZE + " bytes");
+		}
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		buffer.putInt(MAGIC).put(VERSION);
+	}
+
+	/**
+	 * Gets the count of written records
+	 *
+	 * @return the count of written records
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Writes the given tree entity and all its descendants in pre-order. The children are
+	 * traversed iteratively, so only one iterator for each depth level is held
+	 *
+	 * @param root
+	 *            the root of the subtree to write
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void writeTree(TR root) throws IOException
+	{
+		write(root, 0);
+		ArrayDeque<Iterator<TR>> iterators = new ArrayDeque<>();
+		iterators.push(childrenOf(root));
+		while (!iterators.isEmpty())
+		{
+			Iterator<TR> iterator = iterators.peek();
+			if (!iterator.hasNext())
+			{
+				iterators.pop();
+				continue;
+			}
+			TR child = iterator.next();
+			write(child, iterators.size());
+			iterators.push(childrenOf(child));
+		}
+	}
+
+	/**
+	 * Writes the record of the given tree entity. The tree entities have to be written in
+	 * pre-order, so the given depth must be at most one more than the depth of the last record.
+	 * The depth 0 starts a new tree of the exported forest
+	 *
+	 * @param node
+	 *            the tree entity
+	 * @param depth
+	 *            the depth relative to the root of the exported tree
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void write(TR node, int depth) throws IOException
+	{
+		if (depth < 0 || depth > lastDepth + 1)
+		{
+			throw new IllegalArgumentException("The depth " + depth
+				+ " is not a pre-order successor of the depth " + lastDepth);
+		}
+		UUID id = Objects.requireNonNull(node.getId(), "The id of the tree entity is not set");
+		T value = node.getValue();
+		byte[] bytes = value == null ? null : encoder.apply(value);
+		ensureRemaining(RECORD_HEADER_SIZE);
+		buffer.putInt(depth).put((byte)(node.isNode() ? 1 : 0))
+			.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+			.putInt(bytes == null ? -1 : bytes.length);
+		if (bytes != null)
+		{
+			int offset = 0;
+			while (offset < bytes.length)
+			{
+				ensureRemaining(1);
+				int length = Math.min(buffer.remaining(), bytes.length - offset);
+				buffer.put(bytes, offset, length);
+				offset += length;
+			}
+		}
+		lastDepth = depth;
+		count++;
+	}
+
+	/**
+	 * Writes the buffered bytes to the channel
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Override
+	public void flush() throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the buffered bytes and closes the channel
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			flush();
+		}
+		finally
+		{
+			channel.close();
+		}
+	}
+
+	private void ensureRemaining(int size) throws IOException
+	{
+		if (buffer.remaining() < size)
+		{
+			flush();
+		}
+	}
+
+	private Iterator<TR> childrenOf(TR node)
+	{
+		Collection<TR> children = node.getChildren();
+		return children == null ? Collections.emptyIterator() : children.iterator();
+	}
+
+}
@@ -0,0 +1,322 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.treeable.TreeWithChildren;
+
+/**
+ * The class {@link TreeImporter} reads the tree entities that are written by a
+ * {@link TreeExporter} from a {@link ReadableByteChannel} through a bounded buffer. The parent
+ * links are rebuilt with a stack that holds the last tree entity of each depth level, so the
+ * memory does not depend on the count of tree entities. The children collections of the parents
+ * are not filled, each created tree entity is passed to a consumer, that can for instance persist
+ * it and flush and clear the persistence context in batches.
+ *
+ * The exported ids are only kept if this is requested, for instance to restore a tree with its
+ * ids. The ids of an {@link io.github.astrapi69.entity.uniqueable.UUIDEntity} are assigned in
+ * memory before persist, so an id that is kept is stored as it is. Without the ids the parent
+ * links are object references, so the tree entities get new ids when they are persisted
+ *
+ * @param <T>
+ *            the generic type of the value
+ * @param <TR>
+ *            the generic type of the tree entity
+ */
+public class TreeImporter<T, TR extends TreeWithChildren<T, TR> & Identifiable<UUID>>
+	implements
+		Closeable
+{
+
+	/** The channel to read from */
+	private final ReadableByteChannel channel;
+
+	/** The factory of new tree entities */
+	private final Supplier<TR> factory;
+
+	/** The decoder of the values */
+	private final Function<byte[], T> decoder;
+
+	/** The bounded buffer, in read mode between the calls */
+	private final ByteBuffer buffer;
+
+	/** The last tree entity of each depth level */
+	private final List<TR> ancestors = new ArrayList<>();
+
+	/** The count of read records */
+	private long count;
+
+	/** The flag that indicates if the exported ids are set on the created tree entities */
+	private final boolean keepIds;
+
+	/** The flag that indicates if the stream header is read */
+	private boolean headerRead;
+
+	/**
+	 * Instantiates a new {@link TreeImporter} with the default buffer size that does not keep the
+	 * exported ids
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @param factory
+	 *            the factory of new tree entities
+	 * @param decoder
+	 *            the decoder of the values
+	 */
+	public TreeImporter(ReadableByteChannel channel, Supplier<TR> factory,
+		Function<byte[], T> decoder)
+	{
+		this(channel, factory, decoder, TreeExporter.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link TreeImporter} that does not keep the exported ids
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @param factory
+	 *            the factory of new tree entities
+	 * @param decoder
+	 *            the decoder of the values
+	 * @param bufferSize
+	 *            the size of the buffer in bytes
+	 */
+	public TreeImporter(ReadableByteChannel channel, Supplier<TR> factory,
+		Function<byte[], T> decoder, int bufferSize)
+	{
+		this(channel, factory, decoder, bufferSize, false);
+	}
+
+	/**
+	 * Instantiates a new {@link TreeImporter}
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @param factory
+	 *            the factory of new tree entities
+	 * @param decoder
+	 *            the decoder of the values
+	 * @param bufferSize
+	 *            the size of the buffer in bytes
+	 * @param keepIds
+	 *            true if the exported ids are set on the created tree entities, only for tree
+	 *            entities with an assigned id
+	 */
+	public TreeImporter(ReadableByteChannel channel, Supplier<TR> factory,
+		Function<byte[], T> decoder, int bufferSize, boolean keepIds)
+	{
+		this.keepIds = keepIds;
+		this.channel = Objects.requireNonNull(channel);
+		this.factory = Objects.requireNonNull(factory);
+		this.decoder = Objects.requireNonNull(decoder);
+		if (bufferSize < TreeExporter.RECORD_HEADER_SIZE)
+		{
+			throw new IllegalArgumentException(
+				"The buffer size must be at least " + TreeExporter.RECORD_HEADER_SIZE + " bytes");
+		}
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		buffer.flip();
+	}
+
+	/**
+	 * Gets the count of read records
+	 *
+	 * @return the count of read records
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Reads all records and passes each created tree entity to the given consumer. A parent is
+	 * passed before its children
+	 *
+	 * @param consumer
+	 *            the consumer of the created tree entities
+	 * @return the count of read records
+	 * @throws IOException
+	 *             if an I/O error occurs or the stream is corrupted
+	 */
+	public long readAll(Consumer<TR> consumer) throws IOException
+	{
+		TR node;
+		while ((node = read()) != null)
+		{
+			consumer.accept(node);
+		}
+		return count;
+	}
+
+	/**
+	 * Reads the next record and creates its tree entity with the parent, the depth, the node flag
+	 * and the value and with the exported id if the ids are kept. The depth of the created tree
+	 * entity is relative to the root of the exported tree
+	 *
+	 * @return the created tree entity or null at the end of the stream
+	 * @throws IOException
+	 *             if an I/O error occurs or the stream is corrupted
+	 */
+	public TR read() throws IOException
+	{
+		if (!headerRead)
+		{
+			readStreamHeader();
+		}
+		if (!fill(TreeExporter.RECORD_HEADER_SIZE, true))
+		{
+			return null;
+		}
+		int depth = buffer.getInt();
+		boolean node = buffer.get() != 0;
+		UUID id = new UUID(buffer.getLong(), buffer.getLong());
+		int length = buffer.getInt();
+		if (depth < 0 || depth > ancestors.size())
+		{
+			throw new StreamCorruptedException("Invalid depth " + depth + " of record " + count);
+		}
+		if (length < -1)
+		{
+			throw new StreamCorruptedException("Invalid value length of record " + count);
+		}
+		TR entity = factory.get();
+		if (keepIds)
+		{
+			entity.setId(id);
+		}
+		entity.setDepth(depth);
+		entity.setNode(node);
+		entity.setParent(depth == 0 ? null : ancestors.get(depth - 1));
+		entity.setValue(length == -1 ? null : decoder.apply(readBytes(length)));
+		ancestors.subList(depth, ancestors.size()).clear();
+		ancestors.add(entity);
+		count++;
+		return entity;
+	}
+
+	/**
+	 * Closes the channel
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+
+	private void readStreamHeader() throws IOException
+	{
+		if (!fill(TreeExporter.STREAM_HEADER_SIZE, false) || buffer.getInt() != TreeExporter.MAGIC)
+		{
+			throw new StreamCorruptedException("The stream is not a tree stream");
+		}
+		byte version = buffer.get();
+		if (version != TreeExporter.VERSION)
+		{
+			throw new StreamCorruptedException("Unsupported version " + version);
+		}
+		headerRead = true;
+	}
+
+	/**
+	 * Reads the bytes of a value. The array grows with the bytes that are actually read, so a
+	 * corrupted length does not allocate more memory than the stream holds
+	 */
+	private byte[] readBytes(int length) throws IOException
+	{
+		byte[] bytes = new byte[Math.min(length, buffer.capacity())];
+		int offset = 0;
+		while (offset < length)
+		{
+			if (!buffer.hasRemaining() && !fill(1, false))
+			{
+				throw new EOFException("Unexpected end of the stream in record " + count);
+			}
+			if (offset == bytes.length)
+			{
+				bytes = Arrays.copyOf(bytes, (int)Math.min(length, 2L * bytes.length));
+			}
+			int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.get(bytes, offset, chunk);
+			offset += chunk;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Reads from the channel until the given count of bytes is available in the buffer
+	 *
+	 * @param size
+	 *            the count of bytes
+	 * @param endAllowed
+	 *            true if the end of the stream is allowed before the first byte
+	 * @return true if the bytes are available or false at the allowed end of the stream
+	 */
+	private boolean fill(int size, boolean endAllowed) throws IOException
+	{
+		if (buffer.remaining() >= size)
+		{
+			return true;
+		}
+		buffer.compact();
+		try
+		{
+			while (buffer.position() < size)
+			{
+				if (channel.read(buffer) < 0)
+				{
+					if (endAllowed && buffer.position() == 0)
+					{
+						return false;
+					}
+					throw new EOFException("Unexpected end of the stream in record " + count);
+				}
+			}
+			return true;
+		}
+		finally
+		{
+			buffer.flip();
+		}
+	}
+
+}
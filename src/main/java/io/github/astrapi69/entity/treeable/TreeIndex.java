@@ -0,0 +1,542 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link TreeIndex} is a compact in-memory index of a forest of tree entities with
+ * numeric ids. It is built from a scan of the id and parent id of all tree entities and holds the
+ * parents, the first child and next sibling links and the pre-order entry and exit numbers in
+ * primitive arrays that are addressed with a dense index of each tree entity. So the ancestor, the
+ * descendant, the subtree size and the sibling queries take constant time and the index needs only
+ * a fraction of the heap of the entity objects.
+ *
+ * The children are ordered in the order of the scan. The index is immutable and can be shared by
+ * many threads
+ */
+public final class TreeIndex
+{
+
+	/** The parent id of a root */
+	public static final long NO_PARENT = Long.MIN_VALUE;
+
+	/** The index value that signals no tree entity */
+	public static final int NONE = -1;
+
+	/** The ids indexed by the dense index */
+	private final long[] ids;
+
+	/** The dense indexes of the parents, {@link #NONE} for a root */
+	private final int[] parents;
+
+	/** The depths, 0 for a root */
+	private final int[] depths;
+
+	/** The dense indexes of the first children, {@link #NONE} for a leaf */
+	private final int[] firstChildren;
+
+	/** The dense indexes of the next siblings, {@link #NONE} for the last child */
+	private final int[] nextSiblings;
+
+	/** The pre-order numbers */
+	private final int[] entries;
+
+	/** The greatest pre-order numbers of the subtrees */
+	private final int[] exits;
+
+	/** The dense indexes ordered by the pre-order numbers */
+	private final int[] preorder;
+
+	/** The map from the ids to the dense indexes */
+	private final LongIntMap indexes;
+
+	private TreeIndex(long[] ids, int[] parents, LongIntMap indexes)
+	{
+		int size = ids.length;
+		this.ids = ids;
+		this.parents = parents;
+		this.indexes = indexes;
+		this.depths = new int[size];
+		this.firstChildren = new int[size];
+		this.nextSiblings = new int[size];
+		this.entries = new int[size];
+		this.exits = new int[size];
+		this.preorder = new int[size];
+		Arrays.fill(firstChildren, NONE);
+		Arrays.fill(nextSiblings, NONE);
+		for (int i = size - 1; i >= 0; i--)
+		{
+			int parent = parents[i];
+			if (parent != NONE)
+			{
+				nextSiblings[i] = firstChildren[parent];
+				firstChildren[parent] = i;
+			}
+		}
+		number();
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link TreeIndex}
+	 *
+	 * @param expectedSize
+	 *            the expected count of tree entities
+	 * @return the new builder
+	 */
+	public static Builder builder(int expectedSize)
+	{
+		return new Builder(expectedSize);
+	}
+
+	/**
+	 * Builds a {@link TreeIndex} from a streaming scan of the ids and the parent ids of all tree
+	 * entities of the given entity class. The ids have to be numeric
+	 *
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @return the new tree index
+	 */
+	public static TreeIndex load(EntityManager entityManager, Class<?> entityClass)
+	{
+		Builder builder = builder(1024);
+		try (Stream<Object[]> rows = entityManager
+			.createQuery("SELECT e.id, p.id FROM " + EntityNames.of(entityManager, entityClass)
+				+ " e LEFT JOIN e.parent p", Object[].class)
+			.getResultStream())
+		{
+			rows.forEach(row -> builder.add(((Number)row[0]).longValue(),
+				row[1] == null ? NO_PARENT : ((Number)row[1]).longValue()));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Gets the count of tree entities
+	 *
+	 * @return the count of tree entities
+	 */
+	public int size()
+	{
+		return ids.length;
+	}
+
+	/**
+	 * Gets the dense index of the tree entity with the given id
+	 *
+	 * @param id
+	 *            the id
+	 * @return the dense index or {@link #NONE} if there is no tree entity with the given id
+	 */
+	public int indexOf(long id)
+	{
+		return indexes.get(id);
+	}
+
+	/**
+	 * Gets the id of the tree entity with the given dense index
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the id
+	 */
+	public long getId(int index)
+	{
+		return ids[index];
+	}
+
+	/**
+	 * Gets the dense index of the parent
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the dense index of the parent or {@link #NONE} for a root
+	 */
+	public int getParent(int index)
+	{
+		return parents[index];
+	}
+
+	/**
+	 * Gets the depth
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the depth, 0 for a root
+	 */
+	public int getDepth(int index)
+	{
+		return depths[index];
+	}
+
+	/**
+	 * Gets the dense index of the first child
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the dense index of the first child or {@link #NONE} for a leaf
+	 */
+	public int getFirstChild(int index)
+	{
+		return firstChildren[index];
+	}
+
+	/**
+	 * Gets the dense index of the next sibling
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the dense index of the next sibling or {@link #NONE} for the last child
+	 */
+	public int getNextSibling(int index)
+	{
+		return nextSiblings[index];
+	}
+
+	/**
+	 * Gets the pre-order number
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the pre-order number
+	 */
+	public int getEntry(int index)
+	{
+		return entries[index];
+	}
+
+	/**
+	 * Gets the greatest pre-order number in the subtree
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the greatest pre-order number in the subtree
+	 */
+	public int getExit(int index)
+	{
+		return exits[index];
+	}
+
+	/**
+	 * Gets the count of tree entities in the subtree including the tree entity itself
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the size of the subtree
+	 */
+	public int getSubtreeSize(int index)
+	{
+		return exits[index] - entries[index] + 1;
+	}
+
+	/**
+	 * Checks if the first tree entity is an ancestor of the second tree entity
+	 *
+	 * @param ancestor
+	 *            the dense index of the possible ancestor
+	 * @param descendant
+	 *            the dense index of the possible descendant
+	 * @return true if the first tree entity is an ancestor of the second otherwise false
+	 */
+	public boolean isAncestor(int ancestor, int descendant)
+	{
+		return entries[ancestor] < entries[descendant] && exits[descendant] <= exits[ancestor];
+	}
+
+	/**
+	 * Checks if the tree entity with the first id is an ancestor of the tree entity with the
+	 * second id
+	 *
+	 * @param ancestorId
+	 *            the id of the possible ancestor
+	 * @param descendantId
+	 *            the id of the possible descendant
+	 * @return true if the first tree entity is an ancestor of the second otherwise false
+	 */
+	public boolean isAncestorById(long ancestorId, long descendantId)
+	{
+		int ancestor = indexOf(ancestorId);
+		int descendant = indexOf(descendantId);
+		return ancestor != NONE && descendant != NONE && isAncestor(ancestor, descendant);
+	}
+
+	/**
+	 * Checks if the given tree entities are siblings
+	 *
+	 * @param first
+	 *            the dense index of the first tree entity
+	 * @param second
+	 *            the dense index of the second tree entity
+	 * @return true if the given tree entities are siblings otherwise false
+	 */
+	public boolean isSibling(int first, int second)
+	{
+		return first != second && parents[first] != NONE && parents[first] == parents[second];
+	}
+
+	/**
+	 * Calls the given action with the dense index of each descendant in pre-order
+	 *
+	 * @param index
+	 *            the dense index
+	 * @param action
+	 *            the action
+	 */
+	public void forEachDescendant(int index, IntConsumer action)
+	{
+		for (int number = entries[index] + 1, exit = exits[index]; number <= exit; number++)
+		{
+			action.accept(preorder[number]);
+		}
+	}
+
+	/**
+	 * Gets the dense indexes of all descendants in pre-order
+	 *
+	 * @param index
+	 *            the dense index
+	 * @return the dense indexes of the descendants
+	 */
+	public int[] getDescendants(int index)
+	{
+		return Arrays.copyOfRange(preorder, entries[index] + 1, exits[index] + 1);
+	}
+
+	/**
+	 * Numbers the tree entities in pre-order and computes the depths. The traversal follows the
+	 * child and sibling links without a stack
+	 */
+	private void number()
+	{
+		int number = 0;
+		for (int root = 0; root < ids.length; root++)
+		{
+			if (parents[root] != NONE)
+			{
+				continue;
+			}
+			int node = root;
+			depths[root] = 0;
+			traversal: for (;;)
+			{
+				entries[node] = number;
+				preorder[number++] = node;
+				int child = firstChildren[node];
+				if (child != NONE)
+				{
+					depths[child] = depths[node] + 1;
+					node = child;
+					continue;
+				}
+				for (;;)
+				{
+					exits[node] = number - 1;
+					if (node == root)
+					{
+						break traversal;
+					}
+					int sibling = nextSiblings[node];
+					if (sibling != NONE)
+					{
+						depths[sibling] = depths[node];
+						node = sibling;
+						continue traversal;
+					}
+					node = parents[node];
+				}
+			}
+		}
+		if (number != ids.length)
+		{
+			throw new IllegalStateException("The parent references contain a cycle");
+		}
+	}
+
+	/**
+	 * The builder of a {@link TreeIndex} that collects the ids and the parent ids of a scan
+	 */
+	public static final class Builder
+	{
+
+		/** The collected ids */
+		private long[] ids;
+
+		/** The collected parent ids */
+		private long[] parentIds;
+
+		/** The count of collected rows */
+		private int size;
+
+		private Builder(int expectedSize)
+		{
+			int capacity = Math.max(16, expectedSize);
+			ids = new long[capacity];
+			parentIds = new long[capacity];
+		}
+
+		/**
+		 * Adds the given row of the scan. The rows can be added in any order
+		 *
+		 * @param id
+		 *            the id
+		 * @param parentId
+		 *            the parent id or {@link TreeIndex#NO_PARENT} for a root
+		 * @return this builder
+		 */
+		public Builder add(long id, long parentId)
+		{
+			if (size == ids.length)
+			{
+				int capacity = size + (size >> 1);
+				ids = Arrays.copyOf(ids, capacity);
+				parentIds = Arrays.copyOf(parentIds, capacity);
+			}
+			ids[size] = id;
+			parentIds[size] = parentId;
+			size++;
+			return this;
+		}
+
+		/**
+		 * Adds the given root
+		 *
+		 * @param id
+		 *            the id of the root
+		 * @return this builder
+		 */
+		public Builder addRoot(long id)
+		{
+			return add(id, NO_PARENT);
+		}
+
+		/**
+		 * Builds the {@link TreeIndex}
+		 *
+		 * @return the new tree index
+		 * @throws IllegalStateException
+		 *             if an id is added twice, a parent id is unknown or the parent references
+		 *             contain a cycle
+		 */
+		public TreeIndex build()
+		{
+			long[] nodeIds = Arrays.copyOf(ids, size);
+			LongIntMap indexes = new LongIntMap(size);
+			for (int i = 0; i < size; i++)
+			{
+				if (indexes.put(nodeIds[i], i) != NONE)
+				{
+					throw new IllegalStateException("Duplicate id: " + nodeIds[i]);
+				}
+			}
+			int[] parents = new int[size];
+			for (int i = 0; i < size; i++)
+			{
+				long parentId = parentIds[i];
+				if (parentId == NO_PARENT)
+				{
+					parents[i] = NONE;
+					continue;
+				}
+				int parent = indexes.get(parentId);
+				if (parent == NONE)
+				{
+					throw new IllegalStateException("Unknown parent id: " + parentId);
+				}
+				parents[i] = parent;
+			}
+			return new TreeIndex(nodeIds, parents, indexes);
+		}
+	}
+
+	/**
+	 * An open addressing hash map from long keys to int values with linear probing
+	 */
+	static final class LongIntMap
+	{
+
+		/** The keys */
+		private final long[] keys;
+
+		/** The values, {@link TreeIndex#NONE} for a free slot */
+		private final int[] values;
+
+		/** The mask for the slot index */
+		private final int mask;
+
+		LongIntMap(int expectedSize)
+		{
+			int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+			keys = new long[capacity];
+			values = new int[capacity];
+			mask = capacity - 1;
+			Arrays.fill(values, NONE);
+		}
+
+		int get(long key)
+		{
+			for (int slot = slot(key);; slot = (slot + 1) & mask)
+			{
+				int value = values[slot];
+				if (value == NONE || keys[slot] == key)
+				{
+					return value;
+				}
+			}
+		}
+
+		int put(long key, int value)
+		{
+			for (int slot = slot(key);; slot = (slot + 1) & mask)
+			{
+				int previous = values[slot];
+				if (previous == NONE)
+				{
+					keys[slot] = key;
+					values[slot] = value;
+					return NONE;
+				}
+				if (keys[slot] == key)
+				{
+					values[slot] = value;
+					return previous;
+				}
+			}
+		}
+
+		private int slot(long key)
+		{
+			long hash = key * 0x9E3779B97F4A7C15L;
+			return (int)(hash ^ (hash >>> 32)) & mask;
+		}
+	}
+
+}
@@ -0,0 +1,306 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.treeable.TreeWithChildren;
+import io.github.astrapi69.data.treeable.Treeable;
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The class {@link TreeMoves} moves subtrees of tree entities to a new parent. The depth of all
+ * tree entities of the moved subtree is changed by the difference of the old and the new depth and
+ * the node flags of the old and the new parent are updated. The persistent variants update the
+ * depths of the descendants with a set based bulk statement instead of one update per tree entity.
+ * Note that a bulk update does not update descendants that are already loaded in the persistence
+ * context
+ */
+public final class TreeMoves
+{
+
+	/** The name of the column of the depth */
+	public static final String DEPTH_COLUMN = "depth";
+
+	private TreeMoves()
+	{
+	}
+
+	/**
+	 * Computes the difference of the depth of the given tree entity under the given new parent and
+	 * its current depth
+	 *
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent or null if the tree entity becomes a root
+	 * @return the depth delta
+	 */
+	public static int getDepthDelta(Treeable<?, ?> node, Treeable<?, ?> newParent)
+	{
+		int newDepth = newParent == null ? 0 : newParent.getDepth() + 1;
+		return newDepth - node.getDepth();
+	}
+
+	/**
+	 * Checks that the given new parent is neither the given tree entity nor one of its descendants
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent
+	 * @throws IllegalArgumentException
+	 *             if the move would create a cycle
+	 */
+	public static <TR extends Treeable<?, TR>> void checkMove(TR node, TR newParent)
+	{
+		for (TR current = newParent; current != null; current = current.getParent())
+		{
+			if (current == node || current.equals(node))
+			{
+				throw new IllegalArgumentException(
+					"The new parent must not be the tree entity or one of its descendants");
+			}
+		}
+	}
+
+	/**
+	 * Moves the given tree entity with its subtree in memory to the given new parent. The children
+	 * collections and the node flags of the old and the new parent are updated and the depth of all
+	 * tree entities of the subtree is changed by the depth delta. The subtree is traversed
+	 * iteratively
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent or null if the tree entity becomes a root
+	 * @return the count of tree entities whose depth was changed
+	 */
+	public static <TR extends TreeWithChildren<?, TR>> int moveSubtree(TR node, TR newParent)
+	{
+		checkMove(node, newParent);
+		int delta = getDepthDelta(node, newParent);
+		TR oldParent = node.getParent();
+		if (oldParent != null)
+		{
+			oldParent.removeChild(node);
+			Collection<TR> siblings = oldParent.getChildren();
+			oldParent.setNode(siblings != null && !siblings.isEmpty());
+		}
+		node.setParent(newParent);
+		if (newParent != null)
+		{
+			newParent.addChild(node);
+			newParent.setNode(true);
+		}
+		if (delta == 0)
+		{
+			return 0;
+		}
+		int count = 0;
+		ArrayDeque<TR> stack = new ArrayDeque<>();
+		stack.push(node);
+		while (!stack.isEmpty())
+		{
+			TR current = stack.pop();
+			current.setDepth(current.getDepth() + delta);
+			count++;
+			Collection<TR> children = current.getChildren();
+			if (children != null)
+			{
+				children.forEach(stack::push);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Moves the given managed tree entity to the given new parent. The parent, the depth and the
+	 * node flags of the old and the new parent are set on the managed tree entities, the depths of
+	 * all descendants are changed with one recursive bulk update statement that follows the parent
+	 * id column.
+	 *
+	 * The statement selects the descendants in a recursive subquery on the updated table, this
+	 * works for instance with PostgreSQL and H2. MySQL and MariaDB reject an update whose subquery
+	 * reads the updated table with the error 1093, use
+	 * {@link #moveSubtreeByLevel(EntityManager, Class, Treeable, Treeable)} with them
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param tableName
+	 *            the name of the table of the tree entities
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent or null if the tree entity becomes a root
+	 * @return the count of updated descendants
+	 */
+	public static <E extends Treeable<?, E> & Identifiable<?>> int moveSubtree(
+		EntityManager entityManager, Class<E> entityClass, String tableName, E node, E newParent)
+	{
+		int delta = moveNode(entityManager, entityClass, node, newParent);
+		if (delta == 0)
+		{
+			return 0;
+		}
+		String statement = "UPDATE " + tableName + " SET " + DEPTH_COLUMN + " = " + DEPTH_COLUMN
+			+ " + ?2 WHERE " + TreeAncestors.ID_COLUMN + " IN (WITH RECURSIVE subtree ("
+			+ TreeAncestors.ID_COLUMN + ") AS (SELECT " + TreeAncestors.ID_COLUMN + " FROM "
+			+ tableName + " WHERE " + TreeAncestors.PARENT_COLUMN + " = ?1 UNION ALL SELECT t."
+			+ TreeAncestors.ID_COLUMN + " FROM " + tableName + " t JOIN subtree s ON t."
+			+ TreeAncestors.PARENT_COLUMN + " = s." + TreeAncestors.ID_COLUMN + ") SELECT "
+			+ TreeAncestors.ID_COLUMN + " FROM subtree)";
+		return entityManager.createNativeQuery(statement).setParameter(1, node.getId())
+			.setParameter(2, delta).executeUpdate();
+	}
+
+	/**
+	 * Moves the given managed tree entity to the given new parent like
+	 * {@link #moveSubtree(EntityManager, Class, String, Treeable, Treeable)} but with one bulk
+	 * update statement for each level of the descendants. This is the portable alternative for
+	 * databases without recursive queries
+	 *
+	 * @param <E>
+	 *            the generic type of the tree entity
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param node
+	 *            the tree entity to move
+	 * @param newParent
+	 *            the new parent or null if the tree entity becomes a root
+	 * @return the count of updated descendants
+	 */
+	public static <E extends Treeable<?, E> & Identifiable<?>> int moveSubtreeByLevel(
+		EntityManager entityManager, Class<E> entityClass, E node, E newParent)
+	{
+		int delta = moveNode(entityManager, entityClass, node, newParent);
+		if (delta == 0)
+		{
+			return 0;
+		}
+		String entityName = EntityNames.of(entityManager, entityClass);
+		String select = "SELECT e.id FROM " + entityName + " e WHERE e.parent.id IN :ids";
+		String update = "UPDATE " + entityName
+			+ " e SET e.depth = e.depth + :delta WHERE e.id IN :ids";
+		int count = 0;
+		List<Object> ids = new ArrayList<>();
+		ids.add(node.getId());
+		while (true)
+		{
+			List<Object> level = entityManager.createQuery(select, Object.class)
+				.setParameter("ids", ids).getResultList();
+			if (level.isEmpty())
+			{
+				return count;
+			}
+			count += entityManager.createQuery(update).setParameter("delta", delta)
+				.setParameter("ids", level).executeUpdate();
+			ids = level;
+		}
+	}
+
+	/**
+	 * Sets the new parent and the new depth of the given tree entity, updates the node flags of the
+	 * old and the new parent and the children collections of them if they have one
+	 *
+	 * @return the depth delta
+	 */
+	static <E extends Treeable<?, E> & Identifiable<?>> int moveNode(
+		EntityManager entityManager, Class<E> entityClass, E node, E newParent)
+	{
+		checkMove(node, newParent);
+		int delta = getDepthDelta(node, newParent);
+		E oldParent = node.getParent();
+		node.setParent(newParent);
+		node.setDepth(node.getDepth() + delta);
+		if (newParent != null)
+		{
+			addToChildren(newParent, node);
+			newParent.setNode(true);
+		}
+		if (oldParent != null && !oldParent.equals(newParent))
+		{
+			updateNodeFlag(entityManager, entityClass, oldParent, node);
+		}
+		return delta;
+	}
+
+	/**
+	 * Adds the given moved tree entity to the children collection of the given new parent if it has
+	 * one and does not contain the moved tree entity already
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends Treeable<?, E>> void addToChildren(E newParent, E moved)
+	{
+		if (newParent instanceof TreeWithChildren<?, ?> withChildren
+			&& withChildren.getChildren() != null)
+		{
+			Collection<E> children = (Collection<E>)withChildren.getChildren();
+			if (!children.contains(moved))
+			{
+				children.add(moved);
+			}
+		}
+	}
+
+	/**
+	 * Updates the node flag of the given former parent of the given moved tree entity, from its
+	 * children collection if it has one otherwise with a count query
+	 */
+	private static <E extends Treeable<?, E> & Identifiable<?>> void updateNodeFlag(
+		EntityManager entityManager, Class<E> entityClass, E oldParent, E moved)
+	{
+		if (oldParent instanceof TreeWithChildren<?, ?> withChildren
+			&& withChildren.getChildren() != null)
+		{
+			Collection<?> children = withChildren.getChildren();
+			children.remove(moved);
+			oldParent.setNode(!children.isEmpty());
+			return;
+		}
+		Long count = entityManager
+			.createQuery("SELECT COUNT(e) FROM " + EntityNames.of(entityManager, entityClass)
+				+ " e WHERE e.parent = :parent AND e.id <> :id", Long.class)
+			.setParameter("parent", oldParent).setParameter("id", moved.getId())
+			.getSingleResult();
+		oldParent.setNode(count > 0);
+	}
+
+}
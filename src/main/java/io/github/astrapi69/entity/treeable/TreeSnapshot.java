@@ -0,0 +1,471 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.treeable.TreeWithChildren;
+
+/**
+ * The class {@link TreeSnapshot} is an immutable node of a tree snapshot. Changes do not modify a
+ * snapshot, they return a new root that copies only the nodes on the path from the root to the
+ * changed node and shares all other subtrees with the old snapshot. So readers of a snapshot see a
+ * consistent tree without locks. A snapshot can be published atomically with a
+ * {@link TreeSnapshotPublisher}.
+ *
+ * The children of a node are held in an array that is sorted by the ids, so a child is found with
+ * a binary search. A change finds the path with O(depth * log(fanout)) comparisons and copies the
+ * children arrays of the nodes on the path, so it copies as many references as the nodes on the
+ * path have children in sum. That is far less than a copy of the whole tree, but a change under a
+ * node with many thousands of children copies all of its child references.
+ *
+ * The path of a node is the list of the ids from the root of the snapshot to the node, see
+ * {@link #pathOf(TreeWithChildren)}
+ *
+ * @param <T>
+ *            the generic type of the value
+ */
+public final class TreeSnapshot<T>
+{
+
+	/** The order of the children by their ids */
+	private static final Comparator<TreeSnapshot<?>> BY_ID = Comparator
+		.comparing(snapshot -> snapshot.id);
+
+	/** The shared empty children array */
+	private static final TreeSnapshot<?>[] EMPTY = new TreeSnapshot<?>[0];
+
+	/** The id of the node */
+	private final UUID id;
+
+	/** The value of the node */
+	private final T value;
+
+	/** The children of the node sorted by their ids, never modified after construction */
+	private final TreeSnapshot<T>[] children;
+
+	/** The count of nodes of the subtree of this node */
+	private final int size;
+
+	private TreeSnapshot(UUID id, T value, TreeSnapshot<T>[] children)
+	{
+		this.id = Objects.requireNonNull(id);
+		this.value = value;
+		this.children = children;
+		int count = 1;
+		for (TreeSnapshot<T> child : children)
+		{
+			count += child.size;
+		}
+		this.size = count;
+	}
+
+	/**
+	 * Factory method for a new leaf {@link TreeSnapshot}
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 * @param id
+	 *            the id
+	 * @param value
+	 *            the value
+	 * @return the new {@link TreeSnapshot}
+	 */
+	public static <T> TreeSnapshot<T> leaf(UUID id, T value)
+	{
+		return new TreeSnapshot<>(id, value, empty());
+	}
+
+	/**
+	 * Factory method for a new {@link TreeSnapshot} of the given tree entity and all its
+	 * descendants. The children collections are traversed iteratively
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param root
+	 *            the root of the subtree
+	 * @return the new {@link TreeSnapshot}
+	 */
+	public static <T, TR extends TreeWithChildren<T, TR> & Identifiable<UUID>> TreeSnapshot<T> of(
+		TR root)
+	{
+		ArrayDeque<Frame<T, TR>> frames = new ArrayDeque<>();
+		frames.push(new Frame<>(root));
+		while (true)
+		{
+			Frame<T, TR> frame = frames.peek();
+			if (frame.children.hasNext())
+			{
+				frames.push(new Frame<>(frame.children.next()));
+				continue;
+			}
+			frames.pop();
+			TreeSnapshot<T>[] children = frame.built.toArray(empty());
+			Arrays.sort(children, BY_ID);
+			TreeSnapshot<T> snapshot = new TreeSnapshot<>(frame.node.getId(),
+				frame.node.getValue(), children);
+			if (frames.isEmpty())
+			{
+				return snapshot;
+			}
+			frames.peek().built.add(snapshot);
+		}
+	}
+
+	/**
+	 * Computes the path of the given tree entity in this snapshot, that is the list of the ids from
+	 * this node to the given tree entity. The parents of the given tree entity are followed up to
+	 * the tree entity with the id of this node, so this node can be the root of a subtree of the
+	 * tree entities
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param node
+	 *            the tree entity
+	 * @return the path
+	 * @throws IllegalArgumentException
+	 *             if this node is not an ancestor of the given tree entity or the tree entity
+	 *             itself
+	 */
+	public <TR extends TreeWithChildren<?, TR> & Identifiable<UUID>> List<UUID> pathOf(TR node)
+	{
+		List<UUID> path = new ArrayList<>();
+		for (TR current = node; current != null; current = current.getParent())
+		{
+			UUID currentId = current.getId();
+			path.add(currentId);
+			if (id.equals(currentId))
+			{
+				Collections.reverse(path);
+				return path;
+			}
+		}
+		throw new IllegalArgumentException(
+			"The tree entity " + node.getId() + " is not in the subtree of " + id);
+	}
+
+	/**
+	 * Gets the id
+	 *
+	 * @return the id
+	 */
+	public UUID getId()
+	{
+		return id;
+	}
+
+	/**
+	 * Gets the value
+	 *
+	 * @return the value
+	 */
+	public T getValue()
+	{
+		return value;
+	}
+
+	/**
+	 * Gets the unmodifiable list of the children sorted by their ids
+	 *
+	 * @return the children
+	 */
+	public List<TreeSnapshot<T>> getChildren()
+	{
+		return Collections.unmodifiableList(Arrays.asList(children));
+	}
+
+	/**
+	 * Checks if this node has children
+	 *
+	 * @return true if this node has children otherwise false
+	 */
+	public boolean isNode()
+	{
+		return children.length != 0;
+	}
+
+	/**
+	 * Gets the count of nodes of the subtree of this node, including this node
+	 *
+	 * @return the count of nodes
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Gets the child with the given id
+	 *
+	 * @param childId
+	 *            the id of the child
+	 * @return the child or null if this node has no child with the given id
+	 */
+	public TreeSnapshot<T> getChild(UUID childId)
+	{
+		int index = indexOf(childId);
+		return index < 0 ? null : children[index];
+	}
+
+	/**
+	 * Finds the node with the given path
+	 *
+	 * @param path
+	 *            the ids from this node to the node to find
+	 * @return the node or null if no node has the given path
+	 */
+	public TreeSnapshot<T> find(List<UUID> path)
+	{
+		if (path.isEmpty() || !id.equals(path.get(0)))
+		{
+			return null;
+		}
+		TreeSnapshot<T> current = this;
+		for (int i = 1; i < path.size() && current != null; i++)
+		{
+			current = current.getChild(path.get(i));
+		}
+		return current;
+	}
+
+	/**
+	 * Returns a new root in that the node with the given path has the given value
+	 *
+	 * @param path
+	 *            the ids from this node to the changed node
+	 * @param newValue
+	 *            the new value
+	 * @return the new root
+	 */
+	public TreeSnapshot<T> withValue(List<UUID> path, T newValue)
+	{
+		return change(path, node -> new TreeSnapshot<>(node.id, newValue, node.children));
+	}
+
+	/**
+	 * Returns a new root in that the given child is added to the node with the given path. An
+	 * existing child with the same id is replaced
+	 *
+	 * @param path
+	 *            the ids from this node to the parent
+	 * @param child
+	 *            the child to add
+	 * @return the new root
+	 */
+	public TreeSnapshot<T> withChild(List<UUID> path, TreeSnapshot<T> child)
+	{
+		Objects.requireNonNull(child);
+		return change(path,
+			node -> new TreeSnapshot<>(node.id, node.value, insert(node.children, child)));
+	}
+
+	/**
+	 * Returns a new root without the node with the given path and its subtree
+	 *
+	 * @param path
+	 *            the ids from this node to the node to remove, that must not be this node
+	 * @return the new root
+	 */
+	public TreeSnapshot<T> without(List<UUID> path)
+	{
+		if (path.size() < 2)
+		{
+			throw new IllegalArgumentException("The root can not be removed");
+		}
+		return change(path, node -> null);
+	}
+
+	/**
+	 * Returns a new root in that the node with the given path is replaced by the result of the
+	 * given function. The nodes on the path are copied, all other nodes are shared
+	 *
+	 * @param path
+	 *            the ids from this node to the changed node
+	 * @param function
+	 *            the function that returns the new node or null to remove the node
+	 * @return the new root
+	 * @throws IllegalArgumentException
+	 *             if no node has the given path
+	 */
+	@SuppressWarnings("unchecked")
+	public TreeSnapshot<T> change(List<UUID> path, UnaryOperator<TreeSnapshot<T>> function)
+	{
+		if (path.isEmpty() || !id.equals(path.get(0)))
+		{
+			throw new IllegalArgumentException("The path does not start with this node: " + path);
+		}
+		int length = path.size();
+		TreeSnapshot<T>[] nodes = new TreeSnapshot[length];
+		int[] indexes = new int[length];
+		nodes[0] = this;
+		for (int i = 1; i < length; i++)
+		{
+			indexes[i] = nodes[i - 1].indexOf(path.get(i));
+			if (indexes[i] < 0)
+			{
+				throw new IllegalArgumentException("No node with the path: " + path);
+			}
+			nodes[i] = nodes[i - 1].children[indexes[i]];
+		}
+		TreeSnapshot<T> replaced = function.apply(nodes[length - 1]);
+		for (int i = length - 1; i > 0; i--)
+		{
+			replaced = nodes[i - 1].withChildAt(indexes[i], replaced);
+		}
+		if (replaced == null)
+		{
+			throw new IllegalArgumentException("The root can not be removed");
+		}
+		return replaced;
+	}
+
+	private TreeSnapshot<T> withChildAt(int index, TreeSnapshot<T> child)
+	{
+		TreeSnapshot<T>[] newChildren;
+		if (child != null && child.id.equals(children[index].id))
+		{
+			newChildren = children.clone();
+			newChildren[index] = child;
+		}
+		else
+		{
+			newChildren = Arrays.copyOf(children, children.length - 1);
+			System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+			if (child != null)
+			{
+				// the changed child has a new id, so it is sorted in at its new position
+				newChildren = insert(newChildren, child);
+			}
+		}
+		return new TreeSnapshot<>(id, value, newChildren);
+	}
+
+	/**
+	 * Returns a copy of the given sorted children with the given child, that replaces a child with
+	 * the same id or is inserted at the position of its id
+	 */
+	private static <T> TreeSnapshot<T>[] insert(TreeSnapshot<T>[] children, TreeSnapshot<T> child)
+	{
+		int index = indexOf(children, child.id);
+		if (0 <= index)
+		{
+			TreeSnapshot<T>[] newChildren = children.clone();
+			newChildren[index] = child;
+			return newChildren;
+		}
+		int insertion = -index - 1;
+		TreeSnapshot<T>[] newChildren = Arrays.copyOf(children, children.length + 1);
+		System.arraycopy(children, insertion, newChildren, insertion + 1,
+			children.length - insertion);
+		newChildren[insertion] = child;
+		return newChildren;
+	}
+
+	private int indexOf(UUID childId)
+	{
+		return indexOf(children, childId);
+	}
+
+	/**
+	 * Searches the given id in the given sorted children with a binary search
+	 *
+	 * @return the index of the child or (-(insertion point) - 1) if no child has the given id
+	 */
+	private static int indexOf(TreeSnapshot<?>[] children, UUID childId)
+	{
+		int low = 0;
+		int high = children.length - 1;
+		while (low <= high)
+		{
+			int middle = (low + high) >>> 1;
+			int comparison = children[middle].id.compareTo(childId);
+			if (comparison < 0)
+			{
+				low = middle + 1;
+			}
+			else if (comparison > 0)
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return middle;
+			}
+		}
+		return -(low + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> TreeSnapshot<T>[] empty()
+	{
+		return (TreeSnapshot<T>[])EMPTY;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "TreeSnapshot(id=" + id + ", children=" + children.length + ", size=" + size + ")";
+	}
+
+	/**
+	 * The frame of the iterative construction of a snapshot from a tree entity
+	 */
+	private static final class Frame<T, TR extends TreeWithChildren<T, TR>>
+	{
+
+		final TR node;
+
+		final Iterator<TR> children;
+
+		final List<TreeSnapshot<T>> built = new ArrayList<>();
+
+		Frame(TR node)
+		{
+			this.node = node;
+			Collection<TR> nodeChildren = node.getChildren();
+			this.children = nodeChildren == null
+				? Collections.emptyIterator()
+				: nodeChildren.iterator();
+		}
+
+	}
+
+}
@@ -0,0 +1,163 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.treeable.TreeWithChildren;
+
+/**
+ * The class {@link TreeSnapshotPublisher} holds the current {@link TreeSnapshot} of a tree and
+ * publishes new snapshots atomically. Readers get the current snapshot without locks and keep a
+ * consistent view as long as they hold it. Writers apply path copying changes with a compare and
+ * set loop, so concurrent writers do not lose changes, the change functions have to be free of
+ * side effects because they can be applied more than once. The methods for tree entities resolve
+ * the path of a tree entity from the root of the current snapshot, so the snapshot can also hold
+ * a subtree of the tree entities
+ *
+ * @param <T>
+ *            the generic type of the value
+ */
+public class TreeSnapshotPublisher<T>
+{
+
+	/** The current snapshot */
+	private final AtomicReference<TreeSnapshot<T>> current;
+
+	/**
+	 * Instantiates a new {@link TreeSnapshotPublisher} with the given initial snapshot
+	 *
+	 * @param initial
+	 *            the initial snapshot
+	 */
+	public TreeSnapshotPublisher(TreeSnapshot<T> initial)
+	{
+		current = new AtomicReference<>(Objects.requireNonNull(initial));
+	}
+
+	/**
+	 * Factory method for a new {@link TreeSnapshotPublisher} with the snapshot of the given tree
+	 * entity
+	 *
+	 * @param <T>
+	 *            the generic type of the value
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param root
+	 *            the root tree entity
+	 * @return the new {@link TreeSnapshotPublisher}
+	 */
+	public static <T, TR extends TreeWithChildren<T, TR> & Identifiable<UUID>>
+		TreeSnapshotPublisher<T> of(TR root)
+	{
+		return new TreeSnapshotPublisher<>(TreeSnapshot.of(root));
+	}
+
+	/**
+	 * Gets the current snapshot
+	 *
+	 * @return the current snapshot
+	 */
+	public TreeSnapshot<T> get()
+	{
+		return current.get();
+	}
+
+	/**
+	 * Publishes the given snapshot
+	 *
+	 * @param snapshot
+	 *            the new snapshot
+	 */
+	public void publish(TreeSnapshot<T> snapshot)
+	{
+		current.set(Objects.requireNonNull(snapshot));
+	}
+
+	/**
+	 * Applies the given change to the current snapshot and publishes the result atomically
+	 *
+	 * @param change
+	 *            the change that returns a new snapshot
+	 * @return the published snapshot
+	 */
+	public TreeSnapshot<T> update(UnaryOperator<TreeSnapshot<T>> change)
+	{
+		return current.updateAndGet(change);
+	}
+
+	/**
+	 * Publishes the current value of the given tree entity
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param node
+	 *            the changed tree entity
+	 * @return the published snapshot
+	 */
+	public <TR extends TreeWithChildren<T, TR> & Identifiable<UUID>> TreeSnapshot<T> updateValue(
+		TR node)
+	{
+		T value = node.getValue();
+		return update(root -> root.withValue(root.pathOf(node), value));
+	}
+
+	/**
+	 * Publishes the given tree entity with its subtree as child of its parent
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param node
+	 *            the added tree entity
+	 * @return the published snapshot
+	 */
+	public <TR extends TreeWithChildren<T, TR> & Identifiable<UUID>> TreeSnapshot<T> add(TR node)
+	{
+		TR parent = Objects.requireNonNull(node.getParent(), "The tree entity has no parent");
+		TreeSnapshot<T> child = TreeSnapshot.of(node);
+		return update(root -> root.withChild(root.pathOf(parent), child));
+	}
+
+	/**
+	 * Publishes the removal of the given tree entity with its subtree. The parent of the given tree
+	 * entity has to be still set
+	 *
+	 * @param <TR>
+	 *            the generic type of the tree entity
+	 * @param node
+	 *            the removed tree entity
+	 * @return the published snapshot
+	 */
+	public <TR extends TreeWithChildren<T, TR> & Identifiable<UUID>> TreeSnapshot<T> remove(
+		TR node)
+	{
+		return update(root -> root.without(root.pathOf(node)));
+	}
+
+}
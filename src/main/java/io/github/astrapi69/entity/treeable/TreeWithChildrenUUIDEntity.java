@@ -24,25 +24,16 @@
  */
 package io.github.astrapi69.entity.treeable;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
 import io.github.astrapi69.data.treeable.TreeWithChildren;
-import io.github.astrapi69.entity.uniqueable.UUIDEntity;
-import jakarta.persistence.Column;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MappedSuperclass;
-import jakarta.persistence.OneToMany;
 import lombok.AccessLevel;
-import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.SuperBuilder;
 
@@ -50,64 +41,24 @@ import lombok.experimental.SuperBuilder;
  * The Entity class {@link TreeWithChildrenUUIDEntity} can keep information for a tree structure.
  * The root {@link TreeWithChildrenUUIDEntity} has no parent, all other
  * {@link TreeWithChildrenUUIDEntity} objects have a parent.
+ *
+ * The other attributes, the equality and the string representation are inherited from
+ * {@link TreeWithChildrenUUIDBaseEntity}
  */
 @MappedSuperclass
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
 @Getter
 @Setter
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @SuperBuilder
-public class TreeWithChildrenUUIDEntity<T, TR extends TreeWithChildren<T, TR>> extends UUIDEntity
-	implements
-		TreeWithChildren<T, TR>
+public class TreeWithChildrenUUIDEntity<T, TR extends TreeWithChildren<T, TR>>
+	extends
+		TreeWithChildrenUUIDBaseEntity<T, TR>
 {
 
-	/** The depth of this node. For the root depth would be 0 */
-	@Column(name = "depth")
-	int depth;
-
-	/** A flag that indicates if this tree entity is a node or a leaf */
-	@Column(name = "node")
-	boolean node;
-
-	/** The parent tree entity that references to the parent */
+	/** The parent tree entity that references to the parent. */
 	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "parent_id", foreignKey = @ForeignKey(name = "fk_treeable_parent_id"))
 	TR parent;
 
-	/** The children of this entity */
-	@OneToMany(mappedBy = "parent")
-	@Builder.Default
-	Collection<TR> children = new ArrayList<>();
-
-	/** The value of this tree entity */
-	@Column(name = "value", columnDefinition = "TEXT")
-	T value;
-
-	/**
-	 * Adds the given child to the children collection
-	 * 
-	 * @param child
-	 *            the child to add
-	 */
-	public void addChild(TR child)
-	{
-		if (!children.contains(child))
-		{
-			children.add(child);
-		}
-	}
-
-	/**
-	 * Removes the given child from the children collection
-	 * 
-	 * @param child
-	 *            the child to remove
-	 */
-	public void removeChild(TR child)
-	{
-		children.remove(child);
-	}
 }
@@ -0,0 +1,63 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import java.util.UUID;
+
+import jakarta.persistence.MappedSuperclass;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * The class {@link TimeOrderedUUIDEntity} is an {@link UUIDEntity} with a primary key that is
+ * assigned in memory from the {@link UUIDv7Generator} before the entity is persisted. The
+ * time-ordered ids of version 7 are appended at the right side of the primary key index, in
+ * contrast to the random ids of an {@link UUIDEntity}.
+ *
+ * Subclasses of {@link UUIDEntity} that can not extend this class, for instance the tree entities,
+ * opt in to time-ordered ids by overriding {@link UUIDEntity#newId()} in the same way
+ */
+@MappedSuperclass
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+@SuperBuilder
+public abstract class TimeOrderedUUIDEntity extends UUIDEntity
+{
+
+	/**
+	 * Creates a new time-ordered uuid of version 7 from the {@link UUIDv7Generator}
+	 *
+	 * @return the new id
+	 */
+	@Override
+	protected UUID newId()
+	{
+		return UUIDv7Generator.next();
+	}
+
+}
@@ -0,0 +1,66 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import java.util.UUID;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * The converter class {@link UUIDBinaryConverter} stores an {@link UUID} attribute as 16 raw bytes,
+ * which needs less than half of the space of the text form in the column and in the indexes of
+ * databases without a native uuid type.
+ *
+ * The converter is for uuid attributes that are not the id, for instance foreign uuids or
+ * correlation ids, that are annotated with <code>&#64;Convert(converter =
+ * UUIDBinaryConverter.class)</code> and mapped to a binary column of 16 bytes. The jpa
+ * specification does not apply converters to id attributes, so the primary key of an
+ * {@link UUIDEntity} is mapped by the persistence provider, see there for the binary storage of
+ * the id
+ */
+@Converter
+public class UUIDBinaryConverter implements AttributeConverter<UUID, byte[]>
+{
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] convertToDatabaseColumn(UUID attribute)
+	{
+		return attribute == null ? null : UUIDCodec.toBytes(attribute);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public UUID convertToEntityAttribute(byte[] dbData)
+	{
+		return dbData == null ? null : UUIDCodec.fromBytes(dbData);
+	}
+
+}
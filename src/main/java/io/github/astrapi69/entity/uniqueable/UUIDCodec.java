@@ -0,0 +1,240 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The class {@link UUIDCodec} converts {@link UUID} objects to and from their 16 byte binary form
+ * and their canonical 36 character text form. The methods that write into a given array or
+ * {@link StringBuilder} and the methods that read from a given array or {@link CharSequence} do not
+ * allocate any intermediate objects<br>
+ * <br>
+ * The binary conversions are faster than the conversions over a {@link java.nio.ByteBuffer}. The
+ * text conversions are not faster than {@link UUID#toString()} and {@link UUID#fromString(String)}
+ * of the jdk, which are intrinsified. Their benefit is that {@link #appendTo(UUID, StringBuilder)}
+ * does not create an intermediate string and that {@link #parse(CharSequence)} accepts any
+ * character sequence and only the canonical form. See the benchmark {@code UUIDCodecBenchmark}
+ */
+public final class UUIDCodec
+{
+
+	/** The byte count of the binary form */
+	public static final int BYTES = 16;
+
+	/** The character count of the canonical text form */
+	public static final int TEXT_LENGTH = 36;
+
+	/** The lower case hexadecimal digits */
+	private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+	/** The values of the hexadecimal digits indexed by the character, -1 for other characters */
+	private static final byte[] NIBBLES = new byte[128];
+
+	static
+	{
+		Arrays.fill(NIBBLES, (byte)-1);
+		for (int i = 0; i < 10; i++)
+		{
+			NIBBLES['0' + i] = (byte)i;
+		}
+		for (int i = 0; i < 6; i++)
+		{
+			NIBBLES['a' + i] = (byte)(10 + i);
+			NIBBLES['A' + i] = (byte)(10 + i);
+		}
+	}
+
+	private UUIDCodec()
+	{
+	}
+
+	/**
+	 * Converts the given {@link UUID} to a new byte array of 16 bytes in big endian order
+	 *
+	 * @param uuid
+	 *            the uuid
+	 * @return the byte array
+	 */
+	public static byte[] toBytes(UUID uuid)
+	{
+		byte[] bytes = new byte[BYTES];
+		writeBytes(uuid, bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * Writes the given {@link UUID} in big endian order into the given byte array
+	 *
+	 * @param uuid
+	 *            the uuid
+	 * @param bytes
+	 *            the target byte array
+	 * @param offset
+	 *            the offset in the byte array
+	 */
+	public static void writeBytes(UUID uuid, byte[] bytes, int offset)
+	{
+		writeLong(uuid.getMostSignificantBits(), bytes, offset);
+		writeLong(uuid.getLeastSignificantBits(), bytes, offset + 8);
+	}
+
+	/**
+	 * Converts the given byte array of 16 bytes in big endian order to an {@link UUID}
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @return the uuid
+	 */
+	public static UUID fromBytes(byte[] bytes)
+	{
+		if (bytes.length != BYTES)
+		{
+			throw new IllegalArgumentException(
+				"Byte array must have a length of " + BYTES + ": " + bytes.length);
+		}
+		return fromBytes(bytes, 0);
+	}
+
+	/**
+	 * Reads an {@link UUID} from 16 bytes in big endian order from the given byte array
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @param offset
+	 *            the offset in the byte array
+	 * @return the uuid
+	 */
+	public static UUID fromBytes(byte[] bytes, int offset)
+	{
+		return new UUID(readLong(bytes, offset), readLong(bytes, offset + 8));
+	}
+
+	/**
+	 * Appends the canonical text form of the given {@link UUID} to the given {@link StringBuilder}
+	 *
+	 * @param uuid
+	 *            the uuid
+	 * @param sb
+	 *            the string builder
+	 * @return the given string builder
+	 */
+	public static StringBuilder appendTo(UUID uuid, StringBuilder sb)
+	{
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		appendHex(sb, msb >>> 32, 8);
+		sb.append('-');
+		appendHex(sb, msb >>> 16, 4);
+		sb.append('-');
+		appendHex(sb, msb, 4);
+		sb.append('-');
+		appendHex(sb, lsb >>> 48, 4);
+		sb.append('-');
+		appendHex(sb, lsb, 12);
+		return sb;
+	}
+
+	/**
+	 * Converts the given {@link UUID} to its canonical text form. Delegates to
+	 * {@link UUID#toString()}, which is faster than any conversion over a {@link StringBuilder}
+	 *
+	 * @param uuid
+	 *            the uuid
+	 * @return the canonical text form
+	 */
+	public static String toString(UUID uuid)
+	{
+		return uuid.toString();
+	}
+
+	/**
+	 * Parses the given canonical text form of an {@link UUID}. Upper and lower case hexadecimal
+	 * digits are accepted
+	 *
+	 * @param text
+	 *            the canonical text form with 36 characters
+	 * @return the uuid
+	 * @throws IllegalArgumentException
+	 *             if the given text is not in the canonical text form
+	 */
+	public static UUID parse(CharSequence text)
+	{
+		if (text.length() != TEXT_LENGTH || text.charAt(8) != '-' || text.charAt(13) != '-'
+			|| text.charAt(18) != '-' || text.charAt(23) != '-')
+		{
+			throw new IllegalArgumentException("Invalid uuid: " + text);
+		}
+		long msb = (parseHex(text, 0, 8) << 32) | (parseHex(text, 9, 4) << 16)
+			| parseHex(text, 14, 4);
+		long lsb = (parseHex(text, 19, 4) << 48) | parseHex(text, 24, 12);
+		return new UUID(msb, lsb);
+	}
+
+	private static void appendHex(StringBuilder sb, long value, int digits)
+	{
+		for (int shift = (digits - 1) << 2; shift >= 0; shift -= 4)
+		{
+			sb.append(DIGITS[(int)(value >>> shift) & 0xF]);
+		}
+	}
+
+	private static long parseHex(CharSequence text, int start, int digits)
+	{
+		long value = 0;
+		for (int i = start, end = start + digits; i < end; i++)
+		{
+			char c = text.charAt(i);
+			int nibble = c < NIBBLES.length ? NIBBLES[c] : -1;
+			if (nibble < 0)
+			{
+				throw new IllegalArgumentException("Invalid uuid: " + text);
+			}
+			value = (value << 4) | nibble;
+		}
+		return value;
+	}
+
+	private static void writeLong(long value, byte[] bytes, int offset)
+	{
+		for (int i = 7; i >= 0; i--)
+		{
+			bytes[offset + i] = (byte)value;
+			value >>>= 8;
+		}
+	}
+
+	private static long readLong(byte[] bytes, int offset)
+	{
+		long value = 0;
+		for (int i = 0; i < 8; i++)
+		{
+			value = (value << 8) | (bytes[offset + i] & 0xFF);
+		}
+		return value;
+	}
+
+}
@@ -39,7 +39,18 @@ import lombok.experimental.SuperBuilder;
  * The abstract class {@link UUIDEntity} is a concrete class of {@link UniqueableEntity} and holds
  * an {@link UUID} as primary key.
  *
- * The generation strategy type of the primary key is 'UUID'
+ * The primary key is a random uuid of version 4 that is assigned in memory before the entity is
+ * persisted. Entity classes that need time-ordered ids of version 7, which are appended at the
+ * right side of the primary key index, override {@link #newId()} to return
+ * {@link UUIDv7Generator#next()}, like the {@link TimeOrderedUUIDEntity} does. So every subclass
+ * of this class, for instance a tree entity, can opt in to time-ordered ids.
+ *
+ * The column type of the primary key is chosen by the persistence provider, the jpa specification
+ * does not apply attribute converters like the {@link UUIDBinaryConverter} to ids. Hibernate uses
+ * the native uuid type of databases that have one and stores the id as 16 raw bytes with the
+ * persistence unit property <code>hibernate.type.preferred_uuid_jdbc_type</code> set to
+ * <code>BINARY</code>, for instance on databases that would otherwise store the id as text. This
+ * library does not bind the mapping of the id to a persistence provider
  */
 @MappedSuperclass
 @Access(AccessType.FIELD)
@@ -49,4 +60,16 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 public abstract class UUIDEntity extends UniqueableEntity<UUID>
 {
+
+	/**
+	 * Creates a new random uuid of version 4
+	 *
+	 * @return the new id
+	 */
+	@Override
+	protected UUID newId()
+	{
+		return UUID.randomUUID();
+	}
+
 }
@@ -0,0 +1,123 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class {@link UUIDv7Generator} generates time-ordered {@link UUID} objects of version 7 as
+ * specified in RFC 9562. The first 48 bits hold the unix timestamp in milliseconds, the 12 bits of
+ * <code>rand_a</code> are used as a counter, so generated ids are strictly monotonic even if many
+ * ids are generated within the same millisecond or the system clock goes backwards. The remaining
+ * 62 bits are random.
+ *
+ * In contrast to the random version 4 ids, the time-ordered ids are appended at the right side of a
+ * primary key index, which keeps the b-tree compact and the inserts local. The generator is
+ * lock-free and can be used from any number of threads.
+ */
+public final class UUIDv7Generator
+{
+
+	/** The version bits of a version 7 uuid in the most significant long */
+	private static final long VERSION_BITS = 0x7000L;
+
+	/** The variant bits of the IETF variant in the least significant long */
+	private static final long VARIANT_BITS = 0x8000000000000000L;
+
+	/** The mask for the random bits in the least significant long */
+	private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+	/** The bit count of the counter */
+	private static final int COUNTER_BITS = 12;
+
+	/** The mask for the counter */
+	private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+	/**
+	 * The last generated state, the unix timestamp in milliseconds shifted left by the counter bits
+	 * combined with the counter
+	 */
+	private static final AtomicLong STATE = new AtomicLong();
+
+	private UUIDv7Generator()
+	{
+	}
+
+	/**
+	 * Generates a new time-ordered {@link UUID} of version 7
+	 *
+	 * @return the new {@link UUID} object
+	 */
+	public static UUID next()
+	{
+		long state = nextState();
+		long mostSigBits = ((state >>> COUNTER_BITS) << 16) | VERSION_BITS
+			| (state & COUNTER_MASK);
+		long leastSigBits = (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT_BITS;
+		return new UUID(mostSigBits, leastSigBits);
+	}
+
+	/**
+	 * Gets the unix timestamp in milliseconds from the given {@link UUID} of version 7
+	 *
+	 * @param uuid
+	 *            the uuid
+	 * @return the unix timestamp in milliseconds
+	 * @throws IllegalArgumentException
+	 *             if the given uuid is not of version 7
+	 */
+	public static long getTimestamp(UUID uuid)
+	{
+		if (uuid.version() != 7)
+		{
+			throw new IllegalArgumentException("Given uuid is not of version 7: " + uuid);
+		}
+		return uuid.getMostSignificantBits() >>> 16;
+	}
+
+	/**
+	 * Computes the next state. If the clock has advanced the counter starts from zero, otherwise
+	 * the counter is incremented. An overflow of the counter is carried into the timestamp, so the
+	 * state is strictly increasing in any case
+	 *
+	 * @return the next state
+	 */
+	private static long nextState()
+	{
+		for (;;)
+		{
+			long current = STATE.get();
+			long now = System.currentTimeMillis() << COUNTER_BITS;
+			long next = now > current ? now : current + 1;
+			if (STATE.compareAndSet(current, next))
+			{
+				return next;
+			}
+		}
+	}
+
+}
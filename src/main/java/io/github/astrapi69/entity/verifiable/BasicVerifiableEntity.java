@@ -27,9 +27,12 @@ package io.github.astrapi69.entity.verifiable;
 import java.io.Serializable;
 
 import io.github.astrapi69.data.identifiable.Identifiable;
-import io.github.astrapi69.data.verifiable.Verifiable;
+import io.github.astrapi69.entity.codec.ValueWriter;
 import io.github.astrapi69.entity.identifiable.SequenceBaseEntity;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -40,7 +43,11 @@ import lombok.experimental.FieldDefaults;
 import lombok.experimental.SuperBuilder;
 
 /**
- * The class {@link BasicVerifiableEntity} is a base entity that have to be signed and verified
+ * The class {@link BasicVerifiableEntity} is a base entity that have to be signed and verified. The
+ * signed fields are written by {@link #writeSignedFields(ValueWriter)} of the subclass without
+ * reflection, at least the id. The digest of them is cached as {@link CanonicalVerifiable} until
+ * it is invalidated by a setter of a signed field, or by this entity after the persistence
+ * provider loaded or refreshed the fields or generated the id
  *
  * @param <PK>
  *            the generic type of the id
@@ -56,10 +63,27 @@ import lombok.experimental.SuperBuilder;
 public abstract class BasicVerifiableEntity<PK extends Serializable> extends SequenceBaseEntity<PK>
 	implements
 		Identifiable<PK>,
-		Verifiable
+		CanonicalVerifiable
 {
 
 	/** The signature. */
 	String signature;
 
+	/** The cached digest of the signed fields */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	final CachedDigest cachedDigest = new CachedDigest();
+
+	/**
+	 * Invalidates the cached digest after the persistence provider loaded or refreshed the fields
+	 * of this entity or after it was persisted with its id
+	 */
+	@PostLoad
+	@PostPersist
+	protected void invalidateDigestOnLifecycle()
+	{
+		invalidateDigest();
+	}
+
 }
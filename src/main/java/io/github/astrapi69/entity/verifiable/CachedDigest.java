@@ -0,0 +1,107 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.util.function.Consumer;
+
+import io.github.astrapi69.entity.codec.ValueWriter;
+
+/**
+ * The class {@link CachedDigest} caches the digest of the signed fields of a verifiable object.
+ * The digest is computed with the {@link CanonicalEncoding} at the first call after the creation
+ * or an invalidation and returned from the cache afterwards, so the verification of an unchanged
+ * object neither encodes nor hashes the signed fields. Only the digest is held, not the encoding.
+ *
+ * The cache does not detect changes of the signed fields by itself, so each setter of a signed
+ * field has to call {@link #invalidate()}, for instance by
+ * {@link CanonicalVerifiable#invalidateDigest()}. The verifiable base entities invalidate the
+ * cache after the persistence provider loaded or refreshed the fields and after the id was
+ * generated
+ */
+public final class CachedDigest implements Serializable
+{
+
+	/** The serial Version UID */
+	private static final long serialVersionUID = 1L;
+
+	/** The cached digest, null if it is not computed yet or invalidated */
+	private volatile byte[] digest;
+
+	/**
+	 * Gets the digest of the signed fields, the digest is computed only if it is not cached. The
+	 * returned array must not be changed
+	 *
+	 * @param signedFields
+	 *            the consumer that writes the signed fields of the verifiable object that owns this
+	 *            cache
+	 * @return the digest
+	 */
+	public byte[] get(Consumer<ValueWriter> signedFields)
+	{
+		byte[] current = digest;
+		if (current == null)
+		{
+			current = CanonicalEncoding.digest(signedFields);
+			digest = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Checks in constant time if the given digest equals the digest of the signed fields
+	 *
+	 * @param digest
+	 *            the digest to check
+	 * @param signedFields
+	 *            the consumer that writes the signed fields of the verifiable object that owns this
+	 *            cache
+	 * @return true if the given digest equals the digest of the signed fields otherwise false
+	 */
+	public boolean matches(byte[] digest, Consumer<ValueWriter> signedFields)
+	{
+		return MessageDigest.isEqual(get(signedFields), digest);
+	}
+
+	/**
+	 * Checks if a digest is cached
+	 *
+	 * @return true if a digest is cached otherwise false
+	 */
+	public boolean isCached()
+	{
+		return digest != null;
+	}
+
+	/**
+	 * Removes the cached digest, this has to be called after each change of a signed field
+	 */
+	public void invalidate()
+	{
+		digest = null;
+	}
+
+}
@@ -0,0 +1,161 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.github.astrapi69.entity.codec.ValueWriter;
+
+/**
+ * The class {@link CanonicalEncoding} encodes the signed fields of a verifiable object to a
+ * deterministic byte sequence and computes the digest of it. The fields are written by the
+ * verifiable object itself in a fixed order with the binary encodings of {@link ValueWriter}, so
+ * no reflection and no string concatenation is needed. The encoding starts with the
+ * {@link #FORMAT_VERSION}. The writer and the message digest are reused for each thread, a nested
+ * encoding, for instance of the digest of a referenced verifiable object, gets its own writer
+ */
+public final class CanonicalEncoding
+{
+
+	/** The algorithm of the digest */
+	public static final String DIGEST_ALGORITHM = "SHA-256";
+
+	/** The version of the encoding that is written as first byte */
+	public static final int FORMAT_VERSION = 1;
+
+	/** The initial capacity of a writer in bytes */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** The writer of the current thread, null while it is in use */
+	private static final ThreadLocal<ValueWriter> WRITERS = new ThreadLocal<>();
+
+	/** The message digest of the current thread */
+	private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal
+		.withInitial(CanonicalEncoding::newMessageDigest);
+
+	private CanonicalEncoding()
+	{
+	}
+
+	/**
+	 * Encodes the signed fields that are written by the given consumer
+	 *
+	 * @param signedFields
+	 *            the consumer that writes the signed fields
+	 * @return the encoded bytes
+	 */
+	public static byte[] encode(Consumer<ValueWriter> signedFields)
+	{
+		return encodeWith(signedFields, ValueWriter::toByteArray);
+	}
+
+	/**
+	 * Computes the digest of the encoding of the signed fields that are written by the given
+	 * consumer
+	 *
+	 * @param signedFields
+	 *            the consumer that writes the signed fields
+	 * @return the digest
+	 */
+	public static byte[] digest(Consumer<ValueWriter> signedFields)
+	{
+		return encodeWith(signedFields, CanonicalEncoding::digestOf);
+	}
+
+	/**
+	 * Encodes the signed fields that are written by the given consumer into the reused writer of
+	 * the current thread and applies the given function to the writer. The writer must not be used
+	 * after the function returns
+	 *
+	 * @param <R>
+	 *            the generic type of the result
+	 * @param signedFields
+	 *            the consumer that writes the signed fields
+	 * @param function
+	 *            the function of the writer with the encoding
+	 * @return the result of the function
+	 */
+	static <R> R encodeWith(Consumer<ValueWriter> signedFields, Function<ValueWriter, R> function)
+	{
+		ValueWriter writer = acquire();
+		try
+		{
+			write(writer, signedFields);
+			return function.apply(writer);
+		}
+		finally
+		{
+			WRITERS.set(writer);
+		}
+	}
+
+	/**
+	 * Computes the digest of the bytes of the given writer with the message digest of the current
+	 * thread
+	 *
+	 * @param writer
+	 *            the writer with the encoding
+	 * @return the digest
+	 */
+	static byte[] digestOf(ValueWriter writer)
+	{
+		MessageDigest messageDigest = DIGESTS.get();
+		messageDigest.update(writer.asByteBuffer());
+		return messageDigest.digest();
+	}
+
+	private static ValueWriter acquire()
+	{
+		ValueWriter writer = WRITERS.get();
+		if (writer == null)
+		{
+			return new ValueWriter(INITIAL_CAPACITY);
+		}
+		WRITERS.set(null);
+		return writer;
+	}
+
+	private static void write(ValueWriter writer, Consumer<ValueWriter> signedFields)
+	{
+		writer.reset().writeByte(FORMAT_VERSION);
+		signedFields.accept(writer);
+	}
+
+	private static MessageDigest newMessageDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		}
+		catch (NoSuchAlgorithmException exception)
+		{
+			throw new IllegalStateException(exception);
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import io.github.astrapi69.data.verifiable.Verifiable;
+import io.github.astrapi69.entity.codec.ValueWriter;
+
+/**
+ * The interface {@link CanonicalVerifiable} is a verifiable object that writes its signed fields
+ * itself in a fixed order with {@link #writeSignedFields(ValueWriter)}, so they are encoded with
+ * the {@link CanonicalEncoding} without reflection. The digest of the signed fields is held in the
+ * {@link CachedDigest} of the object until it is invalidated, so the setters of the signed fields
+ * have to call {@link #invalidateDigest()}. For example, an entity with the signed field name:
+ *
+ * <pre>
+ * &#64;Override
+ * public void writeSignedFields(ValueWriter writer)
+ * {
+ * 	writer.writeVarLong(getId());
+ * 	writer.writeString(name);
+ * }
+ *
+ * public void setName(String name)
+ * {
+ * 	this.name = name;
+ * 	invalidateDigest();
+ * }
+ * </pre>
+ */
+public interface CanonicalVerifiable extends Verifiable
+{
+
+	/**
+	 * Gets the cache of the digest of the signed fields of this object
+	 *
+	 * @return the cache of the digest
+	 */
+	CachedDigest getCachedDigest();
+
+	/**
+	 * Writes the signed fields of this object in a fixed order to the given writer. All fields that
+	 * have to be protected against tampering are written, at least the id, otherwise a changed
+	 * field does not change the digest
+	 *
+	 * @param writer
+	 *            the writer
+	 */
+	void writeSignedFields(ValueWriter writer);
+
+	/**
+	 * Encodes the signed fields of this object with the {@link CanonicalEncoding}
+	 *
+	 * @return the encoded bytes
+	 */
+	default byte[] toCanonicalBytes()
+	{
+		return CanonicalEncoding.encode(this::writeSignedFields);
+	}
+
+	/**
+	 * Gets the digest of the signed fields of this object, the digest is computed only if it is not
+	 * cached
+	 *
+	 * @return a copy of the digest
+	 */
+	default byte[] getDigest()
+	{
+		return getCachedDigest().get(this::writeSignedFields).clone();
+	}
+
+	/**
+	 * Checks in constant time if the given digest equals the digest of the signed fields of this
+	 * object
+	 *
+	 * @param digest
+	 *            the digest to check
+	 * @return true if the given digest equals the digest of this object otherwise false
+	 */
+	default boolean isDigestEqual(byte[] digest)
+	{
+		return getCachedDigest().matches(digest, this::writeSignedFields);
+	}
+
+	/**
+	 * Removes the cached digest of this object, this has to be called after each change of a signed
+	 * field
+	 */
+	default void invalidateDigest()
+	{
+		getCachedDigest().invalidate();
+	}
+
+}
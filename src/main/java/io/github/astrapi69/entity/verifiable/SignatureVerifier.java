@@ -0,0 +1,51 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import io.github.astrapi69.data.verifiable.Verifiable;
+
+/**
+ * The interface {@link SignatureVerifier} is the extension point for the verification of the
+ * signature of a verifiable object, for instance with a public key or a keyed hash. The
+ * {@link VerificationEngine} calls an implementation from several threads at the same time, so an
+ * implementation has to be thread safe
+ *
+ * @param <E>
+ *            the generic type of the verifiable object
+ */
+@FunctionalInterface
+public interface SignatureVerifier<E extends Verifiable>
+{
+
+	/**
+	 * Verifies the signature of the given verifiable object
+	 *
+	 * @param verifiable
+	 *            the verifiable object
+	 * @return true if the signature matches the verifiable object otherwise false
+	 */
+	boolean verify(E verifiable);
+
+}
@@ -28,8 +28,12 @@ import java.util.UUID;
 
 import io.github.astrapi69.data.identifiable.Identifiable;
 import io.github.astrapi69.data.verifiable.VerifiableProcessable;
+import io.github.astrapi69.entity.codec.ValueWriter;
 import io.github.astrapi69.entity.uniqueable.UUIDEntity;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -42,7 +46,11 @@ import lombok.experimental.SuperBuilder;
 
 /**
  * The class {@link VerifiableUUIDEntity} is a concrete class of {@link UUIDEntity} and holds an
- * {@link UUID} as primary key. It is for entity classes that have to be signed and verified
+ * {@link UUID} as primary key. It is for entity classes that have to be signed and verified. The
+ * signed fields are written by {@link #writeSignedFields(ValueWriter)} of the subclass without
+ * reflection, at least the id. The digest of them is cached as {@link CanonicalVerifiable} until
+ * it is invalidated by a setter of a signed field, or by this entity after the persistence
+ * provider loaded or refreshed the fields or the id was assigned
  */
 @MappedSuperclass
 @EqualsAndHashCode(callSuper = true)
@@ -55,7 +63,8 @@ import lombok.experimental.SuperBuilder;
 public abstract class VerifiableUUIDEntity extends UUIDEntity
 	implements
 		Identifiable<UUID>,
-		VerifiableProcessable
+		VerifiableProcessable,
+		CanonicalVerifiable
 {
 
 	/** The signature. */
@@ -69,4 +78,21 @@ public abstract class VerifiableUUIDEntity extends UUIDEntity
 	@Builder.Default
 	boolean processable = true;
 
+	/** The cached digest of the signed fields */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	final CachedDigest cachedDigest = new CachedDigest();
+
+	/**
+	 * Invalidates the cached digest after the persistence provider loaded or refreshed the fields
+	 * of this entity or after it was persisted with its id
+	 */
+	@PostLoad
+	@PostPersist
+	protected void invalidateDigestOnLifecycle()
+	{
+		invalidateDigest();
+	}
+
 }
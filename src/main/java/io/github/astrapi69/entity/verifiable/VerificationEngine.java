@@ -0,0 +1,533 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.verifiable.Verifiable;
+import io.github.astrapi69.data.verifiable.VerifiableProcessable;
+import io.github.astrapi69.entity.identifiable.EntityNames;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+
+/**
+ * The class {@link VerificationEngine} verifies the signatures of many verifiable objects in
+ * parallel. A stream of verifiable objects is read in chunks, each chunk is split in slices that
+ * are verified at the same time on the given {@link Executor} with the given
+ * {@link SignatureVerifier}, and the results of a chunk are passed as one batch to a writer, for
+ * instance the writer of {@link #processableWriter(EntityManager, Class)}. So the engine holds only
+ * one chunk and the outcomes are written with a few bulk updates for each chunk.
+ *
+ * The entities of a stream of a query, for instance of
+ * {@link jakarta.persistence.TypedQuery#getResultStream()}, stay in the persistence context after
+ * they are verified, so the memory grows with the count of entities unless they are detached. The
+ * writer of {@link #detachWriter(EntityManager)} detaches the entities of each chunk and is chained
+ * as the last writer with {@link Consumer#andThen(Consumer)}.
+ *
+ * The parallelism is bounded by the given executor, a fixed thread pool or on java 21 an executor
+ * with a virtual thread for each task can be used. The counts, the latencies of the single
+ * verifications and the throughput are collected in counters that can be read at any time
+ *
+ * @param <E>
+ *            the generic type of the verifiable objects
+ */
+public class VerificationEngine<E extends Verifiable>
+{
+
+	/** The default count of verifiable objects in one chunk, that is below the limit of in lists */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	/**
+	 * The verification states that the writer of
+	 * {@link #stateWriter(EntityManager, Class, String)} overwrites, the states
+	 * {@link VerificationState#EVALUATE} and {@link VerificationState#RESET} of an investigation
+	 * are kept
+	 */
+	public static final Set<VerificationState> DEFAULT_OVERWRITABLE_STATES = Collections
+		.unmodifiableSet(EnumSet.of(VerificationState.BROKEN, VerificationState.VERIFIED));
+
+	/** The verifier */
+	private final SignatureVerifier<? super E> verifier;
+
+	/** The executor of the slices */
+	private final Executor executor;
+
+	/** The maximum count of slices of a chunk */
+	private final int parallelism;
+
+	/** The count of verifiable objects in one chunk */
+	private final int chunkSize;
+
+	private final LongAdder verifiedCount = new LongAdder();
+
+	private final LongAdder brokenCount = new LongAdder();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private final LongAdder chunkCount = new LongAdder();
+
+	private final LongAdder verificationNanos = new LongAdder();
+
+	private final LongAccumulator maxVerificationNanos = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder elapsedNanos = new LongAdder();
+
+	/**
+	 * Instantiates a new {@link VerificationEngine} with a parallelism of the count of the
+	 * available processors and the default chunk size
+	 *
+	 * @param verifier
+	 *            the verifier
+	 * @param executor
+	 *            the executor of the slices
+	 */
+	public VerificationEngine(SignatureVerifier<? super E> verifier, Executor executor)
+	{
+		this(verifier, executor, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link VerificationEngine}
+	 *
+	 * @param verifier
+	 *            the verifier
+	 * @param executor
+	 *            the executor of the slices
+	 * @param parallelism
+	 *            the maximum count of slices of a chunk that are verified at the same time
+	 * @param chunkSize
+	 *            the count of verifiable objects in one chunk
+	 */
+	public VerificationEngine(SignatureVerifier<? super E> verifier, Executor executor,
+		int parallelism, int chunkSize)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException("The parallelism must be positive");
+		}
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("The chunk size must be positive");
+		}
+		this.verifier = Objects.requireNonNull(verifier);
+		this.executor = Objects.requireNonNull(executor);
+		this.parallelism = parallelism;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Verifies the verifiable objects of the given stream chunk by chunk and passes the results of
+	 * each chunk to the given writer. The stream is not closed by this method
+	 *
+	 * @param verifiables
+	 *            the stream of the verifiable objects
+	 * @param writer
+	 *            the writer of the results of a chunk
+	 * @return the count of verified objects
+	 */
+	public long verify(Stream<? extends E> verifiables,
+		Consumer<? super List<VerificationResult<E>>> writer)
+	{
+		long start = System.nanoTime();
+		long count = 0;
+		try
+		{
+			Iterator<? extends E> iterator = verifiables.iterator();
+			List<E> chunk = new ArrayList<>(chunkSize);
+			while (iterator.hasNext())
+			{
+				chunk.add(iterator.next());
+				if (chunk.size() == chunkSize || !iterator.hasNext())
+				{
+					writer.accept(verifyChunk(chunk));
+					count += chunk.size();
+					chunk.clear();
+				}
+			}
+		}
+		finally
+		{
+			elapsedNanos.add(System.nanoTime() - start);
+		}
+		return count;
+	}
+
+	/**
+	 * Verifies the given verifiable objects in parallel slices
+	 *
+	 * @param verifiables
+	 *            the verifiable objects
+	 * @return the results in the order of the given verifiable objects
+	 */
+	public List<VerificationResult<E>> verify(List<? extends E> verifiables)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return verifyChunk(verifiables);
+		}
+		finally
+		{
+			elapsedNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<VerificationResult<E>> verifyChunk(List<? extends E> chunk)
+	{
+		int size = chunk.size();
+		VerificationResult<E>[] results = new VerificationResult[size];
+		int slices = Math.min(parallelism, size);
+		if (0 < slices)
+		{
+			int sliceSize = (size + slices - 1) / slices;
+			List<CompletableFuture<Void>> futures = new ArrayList<>(slices);
+			for (int from = sliceSize; from < size; from += sliceSize)
+			{
+				int sliceFrom = from;
+				int sliceTo = Math.min(from + sliceSize, size);
+				futures.add(CompletableFuture
+					.runAsync(() -> verifySlice(chunk, results, sliceFrom, sliceTo), executor));
+			}
+			// the first slice is verified by the calling thread
+			verifySlice(chunk, results, 0, Math.min(sliceSize, size));
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+		}
+		chunkCount.increment();
+		return Arrays.asList(results);
+	}
+
+	private void verifySlice(List<? extends E> chunk, VerificationResult<E>[] results, int from,
+		int to)
+	{
+		for (int index = from; index < to; index++)
+		{
+			results[index] = verifyOne(chunk.get(index));
+		}
+	}
+
+	private VerificationResult<E> verifyOne(E verifiable)
+	{
+		long start = System.nanoTime();
+		VerificationState state = null;
+		RuntimeException failure = null;
+		try
+		{
+			state = verifier.verify(verifiable)
+				? VerificationState.VERIFIED
+				: VerificationState.BROKEN;
+		}
+		catch (RuntimeException exception)
+		{
+			failure = exception;
+		}
+		long nanos = System.nanoTime() - start;
+		if (state == null)
+		{
+			failedCount.increment();
+		}
+		else if (state == VerificationState.VERIFIED)
+		{
+			verifiedCount.increment();
+		}
+		else
+		{
+			brokenCount.increment();
+		}
+		verificationNanos.add(nanos);
+		maxVerificationNanos.accumulate(nanos);
+		return new VerificationResult<>(verifiable, state, failure, nanos);
+	}
+
+	/**
+	 * Creates a writer that sets the processable flag of the verified entities with at most two
+	 * bulk updates for each chunk, one for the processable and one for the not processable
+	 * entities. Only rows with a changed flag are updated, the entities of failed verifications
+	 * are left unchanged. The writer has to be called within a transaction and bypasses the
+	 * persistence context, so managed instances of the entities are not changed
+	 *
+	 * @param <E>
+	 *            the generic type of the entities
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @return the writer
+	 */
+	public static <E extends Identifiable<?> & VerifiableProcessable>
+		Consumer<List<VerificationResult<E>>> processableWriter(EntityManager entityManager,
+		Class<E> entityClass)
+	{
+		String statement = "UPDATE " + EntityNames.of(entityManager, entityClass)
+			+ " e SET e.processable = :processable"
+			+ " WHERE e.id IN :ids AND e.processable <> :processable";
+		return results -> {
+			List<Object> processableIds = new ArrayList<>();
+			List<Object> notProcessableIds = new ArrayList<>();
+			for (VerificationResult<E> result : results)
+			{
+				if (!result.isFailed())
+				{
+					(result.isProcessable() ? processableIds : notProcessableIds)
+						.add(result.getVerifiable().getId());
+				}
+			}
+			if (!processableIds.isEmpty())
+			{
+				entityManager.createQuery(statement).setParameter("processable", true)
+					.setParameter("ids", processableIds).executeUpdate();
+			}
+			if (!notProcessableIds.isEmpty())
+			{
+				entityManager.createQuery(statement).setParameter("processable", false)
+					.setParameter("ids", notProcessableIds).executeUpdate();
+			}
+		};
+	}
+
+	/**
+	 * Creates a writer that sets the verification state of the verified entities in the given
+	 * attribute and overwrites only the {@link #DEFAULT_OVERWRITABLE_STATES}, so the rows of an
+	 * investigation keep their state
+	 *
+	 * @param <E>
+	 *            the generic type of the entities
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param stateAttribute
+	 *            the name of the attribute of the verification state
+	 * @return the writer
+	 * @throws IllegalArgumentException
+	 *             if the entity class has no attribute of the type {@link VerificationState} with
+	 *             the given name
+	 * @see #stateWriter(EntityManager, Class, String, Set)
+	 */
+	public static <E extends Identifiable<?> & Verifiable>
+		Consumer<List<VerificationResult<E>>> stateWriter(EntityManager entityManager,
+		Class<E> entityClass, String stateAttribute)
+	{
+		return stateWriter(entityManager, entityClass, stateAttribute,
+			DEFAULT_OVERWRITABLE_STATES);
+	}
+
+	/**
+	 * Creates a writer that sets the verification state of the verified entities in the given
+	 * attribute with at most two bulk updates for each chunk, one for each verification state.
+	 * Only rows without a state or with another of the given overwritable states are updated, the
+	 * entities of failed verifications are left unchanged. The attribute has to be mapped as
+	 * {@link VerificationState}, the writer can be chained with the writer of
+	 * {@link #processableWriter(EntityManager, Class)} with {@link Consumer#andThen(Consumer)}. The
+	 * writer has to be called within a transaction and bypasses the persistence context, so
+	 * managed instances of the entities are not changed
+	 *
+	 * @param <E>
+	 *            the generic type of the entities
+	 * @param entityManager
+	 *            the entity manager
+	 * @param entityClass
+	 *            the entity class
+	 * @param stateAttribute
+	 *            the name of the attribute of the verification state
+	 * @param overwritableStates
+	 *            the states that are overwritten by the outcome of a verification
+	 * @return the writer
+	 * @throws IllegalArgumentException
+	 *             if the entity class has no attribute of the type {@link VerificationState} with
+	 *             the given name
+	 */
+	public static <E extends Identifiable<?> & Verifiable>
+		Consumer<List<VerificationResult<E>>> stateWriter(EntityManager entityManager,
+		Class<E> entityClass, String stateAttribute, Set<VerificationState> overwritableStates)
+	{
+		// the attribute name is part of the statement, so only mapped attributes are accepted
+		Attribute<? super E, ?> attribute = entityManager.getMetamodel().entity(entityClass)
+			.getAttribute(stateAttribute);
+		if (attribute.getJavaType() != VerificationState.class)
+		{
+			throw new IllegalArgumentException("The attribute " + stateAttribute + " of "
+				+ entityClass.getName() + " is not of the type "
+				+ VerificationState.class.getName());
+		}
+		Set<VerificationState> overwritable = overwritableStates.isEmpty()
+			? EnumSet.noneOf(VerificationState.class)
+			: EnumSet.copyOf(overwritableStates);
+		String update = "UPDATE " + EntityNames.of(entityManager, entityClass) + " e SET e."
+			+ stateAttribute + " = :state WHERE e.id IN :ids AND (e." + stateAttribute + " IS NULL";
+		String statement = update + " OR e." + stateAttribute + " IN :overwritable)";
+		String nullStatement = update + ")";
+		return results -> {
+			Map<VerificationState, List<Object>> idsByState = new EnumMap<>(
+				VerificationState.class);
+			for (VerificationResult<E> result : results)
+			{
+				if (!result.isFailed())
+				{
+					idsByState.computeIfAbsent(result.getState(), state -> new ArrayList<>())
+						.add(result.getVerifiable().getId());
+				}
+			}
+			idsByState.forEach((state, ids) -> {
+				Set<VerificationState> states = EnumSet.copyOf(overwritable);
+				states.remove(state);
+				if (states.isEmpty())
+				{
+					entityManager.createQuery(nullStatement).setParameter("state", state)
+						.setParameter("ids", ids).executeUpdate();
+				}
+				else
+				{
+					entityManager.createQuery(statement).setParameter("state", state)
+						.setParameter("ids", ids).setParameter("overwritable", states)
+						.executeUpdate();
+				}
+			});
+		};
+	}
+
+	/**
+	 * Creates a writer that detaches the verified entities of each chunk from the persistence
+	 * context, so the entities of a stream of a query do not accumulate in the persistence context.
+	 * It has to be chained after the other writers with {@link Consumer#andThen(Consumer)}
+	 *
+	 * @param <E>
+	 *            the generic type of the entities
+	 * @param entityManager
+	 *            the entity manager of the stream
+	 * @return the writer
+	 */
+	public static <E extends Verifiable> Consumer<List<VerificationResult<E>>> detachWriter(
+		EntityManager entityManager)
+	{
+		Objects.requireNonNull(entityManager);
+		return results -> {
+			for (VerificationResult<E> result : results)
+			{
+				entityManager.detach(result.getVerifiable());
+			}
+		};
+	}
+
+	/**
+	 * Gets the count of verifiable objects with a matching signature
+	 *
+	 * @return the count of verifiable objects with a matching signature
+	 */
+	public long getVerifiedCount()
+	{
+		return verifiedCount.sum();
+	}
+
+	/**
+	 * Gets the count of verifiable objects with a signature that does not match
+	 *
+	 * @return the count of verifiable objects with a signature that does not match
+	 */
+	public long getBrokenCount()
+	{
+		return brokenCount.sum();
+	}
+
+	/**
+	 * Gets the count of verifications that failed with an exception
+	 *
+	 * @return the count of verifications that failed with an exception
+	 */
+	public long getFailedCount()
+	{
+		return failedCount.sum();
+	}
+
+	/**
+	 * Gets the count of verified chunks
+	 *
+	 * @return the count of verified chunks
+	 */
+	public long getChunkCount()
+	{
+		return chunkCount.sum();
+	}
+
+	/**
+	 * Gets the mean duration of a single verification in nanoseconds
+	 *
+	 * @return the mean duration of a single verification in nanoseconds
+	 */
+	public double getAverageLatencyNanos()
+	{
+		long count = verifiedCount.sum() + brokenCount.sum() + failedCount.sum();
+		return count == 0 ? 0 : (double)verificationNanos.sum() / count;
+	}
+
+	/**
+	 * Gets the maximum duration of a single verification in nanoseconds
+	 *
+	 * @return the maximum duration of a single verification in nanoseconds
+	 */
+	public long getMaxLatencyNanos()
+	{
+		return maxVerificationNanos.get();
+	}
+
+	/**
+	 * Gets the elapsed time of the verify calls including the writers in nanoseconds
+	 *
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos.sum();
+	}
+
+	/**
+	 * Gets the count of verifications for each second of the elapsed time
+	 *
+	 * @return the count of verifications for each second
+	 */
+	public double getVerificationsPerSecond()
+	{
+		long nanos = elapsedNanos.sum();
+		long count = verifiedCount.sum() + brokenCount.sum() + failedCount.sum();
+		return nanos == 0 ? 0 : count * 1_000_000_000d / nanos;
+	}
+
+}
@@ -0,0 +1,151 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import io.github.astrapi69.data.verifiable.Verifiable;
+
+/**
+ * The class {@link VerificationResult} holds the outcome of the verification of a verifiable
+ * object by the {@link VerificationEngine}. A verification that failed with an exception has no
+ * verification state but the failure, so it is not mistaken for a state of the domain
+ *
+ * @param <E>
+ *            the generic type of the verifiable object
+ */
+public final class VerificationResult<E extends Verifiable>
+{
+
+	/** The verifiable object */
+	private final E verifiable;
+
+	/** The verification state or null if the verification failed */
+	private final VerificationState state;
+
+	/** The exception of a failed verification */
+	private final RuntimeException failure;
+
+	/** The duration of the verification in nanoseconds */
+	private final long nanos;
+
+	/**
+	 * Instantiates a new {@link VerificationResult}
+	 *
+	 * @param verifiable
+	 *            the verifiable object
+	 * @param state
+	 *            the verification state
+	 * @param nanos
+	 *            the duration of the verification in nanoseconds
+	 */
+	public VerificationResult(E verifiable, VerificationState state, long nanos)
+	{
+		this(verifiable, state, null, nanos);
+	}
+
+	/**
+	 * Instantiates a new {@link VerificationResult}
+	 *
+	 * @param verifiable
+	 *            the verifiable object
+	 * @param state
+	 *            the verification state or null if the verification failed
+	 * @param failure
+	 *            the exception of a failed verification or null
+	 * @param nanos
+	 *            the duration of the verification in nanoseconds
+	 */
+	public VerificationResult(E verifiable, VerificationState state, RuntimeException failure,
+		long nanos)
+	{
+		this.verifiable = verifiable;
+		this.state = state;
+		this.failure = failure;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Gets the verifiable object
+	 *
+	 * @return the verifiable object
+	 */
+	public E getVerifiable()
+	{
+		return verifiable;
+	}
+
+	/**
+	 * Gets the verification state, {@link VerificationState#VERIFIED} if the signature matches,
+	 * {@link VerificationState#BROKEN} if the signature does not match and null if the verifier
+	 * failed with an exception
+	 *
+	 * @return the verification state or null if the verification failed
+	 */
+	public VerificationState getState()
+	{
+		return state;
+	}
+
+	/**
+	 * Gets the exception of a failed verification
+	 *
+	 * @return the exception or null if the verification did not fail
+	 */
+	public RuntimeException getFailure()
+	{
+		return failure;
+	}
+
+	/**
+	 * Checks if the verification failed with an exception, so the signature is neither verified
+	 * nor broken
+	 *
+	 * @return true if the verification failed otherwise false
+	 */
+	public boolean isFailed()
+	{
+		return state == null;
+	}
+
+	/**
+	 * Checks if the verifiable object is processable
+	 *
+	 * @return true if the verifiable object is processable otherwise false
+	 */
+	public boolean isProcessable()
+	{
+		return VerificationState.VERIFIED.equals(state);
+	}
+
+	/**
+	 * Gets the duration of the verification in nanoseconds
+	 *
+	 * @return the duration of the verification in nanoseconds
+	 */
+	public long getNanos()
+	{
+		return nanos;
+	}
+
+}
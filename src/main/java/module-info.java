@@ -25,6 +25,7 @@ module io.github.astrapisixtynine.ent.core
 	requires io.github.astrapisixtynine.data.api;
 
 	exports io.github.astrapi69.entity.activatable;
+	exports io.github.astrapi69.entity.codec;
 	exports io.github.astrapi69.entity.creatable;
 	exports io.github.astrapi69.entity.deletable;
 	exports io.github.astrapi69.entity.identifiable;
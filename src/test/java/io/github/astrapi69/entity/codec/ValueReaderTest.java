@@ -0,0 +1,147 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link ValueReader}
+ */
+class ValueReaderTest
+{
+
+	private static ValueReader reader(int... values)
+	{
+		byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++)
+		{
+			bytes[i] = (byte)values[i];
+		}
+		return new ValueReader(bytes);
+	}
+
+	/**
+	 * Test method for the read methods of {@link ValueReader} with the values written by a
+	 * {@link ValueWriter}
+	 */
+	@Test
+	void testReadWrittenValues()
+	{
+		byte[] bytes = new ValueWriter().writeByte(-3).writeVarInt(Integer.MIN_VALUE)
+			.writeVarLong(Long.MAX_VALUE).writeSignedVarInt(-123_456)
+			.writeSignedVarLong(Long.MIN_VALUE).writeFixedInt(-2).writeFixedLong(-3L)
+			.writeFloat(1.5f).writeDouble(-0.25).writeString("tr\u00e9e")
+			.writeBytes(new byte[] { 1, 2, 3 }).writeRawBytes(new byte[] { 9 }).toByteArray();
+		ValueReader reader = new ValueReader(bytes);
+		assertEquals(-3, reader.readByte());
+		assertEquals(Integer.MIN_VALUE, reader.readVarInt());
+		assertEquals(Long.MAX_VALUE, reader.readVarLong());
+		assertEquals(-123_456, reader.readSignedVarInt());
+		assertEquals(Long.MIN_VALUE, reader.readSignedVarLong());
+		assertEquals(-2, reader.readFixedInt());
+		assertEquals(-3L, reader.readFixedLong());
+		assertEquals(1.5f, reader.readFloat());
+		assertEquals(-0.25, reader.readDouble());
+		assertEquals("tr\u00e9e", reader.readString());
+		assertArrayEquals(new byte[] { 1, 2, 3 }, reader.readBytes());
+		assertArrayEquals(new byte[] { 9 }, reader.readRawBytes(1));
+		assertEquals(0, reader.remaining());
+	}
+
+	/**
+	 * Test method for {@link ValueReader#readSignedVarLong()} with random values
+	 */
+	@Test
+	void testReadRandomVarLongs()
+	{
+		Random random = new Random(17);
+		ValueWriter writer = new ValueWriter();
+		long[] values = new long[1000];
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = random.nextLong() >> random.nextInt(64);
+			writer.writeSignedVarLong(values[i]).writeVarLong(values[i]);
+		}
+		ValueReader reader = new ValueReader(writer.toByteArray());
+		for (long value : values)
+		{
+			assertEquals(value, reader.readSignedVarLong());
+			assertEquals(value, reader.readVarLong());
+		}
+		assertEquals(0, reader.remaining());
+	}
+
+	/**
+	 * Test method for {@link ValueReader#ValueReader(byte[], int, int)}
+	 */
+	@Test
+	void testReadSlice()
+	{
+		ValueReader reader = new ValueReader(new byte[] { 1, 2, 3, 4 }, 1, 2);
+		assertEquals(2, reader.remaining());
+		assertEquals(2, reader.readByte());
+		assertEquals(3, reader.readByte());
+		assertThrows(IllegalArgumentException.class, reader::readByte);
+		assertThrows(IndexOutOfBoundsException.class,
+			() -> new ValueReader(new byte[] { 1, 2 }, 1, 2));
+	}
+
+	/**
+	 * Test method for {@link ValueReader#readVarInt()} and {@link ValueReader#readVarLong()} with
+	 * malformed and overlong encodings
+	 */
+	@Test
+	void testReadMalformedVarInts()
+	{
+		assertEquals(-1, reader(0xFF, 0xFF, 0xFF, 0xFF, 0x0F).readVarInt());
+		assertThrows(IllegalArgumentException.class,
+			() -> reader(0xFF, 0xFF, 0xFF, 0xFF, 0x1F).readVarInt());
+		assertThrows(IllegalArgumentException.class,
+			() -> reader(0xFF, 0xFF, 0xFF, 0xFF, 0x8F, 0x00).readVarInt());
+		assertThrows(IllegalArgumentException.class, () -> reader(0x80).readVarInt());
+		assertEquals(-1L,
+			reader(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01).readVarLong());
+		assertThrows(IllegalArgumentException.class,
+			() -> reader(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x02).readVarLong());
+	}
+
+	/**
+	 * Test method for {@link ValueReader#readLength()} with a length beyond the remaining bytes
+	 */
+	@Test
+	void testReadLengthBeyondRemaining()
+	{
+		assertThrows(IllegalArgumentException.class, () -> reader(0x05, 'a', 'b').readString());
+		assertThrows(IllegalArgumentException.class,
+			() -> reader(0xFF, 0xFF, 0xFF, 0xFF, 0x0F).readBytes());
+	}
+
+}
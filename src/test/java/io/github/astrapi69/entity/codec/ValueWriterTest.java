@@ -0,0 +1,121 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link ValueWriter}
+ */
+class ValueWriterTest
+{
+
+	private static byte[] bytes(int... values)
+	{
+		byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++)
+		{
+			bytes[i] = (byte)values[i];
+		}
+		return bytes;
+	}
+
+	/**
+	 * Test method for {@link ValueWriter#writeVarInt(int)} and
+	 * {@link ValueWriter#writeSignedVarInt(int)}
+	 */
+	@Test
+	void testWriteVarInt()
+	{
+		assertArrayEquals(bytes(0), new ValueWriter().writeVarInt(0).toByteArray());
+		assertArrayEquals(bytes(0x7F), new ValueWriter().writeVarInt(127).toByteArray());
+		assertArrayEquals(bytes(0xAC, 0x02), new ValueWriter().writeVarInt(300).toByteArray());
+		assertArrayEquals(bytes(0xFF, 0xFF, 0xFF, 0xFF, 0x0F),
+			new ValueWriter().writeVarInt(-1).toByteArray());
+		assertArrayEquals(bytes(0x01), new ValueWriter().writeSignedVarInt(-1).toByteArray());
+		assertArrayEquals(bytes(0x02), new ValueWriter().writeSignedVarInt(1).toByteArray());
+	}
+
+	/**
+	 * Test method for {@link ValueWriter#writeVarLong(long)}
+	 */
+	@Test
+	void testWriteVarLong()
+	{
+		assertArrayEquals(bytes(0xAC, 0x02), new ValueWriter().writeVarLong(300L).toByteArray());
+		assertEquals(10, new ValueWriter().writeVarLong(-1L).size());
+		assertEquals(10, new ValueWriter().writeVarLong(Long.MIN_VALUE).size());
+		assertEquals(1, new ValueWriter().writeSignedVarLong(-64L).size());
+	}
+
+	/**
+	 * Test method for {@link ValueWriter#writeFixedInt(int)} and
+	 * {@link ValueWriter#writeFixedLong(long)}
+	 */
+	@Test
+	void testWriteFixed()
+	{
+		assertArrayEquals(bytes(0x01, 0x02, 0x03, 0x04),
+			new ValueWriter().writeFixedInt(0x01020304).toByteArray());
+		assertArrayEquals(bytes(0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08),
+			new ValueWriter().writeFixedLong(0x0102030405060708L).toByteArray());
+	}
+
+	/**
+	 * Test method for {@link ValueWriter#writeString(String)} and
+	 * {@link ValueWriter#writeBytes(byte[])}
+	 */
+	@Test
+	void testWriteString()
+	{
+		assertArrayEquals(bytes(0x03, 'a', 0xC3, 0xA4),
+			new ValueWriter().writeString("a\u00e4").toByteArray());
+		assertArrayEquals(bytes(0x00), new ValueWriter().writeBytes(new byte[0]).toByteArray());
+	}
+
+	/**
+	 * Test method for {@link ValueWriter#reset()} and {@link ValueWriter#asByteBuffer()} with a
+	 * growing buffer
+	 */
+	@Test
+	void testResetAndGrowth()
+	{
+		ValueWriter writer = new ValueWriter(1);
+		for (int i = 0; i < 100; i++)
+		{
+			writer.writeFixedLong(i);
+		}
+		assertEquals(800, writer.size());
+		assertEquals(800, writer.asByteBuffer().remaining());
+		writer.reset().writeByte(0x42);
+		assertEquals(1, writer.size());
+		assertArrayEquals(bytes(0x42), writer.toByteArray());
+		assertEquals(1, writer.asByteBuffer().remaining());
+	}
+
+}
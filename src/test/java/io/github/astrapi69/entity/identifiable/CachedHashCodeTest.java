@@ -0,0 +1,133 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.entity.treeable.TreeUUIDEntity;
+
+/**
+ * The unit test class for the class {@link CachedHashCode}
+ */
+class CachedHashCodeTest
+{
+
+	private static Node node(UUID id)
+	{
+		Node node = new Node();
+		node.setId(id);
+		return node;
+	}
+
+	/**
+	 * Test method for {@link CachedHashCode#get(Identifiable)}
+	 * with an assigned id
+	 */
+	@Test
+	void testGetWithId()
+	{
+		UUID id = UUID.randomUUID();
+		Node node = node(id);
+		Node copy = node(id);
+		assertEquals(id.hashCode(), node.hashCode());
+		assertEquals(node, copy);
+		assertEquals(node.hashCode(), copy.hashCode());
+	}
+
+	/**
+	 * Test method for {@link CachedHashCode#get(Identifiable)}
+	 * for an instance that gets its id after it was hashed
+	 */
+	@Test
+	void testGetBeforeIdIsAssigned()
+	{
+		Node node = new Node();
+		int hashCode = node.hashCode();
+		Set<Node> set = new HashSet<>();
+		set.add(node);
+		node.setId(UUID.randomUUID());
+		assertEquals(hashCode, node.hashCode());
+		assertTrue(set.contains(node));
+	}
+
+	/**
+	 * Test method for {@link CachedHashCode#get(Identifiable)}
+	 * that the hash codes of different instances are spread
+	 */
+	@Test
+	void testGetIsSpread()
+	{
+		Set<Integer> hashCodes = new HashSet<>();
+		for (int i = 0; i < 10_000; i++)
+		{
+			hashCodes.add(node(UUID.randomUUID()).hashCode());
+		}
+		assertTrue(hashCodes.size() > 9_990);
+		assertNotEquals(new Node().hashCode(), node(UUID.randomUUID()).hashCode());
+	}
+
+	/**
+	 * Test method for {@link CachedHashCode#get(Identifiable)}
+	 * with the tree entities of a deep tree in a hash set
+	 */
+	@Test
+	void testGetWithDeepTreeInHashSet()
+	{
+		Set<Node> set = new HashSet<>();
+		Node parent = null;
+		for (int i = 0; i < 100_000; i++)
+		{
+			Node node = node(UUID.randomUUID());
+			node.setParent(parent);
+			assertTrue(set.add(node));
+			parent = node;
+		}
+		assertEquals(100_000, set.size());
+		for (Node current = parent; current != null; current = current.getParent())
+		{
+			assertTrue(set.contains(node(current.getId())));
+		}
+	}
+
+	/**
+	 * The tree entity of the test
+	 */
+	static class Node extends TreeUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
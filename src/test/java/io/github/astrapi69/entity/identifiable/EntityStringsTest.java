@@ -0,0 +1,133 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link EntityStrings}
+ */
+class EntityStringsTest
+{
+
+	private static String value(Object value)
+	{
+		return EntityStrings.appendValue(new StringBuilder(), "v", value).substring(4);
+	}
+
+	/**
+	 * Test method for {@link EntityStrings#appendValue(StringBuilder, String, Object)}
+	 */
+	@Test
+	void testAppendValue()
+	{
+		String cut = "x".repeat(EntityStrings.MAX_VALUE_LENGTH);
+		assertEquals("null", value(null));
+		assertEquals("short", value("short"));
+		assertEquals(cut, value(cut));
+		assertEquals(cut + "...", value(cut + "x"));
+		assertEquals(cut + "...", value(new StringBuilder(cut).append("xyz")));
+		assertEquals("-42", value(-42L));
+		assertEquals("7", value((short)7));
+		assertEquals("1.5", value(1.5d));
+		assertEquals("true", value(true));
+		UUID uuid = UUID.randomUUID();
+		assertEquals(uuid.toString(), value(uuid));
+		assertEquals(cut + "...", value(new Object()
+		{
+			@Override
+			public String toString()
+			{
+				return cut + "x";
+			}
+		}));
+	}
+
+	/**
+	 * Test method for {@link EntityStrings#appendValue(StringBuilder, String, Object)} with
+	 * collections and maps, they have to be written like their own string representation and only
+	 * up to the cut
+	 */
+	@Test
+	void testAppendValueOfCollection()
+	{
+		assertEquals("[]", value(List.of()));
+		assertEquals("[1, b, null]", value(Arrays.asList(1, "b", null)));
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("a", 1);
+		map.put("b", List.of(2, 3));
+		assertEquals(map.toString(), value(map));
+
+		List<Integer> large = new ArrayList<>();
+		for (int i = 0; i < 1_000_000; i++)
+		{
+			large.add(i);
+		}
+		String expected = large.toString().substring(0, EntityStrings.MAX_VALUE_LENGTH) + "...";
+		assertEquals(expected, value(large));
+
+		List<Object> cyclic = new ArrayList<>();
+		cyclic.add(cyclic);
+		assertEquals("[".repeat(EntityStrings.MAX_VALUE_LENGTH) + "...", value(cyclic));
+	}
+
+	/**
+	 * Test method for {@link EntityStrings#build(Object, java.util.function.BiConsumer)} with a
+	 * nested build and a failing content
+	 */
+	@Test
+	void testBuild()
+	{
+		Object inner = new Object()
+		{
+			@Override
+			public String toString()
+			{
+				return EntityStrings.build("inner", (sb, value) -> sb.append(value));
+			}
+		};
+		assertEquals("outer, v=inner",
+			EntityStrings.build(inner, (sb, value) -> EntityStrings
+				.appendValue(sb.append("outer"), "v", value)));
+
+		assertThrows(IllegalStateException.class,
+			() -> EntityStrings.build("failing", (sb, value) -> {
+				sb.append(value);
+				throw new IllegalStateException();
+			}));
+		assertEquals("empty", EntityStrings.build("empty", (sb, value) -> sb.append(value)));
+	}
+
+}
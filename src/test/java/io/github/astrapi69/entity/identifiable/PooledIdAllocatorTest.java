@@ -0,0 +1,191 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link PooledIdAllocator}
+ */
+class PooledIdAllocatorTest
+{
+
+	/**
+	 * Test method for {@link PooledIdAllocator#nextId()} from concurrent threads, all ids have to
+	 * be distinct and every fetched block has to be handed out completely except the prefetched
+	 * last one
+	 *
+	 * @throws Exception
+	 *             if a thread fails
+	 */
+	@Test
+	void testNextIdConcurrent() throws Exception
+	{
+		int blockSize = 10;
+		AtomicLong sequence = new AtomicLong(1);
+		AtomicInteger fetches = new AtomicInteger();
+		ExecutorService prefetcher = Executors.newFixedThreadPool(2);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try
+		{
+			PooledIdAllocator allocator = new PooledIdAllocator(() -> {
+				fetches.incrementAndGet();
+				return sequence.getAndAdd(blockSize);
+			}, blockSize, prefetcher);
+			int threads = 8;
+			int count = 10_000;
+			List<Future<long[]>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++)
+			{
+				futures.add(executor.submit(() -> {
+					long[] ids = new long[count];
+					for (int i = 0; i < count; i++)
+					{
+						ids[i] = allocator.nextId();
+					}
+					return ids;
+				}));
+			}
+			Set<Long> all = new HashSet<>();
+			for (Future<long[]> future : futures)
+			{
+				for (long id : future.get())
+				{
+					assertTrue(all.add(id), "duplicate id " + id);
+				}
+			}
+			int blocks = threads * count / blockSize;
+			assertTrue(fetches.get() == blocks || fetches.get() == blocks + 1,
+				"unexpected fetch count " + fetches.get());
+			for (long id = 1; id <= threads * count; id++)
+			{
+				assertTrue(all.contains(id), "the id " + id + " was skipped");
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+			prefetcher.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test method for {@link PooledIdAllocator#nextId()}, the next block has to be fetched when the
+	 * remaining ids of the current block reach the prefetch threshold and has to be used without a
+	 * further fetch when the current block runs out
+	 */
+	@Test
+	void testNextIdPrefetch()
+	{
+		AtomicLong sequence = new AtomicLong(100);
+		AtomicInteger fetches = new AtomicInteger();
+		PooledIdAllocator allocator = new PooledIdAllocator(() -> sequence.getAndAdd(100), 8, 2,
+			task -> {
+				fetches.incrementAndGet();
+				task.run();
+			});
+		for (long id = 100; id < 106; id++)
+		{
+			assertEquals(id, allocator.nextId());
+		}
+		assertEquals(1, fetches.get());
+		// the offset 6 leaves 2 ids, so the next block is prefetched
+		assertEquals(106, allocator.nextId());
+		assertEquals(2, fetches.get());
+		assertEquals(107, allocator.nextId());
+		assertEquals(200, allocator.nextId());
+		assertEquals(2, fetches.get());
+	}
+
+	/**
+	 * Test method for {@link PooledIdAllocator#nextId()} when the fetch of a block fails, the
+	 * waiting caller has to get the failure and the next caller has to fetch the block again
+	 */
+	@Test
+	void testNextIdRetryAfterFailure()
+	{
+		IllegalStateException failure = new IllegalStateException("sequence not available");
+		AtomicInteger calls = new AtomicInteger();
+		PooledIdAllocator allocator = new PooledIdAllocator(() -> {
+			switch (calls.incrementAndGet())
+			{
+				case 1 :
+					return 0;
+				case 2 :
+					throw failure;
+				default :
+					return 100;
+			}
+		}, 4, 1, Runnable::run);
+		for (long id = 0; id < 4; id++)
+		{
+			assertEquals(id, allocator.nextId());
+		}
+		// the prefetch of the second block at the last id has failed
+		assertEquals(2, calls.get());
+		CompletionException exception = assertThrows(CompletionException.class,
+			allocator::nextId);
+		assertSame(failure, exception.getCause());
+		assertEquals(100, allocator.nextId());
+		assertEquals(3, calls.get());
+		assertEquals(101, allocator.nextId());
+	}
+
+	/**
+	 * Test method for {@link PooledIdAllocator#PooledIdAllocator(java.util.function.LongSupplier)},
+	 * the block has to be fetched in a dedicated daemon thread
+	 */
+	@Test
+	void testNextIdWithDefaultExecutor()
+	{
+		List<Thread> threads = new ArrayList<>();
+		PooledIdAllocator allocator = new PooledIdAllocator(() -> {
+			threads.add(Thread.currentThread());
+			return 1;
+		});
+		assertEquals(PooledIdAllocator.DEFAULT_BLOCK_SIZE, allocator.getBlockSize());
+		assertEquals(1, allocator.nextId());
+		assertEquals(1, threads.size());
+		assertTrue(threads.get(0).isDaemon());
+		assertEquals("pooled-id-prefetch", threads.get(0).getName());
+	}
+
+}
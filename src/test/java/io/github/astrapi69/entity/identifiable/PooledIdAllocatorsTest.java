@@ -0,0 +1,143 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * The unit test class for the class {@link PooledIdAllocators}
+ */
+class PooledIdAllocatorsTest
+{
+
+	/**
+	 * Test method for {@link PooledIdAllocators#getSequenceName(Class)}
+	 */
+	@Test
+	void testGetSequenceName()
+	{
+		assertEquals("order_item_seq", PooledIdAllocators.getSequenceName(OrderItem.class));
+		assertEquals("url_mapping_seq", PooledIdAllocators.getSequenceName(URLMapping.class));
+		assertEquals("dog_seq", PooledIdAllocators.getSequenceName(Dog.class));
+	}
+
+	/**
+	 * Test method for {@link PooledIdAllocators#getRootEntityClass(Class)}
+	 */
+	@Test
+	void testGetRootEntityClass()
+	{
+		assertEquals(Animal.class, PooledIdAllocators.getRootEntityClass(Animal.class));
+		assertEquals(Animal.class, PooledIdAllocators.getRootEntityClass(Dog.class));
+		assertEquals(Animal.class, PooledIdAllocators.getRootEntityClass(Puppy.class));
+		assertEquals(OrderItem.class, PooledIdAllocators.getRootEntityClass(OrderItem.class));
+	}
+
+	/**
+	 * Test method for {@link PooledIdAllocators#getAllocator(Class)}, the entity classes of one
+	 * hierarchy have to share the allocator of the sequence of the root entity class
+	 */
+	@Test
+	void testGetAllocator()
+	{
+		List<String> sequenceNames = new ArrayList<>();
+		AtomicLong sequence = new AtomicLong(1);
+		PooledIdAllocators allocators = new PooledIdAllocators(name -> {
+			sequenceNames.add(name);
+			return () -> sequence.getAndAdd(10);
+		}, 10, Runnable::run);
+		PooledIdAllocator allocator = allocators.getAllocator(Animal.class);
+		assertSame(allocator, allocators.getAllocator(Dog.class));
+		assertSame(allocator, allocators.getAllocator(Puppy.class));
+		assertSame(allocator, allocators.getSequenceAllocator("animal_seq"));
+		assertNotSame(allocator, allocators.getAllocator(OrderItem.class));
+		assertEquals(List.of("animal_seq", "order_item_seq"), sequenceNames);
+
+		// the ids of the hierarchy are drawn from one block
+		assertEquals(1, allocators.nextId(Dog.class));
+		assertEquals(2, allocators.nextId(Animal.class));
+		assertEquals(3, allocators.nextId(Puppy.class));
+	}
+
+	/**
+	 * A mapped superclass that is not part of the entity hierarchy
+	 */
+	@MappedSuperclass
+	static abstract class Base
+	{
+	}
+
+	/**
+	 * The root entity class of a hierarchy
+	 */
+	@Entity
+	static class Animal extends Base
+	{
+	}
+
+	/**
+	 * An entity subclass
+	 */
+	@Entity
+	static class Dog extends Animal
+	{
+	}
+
+	/**
+	 * An entity subclass of an entity subclass
+	 */
+	@Entity
+	static class Puppy extends Dog
+	{
+	}
+
+	/**
+	 * An entity class without a hierarchy
+	 */
+	@Entity
+	static class OrderItem
+	{
+	}
+
+	/**
+	 * An entity class with an acronym in its name
+	 */
+	@Entity
+	static class URLMapping
+	{
+	}
+
+}
@@ -0,0 +1,225 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.identifiable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link SnowflakeIdGenerator}
+ */
+class SnowflakeIdGeneratorTest
+{
+
+	/** The epoch of the generators under test */
+	private static final long EPOCH = SnowflakeIdGenerator.DEFAULT_EPOCH;
+
+	/**
+	 * Test method for {@link SnowflakeIdGenerator#SnowflakeIdGenerator(int, long)} with node ids
+	 * out of range
+	 */
+	@Test
+	void testConstructorWithInvalidNodeId()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+		assertThrows(IllegalArgumentException.class,
+			() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+	}
+
+	/**
+	 * Test method for {@link SnowflakeIdGenerator#nextId()},
+	 * {@link SnowflakeIdGenerator#getNodeId(long)} and
+	 * {@link SnowflakeIdGenerator#getTimestamp(long)}, the id has to hold the milliseconds since
+	 * the epoch in the upper 41 bits, the node id in the next 10 bits and the counter in the lower
+	 * 12 bits
+	 */
+	@Test
+	void testNextIdBitLayout()
+	{
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID,
+			EPOCH, () -> EPOCH + 1000);
+		long id = generator.nextId();
+		assertEquals((1000L << 22) | ((long)SnowflakeIdGenerator.MAX_NODE_ID << 12), id);
+		assertEquals(SnowflakeIdGenerator.MAX_NODE_ID, SnowflakeIdGenerator.getNodeId(id));
+		assertEquals(EPOCH + 1000, generator.getTimestamp(id));
+		assertEquals(id + 1, generator.nextId());
+
+		generator = new SnowflakeIdGenerator(5, EPOCH, () -> EPOCH + (1L << 41) - 1);
+		id = generator.nextId();
+		assertTrue(0 < id, "the greatest timestamp must not reach the sign bit: " + id);
+		assertEquals(5, SnowflakeIdGenerator.getNodeId(id));
+		assertEquals(EPOCH + (1L << 41) - 1, generator.getTimestamp(id));
+	}
+
+	/**
+	 * Test method for {@link SnowflakeIdGenerator#nextId()} with more than 4096 ids within one
+	 * millisecond, the ids have to move on to the next millisecond and keep the node id
+	 */
+	@Test
+	void testNextIdWithCounterOverflow()
+	{
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, EPOCH, () -> EPOCH + 1000);
+		long previous = generator.nextId();
+		for (int i = 1; i < 10_000; i++)
+		{
+			long next = generator.nextId();
+			assertTrue(previous < next, previous + " is not before " + next);
+			assertEquals(3, SnowflakeIdGenerator.getNodeId(next));
+			previous = next;
+		}
+		assertEquals(EPOCH + 1000 + 10_000 / 4096, generator.getTimestamp(previous));
+	}
+
+	/**
+	 * Test method for {@link SnowflakeIdGenerator#nextId()} when the clock goes backwards, the ids
+	 * have to keep increasing from the last state until the clock catches up
+	 */
+	@Test
+	void testNextIdWithClockRegression()
+	{
+		AtomicLong clock = new AtomicLong(EPOCH + 1000);
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, clock::get);
+		long first = generator.nextId();
+		clock.set(EPOCH + 10);
+		long second = generator.nextId();
+		long third = generator.nextId();
+		assertEquals(first + 1, second);
+		assertEquals(second + 1, third);
+		assertEquals(EPOCH + 1000, generator.getTimestamp(third));
+
+		clock.set(EPOCH + 2000);
+		long fourth = generator.nextId();
+		assertTrue(third < fourth);
+		assertEquals(EPOCH + 2000, generator.getTimestamp(fourth));
+		assertEquals(0, fourth & 0xFFF);
+	}
+
+	/**
+	 * Test method for {@link SnowflakeIdGenerator#nextId()} from concurrent threads, the ids of
+	 * each thread have to be strictly increasing and all ids have to be distinct
+	 *
+	 * @throws Exception
+	 *             if a thread fails
+	 */
+	@Test
+	void testNextIdConcurrent() throws Exception
+	{
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(2);
+		int threads = 4;
+		int count = 50_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<long[]>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++)
+			{
+				futures.add(executor.submit(() -> {
+					long[] ids = new long[count];
+					for (int i = 0; i < count; i++)
+					{
+						ids[i] = generator.nextId();
+					}
+					return ids;
+				}));
+			}
+			Set<Long> all = new HashSet<>();
+			for (Future<long[]> future : futures)
+			{
+				long[] ids = future.get();
+				for (int i = 0; i < count; i++)
+				{
+					assertTrue(i == 0 || ids[i - 1] < ids[i]);
+					assertTrue(all.add(ids[i]), "duplicate id " + ids[i]);
+				}
+			}
+			assertEquals(threads * count, all.size());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test method for {@link SnowflakeIdGenerator#getDefault()} and
+	 * {@link SnowflakeIdGenerator#setDefault(SnowflakeIdGenerator)}. This is the only test that
+	 * uses the default generator, so the steps run in one method in a fixed order
+	 */
+	@Test
+	void testDefault()
+	{
+		String property = System.getProperty(SnowflakeIdGenerator.NODE_ID_PROPERTY);
+		try
+		{
+			System.clearProperty(SnowflakeIdGenerator.NODE_ID_PROPERTY);
+			assertThrows(IllegalStateException.class, SnowflakeIdGenerator::getDefault);
+			System.setProperty(SnowflakeIdGenerator.NODE_ID_PROPERTY, "node");
+			assertThrows(IllegalStateException.class, SnowflakeIdGenerator::getDefault);
+
+			System.setProperty(SnowflakeIdGenerator.NODE_ID_PROPERTY, "7");
+			SnowflakeIdGenerator configured = SnowflakeIdGenerator.getDefault();
+			assertSame(configured, SnowflakeIdGenerator.getDefault());
+
+			// an unused default generator can be replaced and is retired
+			SnowflakeIdGenerator replacement = new SnowflakeIdGenerator(7);
+			SnowflakeIdGenerator.setDefault(replacement);
+			assertSame(replacement, SnowflakeIdGenerator.getDefault());
+			assertThrows(IllegalStateException.class, configured::nextId);
+
+			// a used default generator can not be replaced anymore
+			long id = SnowflakeIdGenerator.getDefault().nextId();
+			assertEquals(7, SnowflakeIdGenerator.getNodeId(id));
+			assertThrows(IllegalStateException.class,
+				() -> SnowflakeIdGenerator.setDefault(new SnowflakeIdGenerator(7)));
+			assertSame(replacement, SnowflakeIdGenerator.getDefault());
+			assertTrue(id < replacement.nextId());
+		}
+		finally
+		{
+			if (property == null)
+			{
+				System.clearProperty(SnowflakeIdGenerator.NODE_ID_PROPERTY);
+			}
+			else
+			{
+				System.setProperty(SnowflakeIdGenerator.NODE_ID_PROPERTY, property);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,278 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link KeyValueOwnerCache}
+ */
+class KeyValueOwnerCacheTest
+{
+
+	private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+	/**
+	 * Test method for {@link KeyValueOwnerCache#get(Object, Object)}
+	 */
+	@Test
+	void testGet()
+	{
+		AtomicInteger loads = new AtomicInteger();
+		KeyValueOwnerCache<Long, String, String> cache = new KeyValueOwnerCache<>(10, ONE_HOUR,
+			(owner, key) -> {
+				loads.incrementAndGet();
+				return "missing".equals(key) ? null : owner + "." + key;
+			});
+		assertEquals("1.a", cache.get(1L, "a"));
+		assertEquals("1.a", cache.get(1L, "a"));
+		assertNull(cache.get(1L, "missing"));
+		assertNull(cache.get(1L, "missing"));
+		assertEquals(2, loads.get());
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRate());
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerCache#put(Object, Object, Object, long)}
+	 */
+	@Test
+	void testPutWithVersion()
+	{
+		KeyValueOwnerCache<Long, String, String> cache = new KeyValueOwnerCache<>(10, ONE_HOUR,
+			(owner, key) -> "loaded");
+		cache.put(1L, "a", "second", 2);
+		cache.put(1L, "a", "first", 1);
+		assertEquals("second", cache.getIfPresent(1L, "a"));
+		cache.put(1L, "a", "third", 3);
+		assertEquals("third", cache.getIfPresent(1L, "a"));
+		cache.put(1L, "a", "unversioned");
+		assertEquals("unversioned", cache.getIfPresent(1L, "a"));
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerCache#invalidate(Object, Object)} and
+	 * {@link KeyValueOwnerCache#invalidateAll()}
+	 */
+	@Test
+	void testInvalidate()
+	{
+		KeyValueOwnerCache<Long, String, String> cache = new KeyValueOwnerCache<>(10, ONE_HOUR,
+			(owner, key) -> "loaded");
+		cache.put(1L, "a", "a");
+		cache.put(1L, "b", "b");
+		cache.invalidate(1L, "a");
+		assertNull(cache.getIfPresent(1L, "a"));
+		assertEquals("b", cache.getIfPresent(1L, "b"));
+		cache.invalidateAll();
+		assertNull(cache.getIfPresent(1L, "b"));
+		assertEquals(0, cache.size());
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerCache#get(Object, Object)} with an invalidation while
+	 * the value is loaded
+	 */
+	@Test
+	void testGetWithInvalidationDuringLoad()
+	{
+		AtomicReference<KeyValueOwnerCache<Long, String, String>> reference =
+			new AtomicReference<>();
+		KeyValueOwnerCache<Long, String, String> cache = new KeyValueOwnerCache<>(10, ONE_HOUR,
+			(owner, key) -> {
+				reference.get().invalidate(owner, key);
+				return "stale";
+			});
+		reference.set(cache);
+		assertEquals("stale", cache.get(1L, "a"));
+		assertNull(cache.getIfPresent(1L, "a"));
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerCache#getIfPresent(Object, Object)} with an expired
+	 * entry
+	 */
+	@Test
+	void testGetIfPresentExpired() throws InterruptedException
+	{
+		KeyValueOwnerCache<Long, String, String> cache = new KeyValueOwnerCache<>(10,
+			Duration.ofMillis(1), (owner, key) -> "loaded");
+		cache.put(1L, "a", "a");
+		Thread.sleep(5);
+		assertNull(cache.getIfPresent(1L, "a"));
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	/**
+	 * Test method for the eviction of {@link KeyValueOwnerCache} with frequently used keys during a
+	 * scan of keys that are used only once. A cache in least recently used order would lose all
+	 * frequent keys after every hundred keys of the scan
+	 */
+	@Test
+	void testEvictionKeepsFrequentKeys()
+	{
+		KeyValueOwnerCache<Long, Integer, Integer> cache = new KeyValueOwnerCache<>(100, ONE_HOUR,
+			(owner, key) -> key);
+		for (int round = 0; round < 10; round++)
+		{
+			for (int key = 0; key < 50; key++)
+			{
+				cache.get(1L, key);
+			}
+		}
+		for (int key = 1000; key < 11_000; key++)
+		{
+			cache.get(1L, key);
+			assertTrue(cache.size() <= 100);
+			if (key % 100 == 0)
+			{
+				for (int frequentKey = 0; frequentKey < 50; frequentKey++)
+				{
+					assertNotNull(cache.getIfPresent(1L, frequentKey),
+						"evicted frequent key " + frequentKey);
+				}
+			}
+		}
+		assertEquals(100, cache.size());
+	}
+
+	/**
+	 * Test method for the read buffer of {@link KeyValueOwnerCache}, a full stripe has to report
+	 * that it needs a drain and drop further elements until it is drained
+	 */
+	@Test
+	void testReadBuffer()
+	{
+		KeyValueOwnerCache.ReadBuffer<Integer> buffer = new KeyValueOwnerCache.ReadBuffer<>(1);
+		int size = KeyValueOwnerCache.ReadBuffer.STRIPE_SIZE;
+		for (int round = 0; round < 3; round++)
+		{
+			for (int i = 0; i < size - 1; i++)
+			{
+				assertFalse(buffer.offer(round * 100 + i));
+			}
+			assertTrue(buffer.offer(round * 100 + size - 1));
+			assertTrue(buffer.offer(-1));
+			List<Integer> drained = new ArrayList<>();
+			buffer.drain(drained::add);
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < size; i++)
+			{
+				expected.add(round * 100 + i);
+			}
+			assertEquals(expected, drained);
+			buffer.drain(drained::add);
+			assertEquals(size, drained.size());
+		}
+	}
+
+	/**
+	 * Test method for the read buffer of {@link KeyValueOwnerCache} with concurrent offers and
+	 * drains, each drained element has to be an offered one and must be drained only once
+	 */
+	@Test
+	void testReadBufferConcurrently() throws InterruptedException
+	{
+		KeyValueOwnerCache.ReadBuffer<Integer> buffer = new KeyValueOwnerCache.ReadBuffer<>(4);
+		int threadCount = 8;
+		int offers = 100_000;
+		Set<Integer> drained = new HashSet<>();
+		Object lock = new Object();
+		AtomicBoolean duplicate = new AtomicBoolean();
+		Consumer<Integer> consumer = element -> {
+			if (!drained.add(element))
+			{
+				duplicate.set(true);
+			}
+		};
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++)
+		{
+			int offset = t * offers;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < offers; i++)
+				{
+					if (buffer.offer(offset + i))
+					{
+						synchronized (lock)
+						{
+							buffer.drain(consumer);
+						}
+					}
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		synchronized (lock)
+		{
+			buffer.drain(consumer);
+			assertFalse(duplicate.get());
+			assertFalse(drained.isEmpty());
+			for (Integer element : drained)
+			{
+				assertTrue(element >= 0 && element < threadCount * offers);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerCache#KeyValueOwnerCache(long, Duration,
+	 * java.util.function.BiFunction)} with invalid arguments
+	 */
+	@Test
+	void testKeyValueOwnerCacheWithInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> new KeyValueOwnerCache<Long, String, String>(0, ONE_HOUR, (owner, key) -> key));
+		assertThrows(IllegalArgumentException.class,
+			() -> new KeyValueOwnerCache<Long, String, String>(1, Duration.ZERO,
+				(owner, key) -> key));
+	}
+
+}
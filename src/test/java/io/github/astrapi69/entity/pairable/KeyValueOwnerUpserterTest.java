@@ -0,0 +1,232 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.identifiable.SequenceBaseEntity;
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * The unit test class for the class {@link KeyValueOwnerUpserter}
+ */
+class KeyValueOwnerUpserterTest
+{
+
+	private static KeyValueOwnerUpserter<Long, String, String, Attribute> upserter(
+		EntityManager entityManager, int batchSize)
+	{
+		return new KeyValueOwnerUpserter<>(entityManager, Attribute.class, Attribute::new,
+			batchSize);
+	}
+
+	private static Map<String, String> load(EntityManager entityManager, Long owner)
+	{
+		List<Attribute> attributes = owner == null
+			? entityManager
+				.createQuery("SELECT e FROM UpsertedAttribute e WHERE e.owner IS NULL",
+					Attribute.class)
+				.getResultList()
+			: entityManager
+				.createQuery("SELECT e FROM UpsertedAttribute e WHERE e.owner = :owner",
+					Attribute.class)
+				.setParameter("owner", owner).getResultList();
+		Map<String, String> values = new HashMap<>();
+		for (Attribute attribute : attributes)
+		{
+			assertEquals(null, values.put(attribute.getKey(), attribute.getValue()),
+				"duplicate key " + attribute.getKey());
+		}
+		return values;
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerUpserter#upsert(Object, Object, Object)} and
+	 * {@link KeyValueOwnerUpserter#flush()}, the pairs have to be inserted, updated or skipped and
+	 * the rows of other keys of the same owners must not be changed
+	 */
+	@Test
+	void testUpsert()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("KeyValueOwnerUpserterTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			KeyValueOwnerUpserter<Long, String, String, Attribute> upserter = upserter(
+				entityManager, 5);
+			for (long owner = 1; owner <= 3; owner++)
+			{
+				for (int key = 0; key < 4; key++)
+				{
+					upserter.upsert(owner, "k" + key, owner + "v" + key);
+				}
+			}
+			upserter.flush();
+			entityManager.getTransaction().commit();
+			assertEquals(12, upserter.getInsertCount());
+			assertEquals(3, upserter.getBatchCount());
+
+			entityManager.getTransaction().begin();
+			upserter = upserter(entityManager, 100);
+			upserter.upsert(1L, "k0", "1v0");
+			upserter.upsert(1L, "k1", "changed");
+			upserter.upsert(1L, "k9", "new");
+			upserter.upsert(2L, "k0", "2v0");
+			upserter.upsert(2L, "k0", "2v0");
+			upserter.flush();
+			entityManager.getTransaction().commit();
+			assertEquals(1, upserter.getInsertCount());
+			assertEquals(1, upserter.getUpdateCount());
+			assertEquals(2, upserter.getUnchangedCount());
+			assertEquals(1, upserter.getBatchCount());
+
+			entityManager.clear();
+			assertEquals(
+				Map.of("k0", "1v0", "k1", "changed", "k2", "1v2", "k3", "1v3", "k9", "new"),
+				load(entityManager, 1L));
+			assertEquals(Map.of("k0", "2v0", "k1", "2v1", "k2", "2v2", "k3", "2v3"),
+				load(entityManager, 2L));
+			assertEquals(4, load(entityManager, 3L).size());
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerUpserter#flush()} with the null owner, the existing pair
+	 * of the null owner has to be found and must not be inserted again
+	 */
+	@Test
+	void testFlushWithNullOwner()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("KeyValueOwnerUpserterTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			for (int run = 0; run < 3; run++)
+			{
+				entityManager.getTransaction().begin();
+				KeyValueOwnerUpserter<Long, String, String, Attribute> upserter = upserter(
+					entityManager, 100);
+				upserter.upsert(null, "k", "v");
+				upserter.upsert(null, "other", "v" + run);
+				upserter.upsert(1L, "k", "v");
+				upserter.flush();
+				entityManager.getTransaction().commit();
+				assertEquals(run == 0 ? 3 : 0, upserter.getInsertCount());
+				assertEquals(run == 0 ? 0 : 1, upserter.getUpdateCount());
+				assertEquals(run == 0 ? 0 : 2, upserter.getUnchangedCount());
+			}
+			entityManager.clear();
+			assertEquals(Map.of("k", "v", "other", "v2"), load(entityManager, null));
+			assertEquals(Map.of("k", "v"), load(entityManager, 1L));
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link KeyValueOwnerUpserter#flush()}, the entities of the written pairs have
+	 * to be detached and the other entities of the caller have to stay managed
+	 */
+	@Test
+	void testFlushDetachesOnlyTheBatch()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("KeyValueOwnerUpserterTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Attribute callers = new Attribute();
+			callers.setOwner(99L);
+			callers.setKey("k");
+			callers.setValue("v");
+			entityManager.persist(callers);
+
+			KeyValueOwnerUpserter<Long, String, String, Attribute> upserter = upserter(
+				entityManager, 100);
+			upserter.upsert(1L, "k", "v");
+			upserter.flush();
+			assertTrue(entityManager.contains(callers));
+			List<Attribute> written = entityManager
+				.createQuery("SELECT e FROM UpsertedAttribute e WHERE e.owner = 1",
+					Attribute.class)
+				.getResultList();
+			assertEquals(1, written.size());
+
+			// a key value entity of a batch is detached even if the caller has loaded it
+			upserter.upsert(1L, "k", "changed");
+			upserter.flush();
+			assertFalse(entityManager.contains(written.get(0)));
+			assertEquals("changed", written.get(0).getValue());
+
+			callers.setValue("changed by the caller");
+			entityManager.getTransaction().commit();
+			entityManager.clear();
+			assertEquals(Map.of("k", "changed by the caller"), load(entityManager, 99L));
+			assertEquals(Map.of("k", "changed"), load(entityManager, 1L));
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * The key value entity of the test, the owner column is nullable
+	 */
+	@Entity(name = "UpsertedAttribute")
+	@Table(name = "upserted_attributes")
+	@SequenceGenerator(name = SequenceBaseEntity.SEQUENCE_GENERIC_GENERATOR_NAME,
+		sequenceName = "upserted_attributes_seq")
+	@AttributeOverride(name = "owner", column = @Column(name = KeyValueOwnerEntity.OWNER_COLUMN))
+	public static class Attribute extends KeyValueOwnerEntity<Long, Long, String, String>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link OwnerKeyDoubleMap}
+ */
+class OwnerKeyDoubleMapTest
+{
+
+	/**
+	 * Test method for {@link OwnerKeyDoubleMap#put(long, int, double)} and
+	 * {@link OwnerKeyDoubleMap#get(long, int, double)}
+	 */
+	@Test
+	void testPutAndGet()
+	{
+		OwnerKeyDoubleMap map = new OwnerKeyDoubleMap();
+		map.put(1L, 2, 0.5);
+		map.put(1L, 3, -0.0);
+		map.put(2L, 2, Double.NaN);
+		assertEquals(3, map.size());
+		assertEquals(0.5, map.get(1L, 2, 1.0));
+		assertEquals(-0.0, map.get(1L, 3, 1.0));
+		assertTrue(Double.isNaN(map.get(2L, 2, 1.0)));
+		assertEquals(1.0, map.get(2L, 3, 1.0));
+	}
+
+	/**
+	 * Test method for {@link OwnerKeyDoubleMap#addTo(long, int, double)}
+	 */
+	@Test
+	void testAddTo()
+	{
+		OwnerKeyDoubleMap map = new OwnerKeyDoubleMap();
+		assertEquals(1.5, map.addTo(3L, 1, 1.5));
+		assertEquals(4.0, map.addTo(3L, 1, 2.5));
+		assertTrue(map.remove(3L, 1));
+		assertFalse(map.containsKey(3L, 1));
+		assertEquals(0.25, map.addTo(3L, 1, 0.25));
+	}
+
+	/**
+	 * Test method for {@link OwnerKeyDoubleMap#forEach(OwnerKeyDoubleMap.EntryConsumer)}
+	 */
+	@Test
+	void testForEach()
+	{
+		OwnerKeyDoubleMap map = new OwnerKeyDoubleMap(1);
+		for (int key = 0; key < 20; key++)
+		{
+			map.put(key % 3, key, key / 2.0);
+		}
+		Map<Integer, Double> entries = new HashMap<>();
+		map.forEach((owner, key, value) -> {
+			assertEquals(key % 3, owner);
+			entries.put(key, value);
+		});
+		assertEquals(20, entries.size());
+		for (int key = 0; key < 20; key++)
+		{
+			assertEquals(key / 2.0, entries.get(key).doubleValue());
+		}
+	}
+
+}
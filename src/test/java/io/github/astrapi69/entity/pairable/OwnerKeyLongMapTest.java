@@ -0,0 +1,158 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link OwnerKeyLongMap}
+ */
+class OwnerKeyLongMapTest
+{
+
+	/**
+	 * Test method for {@link OwnerKeyLongMap#put(long, int, long)} and
+	 * {@link OwnerKeyLongMap#get(long, int, long)}
+	 */
+	@Test
+	void testPutAndGet()
+	{
+		OwnerKeyLongMap map = new OwnerKeyLongMap();
+		assertTrue(map.isEmpty());
+		map.put(1L, 2, 3L);
+		map.put(2L, 1, 4L);
+		map.put(1L, 2, 5L);
+		assertEquals(2, map.size());
+		assertEquals(5L, map.get(1L, 2, -1L));
+		assertEquals(4L, map.get(2L, 1, -1L));
+		assertEquals(-1L, map.get(1L, 1, -1L));
+		assertTrue(map.containsKey(2L, 1));
+		assertFalse(map.containsKey(2L, 2));
+	}
+
+	/**
+	 * Test method for {@link OwnerKeyLongMap#addTo(long, int, long)}
+	 */
+	@Test
+	void testAddTo()
+	{
+		OwnerKeyLongMap map = new OwnerKeyLongMap();
+		assertEquals(3L, map.addTo(7L, 1, 3L));
+		assertEquals(10L, map.addTo(7L, 1, 7L));
+		assertEquals(10L, map.get(7L, 1, 0L));
+		assertEquals(1, map.size());
+	}
+
+	/**
+	 * Test method for {@link OwnerKeyLongMap#remove(long, int)} and
+	 * {@link OwnerKeyLongMap#clear()}
+	 */
+	@Test
+	void testRemoveAndClear()
+	{
+		OwnerKeyLongMap map = new OwnerKeyLongMap(4);
+		for (int key = 0; key < 100; key++)
+		{
+			map.put(1L, key, key);
+		}
+		assertTrue(map.remove(1L, 50));
+		assertFalse(map.remove(1L, 50));
+		assertEquals(99, map.size());
+		for (int key = 0; key < 100; key++)
+		{
+			assertEquals(key == 50 ? -1L : key, map.get(1L, key, -1L));
+		}
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsKey(1L, 1));
+	}
+
+	/**
+	 * Test method for {@link OwnerKeyLongMap#forEach(OwnerKeyLongMap.EntryConsumer)}
+	 */
+	@Test
+	void testForEach()
+	{
+		OwnerKeyLongMap map = new OwnerKeyLongMap();
+		map.put(1L, 1, 10L);
+		map.put(2L, 2, 20L);
+		Map<String, Long> entries = new HashMap<>();
+		map.forEach((owner, key, value) -> entries.put(owner + ":" + key, value));
+		assertEquals(Map.of("1:1", 10L, "2:2", 20L), entries);
+	}
+
+	/**
+	 * Test method for the operations of {@link OwnerKeyLongMap} against a {@link HashMap} with
+	 * random owners and keys, so that collisions, growth and the back shift of removals are
+	 * covered
+	 */
+	@Test
+	void testOperationsAgainstHashMap()
+	{
+		Random random = new Random(21);
+		OwnerKeyLongMap map = new OwnerKeyLongMap(2);
+		Map<String, Long> expected = new HashMap<>();
+		for (int i = 0; i < 50_000; i++)
+		{
+			long owner = random.nextInt(64);
+			int key = random.nextInt(64);
+			String entry = owner + ":" + key;
+			switch (random.nextInt(4))
+			{
+				case 0 :
+					assertEquals(expected.remove(entry) != null, map.remove(owner, key));
+					break;
+				case 1 :
+					long delta = random.nextInt(100);
+					assertEquals((long)expected.merge(entry, delta, Long::sum),
+						map.addTo(owner, key, delta));
+					break;
+				default :
+					long value = random.nextLong();
+					expected.put(entry, value);
+					map.put(owner, key, value);
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		for (Map.Entry<String, Long> entry : expected.entrySet())
+		{
+			String[] parts = entry.getKey().split(":");
+			assertEquals(entry.getValue().longValue(),
+				map.get(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), 0L));
+		}
+		Map<String, Long> iterated = new HashMap<>();
+		map.forEach((owner, key, value) -> iterated.put(owner + ":" + key, value));
+		assertEquals(expected, iterated);
+	}
+
+}
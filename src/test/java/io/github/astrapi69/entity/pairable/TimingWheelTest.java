@@ -0,0 +1,157 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.pairable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link TimingWheel}
+ */
+class TimingWheelTest
+{
+
+	/**
+	 * Test method for {@link TimingWheel#advance(long, java.util.function.Consumer)}
+	 */
+	@Test
+	void testAdvance()
+	{
+		TimingWheel<String> wheel = new TimingWheel<>(10, 1000);
+		List<String> expired = new ArrayList<>();
+		wheel.schedule("past", 500);
+		wheel.schedule("exact", 1050);
+		wheel.schedule("rounded", 1051);
+		assertEquals(3, wheel.size());
+
+		assertEquals(0, wheel.advance(1009, expired::add));
+		assertEquals(1, wheel.advance(1010, expired::add));
+		assertEquals(List.of("past"), expired);
+		assertEquals(1, wheel.advance(1050, expired::add));
+		assertEquals(List.of("past", "exact"), expired);
+		assertEquals(0, wheel.advance(1059, expired::add));
+		assertEquals(1, wheel.advance(1060, expired::add));
+		assertEquals(List.of("past", "exact", "rounded"), expired);
+		assertEquals(0, wheel.size());
+	}
+
+	/**
+	 * Test method for {@link TimingWheel#advance(long, java.util.function.Consumer)} with deadlines
+	 * on the upper levels of the wheel
+	 */
+	@Test
+	void testAdvanceOverLevels()
+	{
+		TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+		long[] deadlines = { 63, 64, 65, 4095, 4096, 262_143, 262_144, 16_777_216 };
+		for (long deadline : deadlines)
+		{
+			wheel.schedule(deadline, deadline);
+		}
+		for (long deadline : deadlines)
+		{
+			List<Long> expired = new ArrayList<>();
+			wheel.advance(deadline - 1, expired::add);
+			assertTrue(expired.isEmpty(), "expired before " + deadline);
+			wheel.advance(deadline, expired::add);
+			assertEquals(List.of(deadline), expired);
+		}
+		assertEquals(0, wheel.size());
+	}
+
+	/**
+	 * Test method for {@link TimingWheel#cancel(TimingWheel.Timeout)}
+	 */
+	@Test
+	void testCancel()
+	{
+		TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+		TimingWheel<String>.Timeout timeout = wheel.schedule("cancelled", 100);
+		wheel.schedule("kept", 100);
+		assertTrue(timeout.cancel());
+		assertFalse(wheel.cancel(timeout));
+		assertEquals(1, wheel.size());
+		List<String> expired = new ArrayList<>();
+		wheel.advance(100, expired::add);
+		assertEquals(List.of("kept"), expired);
+	}
+
+	/**
+	 * Test method for {@link TimingWheel#TimingWheel(long, long)} with an invalid tick duration
+	 */
+	@Test
+	void testTimingWheelWithInvalidTick()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 0));
+	}
+
+	/**
+	 * Test method for {@link TimingWheel#advance(long, java.util.function.Consumer)} with random
+	 * deadlines, cancellations and advances
+	 */
+	@Test
+	void testAdvanceWithRandomDeadlines()
+	{
+		Random random = new Random(23);
+		TimingWheel<Integer> wheel = new TimingWheel<>(1, 0);
+		Map<Integer, Long> deadlines = new HashMap<>();
+		Map<Integer, TimingWheel<Integer>.Timeout> timeouts = new HashMap<>();
+		for (int i = 0; i < 2000; i++)
+		{
+			long deadline = 1 + random.nextInt(500_000);
+			deadlines.put(i, deadline);
+			timeouts.put(i, wheel.schedule(i, deadline));
+		}
+		for (int i = 0; i < 2000; i += 7)
+		{
+			assertTrue(timeouts.remove(i).cancel());
+		}
+		long now = 0;
+		while (!timeouts.isEmpty())
+		{
+			long previous = now;
+			now += 1 + random.nextInt(5000);
+			long current = now;
+			wheel.advance(now, element -> {
+				long deadline = deadlines.get(element);
+				assertTrue(deadline <= current, "expired before the deadline");
+				assertTrue(deadline > previous, "expired after the deadline");
+				assertTrue(timeouts.remove(element) != null, "expired twice or after cancel");
+			});
+		}
+		assertEquals(0, wheel.size());
+	}
+
+}
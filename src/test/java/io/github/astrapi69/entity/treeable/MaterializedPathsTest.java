@@ -0,0 +1,102 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link MaterializedPaths}
+ */
+class MaterializedPathsTest
+{
+
+	private static Node node(long id, Node parent)
+	{
+		Node node = new Node();
+		node.setId(id);
+		node.setParent(parent);
+		return node;
+	}
+
+	/**
+	 * Test method for {@link MaterializedPaths#childPath(String, Object)}
+	 */
+	@Test
+	void testChildPath()
+	{
+		assertEquals("/1/", MaterializedPaths.childPath(MaterializedPaths.ROOT_PATH, 1L));
+		assertEquals("/1/2/", MaterializedPaths.childPath("/1/", 2L));
+		assertNull(MaterializedPaths.childPath(null, 2L));
+		assertNull(MaterializedPaths.childPath("/1/", null));
+	}
+
+	/**
+	 * Test method for {@link MaterializedPaths#prefixPattern(String)}
+	 */
+	@Test
+	void testPrefixPattern()
+	{
+		assertEquals("/1/%", MaterializedPaths.prefixPattern("/1/"));
+		assertEquals("/a!%b!_c!!/%", MaterializedPaths.prefixPattern("/a%b_c!/"));
+	}
+
+	/**
+	 * Test method for {@link MaterializedPaths#isAncestor(MaterializedPathTreeable,
+	 * MaterializedPathTreeable)}
+	 */
+	@Test
+	void testIsAncestor()
+	{
+		Node root = node(1L, null);
+		Node child = node(2L, root);
+		Node grandChild = node(3L, child);
+		Node otherRoot = node(11L, null);
+		Node otherChild = node(12L, otherRoot);
+		assertEquals("/", root.getPath());
+		assertEquals("/1/2/", grandChild.getPath());
+		assertTrue(MaterializedPaths.isAncestor(root, grandChild));
+		assertTrue(MaterializedPaths.isAncestor(child, grandChild));
+		assertFalse(MaterializedPaths.isAncestor(grandChild, child));
+		assertFalse(MaterializedPaths.isAncestor(grandChild, grandChild));
+		// the prefix of the root 1 must not match the paths below the root 11
+		assertFalse(MaterializedPaths.isAncestor(root, otherChild));
+	}
+
+	/**
+	 * The tree entity of the tests
+	 */
+	static class Node extends MaterializedPathTreeEntity<Long, String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
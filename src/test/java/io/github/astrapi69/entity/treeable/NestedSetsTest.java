@@ -0,0 +1,163 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link NestedSets}
+ */
+class NestedSetsTest
+{
+
+	private static Node node(String value, Node parent)
+	{
+		Node node = new Node();
+		node.setValue(value);
+		node.setParent(parent);
+		return node;
+	}
+
+	private static boolean isAncestorByParents(Node ancestor, Node node)
+	{
+		for (Node current = node.getParent(); current != null; current = current.getParent())
+		{
+			if (current == ancestor)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Test method for {@link NestedSets#renumber(java.util.Collection)}
+	 */
+	@Test
+	void testRenumber()
+	{
+		Node root = node("root", null);
+		Node first = node("first", root);
+		Node firstLeaf = node("firstLeaf", first);
+		Node second = node("second", root);
+		Node otherRoot = node("otherRoot", null);
+		NestedSets.renumber(List.of(root, first, firstLeaf, second, otherRoot));
+
+		assertEquals(1, root.getLft());
+		assertEquals(8, root.getRgt());
+		assertEquals(2, first.getLft());
+		assertEquals(5, first.getRgt());
+		assertEquals(3, firstLeaf.getLft());
+		assertEquals(4, firstLeaf.getRgt());
+		assertEquals(6, second.getLft());
+		assertEquals(7, second.getRgt());
+		assertEquals(9, otherRoot.getLft());
+		assertEquals(10, otherRoot.getRgt());
+
+		assertEquals(0, root.getDepth());
+		assertEquals(2, firstLeaf.getDepth());
+		assertTrue(root.isNode());
+		assertFalse(second.isNode());
+		assertEquals(3, root.getDescendantCount());
+		assertEquals(0, otherRoot.getDescendantCount());
+		assertTrue(root.isAncestorOf(firstLeaf));
+		assertFalse(first.isAncestorOf(second));
+		assertFalse(root.isAncestorOf(otherRoot));
+	}
+
+	/**
+	 * Test method for {@link NestedSets#renumber(java.util.Collection)} with a tree that is deeper
+	 * than a recursive traversal could handle
+	 */
+	@Test
+	void testRenumberOfDeepTree()
+	{
+		int count = 100_000;
+		List<Node> nodes = new ArrayList<>(count);
+		Node parent = null;
+		for (int i = 0; i < count; i++)
+		{
+			parent = node(String.valueOf(i), parent);
+			nodes.add(parent);
+		}
+		NestedSets.renumber(nodes);
+		Node root = nodes.get(0);
+		Node leaf = nodes.get(count - 1);
+		assertEquals(1, root.getLft());
+		assertEquals(2 * count, root.getRgt());
+		assertEquals(count, leaf.getLft());
+		assertEquals(count + 1, leaf.getRgt());
+		assertEquals(count - 1, leaf.getDepth());
+		assertEquals(count - 1, root.getDescendantCount());
+	}
+
+	/**
+	 * Test method for {@link NestedSets#renumber(java.util.Collection)} against the walk of the
+	 * parents of a random tree
+	 */
+	@Test
+	void testRenumberOfRandomTree()
+	{
+		Random random = new Random(11);
+		List<Node> nodes = new ArrayList<>();
+		nodes.add(node("0", null));
+		for (int i = 1; i < 200; i++)
+		{
+			nodes.add(node(String.valueOf(i), nodes.get(random.nextInt(nodes.size()))));
+		}
+		NestedSets.renumber(nodes);
+		for (Node ancestor : nodes)
+		{
+			int descendants = 0;
+			for (Node node : nodes)
+			{
+				boolean expected = isAncestorByParents(ancestor, node);
+				assertEquals(expected, ancestor.isAncestorOf(node));
+				descendants += expected ? 1 : 0;
+			}
+			assertEquals(descendants, ancestor.getDescendantCount());
+			assertEquals(descendants > 0, ancestor.isNode());
+		}
+	}
+
+	/**
+	 * The tree entity of the tests
+	 */
+	static class Node extends NestedSetTreeEntity<Long, String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
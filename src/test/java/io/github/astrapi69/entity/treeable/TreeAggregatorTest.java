@@ -0,0 +1,159 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link TreeAggregator}
+ */
+class TreeAggregatorTest
+{
+
+	private static Node node(String value, Node parent)
+	{
+		Node node = new Node();
+		node.setValue(value);
+		node.setParent(parent);
+		if (parent != null)
+		{
+			node.setDepth(parent.getDepth() + 1);
+			parent.addChild(node);
+			parent.setNode(true);
+		}
+		return node;
+	}
+
+	private static void appendInPreOrder(Node node, StringBuilder builder)
+	{
+		builder.append(node.getValue()).append(',');
+		for (Node child : node.getChildren())
+		{
+			appendInPreOrder(child, builder);
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeAggregator#counting()}, {@link TreeAggregator#summing} and
+	 * {@link TreeAggregator#maxDepth()}
+	 */
+	@Test
+	void testFactoryMethods()
+	{
+		Node root = node("1", null);
+		Node child = node("2", root);
+		node("3", child);
+		node("4", root);
+		assertEquals(4L, TreeAggregator.<Node> counting().aggregate(root));
+		assertEquals(10L, TreeAggregator.<Node> summing(node -> Long.parseLong(node.getValue()))
+			.aggregate(root));
+		assertEquals(2, TreeAggregator.<Node> maxDepth().aggregate(root));
+		assertEquals(1L, TreeAggregator.<Node> counting().aggregate(child.getChildren().iterator()
+			.next()));
+		assertEquals(0L, TreeAggregator.<Node> counting().aggregate(null));
+	}
+
+	/**
+	 * Test method for {@link TreeAggregator#aggregate(TreeWithChildren)} with a combiner that is
+	 * not commutative on random trees, so the partial results have to be combined in pre-order
+	 */
+	@Test
+	void testAggregateInPreOrder()
+	{
+		Random random = new Random(14);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			for (int tree = 0; tree < 50; tree++)
+			{
+				List<Node> nodes = new ArrayList<>();
+				nodes.add(node("0", null));
+				int count = 1 + random.nextInt(2000);
+				for (int i = 1; i < count; i++)
+				{
+					nodes.add(node(String.valueOf(i), nodes.get(random.nextInt(nodes.size()))));
+				}
+				StringBuilder expected = new StringBuilder();
+				appendInPreOrder(nodes.get(0), expected);
+				int maxForkDepth = tree % 5 == 0 ? 0 : TreeAggregator.DEFAULT_MAX_FORK_DEPTH;
+				TreeAggregator<Node, String> aggregator = new TreeAggregator<>(
+					node -> node.getValue() + ",", String::concat, "", pool, maxForkDepth);
+				assertEquals(expected.toString(), aggregator.aggregate(nodes.get(0)));
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeAggregator#aggregate(TreeWithChildren)} with a tree that is
+	 * deeper than a recursive traversal could handle
+	 */
+	@Test
+	void testAggregateDeepTree()
+	{
+		Node root = node("0", null);
+		Node parent = root;
+		for (int i = 1; i < 100_000; i++)
+		{
+			parent = node(String.valueOf(i), parent);
+		}
+		assertEquals(100_000L, TreeAggregator.<Node> counting().aggregate(root));
+		assertEquals(99_999, TreeAggregator.<Node> maxDepth().aggregate(root));
+	}
+
+	/**
+	 * Test method for {@link TreeAggregator#TreeAggregator(java.util.function.Function,
+	 * java.util.function.BinaryOperator, Object, ForkJoinPool, int)} with a negative maximum fork
+	 * depth
+	 */
+	@Test
+	void testTreeAggregatorWithNegativeMaxForkDepth()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new TreeAggregator<Node, Long>(
+			node -> 1L, Long::sum, 0L, ForkJoinPool.commonPool(), -1));
+	}
+
+	/**
+	 * The tree entity of the tests
+	 */
+	static class Node extends TreeWithChildrenUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
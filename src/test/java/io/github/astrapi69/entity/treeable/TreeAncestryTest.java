@@ -0,0 +1,194 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link TreeAncestry}
+ */
+class TreeAncestryTest
+{
+
+	private static Node node(String value, Node parent)
+	{
+		Node node = new Node();
+		node.setValue(value);
+		node.setParent(parent);
+		return node;
+	}
+
+	private static Node naiveLowestCommonAncestor(Node first, Node second)
+	{
+		List<Node> ancestors = new ArrayList<>();
+		for (Node current = first; current != null; current = current.getParent())
+		{
+			ancestors.add(current);
+		}
+		for (Node current = second; current != null; current = current.getParent())
+		{
+			for (Node ancestor : ancestors)
+			{
+				if (ancestor == current)
+				{
+					return current;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static int naiveDepth(Node node)
+	{
+		int depth = 0;
+		for (Node current = node.getParent(); current != null; current = current.getParent())
+		{
+			depth++;
+		}
+		return depth;
+	}
+
+	/**
+	 * Test method for {@link TreeAncestry#getLowestCommonAncestor(Treeable, Treeable)}
+	 */
+	@Test
+	void testGetLowestCommonAncestor()
+	{
+		Node root = node("root", null);
+		Node left = node("left", root);
+		Node right = node("right", root);
+		Node leftLeaf = node("leftLeaf", left);
+		Node rightLeaf = node("rightLeaf", right);
+		Node otherRoot = node("otherRoot", null);
+		// the children are given before their parents
+		TreeAncestry<Node> ancestry = new TreeAncestry<>(
+			List.of(leftLeaf, rightLeaf, left, right, root, otherRoot));
+		assertSame(root, ancestry.getLowestCommonAncestor(leftLeaf, rightLeaf));
+		assertSame(left, ancestry.getLowestCommonAncestor(leftLeaf, left));
+		assertSame(leftLeaf, ancestry.getLowestCommonAncestor(leftLeaf, leftLeaf));
+		assertNull(ancestry.getLowestCommonAncestor(leftLeaf, otherRoot));
+	}
+
+	/**
+	 * Test method for {@link TreeAncestry#getAncestor(Treeable, int)} and
+	 * {@link TreeAncestry#isAncestor(Treeable, Treeable)}
+	 */
+	@Test
+	void testGetAncestorAndIsAncestor()
+	{
+		List<Node> chain = new ArrayList<>();
+		Node parent = null;
+		for (int i = 0; i < 100; i++)
+		{
+			parent = node("node" + i, parent);
+			chain.add(parent);
+		}
+		TreeAncestry<Node> ancestry = new TreeAncestry<>(chain);
+		Node last = chain.get(99);
+		assertEquals(99, ancestry.getDepth(last));
+		assertSame(chain.get(98), ancestry.getAncestor(last, 1));
+		assertSame(chain.get(50), ancestry.getAncestor(last, 49));
+		assertSame(chain.get(0), ancestry.getAncestor(last, 99));
+		assertSame(last, ancestry.getAncestor(last, 0));
+		assertNull(ancestry.getAncestor(last, 100));
+		assertTrue(ancestry.isAncestor(chain.get(3), last));
+		assertFalse(ancestry.isAncestor(last, chain.get(3)));
+		assertFalse(ancestry.isAncestor(last, last));
+	}
+
+	/**
+	 * Test method for {@link TreeAncestry#add(Treeable)} and {@link TreeAncestry#update(Treeable)}
+	 * against the walk of the parents of a random tree
+	 */
+	@Test
+	void testAddAndUpdateOfRandomTree()
+	{
+		Random random = new Random(7);
+		List<Node> nodes = new ArrayList<>();
+		nodes.add(node("0", null));
+		TreeAncestry<Node> ancestry = new TreeAncestry<>(nodes);
+		for (int i = 1; i < 300; i++)
+		{
+			Node node = node(String.valueOf(i), nodes.get(random.nextInt(nodes.size())));
+			nodes.add(node);
+			ancestry.add(node);
+		}
+		for (int i = 0; i < 100; i++)
+		{
+			Node node = nodes.get(1 + random.nextInt(nodes.size() - 1));
+			Node newParent = nodes.get(random.nextInt(nodes.size()));
+			if (newParent == node || ancestry.isAncestor(node, newParent))
+			{
+				continue;
+			}
+			node.setParent(newParent);
+			ancestry.update(node);
+		}
+		for (Node node : nodes)
+		{
+			assertEquals(naiveDepth(node), ancestry.getDepth(node));
+			Node other = nodes.get(random.nextInt(nodes.size()));
+			assertSame(naiveLowestCommonAncestor(node, other),
+				ancestry.getLowestCommonAncestor(node, other));
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeAncestry#update(Treeable)} with a descendant as new parent
+	 */
+	@Test
+	void testUpdateWithCycle()
+	{
+		Node root = node("root", null);
+		Node child = node("child", root);
+		Node grandChild = node("grandChild", child);
+		TreeAncestry<Node> ancestry = new TreeAncestry<>(List.of(root, child, grandChild));
+		child.setParent(grandChild);
+		assertThrows(IllegalArgumentException.class, () -> ancestry.update(child));
+		assertThrows(IllegalArgumentException.class, () -> ancestry.add(root));
+	}
+
+	/**
+	 * The tree entity of the tests
+	 */
+	static class Node extends TreeUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
@@ -0,0 +1,330 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.Table;
+
+/**
+ * The unit test class for the class {@link TreeClosures}
+ */
+class TreeClosuresTest
+{
+
+	private static final TreeClosures<Node> CLOSURES = new TreeClosures<>(Node.class,
+		Closure.class, "tree_closures");
+
+	private static Node root(EntityManager entityManager, String value)
+	{
+		Node root = new Node();
+		root.setValue(value);
+		entityManager.persist(root);
+		entityManager.flush();
+		CLOSURES.insertRoot(entityManager, root);
+		return root;
+	}
+
+	private static Node child(EntityManager entityManager, Node parent, String value)
+	{
+		Node child = new Node();
+		child.setValue(value);
+		entityManager.persist(child);
+		entityManager.flush();
+		CLOSURES.addChild(entityManager, parent, child);
+		return child;
+	}
+
+	private static Set<String> expectedRows(List<Node> nodes)
+	{
+		Set<String> rows = new HashSet<>();
+		for (Node node : nodes)
+		{
+			int distance = 0;
+			for (Node ancestor = node; ancestor != null; ancestor = ancestor.getParent())
+			{
+				rows.add(ancestor.getValue() + ">" + node.getValue() + ":" + distance++);
+			}
+		}
+		return rows;
+	}
+
+	private static Set<String> rows(EntityManager entityManager)
+	{
+		entityManager.flush();
+		Set<String> rows = new HashSet<>();
+		for (Closure closure : entityManager
+			.createQuery("SELECT c FROM TreeClosure c", Closure.class).getResultList())
+		{
+			rows.add(closure.getAncestor().getValue() + ">" + closure.getDescendant().getValue()
+				+ ":" + closure.getDistance());
+		}
+		return rows;
+	}
+
+	private static Map<String, Integer> depths(EntityManager entityManager)
+	{
+		entityManager.flush();
+		entityManager.clear();
+		Map<String, Integer> depths = new HashMap<>();
+		for (Node node : entityManager.createQuery("SELECT n FROM ClosureNode n", Node.class)
+			.getResultList())
+		{
+			depths.put(node.getValue(), node.getDepth());
+		}
+		return depths;
+	}
+
+	private static Set<String> values(List<Node> nodes)
+	{
+		Set<String> values = new HashSet<>();
+		nodes.forEach(node -> values.add(node.getValue()));
+		return values;
+	}
+
+	/**
+	 * Test method for {@link TreeClosures#insertRoot(EntityManager,
+	 * TreeWithChildrenUUIDBaseEntity)} and {@link TreeClosures#addChild(EntityManager,
+	 * TreeWithChildrenUUIDBaseEntity, TreeWithChildrenUUIDBaseEntity)} and the finder methods
+	 */
+	@Test
+	void testAddChild()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeClosuresTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Node root = root(entityManager, "root");
+			Node first = child(entityManager, root, "first");
+			Node second = child(entityManager, root, "second");
+			Node firstLeaf = child(entityManager, first, "firstLeaf");
+			Node deepLeaf = child(entityManager, firstLeaf, "deepLeaf");
+			List<Node> nodes = List.of(root, first, second, firstLeaf, deepLeaf);
+
+			assertEquals(expectedRows(nodes), rows(entityManager));
+			assertEquals(12, rows(entityManager).size());
+			assertEquals(Set.of("first", "second"),
+				values(CLOSURES.findDescendants(entityManager, root, 1)));
+			assertEquals(4, CLOSURES.findDescendants(entityManager, root, 10).size());
+			assertEquals(List.of("firstLeaf", "first", "root"), CLOSURES
+				.findAncestors(entityManager, deepLeaf, 10).stream().map(Node::getValue).toList());
+			assertEquals(List.of("firstLeaf"), CLOSURES.findAncestors(entityManager, deepLeaf, 1)
+				.stream().map(Node::getValue).toList());
+			assertTrue(CLOSURES.isAncestor(entityManager, root, deepLeaf));
+			assertFalse(CLOSURES.isAncestor(entityManager, deepLeaf, root));
+			assertFalse(CLOSURES.isAncestor(entityManager, second, deepLeaf));
+			assertFalse(CLOSURES.isAncestor(entityManager, root, root));
+			assertEquals(Map.of("root", 0, "first", 1, "second", 1, "firstLeaf", 2, "deepLeaf", 3),
+				depths(entityManager));
+			entityManager.getTransaction().commit();
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeClosures#removeChild(EntityManager,
+	 * TreeWithChildrenUUIDBaseEntity, TreeWithChildrenUUIDBaseEntity)}, the detach statement has
+	 * to delete only the rows between the subtree and its former ancestors
+	 */
+	@Test
+	void testRemoveChild()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeClosuresTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Node root = root(entityManager, "root");
+			Node first = child(entityManager, root, "first");
+			Node second = child(entityManager, root, "second");
+			Node firstLeaf = child(entityManager, first, "firstLeaf");
+			Node deepLeaf = child(entityManager, firstLeaf, "deepLeaf");
+			List<Node> nodes = List.of(root, first, second, firstLeaf, deepLeaf);
+
+			CLOSURES.removeChild(entityManager, root, first);
+			assertNull(first.getParent());
+			assertEquals(expectedRows(nodes), rows(entityManager));
+			assertEquals(9, rows(entityManager).size());
+			assertFalse(CLOSURES.isAncestor(entityManager, root, deepLeaf));
+			assertTrue(CLOSURES.isAncestor(entityManager, first, deepLeaf));
+			assertEquals(Map.of("root", 0, "first", 0, "second", 1, "firstLeaf", 1, "deepLeaf", 2),
+				depths(entityManager));
+			entityManager.getTransaction().commit();
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeClosures#moveSubtree(EntityManager,
+	 * TreeWithChildrenUUIDBaseEntity, TreeWithChildrenUUIDBaseEntity)}, the attach statement has
+	 * to connect the whole subtree to the new ancestors and the depths have to be shifted
+	 */
+	@Test
+	void testMoveSubtree()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeClosuresTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Node root = root(entityManager, "root");
+			Node first = child(entityManager, root, "first");
+			Node second = child(entityManager, root, "second");
+			Node firstLeaf = child(entityManager, first, "firstLeaf");
+			Node deepLeaf = child(entityManager, firstLeaf, "deepLeaf");
+			Node otherRoot = root(entityManager, "otherRoot");
+			List<Node> nodes = List.of(root, first, second, firstLeaf, deepLeaf, otherRoot);
+
+			// down two levels
+			CLOSURES.moveSubtree(entityManager, second, deepLeaf);
+			assertEquals(deepLeaf, second.getParent());
+			assertEquals(expectedRows(nodes), rows(entityManager));
+			// up one level with the moved subtree as descendants
+			CLOSURES.moveSubtree(entityManager, firstLeaf, root);
+			assertEquals(expectedRows(nodes), rows(entityManager));
+			// a root into another tree
+			CLOSURES.moveSubtree(entityManager, otherRoot, first);
+			assertEquals(expectedRows(nodes), rows(entityManager));
+			assertTrue(CLOSURES.isAncestor(entityManager, firstLeaf, second));
+			assertFalse(CLOSURES.isAncestor(entityManager, first, second));
+			assertEquals(Map.of("root", 0, "first", 1, "firstLeaf", 1, "deepLeaf", 2, "second", 3,
+				"otherRoot", 2), depths(entityManager));
+			entityManager.getTransaction().commit();
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeClosures#moveSubtree(EntityManager,
+	 * TreeWithChildrenUUIDBaseEntity, TreeWithChildrenUUIDBaseEntity)} into its own subtree
+	 */
+	@Test
+	void testMoveSubtreeIntoItself()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeClosuresTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Node root = root(entityManager, "root");
+			Node first = child(entityManager, root, "first");
+			Node firstLeaf = child(entityManager, first, "firstLeaf");
+			List<Node> nodes = List.of(root, first, firstLeaf);
+			Set<String> rows = rows(entityManager);
+
+			assertThrows(IllegalArgumentException.class,
+				() -> CLOSURES.moveSubtree(entityManager, first, firstLeaf));
+			assertThrows(IllegalArgumentException.class,
+				() -> CLOSURES.moveSubtree(entityManager, first, first));
+			assertEquals(root, first.getParent());
+			assertEquals(rows, rows(entityManager));
+			assertEquals(expectedRows(nodes), rows);
+			entityManager.getTransaction().commit();
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeClosures#deleteSubtree(EntityManager,
+	 * TreeWithChildrenUUIDBaseEntity)}
+	 */
+	@Test
+	void testDeleteSubtree()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeClosuresTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Node root = root(entityManager, "root");
+			Node first = child(entityManager, root, "first");
+			Node second = child(entityManager, root, "second");
+			Node firstLeaf = child(entityManager, first, "firstLeaf");
+
+			CLOSURES.deleteSubtree(entityManager, first);
+			assertEquals(expectedRows(List.of(root, second)), rows(entityManager));
+			assertFalse(CLOSURES.isAncestor(entityManager, root, firstLeaf));
+			entityManager.getTransaction().commit();
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * The tree entity of the test with the lazy parent
+	 */
+	@Entity(name = "ClosureNode")
+	@Table(name = "closure_nodes")
+	public static class Node extends LazyTreeWithChildrenUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+	/**
+	 * The closure table entity of the test
+	 */
+	@Entity(name = "TreeClosure")
+	@Table(name = "tree_closures")
+	public static class Closure extends TreeClosureEntity<Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
@@ -0,0 +1,264 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link TreeExporter}, the written streams are read back with
+ * the {@link TreeImporter} through in-memory channels
+ */
+class TreeExporterTest
+{
+
+	/** The buffer size of the tests that is smaller than some of the values */
+	static final int BUFFER_SIZE = 64;
+
+	static Node node(String value, Node parent)
+	{
+		Node node = new Node();
+		node.setId(UUID.randomUUID());
+		node.setValue(value);
+		if (parent != null)
+		{
+			node.setParent(parent);
+			node.setDepth(parent.getDepth() + 1);
+			parent.setNode(true);
+			parent.addChild(node);
+		}
+		return node;
+	}
+
+	static byte[] encode(String value)
+	{
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	static String decode(byte[] bytes)
+	{
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Creates a tree with null values and values that are larger than the buffer
+	 */
+	static Node tree(String name)
+	{
+		Node root = node(name, null);
+		Node large = node(name + "-" + "x".repeat(5 * BUFFER_SIZE + 3), root);
+		node(null, large);
+		Node inner = node(name + "-inner", large);
+		node("", inner);
+		node(name + "-leaf", root);
+		return root;
+	}
+
+	static void preOrder(Node node, List<Node> nodes)
+	{
+		nodes.add(node);
+		for (Node child : node.getChildren())
+		{
+			preOrder(child, nodes);
+		}
+	}
+
+	static List<Node> importAll(byte[] stream, boolean keepIds) throws IOException
+	{
+		List<Node> imported = new ArrayList<>();
+		try (TreeImporter<String, Node> importer = new TreeImporter<>(
+			slowChannel(stream), Node::new, TreeExporterTest::decode, BUFFER_SIZE, keepIds))
+		{
+			assertEquals(importer.readAll(imported::add), imported.size());
+		}
+		return imported;
+	}
+
+	/**
+	 * Creates a channel that reads at most 7 bytes at once, so the records are split at arbitrary
+	 * positions
+	 */
+	static ReadableByteChannel slowChannel(byte[] stream)
+	{
+		ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(stream));
+		return new ReadableByteChannel()
+		{
+			@Override
+			public int read(ByteBuffer target) throws IOException
+			{
+				ByteBuffer slice = target.slice();
+				slice.limit(Math.min(slice.limit(), 7));
+				int read = channel.read(slice);
+				if (0 < read)
+				{
+					target.position(target.position() + read);
+				}
+				return read;
+			}
+
+			@Override
+			public boolean isOpen()
+			{
+				return channel.isOpen();
+			}
+
+			@Override
+			public void close() throws IOException
+			{
+				channel.close();
+			}
+		};
+	}
+
+	/**
+	 * Asserts that the imported tree entities are a copy of the exported ones with the same
+	 * structure and values and with the exported ids if the ids are kept
+	 */
+	static void assertCopy(List<Node> exported, List<Node> imported, boolean keepIds)
+	{
+		assertEquals(exported.size(), imported.size());
+		Map<Node, Node> copies = new HashMap<>();
+		for (int i = 0; i < exported.size(); i++)
+		{
+			Node original = exported.get(i);
+			Node copy = imported.get(i);
+			copies.put(original, copy);
+			assertEquals(original.getValue(), copy.getValue());
+			assertEquals(original.getDepth(), copy.getDepth());
+			assertEquals(original.isNode(), copy.isNode());
+			assertEquals(keepIds ? original.getId() : null, copy.getId());
+			if (original.getParent() == null)
+			{
+				assertNull(copy.getParent());
+			}
+			else
+			{
+				assertSame(copies.get(original.getParent()), copy.getParent());
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeExporter#writeTree(TreeWithChildren)} of a forest with null values
+	 * and values that are larger than the buffer, with and without the exported ids
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	void testWriteTree() throws IOException
+	{
+		List<Node> exported = new ArrayList<>();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TreeExporter<String, Node> exporter = new TreeExporter<>(Channels.newChannel(out),
+			TreeExporterTest::encode, BUFFER_SIZE))
+		{
+			for (String name : List.of("first", "second", "third"))
+			{
+				Node root = tree(name);
+				exporter.writeTree(root);
+				preOrder(root, exported);
+			}
+			assertEquals(exported.size(), exporter.getCount());
+		}
+		byte[] stream = out.toByteArray();
+
+		assertCopy(exported, importAll(stream, true), true);
+		assertCopy(exported, importAll(stream, false), false);
+	}
+
+	/**
+	 * Test method for {@link TreeExporter#write(Identifiable, int)} of records that are streamed in
+	 * pre-order and with depths that are no pre-order successors
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	void testWrite() throws IOException
+	{
+		Node root = tree("streamed");
+		List<Node> exported = new ArrayList<>();
+		preOrder(root, exported);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TreeExporter<String, Node> exporter = new TreeExporter<>(Channels.newChannel(out),
+			TreeExporterTest::encode, BUFFER_SIZE))
+		{
+			assertThrows(IllegalArgumentException.class, () -> exporter.write(root, 1));
+			for (Node node : exported)
+			{
+				exporter.write(node, node.getDepth());
+			}
+			assertThrows(IllegalArgumentException.class, () -> exporter.write(root, -1));
+			assertThrows(IllegalArgumentException.class,
+				() -> exporter.write(root, exported.get(exported.size() - 1).getDepth() + 2));
+		}
+		assertCopy(exported, importAll(out.toByteArray(), true), true);
+	}
+
+	/**
+	 * Test method for {@link TreeExporter#close()} without records, the stream has to hold only the
+	 * stream header
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	void testCloseWithoutRecords() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new TreeExporter<String, Node>(Channels.newChannel(out), TreeExporterTest::encode).close();
+		assertEquals(TreeExporter.STREAM_HEADER_SIZE, out.size());
+		assertEquals(0, importAll(out.toByteArray(), false).size());
+	}
+
+	/**
+	 * A tree entity for the tests
+	 */
+	static class Node extends TreeWithChildrenUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
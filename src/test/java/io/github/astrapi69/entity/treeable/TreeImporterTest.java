@@ -0,0 +1,155 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.treeable.TreeExporterTest.Node;
+
+/**
+ * The unit test class for the class {@link TreeImporter} with truncated and corrupted streams, the
+ * round trips are tested in {@link TreeExporterTest}
+ */
+class TreeImporterTest
+{
+
+	private static byte[] export() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TreeExporter<String, Node> exporter = new TreeExporter<>(Channels.newChannel(out),
+			TreeExporterTest::encode, TreeExporterTest.BUFFER_SIZE))
+		{
+			exporter.writeTree(TreeExporterTest.tree("root"));
+		}
+		return out.toByteArray();
+	}
+
+	private static List<Node> importAll(byte[] stream) throws IOException
+	{
+		return TreeExporterTest.importAll(stream, false);
+	}
+
+	/**
+	 * Test method for {@link TreeImporter#read()} with streams that are truncated at every
+	 * position, the import has to fail with an {@link EOFException} unless the stream ends between
+	 * two records
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	void testReadTruncated() throws IOException
+	{
+		byte[] stream = export();
+		int records = importAll(stream).size();
+		List<Integer> recordEnds = new ArrayList<>();
+		for (int length = TreeExporter.STREAM_HEADER_SIZE; length < stream.length; length++)
+		{
+			byte[] truncated = Arrays.copyOf(stream, length);
+			try
+			{
+				int count = importAll(truncated).size();
+				recordEnds.add(length);
+				assertEquals(recordEnds.size() - 1, count);
+			}
+			catch (EOFException expected)
+			{
+				// the stream ends within a record
+			}
+		}
+		// the stream header and each record except the last one end between two records
+		assertEquals(records, recordEnds.size());
+		assertThrows(EOFException.class, () -> importAll(new byte[0]));
+		assertThrows(EOFException.class, () -> importAll(new byte[] { 0x54, 0x52 }));
+	}
+
+	/**
+	 * Test method for {@link TreeImporter#read()} with corrupted streams
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Test
+	void testReadCorrupted() throws IOException
+	{
+		byte[] stream = export();
+		int record = TreeExporter.STREAM_HEADER_SIZE;
+
+		byte[] magic = stream.clone();
+		magic[0] = 0;
+		assertThrows(StreamCorruptedException.class, () -> importAll(magic));
+
+		byte[] version = stream.clone();
+		version[Integer.BYTES] = TreeExporter.VERSION + 1;
+		assertThrows(StreamCorruptedException.class, () -> importAll(version));
+
+		byte[] depth = stream.clone();
+		ByteBuffer.wrap(depth).putInt(record, 1);
+		assertThrows(StreamCorruptedException.class, () -> importAll(depth));
+
+		byte[] negativeDepth = stream.clone();
+		ByteBuffer.wrap(negativeDepth).putInt(record, -1);
+		assertThrows(StreamCorruptedException.class, () -> importAll(negativeDepth));
+
+		byte[] length = stream.clone();
+		ByteBuffer.wrap(length).putInt(record + TreeExporter.RECORD_HEADER_SIZE - Integer.BYTES,
+			-2);
+		assertThrows(StreamCorruptedException.class, () -> importAll(length));
+
+		// a huge value length must fail at the end of the stream without allocating the length
+		byte[] hugeLength = stream.clone();
+		ByteBuffer.wrap(hugeLength)
+			.putInt(record + TreeExporter.RECORD_HEADER_SIZE - Integer.BYTES, Integer.MAX_VALUE);
+		assertThrows(EOFException.class, () -> importAll(hugeLength));
+	}
+
+	/**
+	 * Test method for the constructor of {@link TreeImporter} with a buffer that is smaller than
+	 * the header of a record
+	 */
+	@Test
+	void testConstructorWithSmallBuffer()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> new TreeImporter<String, Node>(
+				Channels.newChannel(new ByteArrayInputStream(new byte[0])), Node::new,
+				TreeExporterTest::decode, TreeExporter.RECORD_HEADER_SIZE - 1));
+	}
+
+}
@@ -0,0 +1,185 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link TreeIndex}
+ */
+class TreeIndexTest
+{
+
+	/**
+	 * Builds the forest with the roots 1 and 7, the children 2 and 3 of 1, the children 4 and 5 of
+	 * 2 and the child 6 of 3. The rows are added out of order, so the children are ordered as 3, 2
+	 * and 5, 4
+	 */
+	private static TreeIndex newForest()
+	{
+		return TreeIndex.builder(7).add(5, 2).addRoot(1).add(6, 3).add(3, 1).addRoot(7).add(2, 1)
+			.add(4, 2).build();
+	}
+
+	private static long[] ids(TreeIndex index, int[] indexes)
+	{
+		long[] ids = new long[indexes.length];
+		for (int i = 0; i < indexes.length; i++)
+		{
+			ids[i] = index.getId(indexes[i]);
+		}
+		return ids;
+	}
+
+	/**
+	 * Test method for {@link TreeIndex#getParent(int)} and {@link TreeIndex#getDepth(int)}
+	 */
+	@Test
+	void testParentsAndDepths()
+	{
+		TreeIndex index = newForest();
+		assertEquals(7, index.size());
+		assertEquals(TreeIndex.NONE, index.getParent(index.indexOf(1)));
+		assertEquals(TreeIndex.NONE, index.getParent(index.indexOf(7)));
+		assertEquals(1, index.getId(index.getParent(index.indexOf(3))));
+		assertEquals(2, index.getId(index.getParent(index.indexOf(4))));
+		assertEquals(0, index.getDepth(index.indexOf(1)));
+		assertEquals(1, index.getDepth(index.indexOf(2)));
+		assertEquals(2, index.getDepth(index.indexOf(6)));
+		assertEquals(0, index.getDepth(index.indexOf(7)));
+		assertEquals(TreeIndex.NONE, index.indexOf(42));
+	}
+
+	/**
+	 * Test method for {@link TreeIndex#getDescendants(int)} and
+	 * {@link TreeIndex#getSubtreeSize(int)}
+	 */
+	@Test
+	void testDescendantsInPreOrder()
+	{
+		TreeIndex index = newForest();
+		assertArrayEquals(new long[] { 3, 6, 2, 5, 4 },
+			ids(index, index.getDescendants(index.indexOf(1))));
+		assertArrayEquals(new long[] { 5, 4 }, ids(index, index.getDescendants(index.indexOf(2))));
+		assertArrayEquals(new long[0], ids(index, index.getDescendants(index.indexOf(7))));
+		assertEquals(6, index.getSubtreeSize(index.indexOf(1)));
+		assertEquals(3, index.getSubtreeSize(index.indexOf(2)));
+		assertEquals(1, index.getSubtreeSize(index.indexOf(4)));
+		List<Long> visited = new ArrayList<>();
+		index.forEachDescendant(index.indexOf(3), i -> visited.add(index.getId(i)));
+		assertEquals(List.of(6L), visited);
+	}
+
+	/**
+	 * Test method for {@link TreeIndex#isAncestor(int, int)} and
+	 * {@link TreeIndex#isAncestorById(long, long)}
+	 */
+	@Test
+	void testIsAncestor()
+	{
+		TreeIndex index = newForest();
+		assertTrue(index.isAncestorById(1, 4));
+		assertTrue(index.isAncestorById(2, 5));
+		assertTrue(index.isAncestorById(3, 6));
+		assertFalse(index.isAncestorById(4, 1));
+		assertFalse(index.isAncestorById(2, 2));
+		assertFalse(index.isAncestorById(2, 6));
+		assertFalse(index.isAncestorById(7, 4));
+		assertFalse(index.isAncestorById(1, 42));
+	}
+
+	/**
+	 * Test method for {@link TreeIndex#isSibling(int, int)}
+	 */
+	@Test
+	void testIsSibling()
+	{
+		TreeIndex index = newForest();
+		assertTrue(index.isSibling(index.indexOf(2), index.indexOf(3)));
+		assertTrue(index.isSibling(index.indexOf(4), index.indexOf(5)));
+		assertFalse(index.isSibling(index.indexOf(4), index.indexOf(4)));
+		assertFalse(index.isSibling(index.indexOf(4), index.indexOf(6)));
+		assertFalse(index.isSibling(index.indexOf(1), index.indexOf(7)));
+	}
+
+	/**
+	 * Test method for {@link TreeIndex#isAncestor(int, int)} against the walk of the parents of a
+	 * random forest
+	 */
+	@Test
+	void testIsAncestorOfRandomForest()
+	{
+		Random random = new Random(42);
+		int size = 500;
+		long[] parentIds = new long[size];
+		TreeIndex.Builder builder = TreeIndex.builder(size);
+		for (int i = 0; i < size; i++)
+		{
+			parentIds[i] = i == 0 || random.nextInt(10) == 0
+				? TreeIndex.NO_PARENT
+				: random.nextInt(i);
+			builder.add(i, parentIds[i]);
+		}
+		TreeIndex index = builder.build();
+		for (int ancestor = 0; ancestor < size; ancestor++)
+		{
+			for (int descendant = 0; descendant < size; descendant++)
+			{
+				boolean expected = false;
+				for (long current = parentIds[descendant]; current != TreeIndex.NO_PARENT
+					&& !expected; current = parentIds[(int)current])
+				{
+					expected = current == ancestor;
+				}
+				assertEquals(expected, index.isAncestorById(ancestor, descendant));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeIndex.Builder#build()} with invalid rows
+	 */
+	@Test
+	void testBuildWithInvalidRows()
+	{
+		assertThrows(IllegalStateException.class,
+			() -> TreeIndex.builder(2).addRoot(1).addRoot(1).build());
+		assertThrows(IllegalStateException.class,
+			() -> TreeIndex.builder(2).addRoot(1).add(2, 3).build());
+		assertThrows(IllegalStateException.class,
+			() -> TreeIndex.builder(3).addRoot(1).add(2, 3).add(3, 2).build());
+	}
+
+}
@@ -0,0 +1,307 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.data.identifiable.Identifiable;
+import io.github.astrapi69.data.treeable.Treeable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.Table;
+
+/**
+ * The unit test class for the class {@link TreeMoves}
+ */
+class TreeMovesTest
+{
+
+	/**
+	 * Persists the tree root(a(a1(a11), a2), b) and returns the ids by the values
+	 */
+	private static <E extends Treeable<String, E> & Identifiable<UUID>> Map<String, UUID> tree(
+		EntityManager entityManager, Supplier<E> factory)
+	{
+		Map<String, E> nodes = new HashMap<>();
+		entityManager.getTransaction().begin();
+		persist(entityManager, factory, nodes, "root", null);
+		persist(entityManager, factory, nodes, "a", "root");
+		persist(entityManager, factory, nodes, "a1", "a");
+		persist(entityManager, factory, nodes, "a11", "a1");
+		persist(entityManager, factory, nodes, "a2", "a");
+		persist(entityManager, factory, nodes, "b", "root");
+		entityManager.getTransaction().commit();
+		entityManager.clear();
+		Map<String, UUID> ids = new HashMap<>();
+		nodes.forEach((value, node) -> ids.put(value, node.getId()));
+		return ids;
+	}
+
+	private static <E extends Treeable<String, E>> void persist(EntityManager entityManager,
+		Supplier<E> factory, Map<String, E> nodes, String value, String parentValue)
+	{
+		E node = factory.get();
+		node.setValue(value);
+		if (parentValue != null)
+		{
+			E parent = nodes.get(parentValue);
+			node.setParent(parent);
+			node.setDepth(parent.getDepth() + 1);
+			parent.setNode(true);
+		}
+		entityManager.persist(node);
+		nodes.put(value, node);
+	}
+
+	private static <E extends Treeable<String, E>> Map<String, Integer> depths(
+		EntityManager entityManager, Class<E> entityClass, String entityName)
+	{
+		entityManager.clear();
+		Map<String, Integer> depths = new HashMap<>();
+		for (E node : entityManager.createQuery("SELECT e FROM " + entityName + " e", entityClass)
+			.getResultList())
+		{
+			depths.put(node.getValue(), node.getDepth());
+		}
+		return depths;
+	}
+
+	/**
+	 * Test method for {@link TreeMoves#moveSubtree(EntityManager, Class, String, Treeable,
+	 * Treeable)}, the depths of all descendants have to be shifted with the recursive statement
+	 */
+	@Test
+	void testMoveSubtreeWithRecursiveStatement()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeMovesTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			Map<String, UUID> ids = tree(entityManager, Node::new);
+
+			entityManager.getTransaction().begin();
+			Node a = entityManager.find(Node.class, ids.get("a"));
+			Node b = entityManager.find(Node.class, ids.get("b"));
+			assertEquals(3,
+				TreeMoves.moveSubtree(entityManager, Node.class, "moved_nodes", a, b));
+			assertEquals(2, a.getDepth());
+			assertTrue(b.getChildren().contains(a));
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "b", 1, "a", 2, "a1", 3, "a2", 3, "a11", 4),
+				depths(entityManager, Node.class, "MovedNode"));
+			assertEquals(ids.get("b"),
+				entityManager.find(Node.class, ids.get("a")).getParent().getId());
+			assertTrue(entityManager.find(Node.class, ids.get("b")).isNode());
+			entityManager.clear();
+
+			// a subtree becomes a root
+			entityManager.getTransaction().begin();
+			a = entityManager.find(Node.class, ids.get("a"));
+			assertEquals(3,
+				TreeMoves.moveSubtree(entityManager, Node.class, "moved_nodes", a, null));
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "b", 1, "a", 0, "a1", 1, "a2", 1, "a11", 2),
+				depths(entityManager, Node.class, "MovedNode"));
+			assertNull(entityManager.find(Node.class, ids.get("a")).getParent());
+			assertFalse(entityManager.find(Node.class, ids.get("b")).isNode());
+			entityManager.clear();
+
+			// a move without a depth change does not update the descendants
+			entityManager.getTransaction().begin();
+			Node a1 = entityManager.find(Node.class, ids.get("a1"));
+			Node root = entityManager.find(Node.class, ids.get("root"));
+			assertEquals(0,
+				TreeMoves.moveSubtree(entityManager, Node.class, "moved_nodes", a1, root));
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "b", 1, "a", 0, "a1", 1, "a2", 1, "a11", 2),
+				depths(entityManager, Node.class, "MovedNode"));
+			assertEquals(ids.get("root"),
+				entityManager.find(Node.class, ids.get("a1")).getParent().getId());
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeMoves#moveSubtree(EntityManager, Class, String, Treeable,
+	 * Treeable)} into its own subtree
+	 */
+	@Test
+	void testMoveSubtreeWithRecursiveStatementIntoItself()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeMovesTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			Map<String, UUID> ids = tree(entityManager, Node::new);
+
+			entityManager.getTransaction().begin();
+			Node a = entityManager.find(Node.class, ids.get("a"));
+			Node a11 = entityManager.find(Node.class, ids.get("a11"));
+			assertThrows(IllegalArgumentException.class,
+				() -> TreeMoves.moveSubtree(entityManager, Node.class, "moved_nodes", a, a11));
+			assertThrows(IllegalArgumentException.class,
+				() -> TreeMoves.moveSubtree(entityManager, Node.class, "moved_nodes", a, a));
+			assertEquals(ids.get("root"), a.getParent().getId());
+			assertEquals(1, a.getDepth());
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "a", 1, "a1", 2, "a11", 3, "a2", 2, "b", 1),
+				depths(entityManager, Node.class, "MovedNode"));
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeMoves#moveSubtreeByLevel(EntityManager, Class, Treeable,
+	 * Treeable)} with tree entities without a children collection, the node flag of the old parent
+	 * has to be computed with the count query
+	 */
+	@Test
+	void testMoveSubtreeByLevel()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeMovesTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			Map<String, UUID> ids = tree(entityManager, Item::new);
+
+			entityManager.getTransaction().begin();
+			Item a = entityManager.find(Item.class, ids.get("a"));
+			Item b = entityManager.find(Item.class, ids.get("b"));
+			assertEquals(3, TreeMoves.moveSubtreeByLevel(entityManager, Item.class, a, b));
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "b", 1, "a", 2, "a1", 3, "a2", 3, "a11", 4),
+				depths(entityManager, Item.class, "MovedItem"));
+			entityManager.clear();
+
+			// up two levels, the old parent keeps a child
+			entityManager.getTransaction().begin();
+			Item a1 = entityManager.find(Item.class, ids.get("a1"));
+			Item root = entityManager.find(Item.class, ids.get("root"));
+			assertEquals(1, TreeMoves.moveSubtreeByLevel(entityManager, Item.class, a1, root));
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "b", 1, "a", 2, "a1", 1, "a2", 3, "a11", 2),
+				depths(entityManager, Item.class, "MovedItem"));
+			assertTrue(entityManager.find(Item.class, ids.get("a")).isNode());
+			entityManager.clear();
+
+			// the last child of the old parent
+			entityManager.getTransaction().begin();
+			Item a2 = entityManager.find(Item.class, ids.get("a2"));
+			a1 = entityManager.find(Item.class, ids.get("a1"));
+			assertEquals(0, TreeMoves.moveSubtreeByLevel(entityManager, Item.class, a2, a1));
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "b", 1, "a", 2, "a1", 1, "a2", 2, "a11", 2),
+				depths(entityManager, Item.class, "MovedItem"));
+			assertFalse(entityManager.find(Item.class, ids.get("a")).isNode());
+			assertEquals(ids.get("a1"),
+				entityManager.find(Item.class, ids.get("a2")).getParent().getId());
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeMoves#moveSubtreeByLevel(EntityManager, Class, Treeable,
+	 * Treeable)} into its own subtree
+	 */
+	@Test
+	void testMoveSubtreeByLevelIntoItself()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeMovesTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			Map<String, UUID> ids = tree(entityManager, Item::new);
+
+			entityManager.getTransaction().begin();
+			Item a = entityManager.find(Item.class, ids.get("a"));
+			Item a11 = entityManager.find(Item.class, ids.get("a11"));
+			assertThrows(IllegalArgumentException.class,
+				() -> TreeMoves.moveSubtreeByLevel(entityManager, Item.class, a, a11));
+			assertEquals(1, a.getDepth());
+			entityManager.getTransaction().commit();
+			assertEquals(
+				Map.of("root", 0, "a", 1, "a1", 2, "a11", 3, "a2", 2, "b", 1),
+				depths(entityManager, Item.class, "MovedItem"));
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * The tree entity of the test with a children collection
+	 */
+	@Entity(name = "MovedNode")
+	@Table(name = "moved_nodes")
+	public static class Node extends TreeWithChildrenUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+	/**
+	 * The tree entity of the test without a children collection and with the lazy parent
+	 */
+	@Entity(name = "MovedItem")
+	@Table(name = "moved_items")
+	public static class Item extends LazyTreeUUIDEntity<String, Item>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
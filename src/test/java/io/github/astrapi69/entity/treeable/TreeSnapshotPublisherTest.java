@@ -0,0 +1,144 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.treeable.TreeSnapshotTest.Node;
+
+/**
+ * The unit test class for the class {@link TreeSnapshotPublisher}
+ */
+class TreeSnapshotPublisherTest
+{
+
+	/**
+	 * Test method for {@link TreeSnapshotPublisher#add(TreeWithChildren)},
+	 * {@link TreeSnapshotPublisher#updateValue(TreeWithChildren)} and
+	 * {@link TreeSnapshotPublisher#remove(TreeWithChildren)} on a publisher of a subtree
+	 */
+	@Test
+	void testAddUpdateValueRemove()
+	{
+		Node root = TreeSnapshotTest.node("root", null);
+		Node a = TreeSnapshotTest.node("a", root);
+		TreeSnapshotPublisher<String> publisher = TreeSnapshotPublisher.of(a);
+		TreeSnapshot<String> initial = publisher.get();
+
+		Node a1 = TreeSnapshotTest.node("a1", a);
+		Node a11 = TreeSnapshotTest.node("a11", a1);
+		TreeSnapshot<String> added = publisher.add(a1);
+		assertSame(added, publisher.get());
+		assertEquals(3, added.size());
+		assertEquals("a11", added.find(List.of(a.getId(), a1.getId(), a11.getId())).getValue());
+		assertEquals(1, initial.size());
+
+		a11.setValue("changed");
+		TreeSnapshot<String> updated = publisher.updateValue(a11);
+		assertEquals("changed",
+			updated.find(List.of(a.getId(), a1.getId(), a11.getId())).getValue());
+		assertEquals("a11", added.find(List.of(a.getId(), a1.getId(), a11.getId())).getValue());
+
+		TreeSnapshot<String> removed = publisher.remove(a1);
+		assertEquals(1, removed.size());
+		assertNull(removed.getChild(a1.getId()));
+	}
+
+	/**
+	 * Test method for {@link TreeSnapshotPublisher#update(java.util.function.UnaryOperator)} from
+	 * concurrent writers, no change may be lost and the readers have to see only complete
+	 * snapshots
+	 *
+	 * @throws Exception
+	 *             if a thread fails
+	 */
+	@Test
+	void testUpdateConcurrent() throws Exception
+	{
+		UUID rootId = UUID.randomUUID();
+		List<UUID> path = List.of(rootId);
+		TreeSnapshotPublisher<Integer> publisher = new TreeSnapshotPublisher<>(
+			TreeSnapshot.leaf(rootId, 0));
+		int writers = 4;
+		int count = 2000;
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+		try
+		{
+			Future<Integer> reader = executor.submit(() -> {
+				int reads = 0;
+				while (!done.get())
+				{
+					TreeSnapshot<Integer> snapshot = publisher.get();
+					// the value of the root counts the added children of each snapshot
+					assertEquals(snapshot.getValue() + 1, snapshot.size());
+					reads++;
+				}
+				return reads;
+			});
+			List<Future<?>> futures = new ArrayList<>();
+			for (int w = 0; w < writers; w++)
+			{
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < count; i++)
+					{
+						TreeSnapshot<Integer> child = TreeSnapshot.leaf(UUID.randomUUID(), i);
+						publisher.update(root -> root.withChild(path, child)
+							.withValue(path, root.getValue() + 1));
+					}
+				}));
+			}
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+			done.set(true);
+			assertTrue(0 < reader.get());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		TreeSnapshot<Integer> snapshot = publisher.get();
+		assertNotNull(snapshot);
+		assertEquals(writers * count, snapshot.getValue());
+		assertEquals(writers * count + 1, snapshot.size());
+	}
+
+}
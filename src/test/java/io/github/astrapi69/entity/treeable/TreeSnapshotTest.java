@@ -0,0 +1,238 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link TreeSnapshot}
+ */
+class TreeSnapshotTest
+{
+
+	static Node node(String value, Node parent)
+	{
+		Node node = new Node();
+		node.setId(UUID.randomUUID());
+		node.setValue(value);
+		if (parent != null)
+		{
+			node.setParent(parent);
+			parent.addChild(node);
+		}
+		return node;
+	}
+
+	private static void assertSorted(TreeSnapshot<?> snapshot)
+	{
+		List<? extends TreeSnapshot<?>> children = snapshot.getChildren();
+		for (int i = 1; i < children.size(); i++)
+		{
+			assertTrue(children.get(i - 1).getId().compareTo(children.get(i).getId()) < 0,
+				"the children are not sorted by id");
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeSnapshot#of(TreeWithChildren)}
+	 */
+	@Test
+	void testOf()
+	{
+		Node root = node("root", null);
+		Node a = node("a", root);
+		Node b = node("b", root);
+		Node a1 = node("a1", a);
+		for (int i = 0; i < 100; i++)
+		{
+			node("c" + i, b);
+		}
+		TreeSnapshot<String> snapshot = TreeSnapshot.of(root);
+		assertEquals(root.getId(), snapshot.getId());
+		assertEquals(104, snapshot.size());
+		assertEquals(2, snapshot.getChildren().size());
+		assertEquals("a1", snapshot.find(List.of(root.getId(), a.getId(), a1.getId())).getValue());
+		assertEquals(101, snapshot.getChild(b.getId()).size());
+		assertSorted(snapshot.getChild(b.getId()));
+		for (Node child : b.getChildren())
+		{
+			assertEquals(child.getValue(), snapshot.getChild(b.getId()).getChild(child.getId())
+				.getValue());
+		}
+		assertNull(snapshot.getChild(UUID.randomUUID()));
+		assertNull(snapshot.find(List.of(a.getId())));
+	}
+
+	/**
+	 * Test method for {@link TreeSnapshot#withValue(List, Object)}, only the nodes on the path have
+	 * to be copied and all other subtrees have to be shared with the old snapshot
+	 */
+	@Test
+	void testWithValue()
+	{
+		Node root = node("root", null);
+		Node a = node("a", root);
+		Node b = node("b", root);
+		Node a1 = node("a1", a);
+		Node a2 = node("a2", a);
+		TreeSnapshot<String> snapshot = TreeSnapshot.of(root);
+		List<UUID> path = snapshot.pathOf(a1);
+
+		TreeSnapshot<String> changed = snapshot.withValue(path, "changed");
+		assertEquals("changed", changed.find(path).getValue());
+		assertEquals("a1", snapshot.find(path).getValue());
+		assertNotSame(snapshot, changed);
+		assertNotSame(snapshot.getChild(a.getId()), changed.getChild(a.getId()));
+		assertSame(snapshot.getChild(b.getId()), changed.getChild(b.getId()));
+		assertSame(snapshot.getChild(a.getId()).getChild(a2.getId()),
+			changed.getChild(a.getId()).getChild(a2.getId()));
+		assertEquals(snapshot.size(), changed.size());
+
+		assertThrows(IllegalArgumentException.class,
+			() -> snapshot.withValue(List.of(root.getId(), UUID.randomUUID()), "missing"));
+		assertThrows(IllegalArgumentException.class,
+			() -> snapshot.withValue(List.of(a.getId()), "not from the root"));
+	}
+
+	/**
+	 * Test method for {@link TreeSnapshot#withChild(List, TreeSnapshot)}, the children have to stay
+	 * sorted by id and a child with the same id has to be replaced
+	 */
+	@Test
+	void testWithChild()
+	{
+		Node root = node("root", null);
+		TreeSnapshot<String> snapshot = TreeSnapshot.of(root);
+		List<UUID> path = List.of(root.getId());
+		UUID[] ids = new UUID[1000];
+		for (int i = 0; i < ids.length; i++)
+		{
+			ids[i] = UUID.randomUUID();
+			snapshot = snapshot.withChild(path, TreeSnapshot.leaf(ids[i], "child" + i));
+		}
+		assertEquals(1001, snapshot.size());
+		assertSorted(snapshot);
+		for (int i = 0; i < ids.length; i++)
+		{
+			assertEquals("child" + i, snapshot.getChild(ids[i]).getValue());
+		}
+
+		TreeSnapshot<String> replaced = snapshot.withChild(path,
+			TreeSnapshot.leaf(ids[500], "replaced"));
+		assertEquals(1001, replaced.size());
+		assertEquals("replaced", replaced.getChild(ids[500]).getValue());
+		assertEquals("child500", snapshot.getChild(ids[500]).getValue());
+		assertSame(snapshot.getChild(ids[499]), replaced.getChild(ids[499]));
+	}
+
+	/**
+	 * Test method for {@link TreeSnapshot#without(List)}
+	 */
+	@Test
+	void testWithout()
+	{
+		Node root = node("root", null);
+		Node a = node("a", root);
+		Node b = node("b", root);
+		node("a1", a);
+		TreeSnapshot<String> snapshot = TreeSnapshot.of(root);
+
+		TreeSnapshot<String> removed = snapshot.without(snapshot.pathOf(a));
+		assertEquals(2, removed.size());
+		assertNull(removed.getChild(a.getId()));
+		assertSame(snapshot.getChild(b.getId()), removed.getChild(b.getId()));
+		assertEquals(4, snapshot.size());
+		assertThrows(IllegalArgumentException.class, () -> snapshot.without(List.of(root.getId())));
+	}
+
+	/**
+	 * Test method for {@link TreeSnapshot#change(List, java.util.function.UnaryOperator)} with a
+	 * function that returns a node with another id, the node has to be sorted in at its new
+	 * position
+	 */
+	@Test
+	void testChangeWithNewId()
+	{
+		Node root = node("root", null);
+		for (int i = 0; i < 10; i++)
+		{
+			node("child" + i, root);
+		}
+		Node first = root.getChildren().iterator().next();
+		TreeSnapshot<String> snapshot = TreeSnapshot.of(root);
+		UUID newId = UUID.randomUUID();
+
+		TreeSnapshot<String> changed = snapshot.change(snapshot.pathOf(first),
+			node -> TreeSnapshot.leaf(newId, node.getValue()));
+		assertEquals(11, changed.size());
+		assertNull(changed.getChild(first.getId()));
+		assertEquals(first.getValue(), changed.getChild(newId).getValue());
+		assertSorted(changed);
+	}
+
+	/**
+	 * Test method for {@link TreeSnapshot#pathOf(TreeWithChildren)} on a snapshot of a subtree
+	 */
+	@Test
+	void testPathOf()
+	{
+		Node root = node("root", null);
+		Node a = node("a", root);
+		Node b = node("b", root);
+		Node a1 = node("a1", a);
+		Node a11 = node("a11", a1);
+
+		assertEquals(List.of(root.getId(), a.getId(), a1.getId(), a11.getId()),
+			TreeSnapshot.of(root).pathOf(a11));
+		TreeSnapshot<String> subtree = TreeSnapshot.of(a);
+		List<UUID> path = subtree.pathOf(a11);
+		assertEquals(List.of(a.getId(), a1.getId(), a11.getId()), path);
+		assertEquals("a11", subtree.find(path).getValue());
+		assertEquals(List.of(a.getId()), subtree.pathOf(a));
+		assertThrows(IllegalArgumentException.class, () -> subtree.pathOf(b));
+		assertThrows(IllegalArgumentException.class, () -> subtree.pathOf(root));
+	}
+
+	/**
+	 * A tree entity for the tests
+	 */
+	static class Node extends TreeWithChildrenUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
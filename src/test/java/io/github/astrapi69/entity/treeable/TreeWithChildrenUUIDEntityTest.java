@@ -0,0 +1,277 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.treeable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.uniqueable.UUIDv7Generator;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceUtil;
+import jakarta.persistence.Table;
+
+/**
+ * The unit test class for the class {@link TreeWithChildrenUUIDEntity}
+ */
+class TreeWithChildrenUUIDEntityTest
+{
+
+	private static Node node(String value)
+	{
+		Node node = new Node();
+		node.setId(UUID.randomUUID());
+		node.setValue(value);
+		return node;
+	}
+
+	private static List<Node> children(int count)
+	{
+		List<Node> children = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			children.add(node("child" + i));
+		}
+		return children;
+	}
+
+	/**
+	 * Test method for {@link TreeWithChildrenUUIDEntity#addChild(TreeWithChildren)} with many
+	 * children and with duplicates
+	 */
+	@Test
+	void testAddChild()
+	{
+		Node parent = node("parent");
+		List<Node> children = children(50_000);
+		for (Node child : children)
+		{
+			parent.addChild(child);
+		}
+		for (Node child : children)
+		{
+			parent.addChild(child);
+			Node copy = new Node();
+			copy.setId(child.getId());
+			parent.addChild(copy);
+		}
+		assertEquals(50_000, parent.getChildren().size());
+		for (Node child : children)
+		{
+			assertTrue(parent.getChildren().contains(child));
+		}
+		assertFalse(parent.getChildren().contains(node("other")));
+		assertEquals(children, new ArrayList<>(parent.getChildren()));
+	}
+
+	/**
+	 * Test method for {@link TreeWithChildrenUUIDEntity#removeChild(TreeWithChildren)}
+	 */
+	@Test
+	void testRemoveChild()
+	{
+		Node parent = node("parent");
+		List<Node> children = children(50_000);
+		children.forEach(parent::addChild);
+		List<Node> kept = new ArrayList<>();
+		for (int i = 0; i < children.size(); i++)
+		{
+			if (i % 2 == 0)
+			{
+				parent.removeChild(children.get(i));
+			}
+			else
+			{
+				kept.add(children.get(i));
+			}
+		}
+		parent.removeChild(node("other"));
+		assertEquals(25_000, parent.getChildren().size());
+		assertFalse(parent.getChildren().contains(children.get(0)));
+		assertTrue(parent.getChildren().contains(children.get(1)));
+		assertEquals(kept, new ArrayList<>(parent.getChildren()));
+	}
+
+	/**
+	 * Test method for {@link TreeWithChildrenUUIDEntity#setChildren(java.util.Collection)}
+	 */
+	@Test
+	void testSetChildren()
+	{
+		Node parent = node("parent");
+		List<Node> children = children(3);
+		List<Node> withDuplicates = new ArrayList<>(children);
+		withDuplicates.add(children.get(0));
+		parent.setChildren(withDuplicates);
+		assertEquals(children, new ArrayList<>(parent.getChildren()));
+
+		Set<Node> set = new LinkedHashSet<>(children);
+		parent.setChildren(set);
+		assertSame(set, parent.getChildren());
+
+		parent.setChildren(null);
+		assertTrue(parent.getChildren().isEmpty());
+	}
+
+	/**
+	 * Test method for {@link TreeWithChildrenUUIDEntity#getChildren()} with children that are
+	 * loaded from the database, they are ordered by the id and not by the insertion order
+	 */
+	@Test
+	void testGetChildrenLoaded()
+	{
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			ids.add(UUIDv7Generator.next());
+		}
+		List<UUID> shuffled = new ArrayList<>(ids);
+		Collections.shuffle(shuffled, new Random(7));
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeWithChildrenUUIDEntityTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Node parent = node("parent");
+			entityManager.persist(parent);
+			for (UUID id : shuffled)
+			{
+				Node child = new Node();
+				child.setId(id);
+				child.setValue(id.toString());
+				child.setParent(parent);
+				child.setDepth(1);
+				parent.addChild(child);
+				entityManager.persist(child);
+			}
+			entityManager.getTransaction().commit();
+			entityManager.clear();
+
+			Node loaded = entityManager.find(Node.class, parent.getId());
+			List<UUID> loadedIds = new ArrayList<>();
+			for (Node child : loaded.getChildren())
+			{
+				assertSame(loaded, child.getParent());
+				loadedIds.add(child.getId());
+			}
+			assertEquals(ids, loadedIds);
+
+			Iterator<Node> iterator = loaded.getChildren().iterator();
+			Node first = iterator.next();
+			Node copy = new Node();
+			copy.setId(first.getId());
+			assertTrue(loaded.getChildren().contains(copy));
+			loaded.removeChild(copy);
+			assertEquals(99, loaded.getChildren().size());
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for {@link TreeWithChildrenUUIDEntity#toString()}, the parent is written as its
+	 * id, the children as their count and the value is cut
+	 */
+	@Test
+	void testToString()
+	{
+		Node parent = node("parent");
+		Node node = node("x".repeat(100));
+		node.setParent(parent);
+		node.setDepth(1);
+		children(3).forEach(node::addChild);
+		assertEquals("Node: id=" + node.getId() + ", depth=1, node=false, parent="
+			+ parent.getId() + ", children=3, value=" + "x".repeat(64) + "...", node.toString());
+
+		node.setChildren(null);
+		assertTrue(node.toString().contains(", children=0, "));
+	}
+
+	/**
+	 * Test method for {@link TreeWithChildrenUUIDEntity#toString()} with a loaded tree entity, the
+	 * lazy children must not be initialized
+	 */
+	@Test
+	void testToStringLoaded()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("TreeWithChildrenUUIDEntityTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Node parent = node("parent");
+			entityManager.persist(parent);
+			Node child = node("child");
+			child.setParent(parent);
+			child.setDepth(1);
+			entityManager.persist(child);
+			entityManager.getTransaction().commit();
+			entityManager.clear();
+
+			Node loaded = entityManager.find(Node.class, parent.getId());
+			PersistenceUtil persistenceUtil = Persistence.getPersistenceUtil();
+			assertFalse(persistenceUtil.isLoaded(loaded.getChildren()));
+			assertFalse(loaded.toString().contains("children="));
+			assertFalse(persistenceUtil.isLoaded(loaded.getChildren()));
+
+			assertEquals(1, loaded.getChildren().size());
+			assertTrue(loaded.toString().contains(", children=1, "));
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * The tree entity of the test
+	 */
+	@Entity(name = "TreeWithChildrenNode")
+	@Table(name = "tree_with_children_nodes")
+	public static class Node extends TreeWithChildrenUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
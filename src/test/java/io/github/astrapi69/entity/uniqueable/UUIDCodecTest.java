@@ -0,0 +1,160 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link UUIDCodec}
+ */
+class UUIDCodecTest
+{
+
+	private static List<UUID> uuids()
+	{
+		Random random = new Random(4);
+		List<UUID> uuids = new ArrayList<>();
+		uuids.add(new UUID(0, 0));
+		uuids.add(new UUID(-1, -1));
+		uuids.add(new UUID(Long.MIN_VALUE, Long.MAX_VALUE));
+		uuids.add(UUIDv7Generator.next());
+		for (int i = 0; i < 1000; i++)
+		{
+			uuids.add(new UUID(random.nextLong(), random.nextLong()));
+		}
+		return uuids;
+	}
+
+	/**
+	 * Test method for {@link UUIDCodec#toBytes(UUID)} and {@link UUIDCodec#fromBytes(byte[])}
+	 */
+	@Test
+	void testToBytes()
+	{
+		for (UUID uuid : uuids())
+		{
+			byte[] bytes = UUIDCodec.toBytes(uuid);
+			byte[] expected = ByteBuffer.allocate(UUIDCodec.BYTES)
+				.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits())
+				.array();
+			assertArrayEquals(expected, bytes);
+			assertEquals(uuid, UUIDCodec.fromBytes(bytes));
+		}
+	}
+
+	/**
+	 * Test method for {@link UUIDCodec#writeBytes(UUID, byte[], int)} and
+	 * {@link UUIDCodec#fromBytes(byte[], int)} with an offset
+	 */
+	@Test
+	void testWriteBytes()
+	{
+		List<UUID> uuids = uuids();
+		byte[] bytes = new byte[3 + uuids.size() * UUIDCodec.BYTES];
+		for (int i = 0; i < uuids.size(); i++)
+		{
+			UUIDCodec.writeBytes(uuids.get(i), bytes, 3 + i * UUIDCodec.BYTES);
+		}
+		for (int i = 0; i < uuids.size(); i++)
+		{
+			assertEquals(uuids.get(i), UUIDCodec.fromBytes(bytes, 3 + i * UUIDCodec.BYTES));
+		}
+	}
+
+	/**
+	 * Test method for {@link UUIDCodec#fromBytes(byte[])} with a wrong length
+	 */
+	@Test
+	void testFromBytesWithWrongLength()
+	{
+		assertThrows(IllegalArgumentException.class, () -> UUIDCodec.fromBytes(new byte[15]));
+		assertThrows(IllegalArgumentException.class, () -> UUIDCodec.fromBytes(new byte[17]));
+		assertThrows(ArrayIndexOutOfBoundsException.class,
+			() -> UUIDCodec.fromBytes(new byte[20], 5));
+	}
+
+	/**
+	 * Test method for {@link UUIDCodec#toString(UUID)} and
+	 * {@link UUIDCodec#appendTo(UUID, StringBuilder)}
+	 */
+	@Test
+	void testToString()
+	{
+		StringBuilder sb = new StringBuilder("uuid=");
+		for (UUID uuid : uuids())
+		{
+			assertEquals(uuid.toString(), UUIDCodec.toString(uuid));
+			sb.setLength(5);
+			assertSame(sb, UUIDCodec.appendTo(uuid, sb));
+			assertEquals("uuid=" + uuid, sb.toString());
+		}
+	}
+
+	/**
+	 * Test method for {@link UUIDCodec#parse(CharSequence)}
+	 */
+	@Test
+	void testParse()
+	{
+		for (UUID uuid : uuids())
+		{
+			String text = uuid.toString();
+			assertEquals(uuid, UUIDCodec.parse(text));
+			assertEquals(uuid, UUIDCodec.parse(text.toUpperCase()));
+			assertEquals(uuid, UUIDCodec.parse(new StringBuilder(text)));
+			assertEquals(UUID.fromString(text), UUIDCodec.parse(text));
+		}
+	}
+
+	/**
+	 * Test method for {@link UUIDCodec#parse(CharSequence)} with malformed texts
+	 */
+	@Test
+	void testParseMalformed()
+	{
+		String valid = "123e4567-e89b-12d3-a456-426614174000";
+		List<String> malformed = List.of("", valid.substring(1), valid + "0",
+			"123e4567e89b-12d3-a456-4266141740000", "123e4567-e89b-12d3-a456_426614174000",
+			"123e4567-e89b-12d3-a456-42661417400g", "-23e4567-e89b-12d3-a456-426614174000",
+			"+23e4567-e89b-12d3-a456-426614174000", "123e4567-e89b-12d3-a456-42661417400\u0660",
+			"123e4567-e89b-12d3-a456-42661417400\uff10", " 23e4567-e89b-12d3-a456-426614174000");
+		for (String text : malformed)
+		{
+			assertThrows(IllegalArgumentException.class, () -> UUIDCodec.parse(text), text);
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.treeable.TreeUUIDEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.Table;
+
+/**
+ * The unit test class for the class {@link UUIDEntity}
+ */
+class UUIDEntityTest
+{
+
+	/**
+	 * Test method for {@link UUIDEntity#newId()} with random ids of version 4
+	 */
+	@Test
+	void testNewId()
+	{
+		Attribute attribute = new Attribute();
+		assertNull(attribute.getId());
+		attribute.prePersist();
+		assertNotNull(attribute.getId());
+		assertEquals(4, attribute.getId().version());
+	}
+
+	/**
+	 * Test method for {@link UUIDEntity#newId()} with an id that is set before persist
+	 */
+	@Test
+	void testNewIdWithPresetId()
+	{
+		UUID id = UUID.randomUUID();
+		Attribute attribute = new Attribute();
+		attribute.setId(id);
+		attribute.prePersist();
+		assertSame(id, attribute.getId());
+	}
+
+	/**
+	 * Test method for {@link TimeOrderedUUIDEntity#newId()}
+	 */
+	@Test
+	void testNewIdOfTimeOrderedUUIDEntity()
+	{
+		TimeOrderedAttribute first = new TimeOrderedAttribute();
+		TimeOrderedAttribute second = new TimeOrderedAttribute();
+		first.prePersist();
+		second.prePersist();
+		assertEquals(7, first.getId().version());
+		assertTrue(UUIDv7Generator.getTimestamp(first.getId()) <= UUIDv7Generator
+			.getTimestamp(second.getId()));
+	}
+
+	/**
+	 * Test method for {@link UUIDEntity#newId()} that is overridden by a subclass of the
+	 * {@link UUIDEntity} hierarchy that can not extend {@link TimeOrderedUUIDEntity}
+	 */
+	@Test
+	void testNewIdOverriddenByTreeEntity()
+	{
+		Node root = new Node();
+		Node child = new Node();
+		child.setParent(root);
+		root.prePersist();
+		child.prePersist();
+		assertEquals(7, root.getId().version());
+		assertEquals(7, child.getId().version());
+	}
+
+	/**
+	 * Test method for {@link UUIDEntity} with the id stored as 16 raw bytes, that is configured in
+	 * the persistence unit
+	 */
+	@Test
+	void testIdStoredAsBinary()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("UUIDEntityTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			BinaryIdAttribute attribute = new BinaryIdAttribute();
+			entityManager.persist(attribute);
+			entityManager.getTransaction().commit();
+			entityManager.clear();
+			assertEquals(attribute, entityManager.find(BinaryIdAttribute.class, attribute.getId()));
+
+			Object[] column = (Object[])entityManager
+				.createNativeQuery("SELECT DATA_TYPE, CHARACTER_OCTET_LENGTH"
+					+ " FROM INFORMATION_SCHEMA.COLUMNS"
+					+ " WHERE TABLE_NAME = 'BINARY_ID_ATTRIBUTES' AND COLUMN_NAME = 'ID'")
+				.getSingleResult();
+			assertTrue(column[0].toString().startsWith("BINARY"), column[0].toString());
+			assertEquals(UUIDCodec.BYTES, ((Number)column[1]).intValue());
+
+			byte[] stored = (byte[])entityManager
+				.createNativeQuery("SELECT id FROM binary_id_attributes").getSingleResult();
+			assertEquals(attribute.getId(), UUIDCodec.fromBytes(stored));
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * An entity with random ids
+	 */
+	static class Attribute extends UUIDEntity
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		void prePersist()
+		{
+			assignId();
+		}
+
+	}
+
+	/**
+	 * An entity with time-ordered ids
+	 */
+	static class TimeOrderedAttribute extends TimeOrderedUUIDEntity
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		void prePersist()
+		{
+			assignId();
+		}
+
+	}
+
+	/**
+	 * An entity with an id that is stored as 16 raw bytes
+	 */
+	@Entity(name = "BinaryIdAttribute")
+	@Table(name = "binary_id_attributes")
+	public static class BinaryIdAttribute extends UUIDEntity
+	{
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+	/**
+	 * A tree entity that opts in to time-ordered ids
+	 */
+	static class Node extends TreeUUIDEntity<String, Node>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected UUID newId()
+		{
+			return UUIDv7Generator.next();
+		}
+
+		void prePersist()
+		{
+			assignId();
+		}
+
+	}
+
+}
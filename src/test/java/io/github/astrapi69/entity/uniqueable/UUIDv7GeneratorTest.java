@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.uniqueable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link UUIDv7Generator}
+ */
+class UUIDv7GeneratorTest
+{
+
+	/**
+	 * Test method for {@link UUIDv7Generator#next()} and
+	 * {@link UUIDv7Generator#getTimestamp(UUID)}
+	 */
+	@Test
+	void testNext()
+	{
+		long before = System.currentTimeMillis();
+		UUID uuid = UUIDv7Generator.next();
+		long after = System.currentTimeMillis();
+		assertEquals(7, uuid.version());
+		assertEquals(2, uuid.variant());
+		long timestamp = UUIDv7Generator.getTimestamp(uuid);
+		// the timestamp runs ahead of the clock after bursts of more than 4096 uuids in one
+		// millisecond, for instance by the other tests
+		assertTrue(before <= timestamp && timestamp < after + 1000,
+			"unexpected timestamp " + timestamp);
+	}
+
+	/**
+	 * Test method for {@link UUIDv7Generator#next()} in a burst, the uuids have to be in strictly
+	 * increasing order of their bytes
+	 */
+	@Test
+	void testNextIsMonotonic()
+	{
+		UUID previous = UUIDv7Generator.next();
+		for (int i = 0; i < 100_000; i++)
+		{
+			UUID next = UUIDv7Generator.next();
+			assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(),
+				next.getMostSignificantBits()) < 0, previous + " is not before " + next);
+			previous = next;
+		}
+	}
+
+	/**
+	 * Test method for {@link UUIDv7Generator#next()} from concurrent threads
+	 */
+	@Test
+	void testNextIsUniqueAcrossThreads() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<List<UUID>>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++)
+			{
+				futures.add(executor.submit(() -> {
+					List<UUID> uuids = new ArrayList<>();
+					for (int i = 0; i < 25_000; i++)
+					{
+						uuids.add(UUIDv7Generator.next());
+					}
+					return uuids;
+				}));
+			}
+			Set<Long> mostSigBits = new HashSet<>();
+			for (Future<List<UUID>> future : futures)
+			{
+				for (UUID uuid : future.get())
+				{
+					assertTrue(mostSigBits.add(uuid.getMostSignificantBits()),
+						"duplicate time and counter of " + uuid);
+				}
+			}
+			assertEquals(100_000, mostSigBits.size());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link UUIDv7Generator#getTimestamp(UUID)} with an uuid of another version
+	 */
+	@Test
+	void testGetTimestampOfRandomUuid()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> UUIDv7Generator.getTimestamp(UUID.randomUUID()));
+	}
+
+}
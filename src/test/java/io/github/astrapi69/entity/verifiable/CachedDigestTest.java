@@ -0,0 +1,96 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.codec.ValueWriter;
+
+/**
+ * The unit test class for the class {@link CachedDigest}
+ */
+class CachedDigestTest
+{
+
+	/** The signed field of the tests */
+	private String name = "first";
+
+	private final Consumer<ValueWriter> signedFields = writer -> writer.writeString(name);
+
+	/**
+	 * Test method for {@link CachedDigest#get(Consumer)}
+	 */
+	@Test
+	void testGet()
+	{
+		CachedDigest cachedDigest = new CachedDigest();
+		assertFalse(cachedDigest.isCached());
+		byte[] digest = cachedDigest.get(signedFields);
+		assertTrue(cachedDigest.isCached());
+		assertArrayEquals(CanonicalEncoding.digest(signedFields), digest);
+		assertSame(digest, cachedDigest.get(signedFields));
+	}
+
+	/**
+	 * Test method for {@link CachedDigest#get(Consumer)} after a change of a signed field, the
+	 * digest is cached until it is invalidated
+	 */
+	@Test
+	void testGetAfterChange()
+	{
+		CachedDigest cachedDigest = new CachedDigest();
+		byte[] first = cachedDigest.get(signedFields);
+		name = "second";
+		assertSame(first, cachedDigest.get(signedFields));
+		cachedDigest.invalidate();
+		byte[] second = cachedDigest.get(signedFields);
+		assertFalse(Arrays.equals(first, second));
+		assertArrayEquals(CanonicalEncoding.digest(signedFields), second);
+		assertTrue(cachedDigest.matches(second, signedFields));
+		assertFalse(cachedDigest.matches(first, signedFields));
+	}
+
+	/**
+	 * Test method for {@link CachedDigest#invalidate()}
+	 */
+	@Test
+	void testInvalidate()
+	{
+		CachedDigest cachedDigest = new CachedDigest();
+		byte[] digest = cachedDigest.get(signedFields);
+		cachedDigest.invalidate();
+		assertFalse(cachedDigest.isCached());
+		assertArrayEquals(digest, cachedDigest.get(signedFields));
+	}
+
+}
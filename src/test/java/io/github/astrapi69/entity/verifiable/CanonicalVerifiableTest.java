@@ -0,0 +1,124 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.codec.ValueWriter;
+
+/**
+ * The unit test class for the interface {@link CanonicalVerifiable}
+ */
+class CanonicalVerifiableTest
+{
+
+	private static Document document(UUID id, String name)
+	{
+		Document document = new Document();
+		document.setId(id);
+		document.setName(name);
+		return document;
+	}
+
+	/**
+	 * Test method for {@link CanonicalVerifiable#getDigest()} and
+	 * {@link CanonicalVerifiable#isDigestEqual(byte[])}
+	 */
+	@Test
+	void testGetDigest()
+	{
+		UUID id = UUID.randomUUID();
+		Document document = document(id, "contract");
+		byte[] digest = document.getDigest();
+		assertArrayEquals(CanonicalEncoding.digest(document::writeSignedFields), digest);
+		assertTrue(document.isDigestEqual(digest));
+		assertTrue(document(id, "contract").isDigestEqual(digest));
+		assertFalse(document(id, "forged").isDigestEqual(digest));
+		assertFalse(document(UUID.randomUUID(), "contract").isDigestEqual(digest));
+	}
+
+	/**
+	 * Test method for {@link CanonicalVerifiable#invalidateDigest()} by the setter of a signed
+	 * field
+	 */
+	@Test
+	void testInvalidateDigest()
+	{
+		Document document = document(UUID.randomUUID(), "contract");
+		byte[] digest = document.getDigest();
+		assertTrue(document.getCachedDigest().isCached());
+		document.setName("forged");
+		assertFalse(document.getCachedDigest().isCached());
+		assertFalse(document.isDigestEqual(digest));
+		document.setName("contract");
+		assertTrue(document.isDigestEqual(digest));
+	}
+
+	/**
+	 * Test method for {@link CanonicalVerifiable#invalidateDigest()} by the life cycle callback
+	 * after the persistence provider set a signed field without the setter
+	 */
+	@Test
+	void testInvalidateDigestOnLifecycle()
+	{
+		Document document = document(UUID.randomUUID(), "contract");
+		byte[] digest = document.getDigest();
+		document.name = "refreshed";
+		document.invalidateDigestOnLifecycle();
+		assertFalse(document.isDigestEqual(digest));
+	}
+
+	/**
+	 * A verifiable entity with the signed fields id and name
+	 */
+	static class Document extends VerifiableUUIDEntity
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		String name;
+
+		@Override
+		public void writeSignedFields(ValueWriter writer)
+		{
+			writer.writeFixedLong(getId().getMostSignificantBits())
+				.writeFixedLong(getId().getLeastSignificantBits()).writeString(name);
+		}
+
+		void setName(String name)
+		{
+			this.name = name;
+			invalidateDigest();
+		}
+
+	}
+
+}
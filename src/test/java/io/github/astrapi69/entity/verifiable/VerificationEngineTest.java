@@ -0,0 +1,330 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.entity.verifiable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.entity.codec.ValueWriter;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.Table;
+
+/**
+ * The unit test class for the class {@link VerificationEngine}
+ */
+class VerificationEngineTest
+{
+
+	/** The verifier of the tests that decides by the prefix of the name */
+	private static final SignatureVerifier<Document> VERIFIER = document -> {
+		if (document.getName().startsWith("fail"))
+		{
+			throw new IllegalStateException("key not available");
+		}
+		return document.getName().startsWith("ok");
+	};
+
+	private static Document document(String name, VerificationState state)
+	{
+		Document document = new Document();
+		document.setId(UUID.randomUUID());
+		document.setName(name);
+		document.setState(state);
+		return document;
+	}
+
+	private static List<Document> documents(int count)
+	{
+		List<Document> documents = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			documents.add(document((i % 3 == 0 ? "bad" : "ok") + i, null));
+		}
+		return documents;
+	}
+
+	/**
+	 * Test method for {@link VerificationEngine#verify(List)}, the chunk has to be split in slices
+	 * of which the first one is verified by the calling thread and the results have to be in the
+	 * order of the verifiable objects
+	 */
+	@Test
+	void testVerify()
+	{
+		AtomicInteger tasks = new AtomicInteger();
+		VerificationEngine<Document> engine = new VerificationEngine<>(VERIFIER, task -> {
+			tasks.incrementAndGet();
+			task.run();
+		}, 4, 100);
+		List<Document> documents = documents(9);
+		documents.add(document("fail", null));
+
+		List<VerificationResult<Document>> results = engine.verify(documents);
+		// 10 objects in 4 slices of at most 3 objects, the calling thread verifies the first one
+		assertEquals(3, tasks.get());
+		assertEquals(10, results.size());
+		for (int i = 0; i < 9; i++)
+		{
+			assertSame(documents.get(i), results.get(i).getVerifiable());
+			assertEquals(i % 3 == 0 ? VerificationState.BROKEN : VerificationState.VERIFIED,
+				results.get(i).getState());
+		}
+		assertTrue(results.get(9).isFailed());
+		assertNull(results.get(9).getState());
+		assertEquals(6, engine.getVerifiedCount());
+		assertEquals(3, engine.getBrokenCount());
+		assertEquals(1, engine.getFailedCount());
+		assertEquals(1, engine.getChunkCount());
+
+		tasks.set(0);
+		assertEquals(1, engine.verify(documents.subList(0, 1)).size());
+		assertEquals(0, tasks.get());
+		assertTrue(engine.verify(List.of()).isEmpty());
+	}
+
+	/**
+	 * Test method for {@link VerificationEngine#verify(Stream, Consumer)} with a thread pool, the
+	 * writer has to get the results chunk by chunk
+	 */
+	@Test
+	void testVerifyStream()
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			VerificationEngine<Document> engine = new VerificationEngine<>(VERIFIER, executor, 4,
+				10);
+			List<Document> documents = documents(25);
+			List<Integer> chunkSizes = new ArrayList<>();
+			List<Document> written = new ArrayList<>();
+			long count = engine.verify(documents.stream(), results -> {
+				chunkSizes.add(results.size());
+				results.forEach(result -> written.add(result.getVerifiable()));
+			});
+			assertEquals(25, count);
+			assertEquals(List.of(10, 10, 5), chunkSizes);
+			assertEquals(documents, written);
+			assertEquals(3, engine.getChunkCount());
+			assertEquals(16, engine.getVerifiedCount());
+			assertEquals(9, engine.getBrokenCount());
+			assertTrue(0 < engine.getElapsedNanos());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test method for the constructor of {@link VerificationEngine} with an invalid parallelism and
+	 * chunk size
+	 */
+	@Test
+	void testConstructorWithInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> new VerificationEngine<>(VERIFIER, Runnable::run, 0, 10));
+		assertThrows(IllegalArgumentException.class,
+			() -> new VerificationEngine<>(VERIFIER, Runnable::run, 1, 0));
+	}
+
+	/**
+	 * Test method for {@link VerificationEngine#stateWriter(EntityManager, Class, String)},
+	 * {@link VerificationEngine#processableWriter(EntityManager, Class)} and
+	 * {@link VerificationEngine#detachWriter(EntityManager)} on a stream of a query, the states of
+	 * an investigation must not be overwritten
+	 */
+	@Test
+	void testWriters()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("VerificationEngineTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			entityManager.getTransaction().begin();
+			Map<UUID, VerificationState> expected = new HashMap<>();
+			VerificationState[] states = { null, VerificationState.VERIFIED,
+					VerificationState.BROKEN, VerificationState.EVALUATE,
+					VerificationState.RESET };
+			for (int i = 0; i < 50; i++)
+			{
+				VerificationState state = states[i % states.length];
+				boolean ok = i % 2 == 0;
+				Document document = document((ok ? "ok" : "bad") + i, state);
+				entityManager.persist(document);
+				expected.put(document.getId(),
+					state == VerificationState.EVALUATE || state == VerificationState.RESET
+						? state
+						: ok ? VerificationState.VERIFIED : VerificationState.BROKEN);
+			}
+			entityManager.getTransaction().commit();
+			entityManager.clear();
+
+			entityManager.getTransaction().begin();
+			VerificationEngine<Document> engine = new VerificationEngine<>(VERIFIER, Runnable::run,
+				2, 7);
+			List<Document> verified = new ArrayList<>();
+			Consumer<List<VerificationResult<Document>>> writer = VerificationEngine
+				.stateWriter(entityManager, Document.class, "state")
+				.andThen(VerificationEngine.processableWriter(entityManager, Document.class))
+				.andThen(results -> results.forEach(result -> verified.add(result.getVerifiable())))
+				.andThen(VerificationEngine.detachWriter(entityManager));
+			try (Stream<Document> stream = entityManager
+				.createQuery("SELECT e FROM VerifiedDocument e", Document.class).getResultStream())
+			{
+				assertEquals(50, engine.verify(stream, writer));
+			}
+			entityManager.getTransaction().commit();
+			for (Document document : verified)
+			{
+				assertFalse(entityManager.contains(document));
+			}
+
+			for (Document document : entityManager
+				.createQuery("SELECT e FROM VerifiedDocument e", Document.class).getResultList())
+			{
+				assertEquals(expected.get(document.getId()), document.getState(),
+					document.getName());
+				assertEquals(document.getName().startsWith("ok"), document.isProcessable());
+			}
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link VerificationEngine#stateWriter(EntityManager, Class, String, java.util.Set)} with the
+	 * overwritable states as parameter and with attributes that are not a mapped verification
+	 * state
+	 */
+	@Test
+	void testStateWriterWithOverwritableStates()
+	{
+		EntityManagerFactory entityManagerFactory = Persistence
+			.createEntityManagerFactory("VerificationEngineTest");
+		try (EntityManager entityManager = entityManagerFactory.createEntityManager())
+		{
+			assertThrows(IllegalArgumentException.class,
+				() -> VerificationEngine.stateWriter(entityManager, Document.class, "name"));
+			assertThrows(IllegalArgumentException.class, () -> VerificationEngine
+				.stateWriter(entityManager, Document.class, "state = null, e.name"));
+
+			entityManager.getTransaction().begin();
+			Document reset = document("ok-reset", VerificationState.RESET);
+			Document evaluated = document("ok-evaluated", VerificationState.EVALUATE);
+			entityManager.persist(reset);
+			entityManager.persist(evaluated);
+			entityManager.getTransaction().commit();
+			entityManager.clear();
+
+			entityManager.getTransaction().begin();
+			VerificationEngine<Document> engine = new VerificationEngine<>(VERIFIER,
+				Runnable::run);
+			VerificationEngine.stateWriter(entityManager, Document.class, "state",
+				EnumSet.of(VerificationState.BROKEN, VerificationState.RESET))
+				.accept(engine.verify(List.of(reset, evaluated)));
+			entityManager.getTransaction().commit();
+			assertEquals(VerificationState.VERIFIED,
+				entityManager.find(Document.class, reset.getId()).getState());
+			assertEquals(VerificationState.EVALUATE,
+				entityManager.find(Document.class, evaluated.getId()).getState());
+		}
+		finally
+		{
+			entityManagerFactory.close();
+		}
+	}
+
+	/**
+	 * A verifiable entity with a verification state
+	 */
+	@Entity(name = "VerifiedDocument")
+	@Table(name = "verified_documents")
+	public static class Document extends VerifiableUUIDEntity
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		String name;
+
+		@Enumerated(EnumType.STRING)
+		VerificationState state;
+
+		@Override
+		public void writeSignedFields(ValueWriter writer)
+		{
+			writer.writeString(name);
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(String name)
+		{
+			this.name = name;
+			invalidateDigest();
+		}
+
+		public VerificationState getState()
+		{
+			return state;
+		}
+
+		public void setState(VerificationState state)
+		{
+			this.state = state;
+		}
+
+	}
+
+}